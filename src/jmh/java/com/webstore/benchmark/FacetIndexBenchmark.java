@@ -0,0 +1,78 @@
+package com.webstore.benchmark;
+
+import com.webstore.util.FacetIndex;
+import com.webstore.util.FacetIndex.ProductFacets;
+import com.webstore.util.FacetIndex.Query;
+import com.webstore.util.FacetIndex.Result;
+import com.webstore.util.FacetIndex.StockBucket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Latency of one faceted search (a 20-product page plus every facet count) over 1M products in
+ * 20 catalogues, 500 categories and 2,000 sellers. matchAll is the worst case, as every facet is
+ * counted over every product; each added filter shrinks the rows the counts have to visit.
+ * Run with: gradle jmh -Pjmh.includes=FacetIndex
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FacetIndexBenchmark {
+
+    private static final int PRODUCTS = 1_000_000;
+    private static final int CATALOGUES = 20;
+    private static final int CATEGORIES = 500;
+    private static final int SELLERS = 2_000;
+    private static final long[] PRICE_BOUNDARIES = {10_000, 50_000, 100_000, 500_000, 1_000_000};
+
+    private FacetIndex index;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<ProductFacets> products = new ArrayList<>(PRODUCTS);
+        for (int productId = 1; productId <= PRODUCTS; productId++) {
+            products.add(new ProductFacets(productId, random.nextInt(1, CATALOGUES + 1),
+                    random.nextInt(1, CATEGORIES + 1), random.nextInt(1, SELLERS + 1), random.nextInt(0, 300),
+                    random.nextLong(100, 2_000_000)));
+        }
+        index = new FacetIndex(PRICE_BOUNDARIES);
+        index.load(products);
+    }
+
+    @Benchmark
+    public Result matchAll() {
+        return index.search(new Query(null, null, null, null, null, null, 0, 20));
+    }
+
+    @Benchmark
+    public Result catalogue() {
+        return index.search(new Query(7, null, null, null, null, null, 0, 20));
+    }
+
+    @Benchmark
+    public Result catalogueStockAndPriceRange() {
+        return index.search(new Query(7, null, null, StockBucket.HIGH, 20_000L, 150_000L, 0, 20));
+    }
+
+    @Benchmark
+    public Result categoryAndSeller() {
+        return index.search(new Query(null, 42, 1_234, null, null, null, 0, 20));
+    }
+}
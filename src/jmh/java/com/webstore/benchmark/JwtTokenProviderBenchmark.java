@@ -0,0 +1,73 @@
+package com.webstore.benchmark;
+
+import com.webstore.util.JwtTokenProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Cost of JwtTokenProvider: issuing a token at login, verifying and parsing one claim, and the calls
+ * JwtAuthenticationFilter makes for every authenticated request (email, sellerId, userId and role, then
+ * validateToken, which parses twice more). Signed with a key of the length of the default jwt.secret.
+ * Run with: gradle jmh -Pjmh.includes=JwtTokenProvider
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET =
+            "benchmark-256-bit-secret-key-that-is-long-enough-for-hmac-sha-signing-of-json-web-tokens-only";
+    private static final String EMAIL = "seller@webstore.com";
+
+    private final JwtTokenProvider provider = new JwtTokenProvider();
+
+    private String sellerToken;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        // Stands in for the @Value injection of jwt.secret and jwt.expiration
+        set("secret", SECRET);
+        set("expiration", 86_400_000L);
+        sellerToken = provider.generateToken(42, EMAIL, "SELLER");
+    }
+
+    private void set(String fieldName, Object value) throws ReflectiveOperationException {
+        Field field = JwtTokenProvider.class.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(provider, value);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return provider.generateToken(42, EMAIL, "SELLER");
+    }
+
+    @Benchmark
+    public String getRoleFromToken() {
+        return provider.getRoleFromToken(sellerToken);
+    }
+
+    @Benchmark
+    public void filterRequest(Blackhole blackhole) {
+        String email = provider.getEmailFromToken(sellerToken);
+        blackhole.consume(provider.getSellerIdFromToken(sellerToken));
+        blackhole.consume(provider.getUserIdFromToken(sellerToken));
+        blackhole.consume(provider.getRoleFromToken(sellerToken));
+        blackhole.consume(provider.validateToken(sellerToken, email));
+    }
+}
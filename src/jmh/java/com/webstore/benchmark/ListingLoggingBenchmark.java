@@ -0,0 +1,127 @@
+package com.webstore.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * What logging costs a listing request: a page of 20 categories mapped with the per-row INFO lines
+ * CategoryServiceImplementation.mapToResponse used to log (three per category), against the single summary line
+ * RequestSummaryFilter now writes, each through a synchronous appender and through logback-spring.xml's async
+ * one. The appender writes Spring Boot's console pattern to a file, standing in for the console a container
+ * pipes to its log collector. The async appender moves the formatting and writing to its worker thread, so it
+ * only pays off with a spare core or a sink that blocks; on a single core the two are about even.
+ * Run with: gradle jmh -Pjmh.includes=ListingLogging
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListingLoggingBenchmark {
+
+    private static final String PATTERN =
+            "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p 1 --- [webstore] [%15.15t] %-40.40logger{39} : %m%n";
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"sync", "async"})
+    public String appender;
+
+    private LoggerContext context;
+    private Logger serviceLog;
+    private Logger requestLog;
+    private File file;
+    private final String[] names = new String[PAGE_SIZE];
+
+    @Setup
+    public void setUp() throws IOException {
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            names[i] = "Catalogue " + (i + 1);
+        }
+        file = Files.createTempFile("listing-logging-", ".log").toFile();
+        context = new LoggerContext();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setFile(file.getPath());
+        fileAppender.setAppend(false);
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+
+        Appender<ILoggingEvent> root = fileAppender;
+        if ("async".equals(appender)) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setNeverBlock(true);
+            async.setIncludeCallerData(false);
+            async.addAppender(fileAppender);
+            async.start();
+            root = async;
+        }
+        Logger rootLogger = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        rootLogger.setLevel(Level.INFO);
+        rootLogger.addAppender(root);
+        serviceLog = context.getLogger("com.webstore.implementation.CategoryServiceImplementation");
+        requestLog = context.getLogger("com.webstore.request");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+        file.delete();
+    }
+
+    @Benchmark
+    public int perRow() {
+        int catalogues = 0;
+        for (int categoryId = 1; categoryId <= PAGE_SIZE; categoryId++) {
+            serviceLog.info("Fetching catalogue information for categoryId: {}", categoryId);
+            serviceLog.info("Found {} catalogues via native query for category {}", 1, categoryId);
+            serviceLog.info(" Added catalogue ID: {}, Name: {}", categoryId, names[categoryId - 1]);
+            catalogues++;
+        }
+        return catalogues;
+    }
+
+    @Benchmark
+    public int summary() {
+        int catalogues = 0;
+        for (int categoryId = 1; categoryId <= PAGE_SIZE; categoryId++) {
+            serviceLog.debug("Fetching catalogue information for categoryId: {}", categoryId);
+            serviceLog.debug("Found {} catalogues via native query for category {}", 1, categoryId);
+            serviceLog.debug(" Added catalogue ID: {}, Name: {}", categoryId, names[categoryId - 1]);
+            catalogues++;
+        }
+        requestLog.info("endpoint=\"{}\" status={} durationMs={} sqlStatements={} jdbcMs={}",
+                "GET /api/categories", 200, "12.4", 3, "4.1");
+        return catalogues;
+    }
+}
@@ -0,0 +1,92 @@
+package com.webstore.benchmark;
+
+import com.webstore.util.MessageFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Cost of building the WhatsApp texts MessageFormatter produces: the product details and add-to-cart
+ * messages, and the truncation applied to every list row title and description.
+ * Names and descriptions mix lengths below and above the WhatsApp limits, so both truncation branches run.
+ * Run with: gradle jmh -Pjmh.includes=MessageFormatter (add -prof gc to the args for allocation rates)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MessageFormatterBenchmark {
+
+    private static final int ROWS = 1024;
+
+    private static final String[] NAMES = {
+            "Cotton Kurta",
+            "Hand Block Printed Cotton Kurta Set",
+            "Stainless Steel Water Bottle 1L",
+            "Organic Darjeeling Tea",
+    };
+    private static final String[] DESCRIPTIONS = {
+            "Soft cotton, machine washable",
+            "Hand block printed cotton kurta with matching pants and dupatta, size M, pack of 1, made in Jaipur",
+            null,
+    };
+
+    private final MessageFormatter formatter = new MessageFormatter();
+
+    private String[] names;
+    private String[] descriptions;
+    private String[] prices;
+    private int row;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        names = new String[ROWS];
+        descriptions = new String[ROWS];
+        prices = new String[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            names[i] = NAMES[random.nextInt(NAMES.length)];
+            descriptions[i] = DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)];
+            long amount = random.nextLong(100, 10_000_000);
+            prices[i] = "₹" + amount / 100 + "." + (amount % 100 < 10 ? "0" : "") + amount % 100;
+        }
+    }
+
+    private int next() {
+        row = (row + 1) & (ROWS - 1);
+        return row;
+    }
+
+    @Benchmark
+    public String formatProductDetails() {
+        int i = next();
+        return formatter.formatProductDetails(names[i], descriptions[i], "Ethnic Wear", prices[i]);
+    }
+
+    @Benchmark
+    public String formatAddToCartMessage() {
+        int i = next();
+        return formatter.formatAddToCartMessage(names[i], prices[i], "Ethnic Wear");
+    }
+
+    // The two truncations of one product list row
+    @Benchmark
+    public int truncateRow() {
+        int i = next();
+        String title = formatter.truncateRowTitle(names[i]);
+        String description = formatter.truncateRowDescription(descriptions[i]);
+        return title.length() + (description != null ? description.length() : 0);
+    }
+}
@@ -0,0 +1,87 @@
+package com.webstore.benchmark;
+
+import com.webstore.util.MoneyFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Cost of formatting one price row for display.
+ * The legacy benchmarks reproduce the code MoneyFormatter replaced: BigDecimal division by 100 followed by
+ * String.format (WhatsApp messages) or toPlainString (REST formattedPrice).
+ * Run with: gradle jmh -Pjmh.includes=MoneyFormatter (add -prof gc to the args for allocation rates)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoneyFormatterBenchmark {
+
+    private static final int ROWS = 1024;
+    private static final String SYMBOL = "₹";
+
+    private final MoneyFormatter formatter = new MoneyFormatter();
+    private final StringBuilder reusable = new StringBuilder(32);
+
+    private long[] amounts;
+    private BigInteger[] bigAmounts;
+    private int row;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        amounts = new long[ROWS];
+        bigAmounts = new BigInteger[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            amounts[i] = random.nextLong(100, 10_000_000);
+            bigAmounts[i] = BigInteger.valueOf(amounts[i]);
+        }
+    }
+
+    private int next() {
+        row = (row + 1) & (ROWS - 1);
+        return row;
+    }
+
+    @Benchmark
+    public String legacyStringFormat() {
+        BigDecimal amount = new BigDecimal(bigAmounts[next()]).divide(BigDecimal.valueOf(100));
+        return String.format("%s %.2f", SYMBOL, amount);
+    }
+
+    @Benchmark
+    public String legacyPlainString() {
+        return SYMBOL + new BigDecimal(bigAmounts[next()]).divide(BigDecimal.valueOf(100)).toPlainString();
+    }
+
+    @Benchmark
+    public String formatLong() {
+        return formatter.format(SYMBOL, amounts[next()], 2);
+    }
+
+    @Benchmark
+    public String formatBigInteger() {
+        return formatter.format(SYMBOL, bigAmounts[next()], 2);
+    }
+
+    // Appending into a caller-owned builder, as the order confirmation does; no String per row
+    @Benchmark
+    public int appendTo() {
+        reusable.setLength(0);
+        return formatter.appendTo(reusable, SYMBOL, amounts[next()], 2).length();
+    }
+}
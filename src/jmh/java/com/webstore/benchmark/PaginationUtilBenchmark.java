@@ -0,0 +1,67 @@
+package com.webstore.benchmark;
+
+import com.webstore.util.PaginationUtil;
+import com.webstore.util.PaginationUtil.PaginationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Cost of paging a category's product names for a WhatsApp list (7 rows a page), and of the Base64 category
+ * names carried in the row ids: encoded for every row and navigation button of a list, decoded once per reply.
+ * Run with: gradle jmh -Pjmh.includes=PaginationUtil
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PaginationUtilBenchmark {
+
+    private static final int PRODUCTS = 200;
+    private static final String CATEGORY = "Home & Kitchen Appliances";
+
+    private final PaginationUtil paginationUtil = new PaginationUtil();
+
+    private List<String> productNames;
+    private String encodedCategory;
+    private int page;
+
+    @Setup
+    public void setUp() {
+        productNames = new ArrayList<>(PRODUCTS);
+        for (int i = 1; i <= PRODUCTS; i++) {
+            productNames.add("Stainless Steel Pressure Cooker " + i);
+        }
+        encodedCategory = paginationUtil.encodeToBase64(CATEGORY);
+    }
+
+    @Benchmark
+    public PaginationResult<String> paginate() {
+        // Walks all pages, including the clamped ones past the end
+        page = page % 32 + 1;
+        return paginationUtil.paginate(productNames, page);
+    }
+
+    @Benchmark
+    public String encodeToBase64() {
+        return paginationUtil.encodeToBase64(CATEGORY);
+    }
+
+    @Benchmark
+    public String decodeFromBase64() {
+        return paginationUtil.decodeFromBase64(encodedCategory);
+    }
+}
@@ -0,0 +1,166 @@
+package com.webstore.benchmark;
+
+import com.webstore.dto.response.ProductResponseDto;
+import com.webstore.entity.Catalogue;
+import com.webstore.entity.CatalogueCategory;
+import com.webstore.entity.Category;
+import com.webstore.entity.Product;
+import com.webstore.entity.Seller;
+import com.webstore.implementation.PriceMatrixServiceImplementation;
+import com.webstore.implementation.ProductServiceImplementation;
+import com.webstore.implementation.PromotionServiceImplementation;
+import com.webstore.util.PriceMatrix;
+import com.webstore.util.PriceMatrix.CurrencyInfo;
+import com.webstore.util.PriceMatrix.PriceRow;
+import com.webstore.util.PromotionTable;
+import com.webstore.util.PromotionTable.Rule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Cost of ProductServiceImplementation.convertToDto, the mapping behind every product the REST API returns,
+ * for products with their seller and catalogue category loaded and priced in three currencies.
+ * Prices and promotions are read by the real PriceMatrixServiceImplementation and PromotionServiceImplementation;
+ * only their database loading is left out: the matrix and the table are built here and put in place as a
+ * load would. convertPage maps a page of 20, as GET /api/products does.
+ * Run with: gradle jmh -Pjmh.includes=ProductDto
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductDtoBenchmark {
+
+    private static final int PRODUCTS = 1024;
+    private static final int PAGE_SIZE = 20;
+
+    private static final List<CurrencyInfo> CURRENCIES = List.of(
+            new CurrencyInfo(1, "USD", "$", 2), new CurrencyInfo(8, "INR", "₹", 2), new CurrencyInfo(10, "JPY", "¥", 0));
+
+    private MethodHandle convertToDto;
+    private ProductServiceImplementation service;
+    private Product[] products;
+    private int next;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<PriceRow> prices = new ArrayList<>();
+        int priceId = 1;
+        for (int productId = 1; productId <= PRODUCTS; productId++) {
+            for (CurrencyInfo currency : CURRENCIES) {
+                prices.add(new PriceRow(priceId++, productId, currency.currencyId(), random.nextLong(100, 1_000_000)));
+            }
+        }
+        MethodHandles.Lookup priceLookup =
+                MethodHandles.privateLookupIn(PriceMatrixServiceImplementation.class, MethodHandles.lookup());
+        PriceMatrixServiceImplementation priceMatrixService = new PriceMatrixServiceImplementation(null);
+        PriceMatrix matrix = (PriceMatrix) priceLookup
+                .findVarHandle(PriceMatrixServiceImplementation.class, "matrix", PriceMatrix.class)
+                .get(priceMatrixService);
+        matrix.load(CURRENCIES, prices);
+        priceLookup.findVarHandle(PriceMatrixServiceImplementation.class, "loaded", boolean.class)
+                .setVolatile(priceMatrixService, true);
+
+        // One product in ten is on promotion
+        List<Rule> rules = new ArrayList<>();
+        List<int[]> productsByRule = new ArrayList<>();
+        for (int productId = 10; productId <= PRODUCTS; productId += 10) {
+            rules.add(Rule.percent(productId, 1500));
+            productsByRule.add(new int[] {productId});
+        }
+        PromotionServiceImplementation promotionService = new PromotionServiceImplementation(null, null, null, null,
+                null, priceMatrixService, null, null, null);
+        // Never expires, so the service does not try to rebuild it from the database
+        MethodHandles.privateLookupIn(PromotionServiceImplementation.class, MethodHandles.lookup())
+                .findVarHandle(PromotionServiceImplementation.class, "table", PromotionTable.class)
+                .setVolatile(promotionService, PromotionTable.build(rules, productsByRule, matrix, Long.MAX_VALUE, false));
+
+        service = new ProductServiceImplementation(null, null, null, priceMatrixService,
+                null, null, promotionService, null, null);
+        convertToDto = MethodHandles.privateLookupIn(ProductServiceImplementation.class, MethodHandles.lookup())
+                .findVirtual(ProductServiceImplementation.class, "convertToDto",
+                        MethodType.methodType(ProductResponseDto.class, Product.class));
+
+        Catalogue[] catalogues = new Catalogue[5];
+        for (int i = 0; i < catalogues.length; i++) {
+            catalogues[i] = new Catalogue();
+            catalogues[i].setCatalogueId(i + 1);
+            catalogues[i].setCatalogueName("Catalogue " + (i + 1));
+        }
+        CatalogueCategory[] catalogueCategories = new CatalogueCategory[50];
+        for (int i = 0; i < catalogueCategories.length; i++) {
+            Category category = new Category();
+            category.setCategoryId(i + 1);
+            category.setCategoryName("Category " + (i + 1));
+            CatalogueCategory cc = new CatalogueCategory();
+            cc.setCatalogueCategoryId(i + 1);
+            cc.setCatalogue(catalogues[i % catalogues.length]);
+            cc.setCategory(category);
+            cc.setCreatedAt(now);
+            cc.setCreatedBy("admin@webstore.com");
+            cc.setUpdatedAt(now);
+            cc.setUpdatedBy("admin@webstore.com");
+            catalogueCategories[i] = cc;
+        }
+        Seller[] sellers = new Seller[20];
+        for (int i = 0; i < sellers.length; i++) {
+            sellers[i] = new Seller();
+            sellers[i].setSellerId(i + 1);
+            sellers[i].setName("Seller " + (i + 1));
+        }
+
+        products = new Product[PRODUCTS];
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setProductId(i + 1);
+            product.setProductName("Cotton Kurta Set " + (i + 1));
+            product.setProductDescription("Hand block printed cotton kurta with matching pants, size M, pack of 1");
+            product.setImageUrl("https://cdn.webstore.com/products/" + (i + 1) + "/main.jpg");
+            product.setStock(random.nextInt(0, 500));
+            product.setSeller(sellers[random.nextInt(sellers.length)]);
+            product.setCatalogueCategory(catalogueCategories[random.nextInt(catalogueCategories.length)]);
+            product.setCreatedAt(now);
+            product.setCreatedBy("seller@webstore.com");
+            product.setUpdatedAt(now);
+            product.setUpdatedBy("seller@webstore.com");
+            products[i] = product;
+        }
+    }
+
+    @Benchmark
+    public ProductResponseDto convertToDto() throws Throwable {
+        next = (next + 1) & (PRODUCTS - 1);
+        return (ProductResponseDto) convertToDto.invokeExact(service, products[next]);
+    }
+
+    @Benchmark
+    public void convertPage(Blackhole blackhole) throws Throwable {
+        next = (next + PAGE_SIZE) & (PRODUCTS - 1);
+        for (int i = next; i < next + PAGE_SIZE; i++) {
+            blackhole.consume((ProductResponseDto) convertToDto.invokeExact(service, products[i & (PRODUCTS - 1)]));
+        }
+    }
+}
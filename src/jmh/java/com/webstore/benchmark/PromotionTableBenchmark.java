@@ -0,0 +1,145 @@
+package com.webstore.benchmark;
+
+import com.webstore.util.PriceMatrix;
+import com.webstore.util.PriceMatrix.CurrencyInfo;
+import com.webstore.util.PriceMatrix.PriceRow;
+import com.webstore.util.PromotionTable;
+import com.webstore.util.PromotionTable.Rule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Cost of pricing one product row under 100k running promotions (90k on single products, 10k on groups
+ * of 20 products, as category promotions expand), over 200k products priced in three currencies.
+ * evaluateRules is what pricing at request time would cost even with the rules already grouped by
+ * product in memory; build is the work done once per promotion boundary instead.
+ * Run with: gradle jmh -Pjmh.includes=PromotionTable
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PromotionTableBenchmark {
+
+    private static final int PRODUCTS = 200_000;
+    private static final int PRODUCT_PROMOTIONS = 90_000;
+    private static final int GROUP_PROMOTIONS = 10_000;
+    private static final int GROUP_SIZE = 20;
+    private static final int LOOKUPS = 4096;
+
+    private static final List<CurrencyInfo> CURRENCIES = List.of(
+            new CurrencyInfo(1, "USD", "$", 2), new CurrencyInfo(8, "INR", "₹", 2), new CurrencyInfo(10, "JPY", "¥", 0));
+
+    private PriceMatrix matrix;
+    private List<Rule> rules;
+    private List<int[]> productsByRule;
+    private PromotionTable table;
+    private Map<Integer, List<Rule>> rulesByProduct;
+
+    private int[] lookupProducts;
+    private int[] lookupCurrencies;
+    private long[] lookupAmounts;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<PriceRow> prices = new ArrayList<>();
+        int priceId = 1;
+        for (int productId = 1; productId <= PRODUCTS; productId++) {
+            for (CurrencyInfo currency : CURRENCIES) {
+                prices.add(new PriceRow(priceId++, productId, currency.currencyId(), random.nextLong(100, 1_000_000)));
+            }
+        }
+        matrix = new PriceMatrix();
+        matrix.load(CURRENCIES, prices);
+
+        rules = new ArrayList<>();
+        productsByRule = new ArrayList<>();
+        for (int i = 1; i <= PRODUCT_PROMOTIONS + GROUP_PROMOTIONS; i++) {
+            rules.add(random.nextBoolean()
+                    ? Rule.percent(i, random.nextLong(100, 5000))
+                    : Rule.amount(i, random.nextLong(10, 500), CURRENCIES.get(random.nextInt(CURRENCIES.size())).currencyId()));
+            int[] products = new int[i <= PRODUCT_PROMOTIONS ? 1 : GROUP_SIZE];
+            for (int p = 0; p < products.length; p++) {
+                products[p] = random.nextInt(1, PRODUCTS + 1);
+            }
+            productsByRule.add(products);
+        }
+        table = PromotionTable.build(rules, productsByRule, matrix, Long.MAX_VALUE, true);
+
+        rulesByProduct = new HashMap<>();
+        for (int i = 0; i < rules.size(); i++) {
+            for (int productId : productsByRule.get(i)) {
+                rulesByProduct.computeIfAbsent(productId, id -> new ArrayList<>()).add(rules.get(i));
+            }
+        }
+
+        lookupProducts = new int[LOOKUPS];
+        lookupCurrencies = new int[LOOKUPS];
+        lookupAmounts = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookupProducts[i] = random.nextInt(1, PRODUCTS + 1);
+            lookupCurrencies[i] = CURRENCIES.get(random.nextInt(CURRENCIES.size())).currencyId();
+            lookupAmounts[i] = matrix.amount(lookupProducts[i], lookupCurrencies[i]);
+        }
+    }
+
+    private int next() {
+        next = (next + 1) & (LOOKUPS - 1);
+        return next;
+    }
+
+    @Benchmark
+    public long tableLookup() {
+        int i = next();
+        return table.effectiveAmount(lookupProducts[i], lookupCurrencies[i], lookupAmounts[i]);
+    }
+
+    @Benchmark
+    public long evaluateRules() {
+        int i = next();
+        long best = lookupAmounts[i];
+        List<Rule> productRules = rulesByProduct.get(lookupProducts[i]);
+        if (productRules != null) {
+            for (Rule rule : productRules) {
+                best = Math.min(best, apply(rule, lookupCurrencies[i], lookupAmounts[i]));
+            }
+        }
+        return best;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 10)
+    public PromotionTable build() {
+        return PromotionTable.build(rules, productsByRule, matrix, Long.MAX_VALUE, true);
+    }
+
+    // Same arithmetic as the table, spelled out as request-time code would
+    private static long apply(Rule rule, int currencyId, long amount) {
+        if (!rule.percent()) {
+            return currencyId == rule.currencyId() ? Math.max(0, amount - rule.value()) : amount;
+        }
+        return amount - (amount * rule.value() + 5_000) / 10_000;
+    }
+}
@@ -0,0 +1,90 @@
+package com.webstore.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.webstore.dto.request.webhook.WebhookRequestDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Cost of reading a WhatsApp Cloud API webhook body into WebhookRequestDto, as WhatsAppController's
+ * @RequestBody does, with an ObjectMapper configured the way Spring Boot builds its own (unknown properties
+ * ignored). The payloads are the shapes Meta sends: a text message, a list reply and a delivery status,
+ * the last made mostly of fields the DTO does not map.
+ * Run with: gradle jmh -Pjmh.includes=WebhookDeserialization
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WebhookDeserializationBenchmark {
+
+    private static final String TEXT = """
+            {"object":"whatsapp_business_account","entry":[{"id":"102290129340398","changes":[{"value":{
+            "messaging_product":"whatsapp","metadata":{"display_phone_number":"15550783881",
+            "phone_number_id":"106540352242922"},"contacts":[{"profile":{"name":"Sheena Nelson"},
+            "wa_id":"16505551234"}],"messages":[{"from":"16505551234",
+            "id":"wamid.HBgLMTY1MDM4Nzk0MzkVAgASGBQzQTRBNjU5OUFFRTAzODEwMTQ0RgA=","timestamp":"1749416383",
+            "type":"text","text":{"body":"categories"}}]},"field":"messages"}]}]}
+            """;
+
+    private static final String LIST_REPLY = """
+            {"object":"whatsapp_business_account","entry":[{"id":"102290129340398","changes":[{"value":{
+            "messaging_product":"whatsapp","metadata":{"display_phone_number":"15550783881",
+            "phone_number_id":"106540352242922"},"contacts":[{"profile":{"name":"Sheena Nelson"},
+            "wa_id":"16505551234"}],"messages":[{"context":{"from":"15550783881",
+            "id":"wamid.HBgLMTY1MDM4Nzk0MzkVAgARGBI3NjQ0MTk4QkE1NjdGQjg1QjMA"},"from":"16505551234",
+            "id":"wamid.HBgLMTY1MDM4Nzk0MzkVAgASGBQzQUFGMzAyQzI1NDVGQjU2MjMyOQA=","timestamp":"1749416512",
+            "type":"interactive","interactive":{"type":"list_reply","list_reply":{"id":"prod_p1_i42_cRXRobmljIFdlYXI=",
+            "title":"Cotton Kurta Set","description":"Hand block printed cotton kurta with matching pants"}}}]},
+            "field":"messages"}]}]}
+            """;
+
+    private static final String STATUS = """
+            {"object":"whatsapp_business_account","entry":[{"id":"102290129340398","changes":[{"value":{
+            "messaging_product":"whatsapp","metadata":{"display_phone_number":"15550783881",
+            "phone_number_id":"106540352242922"},"statuses":[{"id":"wamid.HBgLMTY1MDM4Nzk0MzkVAgARGBI3NjQ0MTk4QkE1NjdGQjg1QjMA",
+            "status":"delivered","timestamp":"1749416514","recipient_id":"16505551234","conversation":{
+            "id":"6ceb9d929c8a0e9f7a9b2ae2a3b1a7e1","origin":{"type":"service"}},"pricing":{"billable":true,
+            "pricing_model":"CBP","category":"service"}}]},"field":"messages"}]}]}
+            """;
+
+    @Param({"text", "list_reply", "status"})
+    private String payload;
+
+    private ObjectReader reader;
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        reader = mapper.readerFor(WebhookRequestDto.class);
+        String json = switch (payload) {
+            case "text" -> TEXT;
+            case "list_reply" -> LIST_REPLY;
+            default -> STATUS;
+        };
+        body = json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public WebhookRequestDto deserialize() throws IOException {
+        return reader.readValue(body);
+    }
+}
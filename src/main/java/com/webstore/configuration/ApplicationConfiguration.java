@@ -72,6 +72,10 @@ public class ApplicationConfiguration {
                     .authorizeHttpRequests(authorize -> authorize
                             // Public endpoints - no authentication required
                             .requestMatchers("/api/auth/**").permitAll()
+                            // Flight recordings can be started and downloaded, so only by an admin
+                            .requestMatchers("/actuator/jfr/**").hasRole(UserRole.ADMIN)
+                            // Metrics name every endpoint with its SQL counts, timings and errors
+                            .requestMatchers("/actuator/prometheus/**").hasRole(UserRole.ADMIN)
                             .requestMatchers("/actuator/**").permitAll() 
 
                             // Admin-only endpoints - using constant
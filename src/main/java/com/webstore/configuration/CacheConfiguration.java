@@ -0,0 +1,22 @@
+package com.webstore.configuration;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+
+/*Enables Spring's annotation-driven caching (@Cacheable / @CacheEvict) on service beans*/
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+
+    /*Hands the JCache manager built from ehcache.xml to Hibernate so the second-level cache regions
+      and the Spring caches live in one provider instead of Hibernate bootstrapping a second one*/
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManagerCustomizer(CacheManager cacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+    }
+}
@@ -0,0 +1,39 @@
+package com.webstore.configuration;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/*
+ * Replaces Spring Boot's open-in-view (spring.jpa.open-in-view=false) so the WhatsApp webhook can be
+ * left out. An open EntityManager holds its JDBC connection until the request ends, and a webhook spends
+ * most of its time calling the Graph API; without it, each webhook only holds a connection inside its
+ * short service transactions. Every other endpoint keeps the lazy-loading behaviour it was written for.
+ */
+@Configuration
+public class OpenEntityManagerInViewConfiguration implements WebMvcConfigurer {
+
+    private static final String WHATSAPP_WEBHOOK_PATH = "/";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public OpenEntityManagerInViewConfiguration(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Bean
+    public OpenEntityManagerInViewInterceptor openEntityManagerInViewInterceptor() {
+        OpenEntityManagerInViewInterceptor interceptor = new OpenEntityManagerInViewInterceptor();
+        interceptor.setEntityManagerFactory(entityManagerFactory);
+        return interceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addWebRequestInterceptor(openEntityManagerInViewInterceptor())
+                .excludePathPatterns(WHATSAPP_WEBHOOK_PATH);
+    }
+}
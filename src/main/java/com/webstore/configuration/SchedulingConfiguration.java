@@ -0,0 +1,10 @@
+package com.webstore.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/*Enables @Scheduled background jobs (outbox polling and purging)*/
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+}
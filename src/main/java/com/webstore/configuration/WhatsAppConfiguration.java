@@ -11,6 +11,7 @@ public class WhatsAppConfiguration {
 
     private Webhook webhook = new Webhook();
     private Api api = new Api();
+    private Outbound outbound = new Outbound();
 
     @Data
     public static class Webhook {
@@ -25,4 +26,14 @@ public class WhatsAppConfiguration {
         private String phoneNumberId;
         private String graphUrl;
     }
-}
\ No newline at end of file
+
+    // Queued messages (order confirmations) sent by OutboundMessageDispatcher
+    @Data
+    public static class Outbound {
+        private boolean enabled = true;
+        private int batchSize = 50;
+        private int senderThreads = 4;
+        private long retryDelayMs = 30000;
+        private int maxAttempts = 5;
+    }
+}
@@ -0,0 +1,18 @@
+package com.webstore.constant;
+
+/*Centralized names of the Spring caches and Hibernate second-level cache regions (declared in ehcache.xml)*/
+public final class CacheNames {
+
+    /* Seller details (catalogues, categories and product counts), keyed by seller ID */
+    public static final String SELLER_DETAILS = "sellerDetails";
+
+    /* Hibernate second-level cache regions for rarely changing reference entities */
+    public static final String CURRENCY_REGION = "currencies";
+    public static final String CATEGORY_REGION = "categories";
+    public static final String CATALOGUE_REGION = "catalogues";
+    public static final String CATALOGUE_CATEGORY_REGION = "catalogueCategories";
+
+    private CacheNames() {
+        // Utility class - prevent instantiation
+    }
+}
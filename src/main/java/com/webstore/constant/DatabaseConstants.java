@@ -2,4 +2,17 @@ package com.webstore.constant;
 
 public class DatabaseConstants {
     public static final String SCHEMA_NAME = "web_store";
+
+    // Tables whose changes are broadcast to other instances for cache invalidation
+    public static final String PRODUCTS_TABLE = "products";
+    public static final String PRODUCT_PRICES_TABLE = "product_prices";
+    public static final String CATEGORIES_TABLE = "categories";
+    public static final String CATALOGUES_TABLE = "catalogues";
+    public static final String CATALOGUE_CATEGORIES_TABLE = "catalogue_categories";
+    public static final String CURRENCIES_TABLE = "currencies";
+    public static final String EXCHANGE_RATES_TABLE = "exchange_rates";
+    public static final String PROMOTIONS_TABLE = "promotions";
+
+    // PostgreSQL LISTEN/NOTIFY channel carrying catalog change notifications
+    public static final String CATALOG_CHANGE_CHANNEL = "catalog_changes";
 }
@@ -3,6 +3,7 @@ package com.webstore.controller;
 import com.webstore.constant.UserRole;
 import com.webstore.dto.request.GoogleTokenRequest;
 import com.webstore.dto.response.AuthResponse;
+import com.webstore.exception.ClientErrorException;
 import com.webstore.service.GoogleTokenVerificationService;
 import com.webstore.util.AdminAuthenticationUtil;
 import com.webstore.util.SellerAuthenticationUtil;
@@ -58,7 +59,7 @@ public class AuthController {
         } catch (Exception e) {
             // Handle unexpected errors
             log.error("Error during Google login: {}", e.getMessage());
-            throw new ResponseStatusException(
+            throw new ClientErrorException(
                     HttpStatus.UNAUTHORIZED,
                     "Authentication failed: " + e.getMessage());
         }
@@ -3,6 +3,7 @@ package com.webstore.controller;
 import com.webstore.constant.UserRole;
 import com.webstore.dto.request.CatalogueRequestDto;
 import com.webstore.dto.response.CatalogueResponseDto;
+import com.webstore.exception.ClientErrorException;
 import com.webstore.service.CatalogueService;
 import com.webstore.util.SecurityContextUtils;
 import jakarta.validation.Valid;
@@ -12,7 +13,6 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
@@ -33,7 +33,7 @@ public class CatalogueController {
     public ResponseEntity<CatalogueResponseDto> createCatalogue(@RequestBody @Valid CatalogueRequestDto dto) {
         String role = SecurityContextUtils.getCurrentRole();
         if (role != null && UserRole.SELLER.equals(role)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Sellers cannot create catalogues");
+            throw new ClientErrorException(HttpStatus.FORBIDDEN, "Sellers cannot create catalogues");
         }
         return ResponseEntity.ok(catalogueService.createCatalogue(dto));
     }
@@ -76,7 +76,7 @@ public class CatalogueController {
             @RequestBody @Valid CatalogueRequestDto dto) {
         String role = SecurityContextUtils.getCurrentRole();
         if (role != null && UserRole.SELLER.equals(role)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Sellers cannot update catalogues");
+            throw new ClientErrorException(HttpStatus.FORBIDDEN, "Sellers cannot update catalogues");
         }
         return ResponseEntity.ok(catalogueService.updateCatalogue(id, dto));
     }
@@ -85,7 +85,7 @@ public class CatalogueController {
     public ResponseEntity<Void> deleteCatalogue(@PathVariable Integer id) {
         String role = SecurityContextUtils.getCurrentRole();
         if (role != null && UserRole.SELLER.equals(role)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Sellers cannot delete catalogues");
+            throw new ClientErrorException(HttpStatus.FORBIDDEN, "Sellers cannot delete catalogues");
         }
         catalogueService.deleteCatalogue(id);
         return ResponseEntity.noContent().build();
@@ -2,13 +2,13 @@ package com.webstore.controller;
 
 import com.webstore.dto.request.CategoryRequestDto;
 import com.webstore.dto.response.CategoryResponseDto;
+import com.webstore.exception.ClientErrorException;
 import com.webstore.service.CategoryService;
 import com.webstore.util.SecurityContextUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
 import org.springframework.util.StringUtils;
 
 import jakarta.validation.Valid;
@@ -68,7 +68,7 @@ public class CategoryController {
     public ResponseEntity<CategoryResponseDto> createCategory(@RequestBody @Valid CategoryRequestDto dto) {
         String role = SecurityContextUtils.getCurrentRole();
         if (role != null && "SELLER".equals(role)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Sellers cannot create categories");
+            throw new ClientErrorException(HttpStatus.FORBIDDEN, "Sellers cannot create categories");
         }
         CategoryResponseDto created = categoryService.createCategory(dto);
         return ResponseEntity.status(201).body(created);
@@ -79,7 +79,7 @@ public class CategoryController {
             @RequestBody @Valid CategoryRequestDto dto) {
         String role = SecurityContextUtils.getCurrentRole();
         if (role != null && "SELLER".equals(role)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Sellers cannot update categories");
+            throw new ClientErrorException(HttpStatus.FORBIDDEN, "Sellers cannot update categories");
         }
         return ResponseEntity.ok(categoryService.updateCategory(id, dto));
     }
@@ -88,7 +88,7 @@ public class CategoryController {
     public ResponseEntity<Void> deleteCategory(@PathVariable Integer id) {
         String role = SecurityContextUtils.getCurrentRole();
         if (role != null && "SELLER".equals(role)) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Sellers cannot delete categories");
+            throw new ClientErrorException(HttpStatus.FORBIDDEN, "Sellers cannot delete categories");
         }
         categoryService.deleteCategory(id);
         return ResponseEntity.noContent().build();
@@ -0,0 +1,57 @@
+package com.webstore.controller;
+
+import com.webstore.constant.UserRole;
+import com.webstore.dto.request.ExchangeRateRequestDto;
+import com.webstore.dto.response.ExchangeRateResponseDto;
+import com.webstore.exception.ClientErrorException;
+import com.webstore.service.ExchangeRateService;
+import com.webstore.util.SecurityContextUtils;
+import com.webstore.validation.ExchangeRateValidation;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/exchange-rates")
+public class ExchangeRateController {
+
+    private final ExchangeRateService exchangeRateService;
+
+    public ExchangeRateController(ExchangeRateService exchangeRateService) {
+        this.exchangeRateService = exchangeRateService;
+    }
+
+    @PostMapping
+    public ResponseEntity<ExchangeRateResponseDto> createExchangeRate(
+            @Validated(ExchangeRateValidation.class) @RequestBody ExchangeRateRequestDto request) {
+        rejectSellers();
+        return ResponseEntity.status(HttpStatus.CREATED).body(exchangeRateService.createExchangeRate(request));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ExchangeRateResponseDto>> getAllExchangeRates() {
+        return ResponseEntity.ok(exchangeRateService.getAllExchangeRates());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ExchangeRateResponseDto> getExchangeRateById(@PathVariable Integer id) {
+        return ResponseEntity.ok(exchangeRateService.getExchangeRateById(id));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteExchangeRate(@PathVariable Integer id) {
+        rejectSellers();
+        exchangeRateService.deleteExchangeRate(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Rates apply to every seller's prices, so only admins maintain them
+    private void rejectSellers() {
+        if (UserRole.SELLER.equals(SecurityContextUtils.getCurrentRole())) {
+            throw new ClientErrorException(HttpStatus.FORBIDDEN, "Sellers cannot change exchange rates");
+        }
+    }
+}
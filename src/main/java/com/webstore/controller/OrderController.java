@@ -0,0 +1,38 @@
+package com.webstore.controller;
+
+import com.webstore.dto.request.OrderRequestDto;
+import com.webstore.dto.response.OrderResponseDto;
+import com.webstore.service.OrderService;
+import com.webstore.validation.OrderValidation;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/orders")
+public class OrderController {
+
+    private final OrderService orderService;
+
+    public OrderController(OrderService orderService) {
+        this.orderService = orderService;
+    }
+
+    /*
+     * Places the customer's held reservations as an order. Retrying with the same Idempotency-Key returns
+     * the original order (200) instead of placing another one (201).
+     */
+    @PostMapping
+    public ResponseEntity<OrderResponseDto> placeOrder(
+            @RequestHeader("Idempotency-Key") String idempotencyKey,
+            @Validated(OrderValidation.class) @RequestBody OrderRequestDto request) {
+        OrderResponseDto order = orderService.placeOrder(request, idempotencyKey);
+        return ResponseEntity.status(order.isReplayed() ? HttpStatus.OK : HttpStatus.CREATED).body(order);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<OrderResponseDto> getOrder(@PathVariable Long id) {
+        return ResponseEntity.ok(orderService.getOrderById(id));
+    }
+}
@@ -0,0 +1,45 @@
+package com.webstore.controller;
+
+import com.webstore.dto.request.PriceAsOfRequestDto;
+import com.webstore.dto.response.PriceHistoryResponseDto;
+import com.webstore.service.PriceHistoryService;
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/product-price/history")
+public class PriceHistoryController {
+
+    private final PriceHistoryService priceHistoryService;
+
+    public PriceHistoryController(PriceHistoryService priceHistoryService) {
+        this.priceHistoryService = priceHistoryService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<PriceHistoryResponseDto>> getHistory(
+            @RequestParam Integer productId,
+            @RequestParam(required = false) Integer currencyId) {
+        return ResponseEntity.ok(priceHistoryService.getHistory(productId, currencyId));
+    }
+
+    // e.g. /api/product-price/history/as-of?productId=5&at=2025-03-01T12:00:00
+    @GetMapping("/as-of")
+    public ResponseEntity<List<PriceHistoryResponseDto>> getPricesAsOf(
+            @RequestParam Integer productId,
+            @RequestParam(required = false) Integer currencyId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return ResponseEntity.ok(priceHistoryService.getPricesAsOf(productId, currencyId, at));
+    }
+
+    // Bulk variant for reporting: many products at one point in time
+    @PostMapping("/as-of")
+    public ResponseEntity<List<PriceHistoryResponseDto>> getPricesAsOf(@Valid @RequestBody PriceAsOfRequestDto request) {
+        return ResponseEntity.ok(priceHistoryService.getPricesAsOf(request));
+    }
+}
@@ -2,6 +2,8 @@ package com.webstore.controller;
 
 import com.webstore.dto.request.ProductRequestDto;
 import com.webstore.dto.response.ProductResponseDto;
+import com.webstore.exception.InvalidRequestException;
+import com.webstore.service.NewestProductsService;
 import com.webstore.service.ProductService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
@@ -17,9 +19,11 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final NewestProductsService newestProductsService;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, NewestProductsService newestProductsService) {
         this.productService = productService;
+        this.newestProductsService = newestProductsService;
     }
 
     @PostMapping
@@ -31,21 +35,38 @@ public class ProductController {
     @GetMapping
     public ResponseEntity<List<ProductResponseDto>> getAllProducts(
             @RequestParam(required = false) Integer page,
-            @RequestParam(required = false) Integer size) {
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String currency,
+            @RequestParam(required = false) String sort) {
 
         List<ProductResponseDto> products;
+        boolean popularFirst = isPopularFirst(sort);
 
         // If pagination parameters are provided, use pagination
         if (page != null && size != null) {
-            products = productService.getAllProducts(page, size);
+            products = popularFirst
+                    ? productService.getAllProducts(page, size, currency, true)
+                    : productService.getAllProducts(page, size, currency);
         } else {
             // If no pagination parameters, return all products
-            products = productService.getAllProducts(0, Integer.MAX_VALUE);
+            products = popularFirst
+                    ? productService.getAllProducts(0, Integer.MAX_VALUE, currency, true)
+                    : productService.getAllProducts(0, Integer.MAX_VALUE, currency);
         }
 
         return ResponseEntity.ok(products);
     }
 
+    // Newest first, across the whole catalog unless a catalogue-category is given
+    @GetMapping("/newest")
+    public ResponseEntity<List<ProductResponseDto>> getNewestProducts(
+            @RequestParam(required = false) Integer catalogueCategoryId,
+            @RequestParam(defaultValue = "5") int limit) {
+        return ResponseEntity.ok(catalogueCategoryId != null
+                ? newestProductsService.getNewestProducts(catalogueCategoryId, limit)
+                : newestProductsService.getNewestProducts(limit));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ProductResponseDto> getProductById(@PathVariable Integer id) {
         ProductResponseDto product = productService.getProductById(id);
@@ -67,11 +88,23 @@ public class ProductController {
 
     // Add search endpoint
     @GetMapping("/search")
-    public ResponseEntity<List<ProductResponseDto>> searchProducts(@RequestParam(required = false) String searchTerm) {
-        List<ProductResponseDto> products = productService.searchProducts(searchTerm);
+    public ResponseEntity<List<ProductResponseDto>> searchProducts(@RequestParam(required = false) String searchTerm,
+            @RequestParam(required = false) String currency) {
+        List<ProductResponseDto> products = productService.searchProducts(searchTerm, currency);
         if (products.isEmpty()) {
             return ResponseEntity.noContent().build();
         }
         return ResponseEntity.ok(products);
     }
-}
\ No newline at end of file
+
+    // sort=popular orders by WhatsApp interactions; the default is by id
+    private static boolean isPopularFirst(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return false;
+        }
+        if (!"popular".equalsIgnoreCase(sort.trim())) {
+            throw new InvalidRequestException("Unsupported sort: " + sort + " (supported: popular)");
+        }
+        return true;
+    }
+}
@@ -0,0 +1,26 @@
+package com.webstore.controller;
+
+import com.webstore.dto.request.ProductSearchRequestDto;
+import com.webstore.dto.response.FacetedSearchResponseDto;
+import com.webstore.service.ProductSearchService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/products/faceted-search")
+public class ProductSearchController {
+
+    private final ProductSearchService productSearchService;
+
+    public ProductSearchController(ProductSearchService productSearchService) {
+        this.productSearchService = productSearchService;
+    }
+
+    // e.g. /api/products/faceted-search?categoryId=3&stock=LOW&minPrice=10000&maxPrice=50000&page=0&size=20
+    @GetMapping
+    public ResponseEntity<FacetedSearchResponseDto> search(ProductSearchRequestDto request) {
+        return ResponseEntity.ok(productSearchService.search(request));
+    }
+}
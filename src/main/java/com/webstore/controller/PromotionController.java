@@ -0,0 +1,57 @@
+package com.webstore.controller;
+
+import com.webstore.constant.UserRole;
+import com.webstore.dto.request.PromotionRequestDto;
+import com.webstore.dto.response.PromotionResponseDto;
+import com.webstore.exception.ClientErrorException;
+import com.webstore.service.PromotionService;
+import com.webstore.util.SecurityContextUtils;
+import com.webstore.validation.PromotionValidation;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/promotions")
+public class PromotionController {
+
+    private final PromotionService promotionService;
+
+    public PromotionController(PromotionService promotionService) {
+        this.promotionService = promotionService;
+    }
+
+    @PostMapping
+    public ResponseEntity<PromotionResponseDto> createPromotion(
+            @Validated(PromotionValidation.class) @RequestBody PromotionRequestDto request) {
+        rejectSellers();
+        return ResponseEntity.status(HttpStatus.CREATED).body(promotionService.createPromotion(request));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<PromotionResponseDto>> getAllPromotions() {
+        return ResponseEntity.ok(promotionService.getAllPromotions());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<PromotionResponseDto> getPromotionById(@PathVariable Integer id) {
+        return ResponseEntity.ok(promotionService.getPromotionById(id));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deletePromotion(@PathVariable Integer id) {
+        rejectSellers();
+        promotionService.deletePromotion(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Category and catalogue promotions span sellers, so only admins run promotions
+    private void rejectSellers() {
+        if (UserRole.SELLER.equals(SecurityContextUtils.getCurrentRole())) {
+            throw new ClientErrorException(HttpStatus.FORBIDDEN, "Sellers cannot manage promotions");
+        }
+    }
+}
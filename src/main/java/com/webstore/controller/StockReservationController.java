@@ -0,0 +1,50 @@
+package com.webstore.controller;
+
+import com.webstore.dto.request.StockReservationRequestDto;
+import com.webstore.dto.response.StockReservationResponseDto;
+import com.webstore.service.StockReservationService;
+import com.webstore.validation.StockReservationValidation;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/stock-reservations")
+public class StockReservationController {
+
+    private final StockReservationService stockReservationService;
+
+    public StockReservationController(StockReservationService stockReservationService) {
+        this.stockReservationService = stockReservationService;
+    }
+
+    @PostMapping
+    public ResponseEntity<StockReservationResponseDto> reserve(
+            @Validated(StockReservationValidation.class) @RequestBody StockReservationRequestDto request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(stockReservationService.reserve(request));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<StockReservationResponseDto> getReservation(@PathVariable Long id) {
+        return ResponseEntity.ok(stockReservationService.getReservationById(id));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<StockReservationResponseDto>> getHeldReservations(@RequestParam String holder) {
+        return ResponseEntity.ok(stockReservationService.getHeldReservations(holder));
+    }
+
+    @PostMapping("/{id}/confirm")
+    public ResponseEntity<StockReservationResponseDto> confirm(@PathVariable Long id) {
+        return ResponseEntity.ok(stockReservationService.confirmReservation(id));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> release(@PathVariable Long id) {
+        stockReservationService.releaseReservation(id);
+        return ResponseEntity.noContent().build();
+    }
+}
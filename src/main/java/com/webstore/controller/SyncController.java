@@ -0,0 +1,41 @@
+package com.webstore.controller;
+
+import com.webstore.constant.UserRole;
+import com.webstore.dto.response.SyncChangesResponseDto;
+import com.webstore.exception.ClientErrorException;
+import com.webstore.service.SyncService;
+import com.webstore.util.SecurityContextUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+
+    private static final int MAX_LIMIT = 5000;
+
+    private final SyncService syncService;
+
+    public SyncController(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    /*
+     * Catalog changes since the given cursor. Call without "since" to get the current cursor, load the full
+     * catalog, then keep polling with the returned nextVersion. 410 Gone means the cursor is too old.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<SyncChangesResponseDto> getChanges(
+            @RequestParam(required = false) Long since,
+            @RequestParam(defaultValue = "500") int limit) {
+
+        if (UserRole.SELLER.equals(SecurityContextUtils.getCurrentRole())) {
+            throw new ClientErrorException(HttpStatus.FORBIDDEN, "Sellers cannot access the catalog sync feed");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ClientErrorException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_LIMIT);
+        }
+        return ResponseEntity.ok(syncService.getChangesSince(since, limit));
+    }
+}
@@ -25,4 +25,13 @@ public class CurrencyRequestDto {
     @NotBlank(groups = CurrencyValidation.class, message = "Currency symbol should not be blank")
     @Size(min = 1, max = 5, groups = CurrencyValidation.class, message = "Currency symbol must be between 1 and 5 characters")
     private String currencySymbol;
+
+    // Optional; defaults to 2 on create and is left unchanged on update when omitted
+    @Min(value = 0, groups = CurrencyValidation.class, message = "Minor unit exponent must be between 0 and 4")
+    @Max(value = 4, groups = CurrencyValidation.class, message = "Minor unit exponent must be between 0 and 4")
+    private Integer minorUnitExponent;
+
+    public CurrencyRequestDto(String currencyCode, String currencyName, String currencySymbol) {
+        this(currencyCode, currencyName, currencySymbol, null);
+    }
 }
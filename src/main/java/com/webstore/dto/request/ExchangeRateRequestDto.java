@@ -0,0 +1,32 @@
+package com.webstore.dto.request;
+
+import com.webstore.validation.ExchangeRateValidation;
+import jakarta.validation.constraints.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+public class ExchangeRateRequestDto {
+
+    @NotNull(groups = ExchangeRateValidation.class, message = "Base currency ID is required")
+    @Min(value = 1, groups = ExchangeRateValidation.class, message = "Base currency ID must be a positive number")
+    private Integer baseCurrencyId;
+
+    @NotNull(groups = ExchangeRateValidation.class, message = "Quote currency ID is required")
+    @Min(value = 1, groups = ExchangeRateValidation.class, message = "Quote currency ID must be a positive number")
+    private Integer quoteCurrencyId;
+
+    // Units of the quote currency for one unit of the base currency
+    @NotNull(groups = ExchangeRateValidation.class, message = "Rate is required")
+    @Positive(groups = ExchangeRateValidation.class, message = "Rate must be positive")
+    @Digits(integer = 10, fraction = 10, groups = ExchangeRateValidation.class, message = "Rate allows at most 10 integer and 10 fraction digits")
+    private BigDecimal rate;
+
+    // Defaults to now
+    private LocalDateTime validFrom;
+
+    // Open-ended when omitted
+    private LocalDateTime validTo;
+}
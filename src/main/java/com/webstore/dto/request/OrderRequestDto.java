@@ -0,0 +1,14 @@
+package com.webstore.dto.request;
+
+import com.webstore.validation.OrderValidation;
+import jakarta.validation.constraints.*;
+import lombok.Data;
+
+@Data
+public class OrderRequestDto {
+
+    // Holder of the stock reservations that make up the cart
+    @NotBlank(groups = OrderValidation.class, message = "Customer is required")
+    @Size(max = 100, groups = OrderValidation.class, message = "Customer must be at most 100 characters")
+    private String customer;
+}
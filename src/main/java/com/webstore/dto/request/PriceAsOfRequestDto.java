@@ -0,0 +1,22 @@
+package com.webstore.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class PriceAsOfRequestDto {
+
+    @NotEmpty(message = "At least one product ID is required")
+    @Size(max = 10000, message = "At most 10000 product IDs per request")
+    private List<Integer> productIds;
+
+    // All currencies when omitted
+    private Integer currencyId;
+
+    // Defaults to now
+    private LocalDateTime at;
+}
@@ -29,6 +29,7 @@ public class ProductRequestDto {
     @Size(max = 500, groups = ProductValidation.class, message = "Image URL must not exceed 500 characters")
     private String imageUrl;
 
+    // Left out of an update, the stock is kept as it is
     @Min(value = 0, groups = ProductValidation.class, message = "Stock must be 0 or greater")
-    private Integer stock = 0;
+    private Integer stock;
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.webstore.dto.request;
+
+import com.webstore.util.FacetIndex.StockBucket;
+import lombok.Data;
+
+@Data
+public class ProductSearchRequestDto {
+
+    // Every filter is optional; omitted ones match all products
+    private Integer catalogueId;
+    private Integer categoryId;
+    private Integer sellerId;
+    private StockBucket stock;
+
+    // Inclusive bounds in minor units of the search currency
+    private Long minPrice;
+    private Long maxPrice;
+
+    private int page = 0;
+    private int size = 20;
+}
@@ -0,0 +1,44 @@
+package com.webstore.dto.request;
+
+import com.webstore.entity.Promotion.DiscountType;
+import com.webstore.entity.Promotion.PromotionScope;
+import com.webstore.validation.PromotionValidation;
+import jakarta.validation.constraints.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+public class PromotionRequestDto {
+
+    @NotBlank(groups = PromotionValidation.class, message = "Promotion name is required")
+    @Size(max = 100, groups = PromotionValidation.class, message = "Promotion name must be at most 100 characters")
+    private String promotionName;
+
+    @NotNull(groups = PromotionValidation.class, message = "Scope is required (PRODUCT, CATEGORY or CATALOGUE)")
+    private PromotionScope scope;
+
+    // product, category or catalogue id depending on the scope
+    @NotNull(groups = PromotionValidation.class, message = "Target ID is required")
+    @Min(value = 1, groups = PromotionValidation.class, message = "Target ID must be a positive number")
+    private Integer targetId;
+
+    @NotNull(groups = PromotionValidation.class, message = "Discount type is required (PERCENT or AMOUNT)")
+    private DiscountType discountType;
+
+    // Percent off (up to two decimals) for PERCENT, minor units off for AMOUNT
+    @NotNull(groups = PromotionValidation.class, message = "Discount value is required")
+    @Positive(groups = PromotionValidation.class, message = "Discount value must be positive")
+    @Digits(integer = 36, fraction = 2, groups = PromotionValidation.class, message = "Discount value allows at most two decimals")
+    private BigDecimal discountValue;
+
+    // Required for AMOUNT, not allowed for PERCENT
+    private Integer currencyId;
+
+    // Defaults to now
+    private LocalDateTime startsAt;
+
+    @NotNull(groups = PromotionValidation.class, message = "End time is required")
+    private LocalDateTime endsAt;
+}
@@ -0,0 +1,21 @@
+package com.webstore.dto.request;
+
+import com.webstore.validation.StockReservationValidation;
+import jakarta.validation.constraints.*;
+import lombok.Data;
+
+@Data
+public class StockReservationRequestDto {
+
+    @NotNull(groups = StockReservationValidation.class, message = "Product ID is required")
+    @Min(value = 1, groups = StockReservationValidation.class, message = "Product ID must be a positive number")
+    private Integer productId;
+
+    @NotNull(groups = StockReservationValidation.class, message = "Quantity is required")
+    @Min(value = 1, groups = StockReservationValidation.class, message = "Quantity must be at least 1")
+    private Integer quantity;
+
+    // Defaults to the current user
+    @Size(max = 100, groups = StockReservationValidation.class, message = "Holder must be at most 100 characters")
+    private String holder;
+}
@@ -10,6 +10,7 @@ public class CurrencyResponseDto {
     private String currencyCode;
     private String currencyName;
     private String currencySymbol;
+    private Integer minorUnitExponent;
     private LocalDateTime createdAt;
     private String createdBy;
     private LocalDateTime updatedAt;
@@ -0,0 +1,22 @@
+package com.webstore.dto.response;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+public class ExchangeRateResponseDto {
+    private Integer exchangeRateId;
+    private Integer baseCurrencyId;
+    private String baseCurrencyCode;
+    private Integer quoteCurrencyId;
+    private String quoteCurrencyCode;
+    private BigDecimal rate;
+    private LocalDateTime validFrom;
+    private LocalDateTime validTo;
+    private LocalDateTime createdAt;
+    private String createdBy;
+    private LocalDateTime updatedAt;
+    private String updatedBy;
+}
@@ -0,0 +1,52 @@
+package com.webstore.dto.response;
+
+import com.webstore.util.FacetIndex.StockBucket;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+public class FacetedSearchResponseDto {
+    private int total;
+    private int page;
+    private int size;
+    private List<ProductResponseDto> products;
+
+    // Price facets and filters are in this currency's minor units
+    private String currencyCode;
+
+    private List<FacetCountDto> catalogues;
+    private List<FacetCountDto> categories;
+    private List<FacetCountDto> sellers;
+    private List<StockCountDto> stock;
+    private List<PriceRangeCountDto> prices;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FacetCountDto {
+        private Integer id;
+        private String name;
+        private int count;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StockCountDto {
+        private StockBucket bucket;
+        private int count;
+    }
+
+    // from is inclusive and to exclusive; a null bound is open
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceRangeCountDto {
+        private Long from;
+        private Long to;
+        private int count;
+    }
+}
@@ -0,0 +1,29 @@
+package com.webstore.dto.response;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class OrderResponseDto {
+    private Long orderId;
+    private String customer;
+    private String status;
+    private String currencyCode;
+    private BigInteger totalAmount;
+    private List<OrderLineDto> lines;
+    private LocalDateTime createdAt;
+    private boolean replayed;   // True when the idempotency key matched an order placed earlier
+
+    @Data
+    public static class OrderLineDto {
+        private Long orderLineId;
+        private Integer productId;
+        private String productName;
+        private Integer quantity;
+        private BigInteger unitPrice;
+        private BigInteger lineTotal;
+    }
+}
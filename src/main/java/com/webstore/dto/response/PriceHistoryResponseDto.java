@@ -0,0 +1,22 @@
+package com.webstore.dto.response;
+
+import lombok.Data;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+
+@Data
+public class PriceHistoryResponseDto {
+    private Long productPriceHistoryId;
+    private Integer productPriceId;
+    private Integer productId;
+    private Integer currencyId;
+    private String currencyCode;
+    private String currencySymbol;
+    private BigInteger priceAmount;
+    private String formattedPrice;
+    private LocalDateTime validFrom;
+    private LocalDateTime validTo;
+    private String createdBy;
+    private String closedBy;
+}
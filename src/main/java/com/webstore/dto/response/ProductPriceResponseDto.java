@@ -13,11 +13,9 @@ public class ProductPriceResponseDto {
     private String currencyCode;
     private String currencySymbol;
     private BigInteger priceAmount;
+    private String formattedPrice;
     private LocalDateTime createdAt;
     private String createdBy;
     private LocalDateTime updatedAt;
     private String updatedBy;
-
-    public void setFormattedPrice(String formattedPrice) {
-    }
 }
@@ -29,6 +29,12 @@ public class ProductResponseDto {
         private Integer currencyId;
         private String currencyCode;
         private String currencySymbol;
+        private Integer minorUnitExponent;
         private BigInteger priceAmount;
+        // Converted from the base currency price at the current exchange rate rather than entered
+        private boolean derived;
+        // Set while a promotion lowers priceAmount
+        private BigInteger promotionalPriceAmount;
+        private Integer promotionId;
     }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.webstore.dto.response;
+
+import com.webstore.entity.Promotion.DiscountType;
+import com.webstore.entity.Promotion.PromotionScope;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+public class PromotionResponseDto {
+    private Integer promotionId;
+    private String promotionName;
+    private PromotionScope scope;
+    private Integer targetId;
+    private DiscountType discountType;
+    private BigDecimal discountValue;
+    private Integer currencyId;
+    private String currencyCode;
+    private LocalDateTime startsAt;
+    private LocalDateTime endsAt;
+    private boolean running;
+    private LocalDateTime createdAt;
+    private String createdBy;
+    private LocalDateTime updatedAt;
+    private String updatedBy;
+}
@@ -0,0 +1,17 @@
+package com.webstore.dto.response;
+
+import java.time.LocalDateTime;
+import lombok.Data;
+
+@Data
+public class StockReservationResponseDto {
+    private Long reservationId;
+    private Integer productId;
+    private String productName;
+    private Integer quantity;
+    private String holder;
+    private String status;
+    private LocalDateTime expiresAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
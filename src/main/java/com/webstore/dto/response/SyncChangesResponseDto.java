@@ -0,0 +1,25 @@
+package com.webstore.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class SyncChangesResponseDto {
+    private Long since;          // Cursor the client asked for
+    private Long nextVersion;    // Cursor to send on the next poll
+    private boolean hasMore;     // True when the page was cut; poll again immediately with nextVersion
+    private List<ChangeDto> changes;
+
+    // One created/updated entity (with its current state) or a tombstone (data is null)
+    @Data
+    public static class ChangeDto {
+        private String entityType;   // products, product_prices, categories or catalogues
+        private Integer entityId;
+        private String changeType;   // CREATED, UPDATED or DELETED
+        private Long version;
+        private LocalDateTime changedAt;
+        private Object data;
+    }
+}
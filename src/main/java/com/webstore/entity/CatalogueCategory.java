@@ -2,15 +2,21 @@ package com.webstore.entity;
 
 import static com.webstore.constant.DatabaseConstants.SCHEMA_NAME;
 
+import com.webstore.constant.CacheNames;
+
 import java.util.HashSet;
 import java.util.Set;
 
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheNames.CATALOGUE_CATEGORY_REGION)
 @EqualsAndHashCode(callSuper = true)
 @Table(
         name = "catalogue_categories",
@@ -2,12 +2,19 @@ package com.webstore.entity;
 
 import static com.webstore.constant.DatabaseConstants.SCHEMA_NAME;
 
+import com.webstore.constant.CacheNames;
+import com.webstore.util.MoneyFormatter;
+
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheNames.CURRENCY_REGION)
 @EqualsAndHashCode(callSuper = true)
 @Table(name = "currencies", schema = SCHEMA_NAME)
 public class Currency extends BasicEntities {
@@ -30,4 +37,8 @@ public class Currency extends BasicEntities {
 
     @Column(name = "currency_symbol", length = 5, nullable = false)
     private String currencySymbol;
+
+    // Decimals of the minor unit prices are stored in (2 for cents, 0 for yen)
+    @Column(name = "minor_unit_exponent", nullable = false)
+    private Integer minorUnitExponent = MoneyFormatter.DEFAULT_EXPONENT;
 }
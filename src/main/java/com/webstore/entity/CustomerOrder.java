@@ -0,0 +1,58 @@
+package com.webstore.entity;
+
+import static com.webstore.constant.DatabaseConstants.SCHEMA_NAME;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+@Data
+@Entity
+@EqualsAndHashCode(callSuper = true, exclude = "orderLines")
+@ToString(exclude = "orderLines")
+@Table(name = "orders", schema = SCHEMA_NAME)
+public class CustomerOrder extends BasicEntities {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_generator")
+    @SequenceGenerator(
+            name = "order_generator",
+            sequenceName = SCHEMA_NAME + ".seq_order_id",
+            allocationSize = 1
+    )
+    @Column(name = "order_id")
+    private Long orderId;
+
+    // WhatsApp number or username of the buyer
+    @Column(name = "customer", length = 100, nullable = false)
+    private String customer;
+
+    @Column(name = "idempotency_key", length = 100, nullable = false, unique = true, updatable = false)
+    private String idempotencyKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    private OrderStatus status = OrderStatus.PLACED;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "currency_id", nullable = false)
+    private Currency currency;
+
+    // In the currency's minor unit, like product prices
+    @Column(name = "total_amount", nullable = false)
+    private BigInteger totalAmount = BigInteger.ZERO;
+
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("orderLineId")
+    private List<OrderLine> orderLines = new ArrayList<>();
+
+    public enum OrderStatus {
+        PLACED,
+        CANCELLED
+    }
+}
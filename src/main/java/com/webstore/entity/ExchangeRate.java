@@ -0,0 +1,46 @@
+package com.webstore.entity;
+
+import static com.webstore.constant.DatabaseConstants.SCHEMA_NAME;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@EqualsAndHashCode(callSuper = true)
+@Table(name = "exchange_rates", schema = SCHEMA_NAME)
+public class ExchangeRate extends BasicEntities {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "exchange_rate_generator")
+    @SequenceGenerator(
+            name = "exchange_rate_generator",
+            sequenceName = SCHEMA_NAME + ".seq_exchange_rate_id",
+            allocationSize = 1
+    )
+    @Column(name = "exchange_rate_id")
+    private Integer exchangeRateId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "base_currency_id", nullable = false)
+    private Currency baseCurrency;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "quote_currency_id", nullable = false)
+    private Currency quoteCurrency;
+
+    // 1 unit of the base currency = rate units of the quote currency (major units)
+    @Column(name = "rate", precision = 20, scale = 10, nullable = false)
+    private BigDecimal rate;
+
+    @Column(name = "valid_from", nullable = false)
+    private LocalDateTime validFrom;
+
+    // Exclusive; null while the rate is open-ended
+    @Column(name = "valid_to")
+    private LocalDateTime validTo;
+}
@@ -0,0 +1,51 @@
+package com.webstore.entity;
+
+import static com.webstore.constant.DatabaseConstants.SCHEMA_NAME;
+
+import java.math.BigInteger;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+@Data
+@Entity
+@EqualsAndHashCode(exclude = "order")
+@ToString(exclude = "order")
+@Table(name = "order_lines", schema = SCHEMA_NAME)
+public class OrderLine {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_line_generator")
+    @SequenceGenerator(
+            name = "order_line_generator",
+            sequenceName = SCHEMA_NAME + ".seq_order_line_id",
+            allocationSize = 1
+    )
+    @Column(name = "order_line_id")
+    private Long orderLineId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", nullable = false)
+    private CustomerOrder order;
+
+    // Null once the product has been deleted; productName keeps what was bought
+    @Column(name = "product_id")
+    private Integer productId;
+
+    @Column(name = "product_name", length = 50, nullable = false)
+    private String productName;
+
+    @Column(name = "reservation_id")
+    private Long reservationId;
+
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+
+    @Column(name = "unit_price", nullable = false)
+    private BigInteger unitPrice;
+
+    @Column(name = "line_total", nullable = false)
+    private BigInteger lineTotal;
+}
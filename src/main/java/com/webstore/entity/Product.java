@@ -6,11 +6,14 @@ import java.util.ArrayList;
 import java.util.List;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
 @Data
 @Entity
+// Only changed columns are written, so editing a product never writes back a stale stock value
+@DynamicUpdate
 @EqualsAndHashCode(callSuper = true)
 @Table(name = "products", schema = SCHEMA_NAME)
 public class Product extends BasicEntities {
@@ -0,0 +1,69 @@
+package com.webstore.entity;
+
+import static com.webstore.constant.DatabaseConstants.SCHEMA_NAME;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@EqualsAndHashCode(callSuper = true)
+@Table(name = "promotions", schema = SCHEMA_NAME)
+public class Promotion extends BasicEntities {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "promotion_generator")
+    @SequenceGenerator(
+            name = "promotion_generator",
+            sequenceName = SCHEMA_NAME + ".seq_promotion_id",
+            allocationSize = 1
+    )
+    @Column(name = "promotion_id")
+    private Integer promotionId;
+
+    @Column(name = "promotion_name", length = 100, nullable = false)
+    private String promotionName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scope", length = 20, nullable = false)
+    private PromotionScope scope;
+
+    // product_id, category_id or catalogue_id depending on the scope
+    @Column(name = "target_id", nullable = false)
+    private Integer targetId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "discount_type", length = 20, nullable = false)
+    private DiscountType discountType;
+
+    // Percent off for PERCENT, minor units off for AMOUNT
+    @Column(name = "discount_value", precision = 38, scale = 2, nullable = false)
+    private BigDecimal discountValue;
+
+    // Only for AMOUNT: the currency whose price is reduced
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "currency_id")
+    private Currency currency;
+
+    @Column(name = "starts_at", nullable = false)
+    private LocalDateTime startsAt;
+
+    // Exclusive
+    @Column(name = "ends_at", nullable = false)
+    private LocalDateTime endsAt;
+
+    public enum PromotionScope {
+        PRODUCT,
+        CATEGORY,
+        CATALOGUE
+    }
+
+    public enum DiscountType {
+        PERCENT,
+        AMOUNT
+    }
+}
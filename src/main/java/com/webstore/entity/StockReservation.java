@@ -0,0 +1,51 @@
+package com.webstore.entity;
+
+import static com.webstore.constant.DatabaseConstants.SCHEMA_NAME;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Data
+@Entity
+@EqualsAndHashCode(callSuper = true)
+@Table(name = "stock_reservations", schema = SCHEMA_NAME)
+public class StockReservation extends BasicEntities {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_reservation_generator")
+    @SequenceGenerator(
+            name = "stock_reservation_generator",
+            sequenceName = SCHEMA_NAME + ".seq_stock_reservation_id",
+            allocationSize = 1
+    )
+    @Column(name = "reservation_id")
+    private Long reservationId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+
+    // WhatsApp number or username of the buyer holding the stock
+    @Column(name = "holder", length = 100, nullable = false)
+    private String holder;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    private ReservationStatus status = ReservationStatus.HELD;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public enum ReservationStatus {
+        HELD,
+        CONFIRMED,
+        RELEASED,
+        EXPIRED
+    }
+}
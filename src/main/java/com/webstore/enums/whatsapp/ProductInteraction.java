@@ -0,0 +1,9 @@
+package com.webstore.enums.whatsapp;
+
+// What a user did with a product in the bot, in order of how much it says about their interest
+public enum ProductInteraction {
+    VIEW,
+    SELECTION,
+    CART_ADD,
+    CHECKOUT
+}
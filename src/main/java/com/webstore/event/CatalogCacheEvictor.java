@@ -0,0 +1,74 @@
+package com.webstore.event;
+
+import static com.webstore.constant.DatabaseConstants.CATALOGUES_TABLE;
+import static com.webstore.constant.DatabaseConstants.CATALOGUE_CATEGORIES_TABLE;
+import static com.webstore.constant.DatabaseConstants.CATEGORIES_TABLE;
+import static com.webstore.constant.DatabaseConstants.CURRENCIES_TABLE;
+import static com.webstore.constant.DatabaseConstants.PRODUCTS_TABLE;
+
+import com.webstore.constant.CacheNames;
+import com.webstore.entity.Catalogue;
+import com.webstore.entity.CatalogueCategory;
+import com.webstore.entity.Category;
+import com.webstore.entity.Currency;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Evicts this instance's caches when another instance reports a catalog change.
+ * Local writes need nothing here: Hibernate keeps its own regions consistent and the
+ * services evict their Spring caches through @CacheEvict.
+ */
+@Slf4j
+@Component
+public class CatalogCacheEvictor {
+
+    // Tables backed by a Hibernate second-level cache region
+    private static final Map<String, Class<?>> CACHED_ENTITIES = Map.of(
+            CURRENCIES_TABLE, Currency.class,
+            CATEGORIES_TABLE, Category.class,
+            CATALOGUES_TABLE, Catalogue.class,
+            CATALOGUE_CATEGORIES_TABLE, CatalogueCategory.class);
+
+    // Tables that feed the seller details aggregation
+    private static final Set<String> SELLER_DETAILS_TABLES = Set.of(
+            PRODUCTS_TABLE, CATEGORIES_TABLE, CATALOGUES_TABLE, CATALOGUE_CATEGORIES_TABLE);
+
+    private final Cache secondLevelCache;
+    private final CacheManager cacheManager;
+
+    public CatalogCacheEvictor(EntityManagerFactory entityManagerFactory, CacheManager cacheManager) {
+        this.secondLevelCache = entityManagerFactory.getCache().unwrap(Cache.class);
+        this.cacheManager = cacheManager;
+    }
+
+    @EventListener(condition = "#event.remote")
+    public void onRemoteChange(CatalogChangeEvent event) {
+        Class<?> entityClass = CACHED_ENTITIES.get(event.getTable());
+        if (entityClass != null) {
+            if (event.getId() != null) {
+                secondLevelCache.evictEntityData(entityClass, event.getId());
+            } else {
+                secondLevelCache.evictEntityData(entityClass);
+            }
+            // Our update-timestamps region never saw the remote write, so cached lookups may be stale
+            secondLevelCache.evictDefaultQueryRegion();
+        }
+
+        if (SELLER_DETAILS_TABLES.contains(event.getTable())) {
+            org.springframework.cache.Cache sellerDetails = cacheManager.getCache(CacheNames.SELLER_DETAILS);
+            if (sellerDetails != null) {
+                sellerDetails.clear();
+            }
+        }
+
+        log.debug("Evicted local caches for remote change {}", event);
+    }
+}
@@ -0,0 +1,49 @@
+package com.webstore.event;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * Signals that a row of a catalog table changed.
+ * Local events are published by the services inside their transaction and broadcast to other instances;
+ * remote events are republished by CatalogChangeListener when another instance committed a change.
+ * A null id means the whole table must be treated as changed (e.g. after a bulk delete or a missed notification).
+ */
+@Getter
+@ToString
+public class CatalogChangeEvent {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final String table;
+    private final Integer id;
+    private final ChangeType changeType;
+    private final boolean remote;
+
+    private CatalogChangeEvent(String table, Integer id, ChangeType changeType, boolean remote) {
+        this.table = table;
+        this.id = id;
+        this.changeType = changeType;
+        this.remote = remote;
+    }
+
+    public static CatalogChangeEvent created(String table, Integer id) {
+        return new CatalogChangeEvent(table, id, ChangeType.CREATED, false);
+    }
+
+    public static CatalogChangeEvent updated(String table, Integer id) {
+        return new CatalogChangeEvent(table, id, ChangeType.UPDATED, false);
+    }
+
+    public static CatalogChangeEvent deleted(String table, Integer id) {
+        return new CatalogChangeEvent(table, id, ChangeType.DELETED, false);
+    }
+
+    public static CatalogChangeEvent remote(String table, Integer id) {
+        return new CatalogChangeEvent(table, id, ChangeType.UPDATED, true);
+    }
+}
@@ -0,0 +1,194 @@
+package com.webstore.event;
+
+import static com.webstore.constant.DatabaseConstants.CATALOG_CHANGE_CHANNEL;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Listens for catalog change notifications from other instances on a dedicated connection
+ * (outside the Hikari pool, since LISTEN is bound to the session) and republishes them as
+ * remote CatalogChangeEvents so every in-process cache can evict.
+ * Notifications sent while disconnected are lost, so after every (re)connect the per-table
+ * versions in web_store.cache_versions are compared with the last seen ones and any table
+ * that moved is evicted as a whole.
+ * Our own notifications come back on the channel too; they only advance the seen version, since
+ * the writing instance has already updated its caches.
+ */
+@Slf4j
+@Component
+public class CatalogChangeListener implements SmartLifecycle {
+
+    private final DataSourceProperties dataSourceProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final String instanceId;
+    private final boolean enabled;
+    private final int pollTimeoutMillis;
+    private final long reconnectDelayMillis;
+
+    // Highest version applied per table; versions of one table are committed in order
+    private final Map<String, Long> seenVersions = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public CatalogChangeListener(DataSourceProperties dataSourceProperties,
+            ApplicationEventPublisher eventPublisher,
+            ObjectMapper objectMapper,
+            CatalogChangeNotifier notifier,
+            @Value("${cache.invalidation.enabled:true}") boolean enabled,
+            @Value("${cache.invalidation.poll-timeout-ms:10000}") int pollTimeoutMillis,
+            @Value("${cache.invalidation.reconnect-delay-ms:5000}") long reconnectDelayMillis) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.instanceId = notifier.getInstanceId();
+        this.enabled = enabled;
+        this.pollTimeoutMillis = pollTimeoutMillis;
+        this.reconnectDelayMillis = reconnectDelayMillis;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            log.info("Cross-instance cache invalidation is disabled");
+            return;
+        }
+        running = true;
+        worker = Thread.ofPlatform()
+                .name("catalog-change-listener")
+                .daemon(true)
+                .start(this::listenLoop);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = openConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CATALOG_CHANGE_CHANNEL);
+                }
+                log.info("Listening for catalog changes on channel '{}'", CATALOG_CHANGE_CHANNEL);
+
+                // LISTEN is active before reading versions, so nothing committed after this point is missed
+                catchUp(connection);
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMillis);
+                    if (notifications == null || notifications.length == 0) {
+                        // Idle: make sure the session is still alive so a dropped connection is noticed
+                        if (!connection.isValid(5)) {
+                            throw new SQLException("Catalog change listener connection is no longer valid");
+                        }
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        handle(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Catalog change listener disconnected, reconnecting in {} ms: {}",
+                            reconnectDelayMillis, e.getMessage());
+                    sleepBeforeReconnect();
+                }
+            } catch (RuntimeException e) {
+                log.error("Unexpected error in catalog change listener", e);
+                sleepBeforeReconnect();
+            }
+        }
+    }
+
+    private Connection openConnection() throws SQLException {
+        Connection connection = DriverManager.getConnection(
+                dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword());
+        connection.setAutoCommit(true);
+        return connection;
+    }
+
+    private void catchUp(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT table_name, version FROM web_store.cache_versions")) {
+            while (rs.next()) {
+                String table = rs.getString("table_name");
+                long version = rs.getLong("version");
+                Long seen = seenVersions.put(table, version);
+                if (seen == null) {
+                    // First connect: anything cached during startup may predate the LISTEN
+                    log.debug("Tracking catalog table {} from version {}", table, version);
+                    eventPublisher.publishEvent(CatalogChangeEvent.remote(table, null));
+                } else if (seen != version) {
+                    // Moved while we were not listening: drop everything cached for the table
+                    log.info("Catalog table {} changed while not listening (version {} -> {}), evicting",
+                            table, seen, version);
+                    eventPublisher.publishEvent(CatalogChangeEvent.remote(table, null));
+                }
+            }
+        }
+    }
+
+    void handle(String payload) {
+        try {
+            JsonNode node = objectMapper.readTree(payload);
+            String table = node.path("table").asText();
+            long version = node.path("version").asLong();
+            Integer id = node.hasNonNull("id") ? node.get("id").asInt() : null;
+
+            // One version covers every id a transaction changed in the table, so only older ones are stale
+            Long seen = seenVersions.get(table);
+            if (seen != null && version < seen) {
+                // Already covered by the catch-up that ran after reconnecting
+                return;
+            }
+            seenVersions.put(table, version);
+            if (instanceId.equals(node.path("origin").asText())) {
+                return;
+            }
+
+            log.debug("Catalog change received table={} id={} version={}", table, id, version);
+            eventPublisher.publishEvent(CatalogChangeEvent.remote(table, id));
+        } catch (Exception e) {
+            log.warn("Ignoring malformed catalog change notification '{}': {}", payload, e.getMessage());
+        }
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(reconnectDelayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.webstore.event;
+
+import static com.webstore.constant.DatabaseConstants.CATALOGUES_TABLE;
+import static com.webstore.constant.DatabaseConstants.CATEGORIES_TABLE;
+import static com.webstore.constant.DatabaseConstants.PRODUCTS_TABLE;
+import static com.webstore.constant.DatabaseConstants.PRODUCT_PRICES_TABLE;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/*
+ * Records the latest change of every synced entity in web_store.catalog_change_log, inside the
+ * publishing service's transaction. The row is keyed by entity, so the log grows with the catalog
+ * (plus tombstones), not with the number of writes.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogChangeLogWriter {
+
+    public static final Set<String> SYNCED_TABLES = Set.of(
+            PRODUCTS_TABLE, PRODUCT_PRICES_TABLE, CATEGORIES_TABLE, CATALOGUES_TABLE);
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO web_store.catalog_change_log (entity_table, entity_id, change_type, change_version, changed_at) " +
+            "VALUES (?, ?, ?, CAST(CAST(pg_current_xact_id() AS TEXT) AS BIGINT), CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (entity_table, entity_id) DO UPDATE " +
+            "SET change_type = EXCLUDED.change_type, " +
+            "    change_version = EXCLUDED.change_version, " +
+            "    changed_at = EXCLUDED.changed_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(condition = "!#event.remote")
+    public void onLocalChange(CatalogChangeEvent event) {
+        if (event.getId() == null || !SYNCED_TABLES.contains(event.getTable())) {
+            return;
+        }
+        jdbcTemplate.update(UPSERT_SQL, event.getTable(), event.getId(), event.getChangeType().name());
+    }
+}
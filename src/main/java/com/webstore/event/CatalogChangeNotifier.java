@@ -0,0 +1,119 @@
+package com.webstore.event;
+
+import static com.webstore.constant.DatabaseConstants.CATALOG_CHANGE_CHANNEL;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/*
+ * Broadcasts local catalog changes to the other instances.
+ * The changes of a transaction are collected and sent once it has committed, in a short transaction of their
+ * own: per table, one statement bumps the table's row in web_store.cache_versions and notifies every changed
+ * id. The hot cache_versions row is therefore only locked for that statement, not for the whole writing
+ * transaction, and nothing is sent on rollback. Each notification carries this instance's id as its origin
+ * so CatalogChangeListener can skip our own.
+ * A crash between the commit and the notification loses it; other instances then only catch up on their
+ * next reconnect.
+ */
+@Slf4j
+@Component
+public class CatalogChangeNotifier {
+
+    // Bumps the table's version once and notifies each id in a single round trip
+    private static final String BUMP_AND_NOTIFY_SQL =
+            "WITH bumped AS (" +
+            "    INSERT INTO web_store.cache_versions (table_name, version, updated_at) " +
+            "    VALUES (?, 1, CURRENT_TIMESTAMP) " +
+            "    ON CONFLICT (table_name) DO UPDATE " +
+            "    SET version = web_store.cache_versions.version + 1, updated_at = CURRENT_TIMESTAMP " +
+            "    RETURNING table_name, version" +
+            ") " +
+            "SELECT bumped.version, " +
+            "       pg_notify(?, json_build_object('table', bumped.table_name, 'id', ids.id, " +
+            "                                      'version', bumped.version, 'origin', ?)::text) " +
+            "FROM bumped CROSS JOIN unnest(CAST(? AS INTEGER[])) AS ids(id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate notifyTransaction;
+
+    // Origin of our notifications; a new one per start, so a restarted instance is a new origin
+    @Getter
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public CatalogChangeNotifier(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.notifyTransaction = new TransactionTemplate(transactionManager);
+        this.notifyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(condition = "!#event.remote")
+    public void onLocalChange(CatalogChangeEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            log.warn("Catalog change {} published outside a transaction; notification is sent immediately", event);
+            send(Map.of(event.getTable(), Collections.singleton(event.getId())));
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.add(event);
+    }
+
+    /* Sends the collected ids per table; tables in name order so concurrent senders lock their rows alike */
+    void send(Map<String, Set<Integer>> idsByTable) {
+        notifyTransaction.executeWithoutResult(status -> idsByTable.forEach((table, ids) -> {
+            // A null id stands for the whole table, as in CatalogChangeEvent
+            String idArray = ids.stream()
+                    .map(id -> id == null ? "NULL" : id.toString())
+                    .collect(Collectors.joining(",", "{", "}"));
+            Long version = jdbcTemplate.query(BUMP_AND_NOTIFY_SQL,
+                    rs -> rs.next() ? rs.getLong(1) : null,
+                    table, CATALOG_CHANGE_CHANNEL, instanceId, idArray);
+            log.debug("Sent catalog change notification table={} ids={} version={}", table, ids, version);
+        }));
+    }
+
+    /* The changes of one transaction, sent after it commits */
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final Map<String, Set<Integer>> idsByTable = new TreeMap<>();
+
+        void add(CatalogChangeEvent event) {
+            idsByTable.computeIfAbsent(event.getTable(), table -> new LinkedHashSet<>()).add(event.getId());
+        }
+
+        @Override
+        public void afterCommit() {
+            try {
+                send(idsByTable);
+            } catch (RuntimeException e) {
+                // The write itself has committed; other instances catch up on their next reconnect
+                log.error("Could not send catalog change notifications for {}", idsByTable.keySet(), e);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CatalogChangeNotifier.this);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.webstore.event.outbox;
+
+import com.webstore.event.CatalogChangeEvent.ChangeType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * Polls web_store.catalog_outbox and hands pending events to the OutboxEventSubscribers.
+ *
+ * Events are spread over lanes by entity (see V11). Each transaction claims one lane that has pending
+ * work with FOR UPDATE SKIP LOCKED, dispatches up to batch-size of its events in id order and marks them,
+ * so no event is delivered by two instances and one entity's events are never reordered. Instances that
+ * poll concurrently simply pick different lanes. Failed events stay pending (together with any later event
+ * of the same entity) and are retried on the next poll until max-attempts is reached. Each event is handed
+ * over under a JDBC savepoint of the lane's transaction, so a subscriber whose SQL fails only rolls back its
+ * own work, not the lane's; subscribers should therefore write through JdbcTemplate rather than JPA.
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher {
+
+    private static final String CLAIM_LANE_SQL =
+            "SELECT l.lane FROM web_store.catalog_outbox_lanes l " +
+            "WHERE l.lane <> ALL (?) " +
+            "  AND EXISTS (SELECT 1 FROM web_store.catalog_outbox o " +
+            "              WHERE o.lane = l.lane AND o.dispatched_at IS NULL) " +
+            "ORDER BY l.last_polled_at NULLS FIRST, l.lane " +
+            "LIMIT 1 " +
+            "FOR UPDATE OF l SKIP LOCKED";
+
+    private static final String LANE_BATCH_SQL =
+            "SELECT id, entity_table, entity_id, change_type, created_at, attempts, " +
+            "       EXTRACT(EPOCH FROM (CAST(clock_timestamp() AS TIMESTAMP) - created_at)) * 1000 AS lag_ms " +
+            "FROM web_store.catalog_outbox " +
+            "WHERE lane = ? AND dispatched_at IS NULL " +
+            "ORDER BY id " +
+            "LIMIT ?";
+
+    private static final String RELEASE_LANE_SQL =
+            "UPDATE web_store.catalog_outbox_lanes SET last_polled_at = clock_timestamp() WHERE lane = ?";
+
+    private static final String MARK_DISPATCHED_SQL =
+            "UPDATE web_store.catalog_outbox SET dispatched_at = CURRENT_TIMESTAMP, attempts = attempts + 1 " +
+            "WHERE id = ANY (?)";
+
+    // Gives up (dispatched_at set, last_error kept) once the attempt budget is spent
+    private static final String MARK_FAILED_SQL =
+            "UPDATE web_store.catalog_outbox " +
+            "SET attempts = attempts + 1, last_error = ?, " +
+            "    dispatched_at = CASE WHEN attempts + 1 >= ? THEN CURRENT_TIMESTAMP END " +
+            "WHERE id = ?";
+
+    private static final String PURGE_SQL =
+            "DELETE FROM web_store.catalog_outbox WHERE id IN (" +
+            "    SELECT id FROM web_store.catalog_outbox " +
+            "    WHERE dispatched_at < CURRENT_TIMESTAMP - CAST(? AS INTEGER) * INTERVAL '1 hour' LIMIT ?)";
+
+    private static final int PURGE_CHUNK_SIZE = 5000;
+
+    // Upper bound on back-to-back batches in one poll so a large backlog can't starve the scheduler thread
+    private static final int MAX_BATCHES_PER_POLL = 32;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final List<OutboxEventSubscriber> subscribers;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final int retentionHours;
+
+    private final Timer dispatchLag;
+    private final DistributionSummary batchSizes;
+
+    public OutboxDispatcher(JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ObjectProvider<OutboxEventSubscriber> subscribers,
+            MeterRegistry meterRegistry,
+            @Value("${outbox.enabled:true}") boolean enabled,
+            @Value("${outbox.batch-size:100}") int batchSize,
+            @Value("${outbox.max-attempts:10}") int maxAttempts,
+            @Value("${outbox.retention-hours:168}") int retentionHours) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.subscribers = subscribers.orderedStream().toList();
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retentionHours = retentionHours;
+
+        this.dispatchLag = Timer.builder("outbox.dispatch.lag")
+                .description("Time from outbox insert to dispatch")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("outbox.batch.size")
+                .description("Events dispatched per lane batch")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-ms:1000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        // Lanes that hit a failure are left alone until the next poll instead of being retried in a tight loop
+        Set<Integer> failedLanes = new HashSet<>();
+        for (int i = 0; i < MAX_BATCHES_PER_POLL; i++) {
+            Boolean claimed = transactionTemplate.execute(status -> dispatchNextLane(failedLanes));
+            if (!Boolean.TRUE.equals(claimed)) {
+                return;
+            }
+        }
+    }
+
+    /* Claims one lane with pending events and dispatches a batch of it; false when no lane is available. */
+    boolean dispatchNextLane(Set<Integer> failedLanes) {
+        List<Integer> lanes = jdbcTemplate.queryForList(CLAIM_LANE_SQL, Integer.class,
+                (Object) failedLanes.toArray(new Integer[0]));
+        if (lanes.isEmpty()) {
+            return false;
+        }
+        int lane = lanes.get(0);
+
+        List<ClaimedEvent> batch = jdbcTemplate.query(LANE_BATCH_SQL, CLAIMED_EVENT_MAPPER, lane, batchSize);
+        List<Long> dispatchedIds = new ArrayList<>(batch.size());
+        Set<String> blockedEntities = new HashSet<>();
+
+        for (ClaimedEvent claimed : batch) {
+            OutboxEvent event = claimed.event();
+            String entityKey = event.getEntityTable() + ":" + event.getEntityId();
+            if (blockedEntities.contains(entityKey)) {
+                // An earlier event of this entity failed; keep order by holding this one back too
+                continue;
+            }
+            Savepoint savepoint = jdbcTemplate.execute((ConnectionCallback<Savepoint>) Connection::setSavepoint);
+            try {
+                for (OutboxEventSubscriber subscriber : subscribers) {
+                    subscriber.onEvent(event);
+                }
+                jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                    connection.releaseSavepoint(savepoint);
+                    return null;
+                });
+                dispatchedIds.add(event.getId());
+                dispatchLag.record(Duration.ofMillis(claimed.lagMillis()));
+                counter("outbox.events.dispatched", event.getEntityTable()).increment();
+            } catch (RuntimeException e) {
+                jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                    connection.rollback(savepoint);
+                    return null;
+                });
+                blockedEntities.add(entityKey);
+                failedLanes.add(lane);
+                markFailed(event, e);
+            }
+        }
+
+        if (!dispatchedIds.isEmpty()) {
+            jdbcTemplate.update(MARK_DISPATCHED_SQL, ps -> ps.setArray(1,
+                    ps.getConnection().createArrayOf("bigint", dispatchedIds.toArray())));
+        }
+        jdbcTemplate.update(RELEASE_LANE_SQL, lane);
+        batchSizes.record(dispatchedIds.size());
+        return true;
+    }
+
+    private void markFailed(OutboxEvent event, RuntimeException e) {
+        counter("outbox.events.failed", event.getEntityTable()).increment();
+        String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        if (error.length() > 500) {
+            error = error.substring(0, 500);
+        }
+        jdbcTemplate.update(MARK_FAILED_SQL, error, maxAttempts, event.getId());
+
+        if (event.getAttempts() + 1 >= maxAttempts) {
+            log.error("Outbox event {} failed {} times and is abandoned", event, maxAttempts, e);
+        } else {
+            log.warn("Outbox event {} failed (attempt {}), will retry: {}", event, event.getAttempts() + 1, error);
+        }
+    }
+
+    @Scheduled(cron = "${outbox.purge-cron:0 30 3 * * *}")
+    public void purgeDispatched() {
+        if (!enabled) {
+            return;
+        }
+        int deleted;
+        int total = 0;
+        do {
+            deleted = jdbcTemplate.update(PURGE_SQL, retentionHours, PURGE_CHUNK_SIZE);
+            total += deleted;
+        } while (deleted == PURGE_CHUNK_SIZE);
+        log.info("Purged {} dispatched outbox events older than {} hours", total, retentionHours);
+    }
+
+    private Counter counter(String name, String table) {
+        return Counter.builder(name).tag("table", table).register(meterRegistry);
+    }
+
+    private record ClaimedEvent(OutboxEvent event, long lagMillis) {
+    }
+
+    private static final RowMapper<ClaimedEvent> CLAIMED_EVENT_MAPPER = (rs, rowNum) -> new ClaimedEvent(
+            OutboxEvent.builder()
+                    .id(rs.getLong("id"))
+                    .entityTable(rs.getString("entity_table"))
+                    .entityId(rs.getInt("entity_id"))
+                    .changeType(ChangeType.valueOf(rs.getString("change_type")))
+                    .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                    .attempts(rs.getInt("attempts"))
+                    .build(),
+            Math.max(0L, rs.getLong("lag_ms")));
+}
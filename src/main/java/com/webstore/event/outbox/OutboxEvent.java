@@ -0,0 +1,25 @@
+package com.webstore.event.outbox;
+
+import com.webstore.event.CatalogChangeEvent.ChangeType;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/*
+ * A committed catalog change read back from web_store.catalog_outbox.
+ * Subscribers receive the table and id only and load current state themselves if they need it.
+ */
+@Getter
+@Builder
+@ToString
+public class OutboxEvent {
+
+    private final Long id;
+    private final String entityTable;
+    private final Integer entityId;
+    private final ChangeType changeType;
+    private final LocalDateTime createdAt;
+    private final int attempts;
+}
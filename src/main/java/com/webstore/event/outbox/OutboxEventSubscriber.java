@@ -0,0 +1,13 @@
+package com.webstore.event.outbox;
+
+/*
+ * In-process consumer of the catalog outbox (search indexing, downstream sync, ...).
+ * Each event is delivered to one instance of the cluster; events of the same entity arrive in outbox order
+ * and never concurrently.
+ * Delivery is at-least-once: when a subscriber throws, the event is retried for every subscriber,
+ * so implementations must be idempotent.
+ */
+public interface OutboxEventSubscriber {
+
+    void onEvent(OutboxEvent event);
+}
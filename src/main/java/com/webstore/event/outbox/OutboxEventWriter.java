@@ -0,0 +1,33 @@
+package com.webstore.event.outbox;
+
+import com.webstore.event.CatalogChangeEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/*
+ * Appends every local catalog change to the outbox within the publishing service's transaction,
+ * so the event exists if and only if the mutation committed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxEventWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO web_store.catalog_outbox (entity_table, entity_id, change_type) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(condition = "!#event.remote")
+    public void onLocalChange(CatalogChangeEvent event) {
+        if (event.getId() == null) {
+            // Whole-table signals only matter to caches; outbox consumers need row-level events
+            log.warn("Catalog change {} has no row id and is not written to the outbox", event);
+            return;
+        }
+        jdbcTemplate.update(INSERT_SQL, event.getTable(), event.getId(), event.getChangeType().name());
+    }
+}
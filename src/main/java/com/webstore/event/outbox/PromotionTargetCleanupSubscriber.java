@@ -0,0 +1,56 @@
+package com.webstore.event.outbox;
+
+import static com.webstore.constant.DatabaseConstants.CATALOGUES_TABLE;
+import static com.webstore.constant.DatabaseConstants.CATEGORIES_TABLE;
+import static com.webstore.constant.DatabaseConstants.PRODUCTS_TABLE;
+import static com.webstore.constant.DatabaseConstants.PROMOTIONS_TABLE;
+
+import com.webstore.entity.Promotion.PromotionScope;
+import com.webstore.event.CatalogChangeEvent;
+import com.webstore.event.CatalogChangeEvent.ChangeType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Deletes the promotions of a deleted product, category or catalogue. promotions.target_id cannot carry a
+ * foreign key because its table depends on the scope, so nothing else removes them. Runs once per cluster
+ * through the outbox and is idempotent: a redelivered event finds nothing left to delete.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PromotionTargetCleanupSubscriber implements OutboxEventSubscriber {
+
+    private static final Map<String, PromotionScope> SCOPES = Map.of(
+            PRODUCTS_TABLE, PromotionScope.PRODUCT,
+            CATEGORIES_TABLE, PromotionScope.CATEGORY,
+            CATALOGUES_TABLE, PromotionScope.CATALOGUE);
+
+    private static final String DELETE_SQL =
+            "DELETE FROM web_store.promotions WHERE scope = ? AND target_id = ? RETURNING promotion_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void onEvent(OutboxEvent event) {
+        PromotionScope scope = SCOPES.get(event.getEntityTable());
+        if (scope == null || event.getChangeType() != ChangeType.DELETED) {
+            return;
+        }
+        List<Integer> promotionIds = jdbcTemplate.queryForList(DELETE_SQL, Integer.class,
+                scope.name(), event.getEntityId());
+        for (Integer promotionId : promotionIds) {
+            eventPublisher.publishEvent(CatalogChangeEvent.deleted(PROMOTIONS_TABLE, promotionId));
+        }
+        if (!promotionIds.isEmpty()) {
+            log.info("Deleted promotions {} of deleted {} {}", promotionIds, scope, event.getEntityId());
+        }
+    }
+}
@@ -4,4 +4,10 @@ public class CategoryNotFoundException extends WhatsAppFlowException {
     public CategoryNotFoundException(String name) {
         super("Category not found: " + name);
     }
+
+    // The category may have been renamed since the list was sent, so this is expected and needs no trace
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
 }
@@ -0,0 +1,21 @@
+package com.webstore.exception;
+
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.ResponseStatusException;
+
+/*
+ * A 4xx outcome a client can trigger at will: an unknown id, another seller's product, a missing token
+ * claim, a conflicting request. Nothing about it is a bug, so no stack trace is captured; GlobalExceptionHandler
+ * logs these sampled, without a trace.
+ */
+public class ClientErrorException extends ResponseStatusException {
+
+    public ClientErrorException(HttpStatusCode status, String reason) {
+        super(status, reason);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
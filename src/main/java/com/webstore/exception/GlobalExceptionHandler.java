@@ -1,36 +1,58 @@
 package com.webstore.exception;
 
+import com.webstore.monitoring.RequestErrorMetrics;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.server.ResponseStatusException;
 
+/*
+ * Every error is counted in http.request.errors by RequestErrorMetrics. Client errors (4xx) are logged at WARN,
+ * sampled per endpoint and exception; the stackless ones (ClientErrorException, ResourceNotFoundException,
+ * InvalidRequestException) have no trace to log, others are logged with theirs when sampled. Server errors are
+ * logged once each, at ERROR with the stack trace.
+ */
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    private final RequestErrorMetrics requestErrorMetrics;
+
+    public GlobalExceptionHandler(RequestErrorMetrics requestErrorMetrics) {
+        this.requestErrorMetrics = requestErrorMetrics;
+    }
+
     @ExceptionHandler(EntityNotFoundException.class)
-    public ResponseEntity<String> handleEntityNotFoundException(EntityNotFoundException ex) {
-        LOGGER.error("Webstore: EntityNotFoundException occurred: {}", ex.getMessage(), ex);
+    public ResponseEntity<String> handleEntityNotFoundException(EntityNotFoundException ex,
+            HttpServletRequest request) {
+        logClientError(request, ex, HttpStatus.NOT_FOUND);
         return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body("Webstore: The requested resource was not found.");
     }
 
     @ExceptionHandler(IllegalArgumentException.class)
-    public ResponseEntity<String> handleIllegalArgumentException(IllegalArgumentException ex) {
-        LOGGER.error("Webstore: IllegalArgumentException occurred: {}", ex.getMessage(), ex);
+    public ResponseEntity<String> handleIllegalArgumentException(IllegalArgumentException ex,
+            HttpServletRequest request) {
+        logClientError(request, ex, HttpStatus.BAD_REQUEST);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body("Webstore: Invalid input provided. Please check your request.");
     }
 
     @ExceptionHandler(ResponseStatusException.class)
-    public ResponseEntity<String> handleResponseStatusException(ResponseStatusException ex) {
-        LOGGER.error("Webstore: ResponseStatusException occurred: {}", ex.getMessage(), ex);
+    public ResponseEntity<String> handleResponseStatusException(ResponseStatusException ex,
+            HttpServletRequest request) {
+        if (ex.getStatusCode().is5xxServerError()) {
+            logServerError(request, ex, ex.getStatusCode());
+        } else {
+            logClientError(request, ex, ex.getStatusCode());
+        }
         String reason = ex.getReason() != null ? ex.getReason() : ex.getStatusCode().toString();
         return ResponseEntity.status(ex.getStatusCode())
                 .body("Webstore: " + reason);
@@ -38,18 +60,16 @@ public class GlobalExceptionHandler {
 
     // ✅ Custom WhatsApp flow-related exceptions
     @ExceptionHandler(WhatsAppFlowException.class)
-    public ResponseEntity<String> handleWhatsAppFlowException(WhatsAppFlowException ex) {
-        LOGGER.warn("Webstore: WhatsApp flow exception: {}", ex.getMessage());
+    public ResponseEntity<String> handleWhatsAppFlowException(WhatsAppFlowException ex, HttpServletRequest request) {
+        logClientError(request, ex, HttpStatus.BAD_REQUEST);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body("Webstore: " + ex.getMessage());
     }
 
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<String> handleGeneralException(Exception ex) {
-        LOGGER.error("Webstore: Unexpected exception occurred: {}", ex.getMessage(), ex);
-        LOGGER.error("Exception type: {}", ex.getClass().getName());
-        LOGGER.error("Full stack trace:", ex);
-        
+    public ResponseEntity<String> handleGeneralException(Exception ex, HttpServletRequest request) {
+        logServerError(request, ex, HttpStatus.INTERNAL_SERVER_ERROR);
+
         // Return detailed error message for debugging
         String errorDetails = String.format(
             "Webstore Error:\n" +
@@ -59,8 +79,29 @@ public class GlobalExceptionHandler {
             ex.getClass().getSimpleName(),
             ex.getMessage() != null ? ex.getMessage() : "No error message available"
         );
-        
+
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(errorDetails);
     }
+
+    private void logClientError(HttpServletRequest request, Exception ex, HttpStatusCode status) {
+        String endpoint = RequestErrorMetrics.endpoint(request);
+        long unlogged = requestErrorMetrics.record(endpoint, ex, status);
+        if (unlogged == RequestErrorMetrics.NOT_SAMPLED || !LOGGER.isWarnEnabled()) {
+            return;
+        }
+        if (ex.getStackTrace().length == 0) {
+            LOGGER.warn("Webstore: {} {} on {}: {} ({} more since the last logged)",
+                    status.value(), ex.getClass().getSimpleName(), endpoint, ex.getMessage(), unlogged);
+        } else {
+            LOGGER.warn("Webstore: {} {} on {}: {} ({} more since the last logged)",
+                    status.value(), ex.getClass().getSimpleName(), endpoint, ex.getMessage(), unlogged, ex);
+        }
+    }
+
+    private void logServerError(HttpServletRequest request, Exception ex, HttpStatusCode status) {
+        String endpoint = RequestErrorMetrics.endpoint(request);
+        requestErrorMetrics.record(endpoint, ex, status);
+        LOGGER.error("Webstore: Unexpected {} on {}: {}", ex.getClass().getName(), endpoint, ex.getMessage(), ex);
+    }
 }
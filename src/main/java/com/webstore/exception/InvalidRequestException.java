@@ -0,0 +1,14 @@
+package com.webstore.exception;
+
+/* Request input that fails validation (bad paging, an inverted date range, an unknown code); thrown without a stack trace */
+public class InvalidRequestException extends IllegalArgumentException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
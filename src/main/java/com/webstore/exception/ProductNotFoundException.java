@@ -4,4 +4,10 @@ public class ProductNotFoundException extends WhatsAppFlowException {
     public ProductNotFoundException(String name) {
         super("Product not found: " + name);
     }
+
+    // A row from an old product list can outlive the product; expected, so no stack trace
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
 }
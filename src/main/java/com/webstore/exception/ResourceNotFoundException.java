@@ -0,0 +1,16 @@
+package com.webstore.exception;
+
+import jakarta.persistence.EntityNotFoundException;
+
+/* An entity looked up by a client-supplied id or code that does not exist; thrown without a stack trace */
+public class ResourceNotFoundException extends EntityNotFoundException {
+
+    public ResourceNotFoundException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
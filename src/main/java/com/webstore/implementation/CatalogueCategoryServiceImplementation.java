@@ -1,18 +1,25 @@
 package com.webstore.implementation;
 
+import com.webstore.constant.CacheNames;
+import com.webstore.constant.DatabaseConstants;
 import com.webstore.dto.request.CatalogueCategoryRequestDto;
 import com.webstore.dto.response.CatalogueCategoryResponseDto;
 import com.webstore.entity.Catalogue;
 import com.webstore.entity.Category;
 import com.webstore.entity.CatalogueCategory;
+import com.webstore.event.CatalogChangeEvent;
+import com.webstore.exception.InvalidRequestException;
 import com.webstore.repository.CatalogueCategoryRepository;
 import com.webstore.repository.CatalogueRepository;
 import com.webstore.repository.CategoryRepository;
 import com.webstore.service.CatalogueCategoryService;
 import com.webstore.util.AuthUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -23,25 +30,30 @@ public class CatalogueCategoryServiceImplementation implements CatalogueCategory
     private final CatalogueCategoryRepository catalogueCategoryRepository;
     private final CatalogueRepository catalogueRepository;
     private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public CatalogueCategoryServiceImplementation(CatalogueCategoryRepository catalogueCategoryRepository, CatalogueRepository catalogueRepository, CategoryRepository categoryRepository) {
+    public CatalogueCategoryServiceImplementation(CatalogueCategoryRepository catalogueCategoryRepository, CatalogueRepository catalogueRepository, CategoryRepository categoryRepository,
+            ApplicationEventPublisher eventPublisher) {
         this.catalogueCategoryRepository = catalogueCategoryRepository;
         this.catalogueRepository = catalogueRepository;
         this.categoryRepository = categoryRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheNames.SELLER_DETAILS, allEntries = true)
     public ResponseEntity<String> createCatalogueCategory(CatalogueCategoryRequestDto dto) {
         if (catalogueCategoryRepository.existsByCatalogueCatalogueIdAndCategoryCategoryId(dto.getCatalogueId(), dto.getCategoryId())) {
             return ResponseEntity.badRequest().body("Catalogue-Category mapping already exists.");
         }
 
         Catalogue catalogue = catalogueRepository.findById(dto.getCatalogueId())
-                .orElseThrow(() -> new IllegalArgumentException("Invalid Catalogue ID"));
+                .orElseThrow(() -> new InvalidRequestException("Invalid Catalogue ID"));
 
         Category category = categoryRepository.findById(dto.getCategoryId())
-                .orElseThrow(() -> new IllegalArgumentException("Invalid Category ID"));
+                .orElseThrow(() -> new InvalidRequestException("Invalid Category ID"));
 
         String currentUsername = AuthUtils.getCurrentUsername();
 
@@ -51,7 +63,8 @@ public class CatalogueCategoryServiceImplementation implements CatalogueCategory
         catalogueCategory.setCreatedBy(currentUsername);
         catalogueCategory.setUpdatedBy(currentUsername);
 
-        catalogueCategoryRepository.save(catalogueCategory);
+        CatalogueCategory saved = catalogueCategoryRepository.save(catalogueCategory);
+        eventPublisher.publishEvent(CatalogChangeEvent.created(DatabaseConstants.CATALOGUE_CATEGORIES_TABLE, saved.getCatalogueCategoryId()));
 
         return ResponseEntity.ok("Catalogue-Category mapping created successfully.");
     }
@@ -1,27 +1,33 @@
 package com.webstore.implementation;
 
+import com.webstore.constant.CacheNames;
+import com.webstore.constant.DatabaseConstants;
 import com.webstore.constant.UserRole;
 import com.webstore.dto.request.CatalogueRequestDto;
 import com.webstore.dto.response.CatalogueResponseDto;
 import com.webstore.dto.response.CategoryResponseDto;
 import com.webstore.entity.Catalogue;
+import com.webstore.event.CatalogChangeEvent;
+import com.webstore.exception.ClientErrorException;
+import com.webstore.exception.ResourceNotFoundException;
 import com.webstore.repository.CatalogueCategoryRepository;
 import com.webstore.repository.CatalogueRepository;
 import com.webstore.service.CatalogueService;
 import com.webstore.service.CategoryService;
 import com.webstore.util.AuthUtils;
 import com.webstore.util.SecurityContextUtils;
-import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.web.server.ResponseStatusException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -34,12 +40,16 @@ public class CatalogueServiceImplementation implements CatalogueService {
 
     private final CategoryService categoryService;
 
+    private final ApplicationEventPublisher eventPublisher;
+
     public CatalogueServiceImplementation(CatalogueRepository catalogueRepository,
             CatalogueCategoryRepository catalogueCategoryRepository,
-            CategoryService categoryService) {
+            CategoryService categoryService,
+            ApplicationEventPublisher eventPublisher) {
         this.catalogueRepository = catalogueRepository;
         this.catalogueCategoryRepository = catalogueCategoryRepository;
         this.categoryService = categoryService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -55,7 +65,7 @@ public class CatalogueServiceImplementation implements CatalogueService {
             // Seller: Get paginated catalogues for this seller
             Integer sellerId = SecurityContextUtils.getCurrentSellerId();
             if (sellerId == null) {
-                throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Seller ID not found in token");
+                throw new ClientErrorException(HttpStatus.UNAUTHORIZED, "Seller ID not found in token");
             }
             cataloguePage = catalogueRepository.findBySellerId(sellerId, pageable);
         } else {
@@ -80,48 +90,55 @@ public class CatalogueServiceImplementation implements CatalogueService {
         catalogue.setCreatedBy(currentUser);
         catalogue.setUpdatedBy(currentUser);
 
-        return convertToDto(catalogueRepository.save(catalogue));
+        Catalogue saved = catalogueRepository.save(catalogue);
+        eventPublisher.publishEvent(CatalogChangeEvent.created(DatabaseConstants.CATALOGUES_TABLE, saved.getCatalogueId()));
+        return convertToDto(saved);
     }
 
     @Override
     @Transactional(readOnly = true)
     public CatalogueResponseDto getCatalogueById(Integer id) {
         Catalogue catalogue = catalogueRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Catalogue with id " + id + " not found"));
+                .orElseThrow(() -> new ResourceNotFoundException("Catalogue with id " + id + " not found"));
         return convertToDto(catalogue);
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.SELLER_DETAILS, allEntries = true)
     public CatalogueResponseDto updateCatalogue(Integer id, CatalogueRequestDto dto) {
         Catalogue catalogue = catalogueRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Catalogue not found"));
+                .orElseThrow(() -> new ClientErrorException(HttpStatus.NOT_FOUND, "Catalogue not found"));
 
         catalogue.setCatalogueName(dto.getCatalogueName());
         catalogue.setCatalogueDescription(dto.getCatalogueDescription());
         catalogue.setUpdatedBy(AuthUtils.getCurrentUsername());
 
-        return convertToDto(catalogueRepository.save(catalogue));
+        Catalogue saved = catalogueRepository.save(catalogue);
+        eventPublisher.publishEvent(CatalogChangeEvent.updated(DatabaseConstants.CATALOGUES_TABLE, id));
+        return convertToDto(saved);
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.SELLER_DETAILS, allEntries = true)
     public void deleteCatalogue(Integer id) {
         Catalogue catalogue = catalogueRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Catalogue not found"));
+                .orElseThrow(() -> new ClientErrorException(HttpStatus.NOT_FOUND, "Catalogue not found"));
 
         // Check if catalogue has associated categories
         // Force fetch the catalogueCategories (LAZY loading)
         catalogue.getCatalogueCategories().size(); // This triggers the fetch
 
         if (catalogue.getCatalogueCategories() != null && !catalogue.getCatalogueCategories().isEmpty()) {
-            throw new ResponseStatusException(
+            throw new ClientErrorException(
                     HttpStatus.BAD_REQUEST,
                     "Cannot delete catalogue. Please delete the corresponding categories first, then you can delete the catalogue.");
         }
 
         // If no categories are associated, proceed with deletion
         catalogueRepository.delete(catalogue);
+        eventPublisher.publishEvent(CatalogChangeEvent.deleted(DatabaseConstants.CATALOGUES_TABLE, id));
     }
 
     @Override
@@ -140,7 +157,7 @@ public class CatalogueServiceImplementation implements CatalogueService {
             // For sellers, only search in their own catalogues
             Integer sellerId = SecurityContextUtils.getCurrentSellerId();
             if (sellerId == null) {
-                throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Seller ID not found in token");
+                throw new ClientErrorException(HttpStatus.UNAUTHORIZED, "Seller ID not found in token");
             }
 
             // Get all seller's catalogues first, then filter by search term
@@ -184,6 +201,17 @@ public class CatalogueServiceImplementation implements CatalogueService {
         return categories;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<CatalogueResponseDto> getCataloguesByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return catalogueRepository.findAllById(ids).stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
     private CatalogueResponseDto convertToDto(Catalogue catalogue) {
         CatalogueResponseDto dto = new CatalogueResponseDto();
         dto.setCatalogueId(catalogue.getCatalogueId());
@@ -1,31 +1,40 @@
 package com.webstore.implementation;
 
+import com.webstore.constant.CacheNames;
+import com.webstore.constant.DatabaseConstants;
 import com.webstore.dto.request.CategoryRequestDto;
 import com.webstore.dto.response.CategoryResponseDto;
 import com.webstore.entity.Category;
 import com.webstore.entity.CatalogueCategory;
+import com.webstore.event.CatalogChangeEvent;
+import com.webstore.exception.ClientErrorException;
+import com.webstore.exception.ResourceNotFoundException;
+import com.webstore.monitoring.LogRateLimiter;
 import com.webstore.repository.CategoryRepository;
 import com.webstore.repository.CatalogueCategoryRepository;
+import com.webstore.repository.ProductPriceRepository;
 import com.webstore.repository.ProductRepository;
 import com.webstore.service.CategoryService;
 import com.webstore.util.AuthUtils;
 import com.webstore.util.SecurityContextUtils;
-import jakarta.persistence.EntityNotFoundException;
 import jakarta.persistence.EntityExistsException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.server.ResponseStatusException;
 import org.springframework.util.StringUtils;
 import jakarta.persistence.EntityManager;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -33,21 +42,29 @@ import java.util.stream.Collectors;
 public class CategoryServiceImplementation implements CategoryService {
 
     private static final Logger logger = LoggerFactory.getLogger(CategoryServiceImplementation.class);
+    // Checked for every category of a page
+    private static final LogRateLimiter NO_CATALOGUES_LOG = new LogRateLimiter(Duration.ofSeconds(10));
 
     private final CategoryRepository categoryRepository;
     private final CatalogueCategoryRepository catalogueCategoryRepository;
     private final ProductRepository productRepository;
+    private final ProductPriceRepository productPriceRepository;
     private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public CategoryServiceImplementation(CategoryRepository categoryRepository,
             CatalogueCategoryRepository catalogueCategoryRepository,
             ProductRepository productRepository,
-            EntityManager entityManager) {
+            ProductPriceRepository productPriceRepository,
+            EntityManager entityManager,
+            ApplicationEventPublisher eventPublisher) {
         this.categoryRepository = categoryRepository;
         this.catalogueCategoryRepository = catalogueCategoryRepository;
         this.productRepository = productRepository;
+        this.productPriceRepository = productPriceRepository;
         this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -65,20 +82,22 @@ public class CategoryServiceImplementation implements CategoryService {
         category.setCreatedBy(currentUser);
         category.setUpdatedBy(currentUser);
 
-        return mapToResponse(categoryRepository.save(category));
+        Category saved = categoryRepository.save(category);
+        eventPublisher.publishEvent(CatalogChangeEvent.created(DatabaseConstants.CATEGORIES_TABLE, saved.getCategoryId()));
+        return mapToResponse(saved);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<CategoryResponseDto> getAllCategories(int page, int size) {
-        logger.info("=== getAllCategories: page={}, size={} ===", page, size);
+        logger.debug("=== getAllCategories: page={}, size={} ===", page, size);
 
         List<Category> categories;
         String role = SecurityContextUtils.getCurrentRole();
         if (role != null && "SELLER".equals(role)) {
             Integer sellerId = SecurityContextUtils.getCurrentSellerId();
             if (sellerId == null) {
-                throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Seller ID not found in token");
+                throw new ClientErrorException(HttpStatus.UNAUTHORIZED, "Seller ID not found in token");
             }
             // Get all categories that have products from this seller
             List<Category> allSellerCategories = categoryRepository.findBySellerId(sellerId);
@@ -101,7 +120,7 @@ public class CategoryServiceImplementation implements CategoryService {
                     categories.size(), page, categoryPage.getTotalElements());
         }
 
-        logger.info("Processing {} categories for page {}", categories.size(), page);
+        logger.debug("Processing {} categories for page {}", categories.size(), page);
 
         return categories.stream()
                 .map(this::mapToResponse)
@@ -116,15 +135,16 @@ public class CategoryServiceImplementation implements CategoryService {
         // We don't need the eagerly loaded collections since we use native queries in
         // mapToResponse
         Category category = categoryRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Category not found with ID: " + id));
+                .orElseThrow(() -> new ResourceNotFoundException("Category not found with ID: " + id));
         return mapToResponse(category);
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.SELLER_DETAILS, allEntries = true)
     public CategoryResponseDto updateCategory(Integer id, CategoryRequestDto dto) {
         Category category = categoryRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Category not found with ID: " + id));
+                .orElseThrow(() -> new ResourceNotFoundException("Category not found with ID: " + id));
 
         if (!category.getCategoryName().equals(dto.getCategoryName()) &&
                 categoryRepository.existsByCategoryName(dto.getCategoryName())) {
@@ -135,7 +155,9 @@ public class CategoryServiceImplementation implements CategoryService {
         category.setCategoryDescription(dto.getCategoryDescription());
         category.setUpdatedBy(AuthUtils.getCurrentUsername());
 
-        return mapToResponse(categoryRepository.save(category));
+        Category saved = categoryRepository.save(category);
+        eventPublisher.publishEvent(CatalogChangeEvent.updated(DatabaseConstants.CATEGORIES_TABLE, id));
+        return mapToResponse(saved);
     }
 
     @Override
@@ -150,15 +172,18 @@ public class CategoryServiceImplementation implements CategoryService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.SELLER_DETAILS, allEntries = true)
     public void deleteCategory(Integer id) {
         // Verify category exists
         Category category = categoryRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Category not found with ID: " + id));
+                .orElseThrow(() -> new ResourceNotFoundException("Category not found with ID: " + id));
 
         // Step 1: Delete all products for this category first (to avoid foreign key
         // violations)
         // Products reference CatalogueCategory, so they must be deleted first
         logger.info("Deleting products for category ID: {}", id);
+        List<Integer> deletedProductIds = productRepository.findIdsByCategoryId(id);
+        List<Integer> deletedPriceIds = productPriceRepository.findIdsByCategoryId(id);
         productRepository.deleteByCategoryId(id);
         entityManager.flush(); // Ensure products are deleted before proceeding
 
@@ -175,6 +200,17 @@ public class CategoryServiceImplementation implements CategoryService {
         logger.info("Deleting category ID: {}", id);
         categoryRepository.delete(category);
         entityManager.flush(); // Ensure category is deleted
+
+        // Products (and their prices, via ON DELETE CASCADE) were removed by a bulk query, so each of them is announced explicitly
+        deletedPriceIds.forEach(priceId -> eventPublisher.publishEvent(
+                CatalogChangeEvent.deleted(DatabaseConstants.PRODUCT_PRICES_TABLE, priceId)));
+        deletedProductIds.forEach(productId -> eventPublisher.publishEvent(
+                CatalogChangeEvent.deleted(DatabaseConstants.PRODUCTS_TABLE, productId)));
+        if (catalogueCategories != null) {
+            catalogueCategories.forEach(cc -> eventPublisher.publishEvent(
+                    CatalogChangeEvent.deleted(DatabaseConstants.CATALOGUE_CATEGORIES_TABLE, cc.getCatalogueCategoryId())));
+        }
+        eventPublisher.publishEvent(CatalogChangeEvent.deleted(DatabaseConstants.CATEGORIES_TABLE, id));
     }
 
     @Override
@@ -188,6 +224,17 @@ public class CategoryServiceImplementation implements CategoryService {
         return categories.stream().map(this::mapToResponse).collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<CategoryResponseDto> getCategoriesByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return categoryRepository.findAllById(ids).stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
     private CategoryResponseDto mapToResponse(Category category) {
         try {
             logger.debug("mapToResponse: Starting for category id={}, name={}",
@@ -206,7 +253,7 @@ public class CategoryServiceImplementation implements CategoryService {
             // Fetch catalogue information directly using native query
             // This is the most reliable way to get catalogue data
             Integer categoryId = category.getCategoryId();
-            logger.info("Fetching catalogue information for categoryId: {}", categoryId);
+            logger.debug("Fetching catalogue information for categoryId: {}", categoryId);
 
             // First, try native query to get catalogue info directly
             List<Object[]> catalogueData = catalogueCategoryRepository.findCatalogueInfoByCategoryIdNative(categoryId);
@@ -215,7 +262,7 @@ public class CategoryServiceImplementation implements CategoryService {
             Long productCount = 0L;
 
             if (catalogueData != null && !catalogueData.isEmpty()) {
-                logger.info("Found {} catalogues via native query for category {}", catalogueData.size(), categoryId);
+                logger.debug("Found {} catalogues via native query for category {}", catalogueData.size(), categoryId);
 
                 // Extract catalogue information from native query results
                 for (Object[] row : catalogueData) {
@@ -230,7 +277,7 @@ public class CategoryServiceImplementation implements CategoryService {
                         catalogueInfo.setCatalogueDescription(catalogueDescription);
                         catalogues.add(catalogueInfo);
 
-                        logger.info(" Added catalogue ID: {}, Name: {}", catalogueId, catalogueName);
+                        logger.debug(" Added catalogue ID: {}, Name: {}", catalogueId, catalogueName);
                     } catch (Exception e) {
                         logger.error("Error processing catalogue data: {}", e.getMessage(), e);
                     }
@@ -253,7 +300,11 @@ public class CategoryServiceImplementation implements CategoryService {
                     productCount = productCountLong != null ? productCountLong : 0L;
                 }
             } else {
-                logger.warn("⚠ No catalogues found for category {} via native query", categoryId);
+                long skipped = NO_CATALOGUES_LOG.tryAcquire();
+                if (skipped != LogRateLimiter.NOT_ACQUIRED) {
+                    logger.warn("⚠ No catalogues found for category {} via native query ({} more since)",
+                            categoryId, skipped);
+                }
                 // Still get product count even if no catalogues found
                 String role = SecurityContextUtils.getCurrentRole();
                 if (role != null && "SELLER".equals(role)) {
@@ -271,7 +322,7 @@ public class CategoryServiceImplementation implements CategoryService {
 
             dto.setProductCount(productCount);
             dto.setCatalogues(catalogues);
-            logger.info("Category {}: productCount={}, catalogues={}",
+            logger.debug("Category {}: productCount={}, catalogues={}",
                     category.getCategoryId(), productCount, catalogues.size());
 
             logger.debug("Successfully completed mapToResponse for category {}", category.getCategoryId());
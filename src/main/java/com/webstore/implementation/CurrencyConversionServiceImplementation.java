@@ -0,0 +1,345 @@
+package com.webstore.implementation;
+
+import static com.webstore.constant.DatabaseConstants.CURRENCIES_TABLE;
+import static com.webstore.constant.DatabaseConstants.EXCHANGE_RATES_TABLE;
+
+import com.webstore.dto.response.ProductResponseDto.PriceInfoDto;
+import com.webstore.event.CatalogChangeEvent;
+import com.webstore.exception.InvalidRequestException;
+import com.webstore.service.CurrencyConversionService;
+import com.webstore.service.PriceMatrixService;
+import com.webstore.util.PriceMatrix;
+import com.webstore.util.PriceMatrix.CurrencyInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.stream.IntStream;
+
+/*
+ * Derives prices that were never entered from the product's base currency price and the exchange rate
+ * valid now. Derived amounts are cached per target currency in a column keyed by the rate that produced
+ * them, indexed by product id. A new rate builds a new column, converting all base prices in parallel
+ * batches. A changed base price is spotted on lookup, because each cell remembers the base amount it
+ * was derived from.
+ */
+@Slf4j
+@Service
+public class CurrencyConversionServiceImplementation implements CurrencyConversionService {
+
+    private static final String RATES_SQL =
+            "SELECT er.exchange_rate_id, er.quote_currency_id, er.rate, er.valid_from, er.valid_to " +
+            "FROM web_store.exchange_rates er " +
+            "JOIN web_store.currencies c ON c.currency_id = er.base_currency_id " +
+            "WHERE c.currency_code = ?";
+
+    private static final int BATCH_SIZE = 4096;
+
+    private final PriceMatrixService priceMatrixService;
+    private final JdbcTemplate jdbcTemplate;
+    private final String baseCurrencyCode;
+
+    private final Object writeLock = new Object();
+
+    // Rate windows from the base currency by quote currency id; null until loaded
+    private volatile Map<Integer, List<RateWindow>> ratesByQuoteCurrency;
+
+    private final Map<Integer, DerivedColumn> columns = new ConcurrentHashMap<>();
+
+    public CurrencyConversionServiceImplementation(PriceMatrixService priceMatrixService,
+            JdbcTemplate jdbcTemplate,
+            @Value("${prices.base-currency-code:INR}") String baseCurrencyCode) {
+        this.priceMatrixService = priceMatrixService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.baseCurrencyCode = baseCurrencyCode;
+    }
+
+    @Override
+    public Map<Integer, PriceInfoDto> getPricesIn(Collection<Integer> productIds, String currencyCode) {
+        PriceMatrix matrix = priceMatrixService.getPriceMatrix();
+        int currencyId = matrix.currencyIdOf(currencyCode);
+        if (currencyId < 0) {
+            throw new InvalidRequestException("Unknown currency: " + currencyCode);
+        }
+        CurrencyInfo currency = matrix.currency(currencyId);
+        int baseCurrencyId = matrix.currencyIdOf(baseCurrencyCode);
+        DerivedColumn column = baseCurrencyId >= 0 && baseCurrencyId != currencyId
+                ? column(matrix, currency, matrix.currency(baseCurrencyId))
+                : null;
+
+        Map<Integer, PriceInfoDto> prices = new HashMap<>();
+        for (Integer productId : productIds) {
+            if (productId == null) {
+                continue;
+            }
+            long amount = matrix.amount(productId, currencyId);
+            if (amount != PriceMatrix.NO_PRICE) {
+                prices.put(productId, toDto(productId, currency, amount, false));
+            } else if (column != null) {
+                long derived = column.derive(productId, matrix.amount(productId, baseCurrencyId));
+                if (derived != PriceMatrix.NO_PRICE) {
+                    prices.put(productId, toDto(productId, currency, derived, true));
+                }
+            }
+        }
+        return prices;
+    }
+
+    @Override
+    public void reloadRates() {
+        synchronized (writeLock) {
+            Map<Integer, List<RateWindow>> rates = new HashMap<>();
+            jdbcTemplate.query(RATES_SQL, rs -> {
+                Timestamp validTo = rs.getTimestamp("valid_to");
+                rates.computeIfAbsent(rs.getInt("quote_currency_id"), id -> new ArrayList<>())
+                        .add(new RateWindow(rs.getInt("exchange_rate_id"), rs.getBigDecimal("rate"),
+                                rs.getTimestamp("valid_from").toLocalDateTime(),
+                                validTo != null ? validTo.toLocalDateTime() : null));
+            }, baseCurrencyCode);
+            ratesByQuoteCurrency = rates;
+            log.info("Loaded exchange rates from {} for {} currencies", baseCurrencyCode, rates.size());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (!EXCHANGE_RATES_TABLE.equals(event.getTable()) && !CURRENCIES_TABLE.equals(event.getTable())) {
+            return;
+        }
+        if (ratesByQuoteCurrency == null) {
+            // Loaded on first use, including this change
+            return;
+        }
+        try {
+            reloadRates();
+            precomputeColumns();
+        } catch (DataAccessException e) {
+            log.warn("Could not reload exchange rates after {}, reloading on next read: {}", event, e.getMessage());
+            ratesByQuoteCurrency = null;
+        }
+    }
+
+    // Rebuilds the columns of every currency with a valid rate now, so readers do not pay for the conversion
+    private void precomputeColumns() {
+        PriceMatrix matrix = priceMatrixService.getPriceMatrix();
+        int baseCurrencyId = matrix.currencyIdOf(baseCurrencyCode);
+        if (baseCurrencyId < 0) {
+            columns.clear();
+            return;
+        }
+        CurrencyInfo baseCurrency = matrix.currency(baseCurrencyId);
+        for (Integer quoteCurrencyId : rates().keySet()) {
+            CurrencyInfo currency = matrix.currency(quoteCurrencyId);
+            if (currency != null) {
+                column(matrix, currency, baseCurrency);
+            }
+        }
+    }
+
+    private DerivedColumn column(PriceMatrix matrix, CurrencyInfo currency, CurrencyInfo baseCurrency) {
+        RateWindow rate = effectiveRate(currency.currencyId(), LocalDateTime.now());
+        if (rate == null) {
+            columns.remove(currency.currencyId());
+            return null;
+        }
+        DerivedColumn column = columns.get(currency.currencyId());
+        if (column != null && column.matches(rate, currency, baseCurrency)) {
+            return column;
+        }
+        synchronized (writeLock) {
+            column = columns.get(currency.currencyId());
+            if (column == null || !column.matches(rate, currency, baseCurrency)) {
+                column = DerivedColumn.build(matrix, rate, currency, baseCurrency);
+                columns.put(currency.currencyId(), column);
+            }
+            return column;
+        }
+    }
+
+    private RateWindow effectiveRate(int quoteCurrencyId, LocalDateTime at) {
+        List<RateWindow> windows = rates().get(quoteCurrencyId);
+        if (windows == null) {
+            return null;
+        }
+        for (RateWindow window : windows) {
+            if (window.covers(at)) {
+                return window;
+            }
+        }
+        return null;
+    }
+
+    private Map<Integer, List<RateWindow>> rates() {
+        Map<Integer, List<RateWindow>> rates = ratesByQuoteCurrency;
+        if (rates == null) {
+            reloadRates();
+            rates = ratesByQuoteCurrency;
+        }
+        return rates;
+    }
+
+    private static PriceInfoDto toDto(int productId, CurrencyInfo currency, long amount, boolean derived) {
+        PriceInfoDto dto = new PriceInfoDto();
+        dto.setProductId(productId);
+        dto.setCurrencyId(currency.currencyId());
+        dto.setCurrencyCode(currency.currencyCode());
+        dto.setCurrencySymbol(currency.currencySymbol());
+        dto.setMinorUnitExponent(currency.minorUnitExponent());
+        dto.setPriceAmount(BigInteger.valueOf(amount));
+        dto.setDerived(derived);
+        return dto;
+    }
+
+    private record RateWindow(int rateId, BigDecimal rate, LocalDateTime validFrom, LocalDateTime validTo) {
+
+        boolean covers(LocalDateTime at) {
+            return !at.isBefore(validFrom) && (validTo == null || at.isBefore(validTo));
+        }
+    }
+
+    /*
+     * Derived amounts of one target currency at one rate, indexed by product id. Each cell keeps the base
+     * amount it was derived from; a cell whose base no longer matches is re-derived on lookup. Re-derived
+     * cells are written under the write lock of a StampedLock. Readers take an optimistic stamp, read both
+     * halves of the cell and fall back to the read lock if a write intervened, so they never see one write's
+     * base paired with another's derived amount.
+     */
+    private static final class DerivedColumn {
+
+        private final int rateId;
+        private final CurrencyInfo currency;
+        private final CurrencyInfo baseCurrency;
+        // Converts base minor units to target minor units: rate shifted by the exponent difference
+        private final BigDecimal factor;
+        // Guards each (base amount, derived amount) pair once the column is published
+        private final StampedLock lock = new StampedLock();
+        private final long[] baseAmounts;
+        private final long[] derivedAmounts;
+
+        private DerivedColumn(RateWindow rate, CurrencyInfo currency, CurrencyInfo baseCurrency, int length) {
+            this.rateId = rate.rateId();
+            this.currency = currency;
+            this.baseCurrency = baseCurrency;
+            this.factor = rate.rate().scaleByPowerOfTen(currency.minorUnitExponent() - baseCurrency.minorUnitExponent());
+            this.baseAmounts = new long[length];
+            this.derivedAmounts = new long[length];
+            Arrays.fill(baseAmounts, PriceMatrix.NO_PRICE);
+            Arrays.fill(derivedAmounts, PriceMatrix.NO_PRICE);
+        }
+
+        static DerivedColumn build(PriceMatrix matrix, RateWindow rate, CurrencyInfo currency, CurrencyInfo baseCurrency) {
+            BasePrices basePrices = new BasePrices(matrix.productCount());
+            matrix.forEachPrice(baseCurrency.currencyId(), basePrices);
+
+            DerivedColumn column = new DerivedColumn(rate, currency, baseCurrency, basePrices.maxProductId + 1);
+            int total = basePrices.size;
+            // Not yet published and every batch owns its products, so the cells are written without the lock
+            IntStream.range(0, (total + BATCH_SIZE - 1) / BATCH_SIZE).parallel().forEach(batch -> {
+                int end = Math.min(total, (batch + 1) * BATCH_SIZE);
+                for (int i = batch * BATCH_SIZE; i < end; i++) {
+                    int productId = basePrices.productIds[i];
+                    long baseAmount = basePrices.amounts[i];
+                    column.derivedAmounts[productId] = column.convert(baseAmount);
+                    column.baseAmounts[productId] = baseAmount;
+                }
+            });
+            log.debug("Derived {} prices in {} at rate {}", total, currency.currencyCode(), rate.rate());
+            return column;
+        }
+
+        boolean matches(RateWindow rate, CurrencyInfo currency, CurrencyInfo baseCurrency) {
+            // Currency infos are replaced when the matrix reloads, e.g. after an exponent change
+            return rateId == rate.rateId() && this.currency == currency && this.baseCurrency == baseCurrency;
+        }
+
+        long derive(int productId, long baseAmount) {
+            if (baseAmount == PriceMatrix.NO_PRICE) {
+                return PriceMatrix.NO_PRICE;
+            }
+            if (productId >= baseAmounts.length) {
+                // Product created after the column was built
+                return convert(baseAmount);
+            }
+            long stamp = lock.tryOptimisticRead();
+            long storedBase = baseAmounts[productId];
+            long derived = derivedAmounts[productId];
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    storedBase = baseAmounts[productId];
+                    derived = derivedAmounts[productId];
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            if (storedBase == baseAmount) {
+                return derived;
+            }
+            return store(productId, baseAmount);
+        }
+
+        private long store(int productId, long baseAmount) {
+            long derived = convert(baseAmount);
+            long stamp = lock.writeLock();
+            try {
+                derivedAmounts[productId] = derived;
+                baseAmounts[productId] = baseAmount;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            return derived;
+        }
+
+        private long convert(long baseAmount) {
+            try {
+                return BigDecimal.valueOf(baseAmount).multiply(factor)
+                        .setScale(0, RoundingMode.HALF_UP)
+                        .longValueExact();
+            } catch (ArithmeticException e) {
+                return PriceMatrix.NO_PRICE;
+            }
+        }
+    }
+
+    // Base currency prices copied out of the matrix so they can be split into batches
+    private static final class BasePrices implements PriceMatrix.PriceVisitor {
+
+        private int[] productIds;
+        private long[] amounts;
+        private int size;
+        private int maxProductId;
+
+        BasePrices(int expected) {
+            productIds = new int[Math.max(16, expected)];
+            amounts = new long[productIds.length];
+        }
+
+        @Override
+        public void visit(int productId, long amount) {
+            if (size == productIds.length) {
+                productIds = Arrays.copyOf(productIds, size * 2);
+                amounts = Arrays.copyOf(amounts, size * 2);
+            }
+            productIds[size] = productId;
+            amounts[size] = amount;
+            size++;
+            maxProductId = Math.max(maxProductId, productId);
+        }
+    }
+}
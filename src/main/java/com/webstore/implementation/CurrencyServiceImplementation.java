@@ -1,18 +1,24 @@
 package com.webstore.implementation;
 
+import com.webstore.constant.DatabaseConstants;
 import com.webstore.dto.request.CurrencyRequestDto;
 import com.webstore.dto.response.CurrencyResponseDto;
 import com.webstore.entity.Currency;
+import com.webstore.event.CatalogChangeEvent;
+import com.webstore.exception.ClientErrorException;
+import com.webstore.exception.ResourceNotFoundException;
 import com.webstore.repository.CurrencyRepository;
 import com.webstore.service.CurrencyService;
 import com.webstore.util.AuthUtils;
 import jakarta.persistence.EntityExistsException;
-import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -21,10 +27,13 @@ import java.util.stream.Collectors;
 public class CurrencyServiceImplementation implements CurrencyService {
 
     private final CurrencyRepository currencyRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public CurrencyServiceImplementation(CurrencyRepository currencyRepository) {
+    public CurrencyServiceImplementation(CurrencyRepository currencyRepository,
+            ApplicationEventPublisher eventPublisher) {
         this.currencyRepository = currencyRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -40,11 +49,12 @@ public class CurrencyServiceImplementation implements CurrencyService {
     @Override
     public CurrencyResponseDto getCurrencyById(Integer id) {
         Currency currency = currencyRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Currency not found with id: " + id));
+                .orElseThrow(() -> new ResourceNotFoundException("Currency not found with id: " + id));
         return mapToResponseDto(currency);
     }
 
     @Override
+    @Transactional
     public CurrencyResponseDto createCurrency(CurrencyRequestDto currencyDto) {
         if (currencyRepository.existsByCurrencyCode(currencyDto.getCurrencyCode())) {
             throw new EntityExistsException("Currency with code " + currencyDto.getCurrencyCode() + " already exists");
@@ -54,18 +64,24 @@ public class CurrencyServiceImplementation implements CurrencyService {
         currency.setCurrencyCode(currencyDto.getCurrencyCode().toUpperCase());
         currency.setCurrencyName(currencyDto.getCurrencyName());
         currency.setCurrencySymbol(currencyDto.getCurrencySymbol());
+        if (currencyDto.getMinorUnitExponent() != null) {
+            currency.setMinorUnitExponent(currencyDto.getMinorUnitExponent());
+        }
 
         String currentUser = AuthUtils.getCurrentUsername();
         currency.setCreatedBy(currentUser);
         currency.setUpdatedBy(currentUser);
 
-        return mapToResponseDto(currencyRepository.save(currency));
+        Currency saved = currencyRepository.save(currency);
+        eventPublisher.publishEvent(CatalogChangeEvent.created(DatabaseConstants.CURRENCIES_TABLE, saved.getCurrencyId()));
+        return mapToResponseDto(saved);
     }
 
     @Override
+    @Transactional
     public CurrencyResponseDto updateCurrency(Integer id, CurrencyRequestDto currencyDto) {
         Currency currency = currencyRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Currency not found with id: " + id));
+                .orElseThrow(() -> new ResourceNotFoundException("Currency not found with id: " + id));
 
         if (!currency.getCurrencyCode().equalsIgnoreCase(currencyDto.getCurrencyCode()) &&
                 currencyRepository.existsByCurrencyCode(currencyDto.getCurrencyCode())) {
@@ -75,24 +91,37 @@ public class CurrencyServiceImplementation implements CurrencyService {
         currency.setCurrencyCode(currencyDto.getCurrencyCode().toUpperCase());
         currency.setCurrencyName(currencyDto.getCurrencyName());
         currency.setCurrencySymbol(currencyDto.getCurrencySymbol());
+        if (currencyDto.getMinorUnitExponent() != null
+                && !currencyDto.getMinorUnitExponent().equals(currency.getMinorUnitExponent())) {
+            // Stored amounts are in minor units and would silently change value by a power of ten
+            if (currencyRepository.hasStoredAmounts(id)) {
+                throw new ClientErrorException(HttpStatus.CONFLICT, "Minor unit exponent of currency "
+                        + currency.getCurrencyCode() + " cannot change while prices, orders or promotions use it");
+            }
+            currency.setMinorUnitExponent(currencyDto.getMinorUnitExponent());
+        }
         currency.setUpdatedBy(AuthUtils.getCurrentUsername());
 
-        return mapToResponseDto(currencyRepository.save(currency));
+        Currency saved = currencyRepository.save(currency);
+        eventPublisher.publishEvent(CatalogChangeEvent.updated(DatabaseConstants.CURRENCIES_TABLE, id));
+        return mapToResponseDto(saved);
     }
 
     @Override
+    @Transactional
     public String deleteCurrency(Integer id) {
         if (!currencyRepository.existsById(id)) {
-            throw new EntityNotFoundException("Currency not found with id: " + id);
+            throw new ResourceNotFoundException("Currency not found with id: " + id);
         }
         currencyRepository.deleteById(id);
+        eventPublisher.publishEvent(CatalogChangeEvent.deleted(DatabaseConstants.CURRENCIES_TABLE, id));
         return "Currency deleted successfully";
     }
 
     @Override
     public CurrencyResponseDto getCurrencyByCode(String currencyCode) {
         Currency currency = currencyRepository.findByCurrencyCode(currencyCode.toUpperCase())
-                .orElseThrow(() -> new EntityNotFoundException("Currency not found with code: " + currencyCode));
+                .orElseThrow(() -> new ResourceNotFoundException("Currency not found with code: " + currencyCode));
 
         return mapToResponseDto(currency);
     }
@@ -103,6 +132,7 @@ public class CurrencyServiceImplementation implements CurrencyService {
         responseDto.setCurrencyCode(currency.getCurrencyCode());
         responseDto.setCurrencyName(currency.getCurrencyName());
         responseDto.setCurrencySymbol(currency.getCurrencySymbol());
+        responseDto.setMinorUnitExponent(currency.getMinorUnitExponent());
         responseDto.setCreatedAt(currency.getCreatedAt());
         responseDto.setCreatedBy(currency.getCreatedBy());
         responseDto.setUpdatedAt(currency.getUpdatedAt());
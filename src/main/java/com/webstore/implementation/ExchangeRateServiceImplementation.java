@@ -0,0 +1,143 @@
+package com.webstore.implementation;
+
+import com.webstore.constant.DatabaseConstants;
+import com.webstore.dto.request.ExchangeRateRequestDto;
+import com.webstore.dto.response.ExchangeRateResponseDto;
+import com.webstore.entity.Currency;
+import com.webstore.entity.ExchangeRate;
+import com.webstore.event.CatalogChangeEvent;
+import com.webstore.exception.ClientErrorException;
+import com.webstore.exception.InvalidRequestException;
+import com.webstore.exception.ResourceNotFoundException;
+import com.webstore.repository.CurrencyRepository;
+import com.webstore.repository.ExchangeRateRepository;
+import com.webstore.service.ExchangeRateService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class ExchangeRateServiceImplementation implements ExchangeRateService {
+
+    // Serialises rate changes of one currency pair until commit, so two writers cannot both pass the overlap check
+    private static final String LOCK_PAIR_SQL = "SELECT pg_advisory_xact_lock(?, ?)";
+
+    private final ExchangeRateRepository exchangeRateRepository;
+    private final CurrencyRepository currencyRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ExchangeRateServiceImplementation(ExchangeRateRepository exchangeRateRepository,
+            CurrencyRepository currencyRepository,
+            JdbcTemplate jdbcTemplate,
+            ApplicationEventPublisher eventPublisher) {
+        this.exchangeRateRepository = exchangeRateRepository;
+        this.currencyRepository = currencyRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    @Transactional
+    public ExchangeRateResponseDto createExchangeRate(ExchangeRateRequestDto request) {
+        Integer baseCurrencyId = request.getBaseCurrencyId();
+        Integer quoteCurrencyId = request.getQuoteCurrencyId();
+        if (baseCurrencyId.equals(quoteCurrencyId)) {
+            throw new InvalidRequestException("Base and quote currency must differ");
+        }
+        LocalDateTime validFrom = request.getValidFrom() != null ? request.getValidFrom() : LocalDateTime.now();
+        LocalDateTime validTo = request.getValidTo();
+        if (validTo != null && !validTo.isAfter(validFrom)) {
+            throw new InvalidRequestException("validTo must be after validFrom");
+        }
+
+        Currency baseCurrency = currencyRepository.findById(baseCurrencyId)
+                .orElseThrow(() -> new ResourceNotFoundException("Currency not found with id: " + baseCurrencyId));
+        Currency quoteCurrency = currencyRepository.findById(quoteCurrencyId)
+                .orElseThrow(() -> new ResourceNotFoundException("Currency not found with id: " + quoteCurrencyId));
+
+        jdbcTemplate.queryForList(LOCK_PAIR_SQL, baseCurrencyId, quoteCurrencyId);
+
+        // A new open-ended rate supersedes the running one instead of conflicting with it
+        if (validTo == null) {
+            exchangeRateRepository.findOpenRateStartingBefore(baseCurrencyId, quoteCurrencyId, validFrom)
+                    .ifPresent(open -> {
+                        open.setValidTo(validFrom);
+                        exchangeRateRepository.saveAndFlush(open);
+                        eventPublisher.publishEvent(CatalogChangeEvent.updated(
+                                DatabaseConstants.EXCHANGE_RATES_TABLE, open.getExchangeRateId()));
+                    });
+        }
+
+        if (exchangeRateRepository.existsOverlapping(baseCurrencyId, quoteCurrencyId, validFrom, validTo)) {
+            throw new ClientErrorException(HttpStatus.CONFLICT, String.format(
+                    "An exchange rate for %s/%s already covers part of this period",
+                    baseCurrency.getCurrencyCode(), quoteCurrency.getCurrencyCode()));
+        }
+
+        ExchangeRate exchangeRate = new ExchangeRate();
+        exchangeRate.setBaseCurrency(baseCurrency);
+        exchangeRate.setQuoteCurrency(quoteCurrency);
+        exchangeRate.setRate(request.getRate());
+        exchangeRate.setValidFrom(validFrom);
+        exchangeRate.setValidTo(validTo);
+
+        ExchangeRate saved = exchangeRateRepository.save(exchangeRate);
+        log.info("Exchange rate {} created: 1 {} = {} {} from {}", saved.getExchangeRateId(),
+                baseCurrency.getCurrencyCode(), saved.getRate(), quoteCurrency.getCurrencyCode(), validFrom);
+        eventPublisher.publishEvent(CatalogChangeEvent.created(DatabaseConstants.EXCHANGE_RATES_TABLE, saved.getExchangeRateId()));
+        return mapToResponseDto(saved);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ExchangeRateResponseDto getExchangeRateById(Integer id) {
+        return exchangeRateRepository.findByIdWithCurrencies(id)
+                .map(this::mapToResponseDto)
+                .orElseThrow(() -> new ResourceNotFoundException("Exchange rate not found with id: " + id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ExchangeRateResponseDto> getAllExchangeRates() {
+        return exchangeRateRepository.findAllWithCurrencies().stream()
+                .map(this::mapToResponseDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public void deleteExchangeRate(Integer id) {
+        if (!exchangeRateRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Exchange rate not found with id: " + id);
+        }
+        exchangeRateRepository.deleteById(id);
+        eventPublisher.publishEvent(CatalogChangeEvent.deleted(DatabaseConstants.EXCHANGE_RATES_TABLE, id));
+        log.info("Exchange rate with id={} has been deleted", id);
+    }
+
+    private ExchangeRateResponseDto mapToResponseDto(ExchangeRate exchangeRate) {
+        ExchangeRateResponseDto dto = new ExchangeRateResponseDto();
+        dto.setExchangeRateId(exchangeRate.getExchangeRateId());
+        dto.setBaseCurrencyId(exchangeRate.getBaseCurrency().getCurrencyId());
+        dto.setBaseCurrencyCode(exchangeRate.getBaseCurrency().getCurrencyCode());
+        dto.setQuoteCurrencyId(exchangeRate.getQuoteCurrency().getCurrencyId());
+        dto.setQuoteCurrencyCode(exchangeRate.getQuoteCurrency().getCurrencyCode());
+        dto.setRate(exchangeRate.getRate());
+        dto.setValidFrom(exchangeRate.getValidFrom());
+        dto.setValidTo(exchangeRate.getValidTo());
+        dto.setCreatedAt(exchangeRate.getCreatedAt());
+        dto.setCreatedBy(exchangeRate.getCreatedBy());
+        dto.setUpdatedAt(exchangeRate.getUpdatedAt());
+        dto.setUpdatedBy(exchangeRate.getUpdatedBy());
+        return dto;
+    }
+}
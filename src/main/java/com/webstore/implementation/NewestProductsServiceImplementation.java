@@ -0,0 +1,276 @@
+package com.webstore.implementation;
+
+import static com.webstore.constant.DatabaseConstants.CATALOGUES_TABLE;
+import static com.webstore.constant.DatabaseConstants.CATALOGUE_CATEGORIES_TABLE;
+import static com.webstore.constant.DatabaseConstants.CATEGORIES_TABLE;
+import static com.webstore.constant.DatabaseConstants.PRODUCTS_TABLE;
+
+import com.webstore.dto.response.ProductResponseDto;
+import com.webstore.dto.response.ProductResponseDto.PriceInfoDto;
+import com.webstore.event.CatalogChangeEvent;
+import com.webstore.exception.ClientErrorException;
+import com.webstore.exception.InvalidRequestException;
+import com.webstore.repository.ProductRepository;
+import com.webstore.service.NewestProductsService;
+import com.webstore.service.PriceMatrixService;
+import com.webstore.service.ProductService;
+import com.webstore.service.PromotionService;
+import com.webstore.util.RingBuffer;
+import com.webstore.util.SecurityContextUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/*
+ * "Newest products" feeds served from memory: a RingBuffer per catalogue-category holds the newest
+ * products as response snapshots, so a feed costs no query. Prices are not part of the snapshot but
+ * taken from the price matrix on every read, so they never go stale; stock is as of the product's last
+ * change event.
+ *
+ * The buffers are filled with one limited index scan per catalogue-category and then kept current
+ * from CatalogChangeEvents: a new product is pushed onto its buffer, an edited one is replaced in
+ * place, and only a product leaving a buffer (deleted or moved) refills that one buffer from the
+ * database, as the product that takes its place is not in memory.
+ *
+ * The buffers hold the newest products of all sellers, so a seller's own feed cannot be cut from them;
+ * a SELLER is served their own newest products by a limited query instead.
+ */
+@Slf4j
+@Service
+public class NewestProductsServiceImplementation implements NewestProductsService {
+
+    // Newest first; ids break ties between products created in the same instant
+    private static final Comparator<ProductResponseDto> NEWEST_FIRST = Comparator
+            .comparing(ProductResponseDto::getCreatedAt, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+            .thenComparing(ProductResponseDto::getProductId)
+            .reversed();
+
+    private final ProductRepository productRepository;
+    private final ProductService productService;
+    private final PriceMatrixService priceMatrixService;
+    private final PromotionService promotionService;
+    private final int capacity;
+
+    // Guards loading and event application so a change committed during a full load is never lost
+    private final Object writeLock = new Object();
+    // Replaced whole on a full reload so readers never see the feeds half-filled
+    private volatile Map<Integer, RingBuffer<ProductResponseDto>> buffers = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public NewestProductsServiceImplementation(ProductRepository productRepository,
+            ProductService productService,
+            PriceMatrixService priceMatrixService,
+            PromotionService promotionService,
+            @Value("${products.newest.capacity:20}") int capacity) {
+        this.productRepository = productRepository;
+        this.productService = productService;
+        this.priceMatrixService = priceMatrixService;
+        this.promotionService = promotionService;
+        this.capacity = capacity;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    @Override
+    public void reload() {
+        synchronized (writeLock) {
+            List<Integer> ids = productRepository.findNewestIdsPerCatalogueCategory(capacity);
+            Map<Integer, List<ProductResponseDto>> byCatalogueCategory = productService.getProductsByIds(ids).stream()
+                    .filter(product -> catalogueCategoryOf(product) != null)
+                    .collect(Collectors.groupingBy(NewestProductsServiceImplementation::catalogueCategoryOf));
+            Map<Integer, RingBuffer<ProductResponseDto>> filled = new ConcurrentHashMap<>();
+            byCatalogueCategory.forEach((catalogueCategoryId, products) -> {
+                RingBuffer<ProductResponseDto> buffer = new RingBuffer<>(capacity);
+                buffer.fill(products.stream().sorted(NEWEST_FIRST).toList());
+                filled.put(catalogueCategoryId, buffer);
+            });
+            buffers = filled;
+            loaded = true;
+            log.info("Loaded newest products: {} products over {} catalogue-categories",
+                    ids.size(), byCatalogueCategory.size());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        String changed = event.getTable();
+        boolean productChanged = PRODUCTS_TABLE.equals(changed);
+        // Snapshots carry catalogue and category names
+        boolean groupsChanged = CATALOGUES_TABLE.equals(changed) || CATEGORIES_TABLE.equals(changed)
+                || CATALOGUE_CATEGORIES_TABLE.equals(changed);
+        if (!productChanged && !groupsChanged) {
+            return;
+        }
+        synchronized (writeLock) {
+            if (!loaded) {
+                // The next read loads everything, including this change
+                return;
+            }
+            try {
+                if (productChanged && event.getId() != null) {
+                    refreshProduct(event.getId());
+                } else {
+                    reload();
+                }
+            } catch (DataAccessException e) {
+                log.warn("Could not apply {} to the newest products, reloading on next read: {}", event, e.getMessage());
+                loaded = false;
+            }
+        }
+    }
+
+    @Override
+    public List<ProductResponseDto> getNewestProducts(Integer catalogueCategoryId, int limit) {
+        requireLimit(limit);
+        Integer sellerId = currentSellerId();
+        if (sellerId != null) {
+            return loadNewest(productRepository.findNewestIdsByCatalogueCategoryIdAndSellerId(
+                    catalogueCategoryId, sellerId, limit));
+        }
+        ensureLoaded();
+        RingBuffer<ProductResponseDto> buffer = buffers.get(catalogueCategoryId);
+        if (buffer == null) {
+            return List.of();
+        }
+        return buffer.newest(limit).stream().map(this::withCurrentPrices).toList();
+    }
+
+    @Override
+    public List<ProductResponseDto> getNewestProducts(int limit) {
+        requireLimit(limit);
+        Integer sellerId = currentSellerId();
+        if (sellerId != null) {
+            return loadNewest(productRepository.findNewestIdsBySellerId(sellerId, limit));
+        }
+        ensureLoaded();
+        // Every buffer is sorted, so the newest overall are among the newest limit of each
+        List<ProductResponseDto> candidates = new ArrayList<>();
+        for (RingBuffer<ProductResponseDto> buffer : buffers.values()) {
+            candidates.addAll(buffer.newest(limit));
+        }
+        return candidates.stream().sorted(NEWEST_FIRST).limit(limit).map(this::withCurrentPrices).toList();
+    }
+
+    // The caller's seller id if they are a SELLER, else null
+    private static Integer currentSellerId() {
+        if (!SecurityContextUtils.isSeller()) {
+            return null;
+        }
+        Integer sellerId = SecurityContextUtils.getCurrentSellerId();
+        if (sellerId == null) {
+            throw new ClientErrorException(HttpStatus.UNAUTHORIZED, "Seller ID not found in token");
+        }
+        return sellerId;
+    }
+
+    private List<ProductResponseDto> loadNewest(List<Integer> productIds) {
+        return productService.getProductsByIds(productIds).stream()
+                .sorted(NEWEST_FIRST)
+                .map(this::withCurrentPrices)
+                .toList();
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (writeLock) {
+                if (!loaded) {
+                    reload();
+                }
+            }
+        }
+    }
+
+    private void requireLimit(int limit) {
+        if (limit < 1 || limit > capacity) {
+            throw new InvalidRequestException("limit must be between 1 and " + capacity);
+        }
+    }
+
+    // Called with writeLock held
+    private void refreshProduct(Integer productId) {
+        List<ProductResponseDto> found = productService.getProductsByIds(List.of(productId));
+        ProductResponseDto product = found.isEmpty() ? null : found.get(0);
+        Integer catalogueCategoryId = product != null ? catalogueCategoryOf(product) : null;
+
+        // Wherever the product was listed before: replace it if it stayed, refill if it left
+        buffers.forEach((listedIn, buffer) -> {
+            if (!buffer.anyMatch(listed -> productId.equals(listed.getProductId()))) {
+                return;
+            }
+            if (product != null && listedIn.equals(catalogueCategoryId)) {
+                buffer.replace(listed -> productId.equals(listed.getProductId()), product);
+            } else {
+                refill(listedIn);
+            }
+        });
+        if (product == null || catalogueCategoryId == null) {
+            return;
+        }
+
+        RingBuffer<ProductResponseDto> buffer = bufferOf(catalogueCategoryId);
+        if (buffer.anyMatch(listed -> productId.equals(listed.getProductId()))) {
+            return;
+        }
+        List<ProductResponseDto> newest = buffer.newest(1);
+        if (newest.isEmpty() || NEWEST_FIRST.compare(product, newest.get(0)) < 0) {
+            // The usual case: a product just created
+            buffer.add(product);
+        } else if (buffer.size() < capacity
+                || NEWEST_FIRST.compare(product, buffer.newest(capacity).get(capacity - 1)) < 0) {
+            // Moved in from another catalogue-category, and new enough to be listed somewhere in the middle
+            refill(catalogueCategoryId);
+        }
+    }
+
+    // Called with writeLock held
+    private void refill(Integer catalogueCategoryId) {
+        List<ProductResponseDto> products = productService.getProductsByIds(
+                productRepository.findNewestIdsByCatalogueCategoryId(catalogueCategoryId, capacity));
+        bufferOf(catalogueCategoryId).fill(products.stream().sorted(NEWEST_FIRST).toList());
+    }
+
+    private RingBuffer<ProductResponseDto> bufferOf(Integer catalogueCategoryId) {
+        return buffers.computeIfAbsent(catalogueCategoryId, id -> new RingBuffer<>(capacity));
+    }
+
+    private static Integer catalogueCategoryOf(ProductResponseDto product) {
+        return product.getCatalogueCategory() != null ? product.getCatalogueCategory().getCatalogueCategoryId() : null;
+    }
+
+    // Snapshots are shared between readers, so each read gets its own copy with today's prices
+    private ProductResponseDto withCurrentPrices(ProductResponseDto snapshot) {
+        ProductResponseDto dto = new ProductResponseDto();
+        dto.setProductId(snapshot.getProductId());
+        dto.setProductName(snapshot.getProductName());
+        dto.setProductDescription(snapshot.getProductDescription());
+        dto.setImageUrl(snapshot.getImageUrl());
+        dto.setStock(snapshot.getStock());
+        dto.setSellerId(snapshot.getSellerId());
+        dto.setCatalogueCategory(snapshot.getCatalogueCategory());
+        dto.setCreatedAt(snapshot.getCreatedAt());
+        dto.setCreatedBy(snapshot.getCreatedBy());
+        dto.setUpdatedAt(snapshot.getUpdatedAt());
+        dto.setUpdatedBy(snapshot.getUpdatedBy());
+
+        List<PriceInfoDto> prices = priceMatrixService.getPrices(snapshot.getProductId(), snapshot.getProductName());
+        promotionService.applyPromotions(prices);
+        dto.setPrices(prices);
+        return dto;
+    }
+}
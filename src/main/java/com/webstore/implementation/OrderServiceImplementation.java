@@ -0,0 +1,253 @@
+package com.webstore.implementation;
+
+import com.webstore.dto.request.OrderRequestDto;
+import com.webstore.dto.response.OrderResponseDto;
+import com.webstore.dto.response.OrderResponseDto.OrderLineDto;
+import com.webstore.entity.Currency;
+import com.webstore.entity.CustomerOrder;
+import com.webstore.entity.OrderLine;
+import com.webstore.entity.StockReservation;
+import com.webstore.exception.ClientErrorException;
+import com.webstore.exception.InvalidRequestException;
+import com.webstore.exception.ResourceNotFoundException;
+import com.webstore.repository.CurrencyRepository;
+import com.webstore.repository.CustomerOrderRepository;
+import com.webstore.repository.ProductPriceRepository;
+import com.webstore.repository.StockReservationRepository;
+import com.webstore.service.OrderService;
+import com.webstore.service.PromotionService;
+import com.webstore.service.StockReservationService;
+import com.webstore.service.whatsapp.core.OutboundMessageQueue;
+import com.webstore.util.AuthUtils;
+import com.webstore.util.MoneyFormatter;
+import com.webstore.util.SecurityContextUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/*
+ * Places an order from the customer's held stock reservations in one short transaction: claim the
+ * idempotency key, confirm the holds, price the lines and queue the confirmation. Stock was already taken
+ * when the items were reserved, so nothing here waits on a hot product row, and the confirmation is only
+ * sent after commit by OutboundMessageDispatcher.
+ * A seller calling the REST API can only place and read orders in their own name.
+ */
+@Slf4j
+@Service
+public class OrderServiceImplementation implements OrderService {
+
+    // Claims the idempotency key. A concurrent request with the same key waits here for the first one
+    // and then gets no row back, so each key produces at most one order
+    private static final String INSERT_ORDER_SQL =
+            "INSERT INTO web_store.orders (customer, idempotency_key, status, currency_id, total_amount, " +
+            "created_by, updated_by) " +
+            "VALUES (?, ?, 'PLACED', ?, 0, ?, ?) " +
+            "ON CONFLICT (idempotency_key) DO NOTHING " +
+            "RETURNING order_id";
+
+    private final CustomerOrderRepository orderRepository;
+    private final StockReservationRepository reservationRepository;
+    private final ProductPriceRepository productPriceRepository;
+    private final CurrencyRepository currencyRepository;
+    private final StockReservationService stockReservationService;
+    private final OutboundMessageQueue outboundMessageQueue;
+    private final JdbcTemplate jdbcTemplate;
+    private final MoneyFormatter moneyFormatter;
+    private final PromotionService promotionService;
+    private final String orderCurrencyCode;
+
+    public OrderServiceImplementation(CustomerOrderRepository orderRepository,
+            StockReservationRepository reservationRepository,
+            ProductPriceRepository productPriceRepository,
+            CurrencyRepository currencyRepository,
+            StockReservationService stockReservationService,
+            OutboundMessageQueue outboundMessageQueue,
+            JdbcTemplate jdbcTemplate,
+            MoneyFormatter moneyFormatter,
+            PromotionService promotionService,
+            @Value("${orders.currency-code:INR}") String orderCurrencyCode) {
+        this.orderRepository = orderRepository;
+        this.reservationRepository = reservationRepository;
+        this.productPriceRepository = productPriceRepository;
+        this.currencyRepository = currencyRepository;
+        this.stockReservationService = stockReservationService;
+        this.outboundMessageQueue = outboundMessageQueue;
+        this.jdbcTemplate = jdbcTemplate;
+        this.moneyFormatter = moneyFormatter;
+        this.promotionService = promotionService;
+        this.orderCurrencyCode = orderCurrencyCode;
+    }
+
+    @Override
+    @Transactional
+    public OrderResponseDto placeOrder(OrderRequestDto request, String idempotencyKey) {
+        requireCustomerAccess(request.getCustomer());
+        return placeOrder(request.getCustomer(), idempotencyKey, null, null);
+    }
+
+    @Override
+    @Transactional
+    public OrderResponseDto placeOrder(String customer, String idempotencyKey, String notifyPhoneNumberId,
+            Integer buyNowProductId) {
+        if (!StringUtils.hasText(idempotencyKey) || idempotencyKey.length() > 100) {
+            throw new InvalidRequestException("Idempotency key is required and must be at most 100 characters");
+        }
+
+        Currency currency = currencyRepository.findByCurrencyCode(orderCurrencyCode)
+                .orElseThrow(() -> new ResourceNotFoundException("Order currency not found: " + orderCurrencyCode));
+
+        String currentUser = AuthUtils.getCurrentUsername();
+        List<Long> inserted = jdbcTemplate.queryForList(INSERT_ORDER_SQL, Long.class,
+                customer, idempotencyKey, currency.getCurrencyId(), currentUser, currentUser);
+        if (inserted.isEmpty()) {
+            return replay(customer, idempotencyKey);
+        }
+        Long orderId = inserted.get(0);
+
+        // Holds past their expiry are left to the sweeper rather than sold
+        LocalDateTime now = LocalDateTime.now();
+        List<StockReservation> cart = heldReservations(customer, now);
+        if (cart.isEmpty() && buyNowProductId != null) {
+            // Reserved only after the key is claimed, so a redelivered webhook can't take the stock twice
+            stockReservationService.reserve(buyNowProductId, 1, customer);
+            cart = heldReservations(customer, now);
+        }
+        if (cart.isEmpty()) {
+            throw new ClientErrorException(HttpStatus.CONFLICT, "Cart is empty or its items have expired");
+        }
+
+        List<Long> reservationIds = cart.stream().map(StockReservation::getReservationId).collect(Collectors.toList());
+        if (reservationRepository.confirmAllIfHeld(reservationIds, now) != reservationIds.size()) {
+            throw new ClientErrorException(HttpStatus.CONFLICT, "Cart changed while checking out; please try again");
+        }
+
+        List<Integer> productIds = cart.stream()
+                .map(reservation -> reservation.getProduct().getProductId())
+                .distinct()
+                .collect(Collectors.toList());
+        // Charged at the price shown: the list price less any running promotion
+        Map<Integer, BigInteger> unitPrices = productPriceRepository
+                .findByProductIdsAndCurrencyId(productIds, currency.getCurrencyId()).stream()
+                .collect(Collectors.toMap(price -> price.getProduct().getProductId(),
+                        price -> promotionService.getEffectivePrice(price.getProduct().getProductId(),
+                                currency.getCurrencyId(), price.getPriceAmount())));
+
+        CustomerOrder order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
+        BigInteger total = BigInteger.ZERO;
+        for (StockReservation reservation : cart) {
+            Integer productId = reservation.getProduct().getProductId();
+            BigInteger unitPrice = unitPrices.get(productId);
+            if (unitPrice == null) {
+                throw new ClientErrorException(HttpStatus.CONFLICT,
+                        reservation.getProduct().getProductName() + " has no " + orderCurrencyCode + " price");
+            }
+
+            OrderLine line = new OrderLine();
+            line.setOrder(order);
+            line.setProductId(productId);
+            line.setProductName(reservation.getProduct().getProductName());
+            line.setReservationId(reservation.getReservationId());
+            line.setQuantity(reservation.getQuantity());
+            line.setUnitPrice(unitPrice);
+            line.setLineTotal(unitPrice.multiply(BigInteger.valueOf(reservation.getQuantity())));
+            order.getOrderLines().add(line);
+            total = total.add(line.getLineTotal());
+        }
+        order.setTotalAmount(total);
+        orderRepository.flush();
+
+        if (notifyPhoneNumberId != null) {
+            outboundMessageQueue.enqueueText(notifyPhoneNumberId, customer, formatConfirmation(order));
+        }
+
+        log.info("Placed order {} for {} with {} lines", orderId, customer, cart.size());
+        return convertToDto(order);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderResponseDto getOrderById(Long id) {
+        CustomerOrder order = findOrder(id);
+        requireCustomerAccess(order.getCustomer());
+        return convertToDto(order);
+    }
+
+    private List<StockReservation> heldReservations(String customer, LocalDateTime now) {
+        return reservationRepository.findHeldByHolder(customer).stream()
+                .filter(reservation -> reservation.getExpiresAt().isAfter(now))
+                .collect(Collectors.toList());
+    }
+
+    private OrderResponseDto replay(String customer, String idempotencyKey) {
+        Long existingId = orderRepository.findIdByIdempotencyKey(idempotencyKey)
+                .orElseThrow(() -> new IllegalStateException("Idempotency key " + idempotencyKey + " conflicted but no order found"));
+        CustomerOrder existing = findOrder(existingId);
+        if (!existing.getCustomer().equals(customer)) {
+            throw new ClientErrorException(HttpStatus.CONFLICT, "Idempotency key was already used by another customer");
+        }
+        log.info("Idempotency key {} already placed order {}; returning it", idempotencyKey, existingId);
+        OrderResponseDto dto = convertToDto(existing);
+        dto.setReplayed(true);
+        return dto;
+    }
+
+    // A seller only orders and reads as themselves, as with their stock reservations; the WhatsApp flow
+    // runs without a caller and admins act for any customer
+    private void requireCustomerAccess(String customer) {
+        if (SecurityContextUtils.isSeller() && !customer.equals(AuthUtils.getCurrentUsername())) {
+            throw new ClientErrorException(HttpStatus.FORBIDDEN, "Access denied: Orders of another customer");
+        }
+    }
+
+    private CustomerOrder findOrder(Long id) {
+        return orderRepository.findByIdWithLines(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
+    }
+
+    private String formatConfirmation(CustomerOrder order) {
+        String symbol = order.getCurrency().getCurrencySymbol();
+        int exponent = order.getCurrency().getMinorUnitExponent();
+        StringBuilder message = new StringBuilder(128)
+                .append("✅ *Order #").append(order.getOrderId()).append(" confirmed*\n\n");
+        for (OrderLine line : order.getOrderLines()) {
+            message.append("📦 ").append(line.getProductName()).append(" x").append(line.getQuantity()).append(" — ");
+            moneyFormatter.appendTo(message, symbol, line.getLineTotal(), exponent).append('\n');
+        }
+        message.append("\n💰 Total: ");
+        moneyFormatter.appendTo(message, symbol, order.getTotalAmount(), exponent)
+                .append("\n\nThank you for shopping with us!");
+        return message.toString();
+    }
+
+    private OrderResponseDto convertToDto(CustomerOrder order) {
+        OrderResponseDto dto = new OrderResponseDto();
+        dto.setOrderId(order.getOrderId());
+        dto.setCustomer(order.getCustomer());
+        dto.setStatus(order.getStatus().name());
+        dto.setCurrencyCode(order.getCurrency().getCurrencyCode());
+        dto.setTotalAmount(order.getTotalAmount());
+        dto.setCreatedAt(order.getCreatedAt());
+        dto.setLines(order.getOrderLines().stream().map(line -> {
+            OrderLineDto lineDto = new OrderLineDto();
+            lineDto.setOrderLineId(line.getOrderLineId());
+            lineDto.setProductId(line.getProductId());
+            lineDto.setProductName(line.getProductName());
+            lineDto.setQuantity(line.getQuantity());
+            lineDto.setUnitPrice(line.getUnitPrice());
+            lineDto.setLineTotal(line.getLineTotal());
+            return lineDto;
+        }).collect(Collectors.toList()));
+        return dto;
+    }
+}
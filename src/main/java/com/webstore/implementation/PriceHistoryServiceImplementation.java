@@ -0,0 +1,165 @@
+package com.webstore.implementation;
+
+import com.webstore.dto.request.PriceAsOfRequestDto;
+import com.webstore.dto.response.PriceHistoryResponseDto;
+import com.webstore.service.PriceHistoryService;
+import com.webstore.util.MoneyFormatter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*
+ * Append-only price history in product_price_history. A price change closes the open row of the product
+ * and currency at the database clock and opens the new one at the same instant, so the windows of a pair
+ * tile time without gaps. As-of reads go through the GiST index of the overlap exclusion constraint;
+ * the bulk lookup joins an id array so each product is one index probe however long the history gets.
+ */
+@Slf4j
+@Service
+public class PriceHistoryServiceImplementation implements PriceHistoryService {
+
+    // Single bigint key (product << 32 | currency): a separate key space from the two-int pair locks
+    private static final String LOCK_PAIR_SQL = "SELECT pg_advisory_xact_lock(?)";
+
+    private static final String RECORD_SQL =
+            "WITH closed AS (" +
+            "    UPDATE web_store.product_price_history SET valid_to = clock_timestamp()::timestamp, closed_by = ? " +
+            "    WHERE product_id = ? AND currency_id = ? AND valid_to IS NULL " +
+            "    RETURNING valid_to) " +
+            "INSERT INTO web_store.product_price_history " +
+            "    (product_price_id, product_id, currency_id, price_amount, valid_from, created_by) " +
+            "VALUES (?, ?, ?, ?, COALESCE((SELECT valid_to FROM closed), clock_timestamp()::timestamp), ?)";
+
+    private static final String CLOSE_PRICE_SQL =
+            "UPDATE web_store.product_price_history SET valid_to = clock_timestamp()::timestamp, closed_by = ? " +
+            "WHERE product_price_id = ? AND valid_to IS NULL";
+
+    private static final String CLOSE_PRODUCT_SQL =
+            "UPDATE web_store.product_price_history SET valid_to = clock_timestamp()::timestamp, closed_by = ? " +
+            "WHERE product_id = ? AND valid_to IS NULL";
+
+    private static final String SELECT_COLUMNS =
+            "SELECT h.product_price_history_id, h.product_price_id, h.product_id, h.currency_id, h.price_amount, " +
+            "       h.valid_from, h.valid_to, h.created_by, h.closed_by, " +
+            "       c.currency_code, c.currency_symbol, c.minor_unit_exponent ";
+
+    private static final String HISTORY_SQL = SELECT_COLUMNS +
+            "FROM web_store.product_price_history h " +
+            "LEFT JOIN web_store.currencies c ON c.currency_id = h.currency_id " +
+            "WHERE h.product_id = ? AND (CAST(? AS INT) IS NULL OR h.currency_id = ?) " +
+            "ORDER BY h.currency_id, h.valid_from DESC";
+
+    // tsrange(valid_from, valid_to) must match the exclusion constraint's expression to use its index
+    private static final String AS_OF_SQL = SELECT_COLUMNS +
+            "FROM unnest(?::int[]) AS p(product_id) " +
+            "JOIN web_store.product_price_history h ON h.product_id = p.product_id " +
+            "LEFT JOIN web_store.currencies c ON c.currency_id = h.currency_id " +
+            "WHERE tsrange(h.valid_from, h.valid_to) @> ?::timestamp " +
+            "  AND (CAST(? AS INT) IS NULL OR h.currency_id = ?) " +
+            "ORDER BY h.product_id, h.currency_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditorAware<String> auditorAware;
+    private final MoneyFormatter moneyFormatter;
+
+    public PriceHistoryServiceImplementation(JdbcTemplate jdbcTemplate,
+            AuditorAware<String> auditorAware,
+            MoneyFormatter moneyFormatter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.auditorAware = auditorAware;
+        this.moneyFormatter = moneyFormatter;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordPrice(Integer productPriceId, Integer productId, Integer currencyId, BigInteger priceAmount) {
+        // Two writers of one pair would otherwise each miss the other's open row and trip the exclusion constraint
+        jdbcTemplate.queryForList(LOCK_PAIR_SQL, ((long) productId << 32) | (currencyId & 0xFFFFFFFFL));
+        String user = currentUser();
+        jdbcTemplate.update(RECORD_SQL, user, productId, currencyId,
+                productPriceId, productId, currencyId, new BigDecimal(priceAmount), user);
+        log.debug("Recorded price {} for product {} in currency {}", priceAmount, productId, currencyId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRemoval(Integer productPriceId) {
+        jdbcTemplate.update(CLOSE_PRICE_SQL, currentUser(), productPriceId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordProductRemoval(Integer productId) {
+        int closed = jdbcTemplate.update(CLOSE_PRODUCT_SQL, currentUser(), productId);
+        log.debug("Closed {} price history rows of deleted product {}", closed, productId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PriceHistoryResponseDto> getHistory(Integer productId, Integer currencyId) {
+        return jdbcTemplate.query(HISTORY_SQL, rowMapper(), productId, currencyId, currencyId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PriceHistoryResponseDto> getPricesAsOf(Integer productId, Integer currencyId, LocalDateTime at) {
+        return queryAsOf(List.of(productId), currencyId, at);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PriceHistoryResponseDto> getPricesAsOf(PriceAsOfRequestDto request) {
+        return queryAsOf(request.getProductIds(), request.getCurrencyId(), request.getAt());
+    }
+
+    private List<PriceHistoryResponseDto> queryAsOf(List<Integer> productIds, Integer currencyId, LocalDateTime at) {
+        Timestamp asOf = Timestamp.valueOf(at != null ? at : LocalDateTime.now());
+        Integer[] ids = productIds.stream().distinct().toArray(Integer[]::new);
+        return jdbcTemplate.query(AS_OF_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("integer", ids));
+            ps.setTimestamp(2, asOf);
+            ps.setObject(3, currencyId, Types.INTEGER);
+            ps.setObject(4, currencyId, Types.INTEGER);
+        }, rowMapper());
+    }
+
+    private RowMapper<PriceHistoryResponseDto> rowMapper() {
+        return (rs, rowNum) -> {
+            PriceHistoryResponseDto dto = new PriceHistoryResponseDto();
+            dto.setProductPriceHistoryId(rs.getLong("product_price_history_id"));
+            dto.setProductPriceId(rs.getObject("product_price_id", Integer.class));
+            dto.setProductId(rs.getInt("product_id"));
+            dto.setCurrencyId(rs.getInt("currency_id"));
+            dto.setCurrencyCode(rs.getString("currency_code"));
+            dto.setCurrencySymbol(rs.getString("currency_symbol"));
+            BigInteger amount = rs.getBigDecimal("price_amount").toBigIntegerExact();
+            dto.setPriceAmount(amount);
+            // Currency may have been deleted since; fall back to two decimals
+            int exponent = rs.getObject("minor_unit_exponent") != null
+                    ? rs.getInt("minor_unit_exponent")
+                    : MoneyFormatter.DEFAULT_EXPONENT;
+            dto.setFormattedPrice(moneyFormatter.format(dto.getCurrencySymbol(), amount, exponent));
+            dto.setValidFrom(rs.getTimestamp("valid_from").toLocalDateTime());
+            Timestamp validTo = rs.getTimestamp("valid_to");
+            dto.setValidTo(validTo != null ? validTo.toLocalDateTime() : null);
+            dto.setCreatedBy(rs.getString("created_by"));
+            dto.setClosedBy(rs.getString("closed_by"));
+            return dto;
+        };
+    }
+
+    private String currentUser() {
+        return auditorAware.getCurrentAuditor().orElse(null);
+    }
+}
@@ -0,0 +1,213 @@
+package com.webstore.implementation;
+
+import static com.webstore.constant.DatabaseConstants.CURRENCIES_TABLE;
+import static com.webstore.constant.DatabaseConstants.PRODUCT_PRICES_TABLE;
+
+import com.webstore.dto.response.ProductResponseDto.PriceInfoDto;
+import com.webstore.event.CatalogChangeEvent;
+import com.webstore.service.PriceMatrixService;
+import com.webstore.util.PriceMatrix;
+import com.webstore.util.PriceMatrix.CurrencyInfo;
+import com.webstore.util.PriceMatrix.PriceRow;
+import com.webstore.util.PriceMatrix.Quote;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/*
+ * Serves product prices from an in-memory PriceMatrix instead of a product_prices query per product.
+ * The matrix is loaded once and then kept current from CatalogChangeEvents: local writes are applied after
+ * their transaction commits (a rolled back write never reaches it), remote ones as soon as they arrive.
+ * A changed price is re-read by id, so the event only has to say which row moved.
+ */
+@Slf4j
+@Service
+public class PriceMatrixServiceImplementation implements PriceMatrixService {
+
+    private static final String CURRENCIES_SQL =
+            "SELECT currency_id, currency_code, currency_symbol, minor_unit_exponent FROM web_store.currencies";
+
+    private static final String PRICES_SQL =
+            "SELECT product_price_id, product_id, currency_id, price_amount FROM web_store.product_prices";
+
+    private static final String PRICE_BY_ID_SQL =
+            "SELECT pp.product_id, c.currency_id, c.currency_code, c.currency_symbol, c.minor_unit_exponent, " +
+            "       pp.price_amount " +
+            "FROM web_store.product_prices pp " +
+            "JOIN web_store.currencies c ON c.currency_id = pp.currency_id " +
+            "WHERE pp.product_price_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PriceMatrix matrix = new PriceMatrix();
+
+    // Guards loading and event application so a change committed during a full load is never lost
+    private final Object writeLock = new Object();
+    private volatile boolean loaded;
+
+    public PriceMatrixServiceImplementation(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    @Override
+    public void reload() {
+        synchronized (writeLock) {
+            List<CurrencyInfo> currencies = jdbcTemplate.query(CURRENCIES_SQL, (rs, rowNum) -> new CurrencyInfo(
+                    rs.getInt("currency_id"), rs.getString("currency_code"), rs.getString("currency_symbol"),
+                    rs.getInt("minor_unit_exponent")));
+            List<PriceRow> prices = new ArrayList<>();
+            jdbcTemplate.query(PRICES_SQL, rs -> {
+                Long amount = toMatrixAmount(rs.getBigDecimal("price_amount"), rs.getInt("product_price_id"));
+                if (amount != null) {
+                    prices.add(new PriceRow(rs.getInt("product_price_id"), rs.getInt("product_id"),
+                            rs.getInt("currency_id"), amount));
+                }
+            });
+            matrix.load(currencies, prices);
+            loaded = true;
+            log.info("Loaded price matrix: {} prices for {} products in {} currencies",
+                    prices.size(), matrix.productCount(), currencies.size());
+        }
+    }
+
+    // Runs before other listeners so those reading prices after a change see the new amounts
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        boolean pricesChanged = PRODUCT_PRICES_TABLE.equals(event.getTable());
+        if (!pricesChanged && !CURRENCIES_TABLE.equals(event.getTable())) {
+            return;
+        }
+        synchronized (writeLock) {
+            if (!loaded) {
+                // The next read loads everything, including this change
+                return;
+            }
+            try {
+                if (pricesChanged && event.getId() != null) {
+                    refreshPrice(event.getId());
+                } else {
+                    // Currency codes and symbols are part of the layout; they change rarely enough to rebuild it
+                    reload();
+                }
+            } catch (DataAccessException e) {
+                log.warn("Could not apply {} to the price matrix, reloading on next read: {}", event, e.getMessage());
+                loaded = false;
+            }
+        }
+    }
+
+    @Override
+    public List<PriceInfoDto> getPrices(Integer productId, String productName) {
+        if (productId == null) {
+            return List.of();
+        }
+        List<Quote> quotes = matrix().findAll(productId);
+        List<PriceInfoDto> prices = new ArrayList<>(quotes.size());
+        for (Quote quote : quotes) {
+            PriceInfoDto price = toDto(quote);
+            price.setProductName(productName);
+            prices.add(price);
+        }
+        return prices;
+    }
+
+    @Override
+    public Optional<PriceInfoDto> getPreferredPrice(Integer productId, String currencyCode) {
+        if (productId == null) {
+            return Optional.empty();
+        }
+        PriceMatrix prices = matrix();
+        Quote quote = prices.findPreferred(productId, prices.currencyIdOf(currencyCode));
+        return Optional.ofNullable(quote).map(this::toDto);
+    }
+
+    @Override
+    public Map<Integer, PriceInfoDto> getPreferredPrices(Collection<Integer> productIds, String currencyCode) {
+        PriceMatrix prices = matrix();
+        int currencyId = prices.currencyIdOf(currencyCode);
+        Map<Integer, PriceInfoDto> result = new HashMap<>();
+        for (Integer productId : productIds) {
+            Quote quote = productId != null ? prices.findPreferred(productId, currencyId) : null;
+            if (quote != null) {
+                result.put(productId, toDto(quote));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public PriceMatrix getPriceMatrix() {
+        return matrix();
+    }
+
+    private PriceMatrix matrix() {
+        if (!loaded) {
+            synchronized (writeLock) {
+                if (!loaded) {
+                    reload();
+                }
+            }
+        }
+        return matrix;
+    }
+
+    private void refreshPrice(Integer priceId) {
+        boolean[] found = {false};
+        jdbcTemplate.query(PRICE_BY_ID_SQL, rs -> {
+            found[0] = true;
+            Long amount = toMatrixAmount(rs.getBigDecimal("price_amount"), priceId);
+            if (amount == null) {
+                matrix.remove(priceId);
+                return;
+            }
+            matrix.put(priceId, rs.getInt("product_id"), new CurrencyInfo(rs.getInt("currency_id"),
+                    rs.getString("currency_code"), rs.getString("currency_symbol"),
+                    rs.getInt("minor_unit_exponent")), amount);
+        }, priceId);
+
+        if (!found[0]) {
+            matrix.remove(priceId);
+        }
+    }
+
+    // Amounts are stored in minor units; anything beyond a long cannot be held in the matrix
+    private static Long toMatrixAmount(BigDecimal amount, int priceId) {
+        try {
+            return amount.longValueExact();
+        } catch (ArithmeticException e) {
+            log.warn("Price {} amount {} does not fit in the price matrix and is left out", priceId, amount);
+            return null;
+        }
+    }
+
+    private PriceInfoDto toDto(Quote quote) {
+        PriceInfoDto dto = new PriceInfoDto();
+        dto.setProductId(quote.productId());
+        dto.setCurrencyId(quote.currency().currencyId());
+        dto.setCurrencyCode(quote.currency().currencyCode());
+        dto.setCurrencySymbol(quote.currency().currencySymbol());
+        dto.setMinorUnitExponent(quote.currency().minorUnitExponent());
+        dto.setPriceAmount(BigInteger.valueOf(quote.amount()));
+        return dto;
+    }
+}
@@ -0,0 +1,238 @@
+package com.webstore.implementation;
+
+import com.webstore.enums.whatsapp.ProductInteraction;
+import com.webstore.exception.InvalidRequestException;
+import com.webstore.service.ProductPopularityService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/*
+ * Interactions are counted in LongAdders, which spread concurrent increments over per-thread cells, so
+ * recording one from a webhook thread is a map lookup and an uncontended add with no database write.
+ * A background flush drains the adders and adds the deltas to product_stats in one batch, so the table
+ * holds the totals of every instance; a batch that fails is added back and retried on the next flush.
+ *
+ * Each flush also re-reads the top of the ranking (products by score) that "popular first" orderings use,
+ * so an ordering reflects interactions up to one flush interval old. Only the first products.stats.ranked-limit
+ * products are kept in memory; orderings and pages reaching past them read the rest through
+ * idx_product_stats_score.
+ */
+@Slf4j
+@Service
+public class ProductPopularityServiceImplementation implements ProductPopularityService {
+
+    // Deltas in ProductInteraction order; those of a product deleted since they were counted match no row and are dropped
+    private static final String ADD_DELTAS_SQL =
+            "INSERT INTO web_store.product_stats (product_id, views, selections, cart_adds, checkouts, updated_at) " +
+            "SELECT p.product_id, ?, ?, ?, ?, CURRENT_TIMESTAMP FROM web_store.products p WHERE p.product_id = ? " +
+            "ON CONFLICT (product_id) DO UPDATE SET " +
+            "    views = product_stats.views + EXCLUDED.views, " +
+            "    selections = product_stats.selections + EXCLUDED.selections, " +
+            "    cart_adds = product_stats.cart_adds + EXCLUDED.cart_adds, " +
+            "    checkouts = product_stats.checkouts + EXCLUDED.checkouts, " +
+            "    updated_at = EXCLUDED.updated_at";
+
+    private static final String RANKING_SQL =
+            "SELECT product_id FROM web_store.product_stats WHERE score > 0 ORDER BY score DESC, product_id " +
+            "LIMIT ? OFFSET ?";
+
+    private static final String RANKED_COUNT_SQL = "SELECT COUNT(*) FROM web_store.product_stats WHERE score > 0";
+
+    // Ranking of the given products only, for orderings that reach past the top kept in memory
+    private static final String RANKING_OF_SQL =
+            "SELECT product_id FROM web_store.product_stats WHERE product_id = ANY(?) AND score > 0 " +
+            "ORDER BY score DESC, product_id";
+
+    // Products past the end of the ranking, in id order
+    private static final String UNRANKED_PAGE_SQL =
+            "SELECT p.product_id FROM web_store.products p " +
+            "WHERE NOT EXISTS (SELECT 1 FROM web_store.product_stats s " +
+            "                  WHERE s.product_id = p.product_id AND s.score > 0) " +
+            "ORDER BY p.product_id LIMIT ? OFFSET ?";
+
+    private static final int INTERACTIONS = ProductInteraction.values().length;
+
+    // complete is false when more products are ranked than were read
+    private record Ranking(List<Integer> productIds, Map<Integer, Integer> positionByProductId, boolean complete) {
+
+        static final Ranking EMPTY = new Ranking(List.of(), Map.of(), true);
+
+        int positionOf(Integer productId) {
+            return positionByProductId.getOrDefault(productId, Integer.MAX_VALUE);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int rankedLimit;
+
+    // One adder per product and interaction, indexed by ProductInteraction ordinal
+    private final Map<Integer, LongAdder[]> counters = new ConcurrentHashMap<>();
+    // Null until first read
+    private volatile Ranking ranking;
+
+    public ProductPopularityServiceImplementation(JdbcTemplate jdbcTemplate,
+            @Value("${products.stats.ranked-limit:1000}") int rankedLimit) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rankedLimit = rankedLimit;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refreshRanking();
+    }
+
+    @Override
+    public void record(ProductInteraction interaction, Integer productId) {
+        if (productId == null) {
+            return;
+        }
+        counters.computeIfAbsent(productId, id -> newAdders())[interaction.ordinal()].increment();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${products.stats.flush-interval-ms:10000}")
+    public synchronized void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        counters.forEach((productId, adders) -> {
+            long[] deltas = new long[INTERACTIONS];
+            boolean any = false;
+            for (int i = 0; i < INTERACTIONS; i++) {
+                deltas[i] = adders[i].sumThenReset();
+                any |= deltas[i] != 0;
+            }
+            if (any) {
+                batch.add(new Object[] {deltas[0], deltas[1], deltas[2], deltas[3], productId});
+            }
+        });
+
+        if (!batch.isEmpty()) {
+            try {
+                jdbcTemplate.batchUpdate(ADD_DELTAS_SQL, batch);
+                log.debug("Flushed interaction counts for {} products", batch.size());
+            } catch (DataAccessException e) {
+                log.warn("Could not flush interaction counts for {} products, retrying on next flush: {}",
+                        batch.size(), e.getMessage());
+                batch.forEach(this::addBack);
+                return;
+            }
+        }
+        refreshRanking();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    @Override
+    public <T> List<T> popularFirst(List<T> items, Function<T, Integer> productIdOf) {
+        Ranking top = ranking();
+        // Items past the top may still be ranked; rank just those items then
+        Ranking order = top.complete()
+                || items.stream().allMatch(item -> top.positionByProductId().containsKey(productIdOf.apply(item)))
+                ? top
+                : rankingOf(items.stream().map(productIdOf).distinct().toArray(Integer[]::new));
+        List<T> sorted = new ArrayList<>(items);
+        // List.sort is stable, so unranked items keep their order
+        sorted.sort(Comparator.comparingInt(item -> order.positionOf(productIdOf.apply(item))));
+        return sorted;
+    }
+
+    @Override
+    public List<Integer> getPopularProductIds(int page, int size) {
+        if (page < 0 || size < 1) {
+            throw new InvalidRequestException("page must not be negative and size must be positive");
+        }
+        Ranking current = ranking();
+        List<Integer> ranked = current.productIds();
+        long offset = (long) page * size;
+        List<Integer> ids = new ArrayList<>();
+        if (offset < ranked.size()) {
+            ids.addAll(ranked.subList((int) offset, (int) Math.min(ranked.size(), offset + size)));
+        }
+        if (ids.size() == size) {
+            return ids;
+        }
+        long rankedCount = ranked.size();
+        if (!current.complete()) {
+            long rankedOffset = offset + ids.size();
+            ids.addAll(jdbcTemplate.queryForList(RANKING_SQL, Integer.class, size - ids.size(), rankedOffset));
+            if (ids.size() == size) {
+                return ids;
+            }
+            rankedCount = jdbcTemplate.queryForObject(RANKED_COUNT_SQL, Long.class);
+        }
+        long unrankedOffset = Math.max(0, offset - rankedCount);
+        ids.addAll(jdbcTemplate.queryForList(UNRANKED_PAGE_SQL, Integer.class, size - ids.size(), unrankedOffset));
+        return ids;
+    }
+
+    private Ranking ranking() {
+        Ranking current = ranking;
+        if (current == null) {
+            refreshRanking();
+            current = ranking;
+        }
+        return current;
+    }
+
+    private void refreshRanking() {
+        try {
+            // One row past the limit tells whether the top holds the whole ranking
+            List<Integer> productIds = jdbcTemplate.queryForList(RANKING_SQL, Integer.class, rankedLimit + 1, 0);
+            boolean complete = productIds.size() <= rankedLimit;
+            ranking = toRanking(complete ? productIds : productIds.subList(0, rankedLimit), complete);
+        } catch (DataAccessException e) {
+            log.warn("Could not read the popularity ranking, keeping the previous one: {}", e.getMessage());
+            if (ranking == null) {
+                ranking = Ranking.EMPTY;
+            }
+        }
+    }
+
+    private Ranking rankingOf(Integer[] productIds) {
+        List<Integer> ranked = jdbcTemplate.query(RANKING_OF_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("integer", productIds)),
+                (rs, rowNum) -> rs.getInt("product_id"));
+        return toRanking(ranked, true);
+    }
+
+    private static Ranking toRanking(List<Integer> productIds, boolean complete) {
+        Map<Integer, Integer> positions = new HashMap<>(productIds.size() * 2);
+        for (int i = 0; i < productIds.size(); i++) {
+            positions.put(productIds.get(i), i);
+        }
+        return new Ranking(List.copyOf(productIds), positions, complete);
+    }
+
+    private void addBack(Object[] row) {
+        LongAdder[] adders = counters.computeIfAbsent((Integer) row[INTERACTIONS], id -> newAdders());
+        for (int i = 0; i < INTERACTIONS; i++) {
+            adders[i].add((Long) row[i]);
+        }
+    }
+
+    private static LongAdder[] newAdders() {
+        LongAdder[] adders = new LongAdder[INTERACTIONS];
+        for (int i = 0; i < INTERACTIONS; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
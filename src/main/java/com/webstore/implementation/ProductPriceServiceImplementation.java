@@ -1,20 +1,26 @@
 package com.webstore.implementation;
 
+import com.webstore.constant.DatabaseConstants;
 import com.webstore.dto.request.ProductPriceRequestDto;
 import com.webstore.dto.response.ProductPriceResponseDto;
 import com.webstore.entity.Currency;
 import com.webstore.entity.Product;
 import com.webstore.entity.ProductPrice;
+import com.webstore.event.CatalogChangeEvent;
+import com.webstore.exception.InvalidRequestException;
+import com.webstore.exception.ResourceNotFoundException;
 import com.webstore.repository.*;
+import com.webstore.service.PriceHistoryService;
 import com.webstore.service.ProductPriceService;
-import jakarta.persistence.EntityNotFoundException;
+import com.webstore.util.MoneyFormatter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
-import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Optional;
 
@@ -26,17 +32,26 @@ public class ProductPriceServiceImplementation implements ProductPriceService {
     private final ProductRepository productRepository;
     private final CurrencyRepository currencyRepository;
     private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MoneyFormatter moneyFormatter;
+    private final PriceHistoryService priceHistoryService;
 
     @Autowired
     public ProductPriceServiceImplementation(
             ProductPriceRepository productPriceRepository,
             ProductRepository productRepository,
             CurrencyRepository currencyRepository,
-            CategoryRepository categoryRepository) {
+            CategoryRepository categoryRepository,
+            ApplicationEventPublisher eventPublisher,
+            MoneyFormatter moneyFormatter,
+            PriceHistoryService priceHistoryService) {
         this.productPriceRepository = productPriceRepository;
         this.productRepository = productRepository;
         this.currencyRepository = currencyRepository;
         this.categoryRepository = categoryRepository;
+        this.eventPublisher = eventPublisher;
+        this.moneyFormatter = moneyFormatter;
+        this.priceHistoryService = priceHistoryService;
     }
 
     @Override
@@ -56,20 +71,20 @@ public class ProductPriceServiceImplementation implements ProductPriceService {
         log.info("Creating product price for productId={} and currencyId={}", request.getProductId(), request.getCurrencyId());
 
         Product product = productRepository.findById(request.getProductId())
-                .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + request.getProductId()));
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + request.getProductId()));
 
         Currency currency = currencyRepository.findById(request.getCurrencyId())
-                .orElseThrow(() -> new EntityNotFoundException("Currency not found with id: " + request.getCurrencyId()));
+                .orElseThrow(() -> new ResourceNotFoundException("Currency not found with id: " + request.getCurrencyId()));
 
         Optional<ProductPrice> existingPrice = productPriceRepository
                 .findByProductProductIdAndCurrencyCurrencyId(request.getProductId(), request.getCurrencyId());
 
         if (existingPrice.isPresent()) {
-            throw new IllegalArgumentException("Price already exists for this product and currency combination");
+            throw new InvalidRequestException("Price already exists for this product and currency combination");
         }
 
         if (request.getPriceAmount() == null || request.getPriceAmount().compareTo(BigInteger.ZERO) < 0) {
-            throw new IllegalArgumentException("Price amount must be non-null and non-negative");
+            throw new InvalidRequestException("Price amount must be non-null and non-negative");
         }
 
         ProductPrice productPrice = new ProductPrice();
@@ -79,6 +94,9 @@ public class ProductPriceServiceImplementation implements ProductPriceService {
 
         ProductPrice savedProductPrice = productPriceRepository.save(productPrice);
         log.info("Product price created with id={}", savedProductPrice.getProductPriceId());
+        priceHistoryService.recordPrice(savedProductPrice.getProductPriceId(), product.getProductId(),
+                currency.getCurrencyId(), savedProductPrice.getPriceAmount());
+        eventPublisher.publishEvent(CatalogChangeEvent.created(DatabaseConstants.PRODUCT_PRICES_TABLE, savedProductPrice.getProductPriceId()));
 
         return mapToResponseDto(savedProductPrice);
     }
@@ -89,7 +107,7 @@ public class ProductPriceServiceImplementation implements ProductPriceService {
         log.info("Fetching product price with id={}", id);
 
         ProductPrice productPrice = productPriceRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Product price not found with id: " + id));
+                .orElseThrow(() -> new ResourceNotFoundException("Product price not found with id: " + id));
 
         return mapToResponseDto(productPrice);
     }
@@ -100,16 +118,22 @@ public class ProductPriceServiceImplementation implements ProductPriceService {
         log.info("Updating product price with id={} to new amount={}", id, priceAmount);
 
         if (priceAmount == null || priceAmount.compareTo(BigInteger.ZERO) < 0) {
-            throw new IllegalArgumentException("Price amount must be non-null and non-negative");
+            throw new InvalidRequestException("Price amount must be non-null and non-negative");
         }
 
         ProductPrice productPrice = productPriceRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Product price not found with id: " + id));
+                .orElseThrow(() -> new ResourceNotFoundException("Product price not found with id: " + id));
 
+        boolean changed = productPrice.getPriceAmount() == null || productPrice.getPriceAmount().compareTo(priceAmount) != 0;
         productPrice.setPriceAmount(priceAmount);
         ProductPrice updatedProductPrice = productPriceRepository.save(productPrice);
+        if (changed) {
+            priceHistoryService.recordPrice(id, productPrice.getProduct().getProductId(),
+                    productPrice.getCurrency().getCurrencyId(), priceAmount);
+        }
 
         log.info("Updated price for productPriceId={} successfully", id);
+        eventPublisher.publishEvent(CatalogChangeEvent.updated(DatabaseConstants.PRODUCT_PRICES_TABLE, id));
         return mapToResponseDto(updatedProductPrice);
     }
 
@@ -118,15 +142,29 @@ public class ProductPriceServiceImplementation implements ProductPriceService {
     @Transactional
     public void deleteProductPrice(Integer id) {
         if (!productPriceRepository.existsById(id)) {
-            throw new EntityNotFoundException("Product price not found with id: " + id);
+            throw new ResourceNotFoundException("Product price not found with id: " + id);
         }
 
         productPriceRepository.deleteById(id);
+        priceHistoryService.recordRemoval(id);
+        eventPublisher.publishEvent(CatalogChangeEvent.deleted(DatabaseConstants.PRODUCT_PRICES_TABLE, id));
 
         log.info("Product price with id={} has been deleted", id);
     }
 
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductPriceResponseDto> getProductPricesByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return productPriceRepository.findAllByIdWithDetails(ids)
+                .stream()
+                .map(this::mapToResponseDto)
+                .collect(Collectors.toList());
+    }
+
     private ProductPriceResponseDto mapToResponseDto(ProductPrice productPrice) {
         ProductPriceResponseDto responseDto = new ProductPriceResponseDto();
         responseDto.setProductPriceId(productPrice.getProductPriceId());
@@ -137,9 +175,9 @@ public class ProductPriceServiceImplementation implements ProductPriceService {
         responseDto.setCurrencySymbol(productPrice.getCurrency().getCurrencySymbol());
         responseDto.setPriceAmount(productPrice.getPriceAmount());
 
-        String formattedPrice = formatPrice(productPrice.getPriceAmount(), productPrice.getCurrency().getCurrencySymbol());
-        log.info("Formatted price for display: {}", formattedPrice);
-        responseDto.setFormattedPrice(formattedPrice);
+        Currency currency = productPrice.getCurrency();
+        responseDto.setFormattedPrice(moneyFormatter.format(
+                currency.getCurrencySymbol(), productPrice.getPriceAmount(), currency.getMinorUnitExponent()));
 
         responseDto.setCreatedAt(productPrice.getCreatedAt());
         responseDto.setCreatedBy(productPrice.getCreatedBy());
@@ -148,10 +186,4 @@ public class ProductPriceServiceImplementation implements ProductPriceService {
 
         return responseDto;
     }
-
-    // Utility method for formatting paise to rupees string
-    private String formatPrice(BigInteger amountInPaise, String currencySymbol) {
-        BigDecimal amountInRupees = new BigDecimal(amountInPaise).divide(BigDecimal.valueOf(100));
-        return currencySymbol + amountInRupees.toPlainString();
-    }
 }
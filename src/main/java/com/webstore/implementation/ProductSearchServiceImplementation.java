@@ -0,0 +1,338 @@
+package com.webstore.implementation;
+
+import static com.webstore.constant.DatabaseConstants.CATALOGUES_TABLE;
+import static com.webstore.constant.DatabaseConstants.CATALOGUE_CATEGORIES_TABLE;
+import static com.webstore.constant.DatabaseConstants.CATEGORIES_TABLE;
+import static com.webstore.constant.DatabaseConstants.CURRENCIES_TABLE;
+import static com.webstore.constant.DatabaseConstants.PRODUCTS_TABLE;
+import static com.webstore.constant.DatabaseConstants.PRODUCT_PRICES_TABLE;
+
+import com.webstore.dto.request.ProductSearchRequestDto;
+import com.webstore.dto.response.FacetedSearchResponseDto;
+import com.webstore.dto.response.FacetedSearchResponseDto.FacetCountDto;
+import com.webstore.dto.response.FacetedSearchResponseDto.PriceRangeCountDto;
+import com.webstore.dto.response.FacetedSearchResponseDto.StockCountDto;
+import com.webstore.dto.response.ProductResponseDto;
+import com.webstore.event.CatalogChangeEvent;
+import com.webstore.exception.ClientErrorException;
+import com.webstore.exception.InvalidRequestException;
+import com.webstore.service.PriceMatrixService;
+import com.webstore.service.ProductSearchService;
+import com.webstore.service.ProductService;
+import com.webstore.util.FacetIndex;
+import com.webstore.util.FacetIndex.ProductFacets;
+import com.webstore.util.FacetIndex.StockBucket;
+import com.webstore.util.PriceMatrix;
+import com.webstore.util.SecurityContextUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*
+ * Faceted search over an in-memory FacetIndex, so a page of results and every facet count come from
+ * one pass over bitmaps instead of a filtered query plus a GROUP BY per facet. The index holds ids
+ * only; the page itself is fetched as one batch by id, and facet names come from small lookup maps.
+ *
+ * The index follows CatalogChangeEvents like the price matrix does. Stock moves through reservations
+ * and orders without events, so stock buckets are re-read on a timer and may lag by that interval.
+ * Prices are faceted in one currency (list prices, before promotions).
+ */
+@Slf4j
+@Service
+public class ProductSearchServiceImplementation implements ProductSearchService {
+
+    private static final String PRODUCTS_SQL =
+            "SELECT p.product_id, cc.catalogue_id, cc.category_id, p.seller_id, p.stock " +
+            "FROM web_store.products p " +
+            "LEFT JOIN web_store.catalogue_categories cc ON cc.catalogue_category_id = p.catalogue_category_id " +
+            "ORDER BY p.product_id";
+
+    private static final String PRODUCT_BY_ID_SQL =
+            "SELECT p.product_id, cc.catalogue_id, cc.category_id, p.seller_id, p.stock " +
+            "FROM web_store.products p " +
+            "LEFT JOIN web_store.catalogue_categories cc ON cc.catalogue_category_id = p.catalogue_category_id " +
+            "WHERE p.product_id = ?";
+
+    private static final String STOCK_SQL = "SELECT product_id, stock FROM web_store.products";
+
+    private static final String PRODUCT_OF_PRICE_SQL =
+            "SELECT product_id FROM web_store.product_prices WHERE product_price_id = ?";
+
+    private static final String CATALOGUE_NAMES_SQL = "SELECT catalogue_id, catalogue_name FROM web_store.catalogues";
+    private static final String CATEGORY_NAMES_SQL = "SELECT category_id, category_name FROM web_store.categories";
+    private static final String SELLER_NAMES_SQL = "SELECT seller_id, name FROM web_store.sellers";
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private record Names(Map<Integer, String> catalogues, Map<Integer, String> categories,
+            Map<Integer, String> sellers) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PriceMatrixService priceMatrixService;
+    private final ProductService productService;
+    private final String currencyCode;
+    private final long[] priceBoundaries;
+
+    // Guards loading and event application so a change committed during a full load is never lost
+    private final Object writeLock = new Object();
+    // Null until first loaded; replaced whole on a full reload so searches never see a half-built index
+    private volatile FacetIndex index;
+    private volatile Names names;
+    // Set when a deleted price could not be traced to its product; the next search re-reads every price
+    // once, however many prices were deleted in between
+    private volatile boolean pricesStale;
+
+    public ProductSearchServiceImplementation(JdbcTemplate jdbcTemplate,
+            PriceMatrixService priceMatrixService,
+            ProductService productService,
+            @Value("${prices.preferred-currency-code:INR}") String currencyCode,
+            @Value("${search.facets.price-boundaries:10000,50000,100000,500000,1000000}") long[] priceBoundaries) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.priceMatrixService = priceMatrixService;
+        this.productService = productService;
+        this.currencyCode = currencyCode;
+        this.priceBoundaries = priceBoundaries;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    @Override
+    public void reload() {
+        synchronized (writeLock) {
+            pricesStale = false;
+            PriceMatrix matrix = priceMatrixService.getPriceMatrix();
+            int currencyId = matrix.currencyIdOf(currencyCode);
+            List<ProductFacets> products = jdbcTemplate.query(PRODUCTS_SQL, facetsMapper(matrix, currencyId));
+            FacetIndex loaded = new FacetIndex(priceBoundaries);
+            loaded.load(products);
+            names = new Names(loadNames(CATALOGUE_NAMES_SQL), loadNames(CATEGORY_NAMES_SQL),
+                    loadNames(SELLER_NAMES_SQL));
+            index = loaded;
+            log.info("Loaded facet index: {} products", loaded.size());
+        }
+    }
+
+    /*
+     * The price matrix listener runs first (it has the highest precedence), so a price event finds the
+     * matrix already holding the new amount.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        String changed = event.getTable();
+        boolean productChanged = PRODUCTS_TABLE.equals(changed);
+        boolean priceChanged = PRODUCT_PRICES_TABLE.equals(changed) || CURRENCIES_TABLE.equals(changed);
+        boolean groupsChanged = CATALOGUES_TABLE.equals(changed) || CATEGORIES_TABLE.equals(changed)
+                || CATALOGUE_CATEGORIES_TABLE.equals(changed);
+        if (!productChanged && !priceChanged && !groupsChanged) {
+            return;
+        }
+        synchronized (writeLock) {
+            FacetIndex current = index;
+            if (current == null) {
+                // The next search loads everything, including this change
+                return;
+            }
+            try {
+                if (productChanged && event.getId() != null) {
+                    refreshProduct(current, event.getId());
+                } else if (PRODUCT_PRICES_TABLE.equals(changed) && event.getId() != null) {
+                    refreshPriceOf(current, event.getId());
+                } else if (CURRENCIES_TABLE.equals(changed)) {
+                    refreshAllPrices(current);
+                } else {
+                    // Renamed or regrouped catalogues and categories move many products at once
+                    reload();
+                }
+            } catch (DataAccessException e) {
+                log.warn("Could not apply {} to the facet index, reloading on next search: {}", event, e.getMessage());
+                index = null;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.facets.stock-refresh-ms:60000}")
+    public void refreshStock() {
+        synchronized (writeLock) {
+            FacetIndex current = index;
+            if (current == null) {
+                return;
+            }
+            jdbcTemplate.query(STOCK_SQL, rs -> {
+                current.updateStock(rs.getInt("product_id"), rs.getInt("stock"));
+            });
+            // Sellers have no change events either; their names ride along with the stock refresh
+            Names currentNames = names;
+            names = new Names(currentNames.catalogues(), currentNames.categories(), loadNames(SELLER_NAMES_SQL));
+        }
+    }
+
+    @Override
+    public FacetedSearchResponseDto search(ProductSearchRequestDto request) {
+        if (request.getPage() < 0) {
+            throw new InvalidRequestException("page cannot be negative");
+        }
+        if (request.getSize() < 1 || request.getSize() > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Integer sellerId = request.getSellerId();
+        String role = SecurityContextUtils.getCurrentRole();
+        boolean sellerScoped = role != null && "SELLER".equals(role);
+        if (sellerScoped) {
+            sellerId = SecurityContextUtils.getCurrentSellerId();
+            if (sellerId == null) {
+                throw new ClientErrorException(HttpStatus.UNAUTHORIZED, "Seller ID not found in token");
+            }
+        }
+
+        FacetIndex current = index();
+        Names currentNames = names;
+        long offset = (long) request.getPage() * request.getSize();
+        FacetIndex.Result result = current.search(new FacetIndex.Query(request.getCatalogueId(),
+                request.getCategoryId(), sellerId, request.getStock(), request.getMinPrice(), request.getMaxPrice(),
+                (int) Math.min(offset, Integer.MAX_VALUE), request.getSize(), sellerScoped));
+
+        FacetedSearchResponseDto response = new FacetedSearchResponseDto();
+        response.setTotal(result.total());
+        response.setPage(request.getPage());
+        response.setSize(request.getSize());
+        response.setProducts(loadPage(result.productIds()));
+        response.setCurrencyCode(currencyCode);
+        response.setCatalogues(toFacetCounts(result.catalogueCounts(), currentNames.catalogues()));
+        response.setCategories(toFacetCounts(result.categoryCounts(), currentNames.categories()));
+        response.setSellers(toFacetCounts(result.sellerCounts(), currentNames.sellers()));
+
+        List<StockCountDto> stock = new ArrayList<>();
+        for (StockBucket bucket : StockBucket.values()) {
+            stock.add(new StockCountDto(bucket, result.stockCounts()[bucket.ordinal()]));
+        }
+        response.setStock(stock);
+
+        List<PriceRangeCountDto> prices = new ArrayList<>();
+        for (int bucket = 0; bucket < result.priceCounts().length; bucket++) {
+            prices.add(new PriceRangeCountDto(
+                    bucket > 0 ? priceBoundaries[bucket - 1] : null,
+                    bucket < priceBoundaries.length ? priceBoundaries[bucket] : null,
+                    result.priceCounts()[bucket]));
+        }
+        response.setPrices(prices);
+        return response;
+    }
+
+    private FacetIndex index() {
+        FacetIndex current = index;
+        if (current == null || pricesStale) {
+            synchronized (writeLock) {
+                current = index;
+                if (current == null) {
+                    reload();
+                    current = index;
+                } else if (pricesStale) {
+                    refreshAllPrices(current);
+                }
+            }
+        }
+        return current;
+    }
+
+    // Called with writeLock held
+    private void refreshProduct(FacetIndex current, int productId) {
+        PriceMatrix matrix = priceMatrixService.getPriceMatrix();
+        List<ProductFacets> rows = jdbcTemplate.query(PRODUCT_BY_ID_SQL,
+                facetsMapper(matrix, matrix.currencyIdOf(currencyCode)), productId);
+        if (rows.isEmpty()) {
+            current.remove(productId);
+        } else {
+            current.put(rows.get(0));
+        }
+    }
+
+    /*
+     * Called with writeLock held. A deleted price can no longer be traced to its product, and deleting a
+     * category or product deletes its prices one event each, so those are left to a single refresh of
+     * all prices before the next search.
+     */
+    private void refreshPriceOf(FacetIndex current, int priceId) {
+        List<Integer> productIds = jdbcTemplate.queryForList(PRODUCT_OF_PRICE_SQL, Integer.class, priceId);
+        if (productIds.isEmpty()) {
+            pricesStale = true;
+            return;
+        }
+        PriceMatrix matrix = priceMatrixService.getPriceMatrix();
+        current.updatePrice(productIds.get(0), matrix.amount(productIds.get(0), matrix.currencyIdOf(currencyCode)));
+    }
+
+    // Called with writeLock held; matrix lookups only, so this is cheap even for the whole catalog
+    private void refreshAllPrices(FacetIndex current) {
+        pricesStale = false;
+        PriceMatrix matrix = priceMatrixService.getPriceMatrix();
+        int currencyId = matrix.currencyIdOf(currencyCode);
+        for (int productId : current.productIds()) {
+            current.updatePrice(productId, matrix.amount(productId, currencyId));
+        }
+    }
+
+    private static RowMapper<ProductFacets> facetsMapper(PriceMatrix matrix, int currencyId) {
+        return (rs, rowNum) -> {
+            int productId = rs.getInt("product_id");
+            // getInt maps a missing catalogue or category (SQL NULL) to 0, i.e. FacetIndex.NONE
+            return new ProductFacets(productId, rs.getInt("catalogue_id"), rs.getInt("category_id"),
+                    rs.getInt("seller_id"), rs.getInt("stock"), matrix.amount(productId, currencyId));
+        };
+    }
+
+    private Map<Integer, String> loadNames(String sql) {
+        Map<Integer, String> result = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            result.put(rs.getInt(1), rs.getString(2));
+        });
+        return result;
+    }
+
+    // Products come back from the batch in no particular order; the index order is product id order
+    private List<ProductResponseDto> loadPage(int[] productIds) {
+        if (productIds.length == 0) {
+            return List.of();
+        }
+        Map<Integer, ProductResponseDto> byId = productService
+                .getProductsByIds(Arrays.stream(productIds).boxed().toList()).stream()
+                .collect(Collectors.toMap(ProductResponseDto::getProductId, Function.identity()));
+        List<ProductResponseDto> page = new ArrayList<>(productIds.length);
+        for (int productId : productIds) {
+            ProductResponseDto product = byId.get(productId);
+            if (product != null) {
+                page.add(product);
+            }
+        }
+        return page;
+    }
+
+    private static List<FacetCountDto> toFacetCounts(Map<Integer, Integer> counts, Map<Integer, String> names) {
+        return counts.entrySet().stream()
+                .map(entry -> new FacetCountDto(entry.getKey(), names.get(entry.getKey()), entry.getValue()))
+                .sorted(Comparator.comparingInt(FacetCountDto::getCount).reversed()
+                        .thenComparing(FacetCountDto::getId))
+                .toList();
+    }
+}
@@ -1,5 +1,7 @@
 package com.webstore.implementation;
 
+import com.webstore.constant.CacheNames;
+import com.webstore.constant.DatabaseConstants;
 import com.webstore.dto.request.ProductRequestDto;
 import com.webstore.dto.response.CatalogueCategoryResponseDto;
 import com.webstore.dto.response.ProductResponseDto;
@@ -7,21 +9,32 @@ import com.webstore.entity.CatalogueCategory;
 import com.webstore.entity.Product;
 import com.webstore.entity.ProductPrice;
 import com.webstore.entity.Seller;
+import com.webstore.event.CatalogChangeEvent;
+import com.webstore.exception.ClientErrorException;
+import com.webstore.monitoring.LogRateLimiter;
 import com.webstore.repository.CatalogueCategoryRepository;
-import com.webstore.repository.ProductPriceRepository;
 import com.webstore.repository.ProductRepository;
 import com.webstore.repository.SellerRepository;
+import com.webstore.service.CurrencyConversionService;
+import com.webstore.service.PriceHistoryService;
+import com.webstore.service.PriceMatrixService;
+import com.webstore.service.ProductPopularityService;
 import com.webstore.service.ProductService;
+import com.webstore.service.PromotionService;
 import com.webstore.util.SecurityContextUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.server.ResponseStatusException;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -32,13 +45,23 @@ import org.springframework.data.domain.Pageable;
 @RequiredArgsConstructor
 public class ProductServiceImplementation implements ProductService {
 
+    // Logged per product while mapping, so a catalog missing prices would log a line per row of every page
+    private static final LogRateLimiter NO_PRICES_LOG = new LogRateLimiter(Duration.ofSeconds(10));
+    private static final LogRateLimiter SELLER_NOT_LOADED_LOG = new LogRateLimiter(Duration.ofSeconds(10));
+
     private final ProductRepository productRepository;
     private final CatalogueCategoryRepository catalogueCategoryRepository;
     private final SellerRepository sellerRepository;
-    private final ProductPriceRepository productPriceRepository;
+    private final PriceMatrixService priceMatrixService;
+    private final CurrencyConversionService currencyConversionService;
+    private final PriceHistoryService priceHistoryService;
+    private final PromotionService promotionService;
+    private final ProductPopularityService productPopularityService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.SELLER_DETAILS, key = "#result.sellerId")
     public ProductResponseDto createProduct(ProductRequestDto dto) {
         log.info("Creating product with name: {}", dto.getProductName());
 
@@ -47,7 +70,7 @@ public class ProductServiceImplementation implements ProductService {
         if (role != null && "SELLER".equals(role)) {
             Integer sellerId = SecurityContextUtils.getCurrentSellerId();
             if (sellerId == null) {
-                throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Seller ID not found in token");
+                throw new ClientErrorException(HttpStatus.UNAUTHORIZED, "Seller ID not found in token");
             }
             // Override sellerId from DTO to ensure seller can only create for themselves
             dto.setSellerId(sellerId);
@@ -58,14 +81,14 @@ public class ProductServiceImplementation implements ProductService {
         // Validate and find CatalogueCategory
         CatalogueCategory catalogueCategory = catalogueCategoryRepository
                 .findByCatalogueCatalogueIdAndCategoryCategoryId(dto.getCatalogueId(), dto.getCategoryId())
-                .orElseThrow(() -> new ResponseStatusException(
+                .orElseThrow(() -> new ClientErrorException(
                         HttpStatus.NOT_FOUND,
                         String.format("CatalogueCategory not found for Catalogue ID: %d and Category ID: %d",
                                 dto.getCatalogueId(), dto.getCategoryId())));
 
         // Validate and find Seller
         Seller seller = sellerRepository.findById(dto.getSellerId())
-                .orElseThrow(() -> new ResponseStatusException(
+                .orElseThrow(() -> new ClientErrorException(
                         HttpStatus.NOT_FOUND,
                         String.format("Seller not found with ID: %d", dto.getSellerId())));
 
@@ -81,6 +104,7 @@ public class ProductServiceImplementation implements ProductService {
 
         Product saved = productRepository.save(product);
         log.info("Product created with ID: {}", saved.getProductId());
+        eventPublisher.publishEvent(CatalogChangeEvent.created(DatabaseConstants.PRODUCTS_TABLE, saved.getProductId()));
 
         return convertToDto(saved);
     }
@@ -88,14 +112,14 @@ public class ProductServiceImplementation implements ProductService {
     @Override
     @Transactional(readOnly = true)
     public List<ProductResponseDto> getAllProducts(int page, int size) {
-        log.info("Fetching products - page: {}, size: {}", page, size);
+        log.debug("Fetching products - page: {}, size: {}", page, size);
 
         List<Product> products;
         String role = SecurityContextUtils.getCurrentRole();
         if (role != null && "SELLER".equals(role)) {
             Integer sellerId = SecurityContextUtils.getCurrentSellerId();
             if (sellerId == null) {
-                throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Seller ID not found in token");
+                throw new ClientErrorException(HttpStatus.UNAUTHORIZED, "Seller ID not found in token");
             }
             // Get all products for this seller
             List<Product> allSellerProducts = productRepository.findAllBySellerId(sellerId);
@@ -130,17 +154,17 @@ public class ProductServiceImplementation implements ProductService {
 
         Product product = productRepository.findByIdWithSeller(id)
                 .orElseThrow(
-                        () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found with ID: " + id));
+                        () -> new ClientErrorException(HttpStatus.NOT_FOUND, "Product not found with ID: " + id));
 
         // Check if seller is trying to access another seller's product
         String role = SecurityContextUtils.getCurrentRole();
         if (role != null && "SELLER".equals(role)) {
             Integer sellerId = SecurityContextUtils.getCurrentSellerId();
             if (sellerId == null) {
-                throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Seller ID not found in token");
+                throw new ClientErrorException(HttpStatus.UNAUTHORIZED, "Seller ID not found in token");
             }
             if (!sellerId.equals(product.getSeller().getSellerId())) {
-                throw new ResponseStatusException(HttpStatus.FORBIDDEN,
+                throw new ClientErrorException(HttpStatus.FORBIDDEN,
                         "Access denied: Product does not belong to your seller account");
             }
             log.info("Seller {} accessed their product {}", sellerId, id);
@@ -149,24 +173,26 @@ public class ProductServiceImplementation implements ProductService {
         return convertToDto(product);
     }
 
+    // The product may move between sellers, so every seller's cached details are dropped
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.SELLER_DETAILS, allEntries = true)
     public ProductResponseDto updateProduct(Integer id, ProductRequestDto dto) {
         log.info("Updating product with ID: {}", id);
 
         Product product = productRepository.findById(id)
                 .orElseThrow(
-                        () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found with ID: " + id));
+                        () -> new ClientErrorException(HttpStatus.NOT_FOUND, "Product not found with ID: " + id));
 
         // Check if seller is trying to update another seller's product
         String role = SecurityContextUtils.getCurrentRole();
         if (role != null && "SELLER".equals(role)) {
             Integer sellerId = SecurityContextUtils.getCurrentSellerId();
             if (sellerId == null) {
-                throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Seller ID not found in token");
+                throw new ClientErrorException(HttpStatus.UNAUTHORIZED, "Seller ID not found in token");
             }
             if (!sellerId.equals(product.getSeller().getSellerId())) {
-                throw new ResponseStatusException(HttpStatus.FORBIDDEN,
+                throw new ClientErrorException(HttpStatus.FORBIDDEN,
                         "Access denied: Product does not belong to your seller account");
             }
             // Override sellerId to ensure seller can only update their own products
@@ -177,14 +203,14 @@ public class ProductServiceImplementation implements ProductService {
         // Validate and find CatalogueCategory
         CatalogueCategory catalogueCategory = catalogueCategoryRepository
                 .findByCatalogueCatalogueIdAndCategoryCategoryId(dto.getCatalogueId(), dto.getCategoryId())
-                .orElseThrow(() -> new ResponseStatusException(
+                .orElseThrow(() -> new ClientErrorException(
                         HttpStatus.NOT_FOUND,
                         String.format("CatalogueCategory not found for Catalogue ID: %d and Category ID: %d",
                                 dto.getCatalogueId(), dto.getCategoryId())));
 
         // Validate and find Seller
         Seller seller = sellerRepository.findById(dto.getSellerId())
-                .orElseThrow(() -> new ResponseStatusException(
+                .orElseThrow(() -> new ClientErrorException(
                         HttpStatus.NOT_FOUND,
                         String.format("Seller not found with ID: %d", dto.getSellerId())));
 
@@ -193,40 +219,68 @@ public class ProductServiceImplementation implements ProductService {
         product.setCatalogueCategory(catalogueCategory);
         product.setSeller(seller);
         product.setImageUrl(dto.getImageUrl());
-        product.setStock(dto.getStock() != null ? dto.getStock() : 0);
         product.setUpdatedAt(LocalDateTime.now());
 
         Product updated = productRepository.save(product);
+        Integer stock = dto.getStock() != null ? adjustStock(updated, dto.getStock()) : updated.getStock();
         log.info("Product with ID: {} updated successfully", id);
+        eventPublisher.publishEvent(CatalogChangeEvent.updated(DatabaseConstants.PRODUCTS_TABLE, id));
+
+        ProductResponseDto response = convertToDto(updated);
+        response.setStock(stock);
+        return response;
+    }
 
-        return convertToDto(updated);
+    /*
+     * Stock held by reservations is already taken off products.stock and comes back on release or expiry,
+     * so the edit is applied as the change from the stock read with the product; writing the figure itself
+     * would undo holds placed meanwhile and their return would add stock that does not exist.
+     */
+    private Integer adjustStock(Product product, int stock) {
+        int delta = stock - product.getStock();
+        if (delta == 0) {
+            return stock;
+        }
+        return productRepository.adjustStockIfNotNegative(product.getProductId(), delta)
+                .orElseThrow(() -> new ClientErrorException(HttpStatus.CONFLICT,
+                        "Stock of product " + product.getProductId() + " changed while it was edited; please try again"));
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.SELLER_DETAILS, allEntries = true)
     public void deleteProduct(Integer id) {
         log.info("Deleting product with ID: {}", id);
 
         Product product = productRepository.findById(id)
                 .orElseThrow(
-                        () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found with ID: " + id));
+                        () -> new ClientErrorException(HttpStatus.NOT_FOUND, "Product not found with ID: " + id));
 
         // Check if seller is trying to delete another seller's product
         String role = SecurityContextUtils.getCurrentRole();
         if (role != null && "SELLER".equals(role)) {
             Integer sellerId = SecurityContextUtils.getCurrentSellerId();
             if (sellerId == null) {
-                throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Seller ID not found in token");
+                throw new ClientErrorException(HttpStatus.UNAUTHORIZED, "Seller ID not found in token");
             }
             if (!sellerId.equals(product.getSeller().getSellerId())) {
-                throw new ResponseStatusException(HttpStatus.FORBIDDEN,
+                throw new ClientErrorException(HttpStatus.FORBIDDEN,
                         "Access denied: Product does not belong to your seller account");
             }
             log.info("Seller {} is deleting their product {}", sellerId, id);
         }
 
+        // Prices go with the product (cascade), so announce them as deleted as well
+        List<Integer> priceIds = product.getProductPrices().stream()
+                .map(ProductPrice::getProductPriceId)
+                .collect(Collectors.toList());
+
         productRepository.delete(product);
+        priceHistoryService.recordProductRemoval(id);
         log.info("Product with ID: {} has been deleted", id);
+        priceIds.forEach(priceId -> eventPublisher.publishEvent(
+                CatalogChangeEvent.deleted(DatabaseConstants.PRODUCT_PRICES_TABLE, priceId)));
+        eventPublisher.publishEvent(CatalogChangeEvent.deleted(DatabaseConstants.PRODUCTS_TABLE, id));
     }
 
     @Override
@@ -243,7 +297,7 @@ public class ProductServiceImplementation implements ProductService {
         if (role != null && "SELLER".equals(role)) {
             Integer sellerId = SecurityContextUtils.getCurrentSellerId();
             if (sellerId == null) {
-                throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Seller ID not found in token");
+                throw new ClientErrorException(HttpStatus.UNAUTHORIZED, "Seller ID not found in token");
             }
             products = productRepository.searchBySellerIdAndNameOrDescription(sellerId, searchTerm.trim());
             log.info("Found {} products for seller {} matching '{}'", products.size(), sellerId, searchTerm);
@@ -257,6 +311,86 @@ public class ProductServiceImplementation implements ProductService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductResponseDto> searchProducts(String searchTerm, String currencyCode) {
+        return inCurrency(searchProducts(searchTerm), currencyCode);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductResponseDto> getAllProducts(int page, int size, String currencyCode) {
+        return inCurrency(getAllProducts(page, size), currencyCode);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductResponseDto> getAllProducts(int page, int size, String currencyCode, boolean popularFirst) {
+        if (!popularFirst) {
+            return getAllProducts(page, size, currencyCode);
+        }
+        log.info("Fetching products most popular first - page: {}, size: {}", page, size);
+
+        List<ProductResponseDto> products;
+        String role = SecurityContextUtils.getCurrentRole();
+        if (role != null && "SELLER".equals(role)) {
+            Integer sellerId = SecurityContextUtils.getCurrentSellerId();
+            if (sellerId == null) {
+                throw new ClientErrorException(HttpStatus.UNAUTHORIZED, "Seller ID not found in token");
+            }
+            // A seller's own products are few enough to rank in memory before paging
+            List<Product> sellerProducts = productPopularityService.popularFirst(
+                    productRepository.findAllBySellerId(sellerId), Product::getProductId);
+            int start = (int) Math.min((long) page * size, sellerProducts.size());
+            int end = (int) Math.min((long) start + size, sellerProducts.size());
+            products = sellerProducts.subList(start, end).stream()
+                    .map(this::convertToDto)
+                    .collect(Collectors.toList());
+        } else {
+            List<Integer> ids = productPopularityService.getPopularProductIds(page, size);
+            Map<Integer, ProductResponseDto> byId = getProductsByIds(ids).stream()
+                    .collect(Collectors.toMap(ProductResponseDto::getProductId, product -> product));
+            products = ids.stream()
+                    .map(byId::get)
+                    .filter(product -> product != null)
+                    .collect(Collectors.toList());
+        }
+        return inCurrency(products, currencyCode);
+    }
+
+    // Replaces the prices of each product with the one in the requested currency, looked up in one batch
+    private List<ProductResponseDto> inCurrency(List<ProductResponseDto> products, String currencyCode) {
+        if (currencyCode == null || currencyCode.isBlank() || products.isEmpty()) {
+            return products;
+        }
+        Map<Integer, ProductResponseDto.PriceInfoDto> prices = currencyConversionService.getPricesIn(
+                products.stream().map(ProductResponseDto::getProductId).collect(Collectors.toList()),
+                currencyCode.trim());
+        promotionService.applyPromotions(prices.values());
+        for (ProductResponseDto product : products) {
+            ProductResponseDto.PriceInfoDto price = prices.get(product.getProductId());
+            if (price != null) {
+                price.setProductName(product.getProductName());
+                product.setPrices(List.of(price));
+            } else {
+                product.setPrices(List.of());
+            }
+        }
+        return products;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductResponseDto> getProductsByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // Prices come from the in-memory matrix, so the batch costs one product query
+        return productRepository.findAllByIdWithRelations(ids).stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
     private ProductResponseDto convertToDto(Product product) {
         ProductResponseDto dto = new ProductResponseDto();
         dto.setProductId(product.getProductId());
@@ -275,8 +409,11 @@ public class ProductServiceImplementation implements ProductService {
         } else {
             // Fallback: fetch seller_id directly from database if seller relationship is
             // not loaded
-            log.warn("Seller relationship not loaded for product {}, fetching seller_id directly",
-                    product.getProductId());
+            long skipped = SELLER_NOT_LOADED_LOG.tryAcquire();
+            if (skipped != LogRateLimiter.NOT_ACQUIRED) {
+                log.warn("Seller relationship not loaded for product {}, fetching seller_id directly ({} more since)",
+                        product.getProductId(), skipped);
+            }
             Integer sellerId = getSellerIdFromProduct(product.getProductId());
             if (sellerId != null) {
                 dto.setSellerId(sellerId);
@@ -285,38 +422,15 @@ public class ProductServiceImplementation implements ProductService {
             }
         }
 
-        // Fetch price information using JPQL query
-        Integer productId = product.getProductId();
-        log.debug("Fetching price information for productId: {}", productId);
-
-        List<ProductPrice> productPrices = productPriceRepository.findPriceInfoWithDetailsByProductId(productId);
-        List<ProductResponseDto.PriceInfoDto> prices = new ArrayList<>();
-
-        if (productPrices != null && !productPrices.isEmpty()) {
-            log.debug("Found {} prices for product {}", productPrices.size(), productId);
-
-            for (ProductPrice pp : productPrices) {
-                try {
-                    ProductResponseDto.PriceInfoDto priceInfo = new ProductResponseDto.PriceInfoDto();
-                    priceInfo.setProductId(pp.getProduct().getProductId());
-                    priceInfo.setProductName(pp.getProduct().getProductName());
-                    priceInfo.setCurrencyId(pp.getCurrency().getCurrencyId());
-                    priceInfo.setCurrencyCode(pp.getCurrency().getCurrencyCode());
-                    priceInfo.setCurrencySymbol(pp.getCurrency().getCurrencySymbol());
-                    priceInfo.setPriceAmount(pp.getPriceAmount());
-                    prices.add(priceInfo);
-
-                    log.debug("✓ Added price: Product={}, Currency={}, Amount={}",
-                            pp.getProduct().getProductName(),
-                            pp.getCurrency().getCurrencyCode(),
-                            pp.getPriceAmount());
-                } catch (Exception e) {
-                    log.error("Error processing price data: {}", e.getMessage(), e);
-                }
+        List<ProductResponseDto.PriceInfoDto> prices =
+                priceMatrixService.getPrices(product.getProductId(), product.getProductName());
+        if (prices.isEmpty()) {
+            long skipped = NO_PRICES_LOG.tryAcquire();
+            if (skipped != LogRateLimiter.NOT_ACQUIRED) {
+                log.warn("⚠ No prices found for product {} ({} more since)", product.getProductId(), skipped);
             }
-        } else {
-            log.warn("⚠ No prices found for product {}", productId);
         }
+        promotionService.applyPromotions(prices);
 
         dto.setPrices(prices);
         log.debug("Product {}: prices={}", product.getProductId(), prices.size());
@@ -0,0 +1,426 @@
+package com.webstore.implementation;
+
+import static com.webstore.constant.DatabaseConstants.CATALOGUE_CATEGORIES_TABLE;
+import static com.webstore.constant.DatabaseConstants.CURRENCIES_TABLE;
+import static com.webstore.constant.DatabaseConstants.PRODUCTS_TABLE;
+import static com.webstore.constant.DatabaseConstants.PROMOTIONS_TABLE;
+
+import com.webstore.dto.request.PromotionRequestDto;
+import com.webstore.dto.response.ProductResponseDto.PriceInfoDto;
+import com.webstore.dto.response.PromotionResponseDto;
+import com.webstore.entity.Currency;
+import com.webstore.entity.Promotion;
+import com.webstore.entity.Promotion.DiscountType;
+import com.webstore.entity.Promotion.PromotionScope;
+import com.webstore.event.CatalogChangeEvent;
+import com.webstore.event.CatalogChangeEvent.ChangeType;
+import com.webstore.exception.InvalidRequestException;
+import com.webstore.exception.ResourceNotFoundException;
+import com.webstore.repository.CatalogueRepository;
+import com.webstore.repository.CategoryRepository;
+import com.webstore.repository.CurrencyRepository;
+import com.webstore.repository.ProductRepository;
+import com.webstore.repository.PromotionRepository;
+import com.webstore.service.PriceMatrixService;
+import com.webstore.service.PromotionService;
+import com.webstore.util.PromotionTable;
+import com.webstore.util.PromotionTable.Rule;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/*
+ * Promotions are evaluated once per boundary rather than per request: whenever a promotion starts or
+ * ends, the running ones are expanded to their products and folded into a PromotionTable of effective
+ * prices, which request threads read without locking. A task is scheduled for the next boundary, and
+ * a read that finds the boundary already passed (a late or lost task) rebuilds first, so a promotion is
+ * never shown a moment longer or shorter than its window.
+ *
+ * Moving a product between categories only matters to category and catalogue promotions, and only for
+ * that product: its rules are looked up on their own and patched into the table instead of rebuilding it.
+ */
+@Slf4j
+@Service
+public class PromotionServiceImplementation implements PromotionService {
+
+    private static final String RUNNING_SQL =
+            "SELECT promotion_id, scope, target_id, discount_type, discount_value, currency_id " +
+            "FROM web_store.promotions WHERE starts_at <= ? AND ends_at > ? ORDER BY promotion_id";
+
+    private static final String NEXT_BOUNDARY_SQL =
+            "SELECT LEAST(" +
+            "    (SELECT MIN(starts_at) FROM web_store.promotions WHERE starts_at > ?), " +
+            "    (SELECT MIN(ends_at) FROM web_store.promotions WHERE ends_at > ?))";
+
+    private static final String PRODUCT_GROUPS_SQL =
+            "SELECT p.product_id, cc.category_id, cc.catalogue_id " +
+            "FROM web_store.products p " +
+            "JOIN web_store.catalogue_categories cc ON cc.catalogue_category_id = p.catalogue_category_id";
+
+    private static final String PRODUCT_GROUP_SQL =
+            "SELECT cc.category_id, cc.catalogue_id " +
+            "FROM web_store.products p " +
+            "LEFT JOIN web_store.catalogue_categories cc ON cc.catalogue_category_id = p.catalogue_category_id " +
+            "WHERE p.product_id = ?";
+
+    // Patched products read their rules on the spot; past this many the table is rebuilt instead
+    private static final int MAX_PATCHED_PRODUCTS = 1024;
+
+    private static final int PERCENT_TO_BASIS_POINTS = 2;
+
+    private final PromotionRepository promotionRepository;
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final CatalogueRepository catalogueRepository;
+    private final CurrencyRepository currencyRepository;
+    private final PriceMatrixService priceMatrixService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskScheduler taskScheduler;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Object writeLock = new Object();
+    // Null until first built
+    private volatile PromotionTable table;
+    private ScheduledFuture<?> nextBoundaryTask;
+    // Scope and target of each rule in table, by rule index; only touched with writeLock held
+    private PromotionScope[] ruleScopes = new PromotionScope[0];
+    private int[] ruleTargets = new int[0];
+
+    public PromotionServiceImplementation(PromotionRepository promotionRepository,
+            ProductRepository productRepository,
+            CategoryRepository categoryRepository,
+            CatalogueRepository catalogueRepository,
+            CurrencyRepository currencyRepository,
+            PriceMatrixService priceMatrixService,
+            JdbcTemplate jdbcTemplate,
+            TaskScheduler taskScheduler,
+            ApplicationEventPublisher eventPublisher) {
+        this.promotionRepository = promotionRepository;
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.catalogueRepository = catalogueRepository;
+        this.currencyRepository = currencyRepository;
+        this.priceMatrixService = priceMatrixService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskScheduler = taskScheduler;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    @Transactional
+    public PromotionResponseDto createPromotion(PromotionRequestDto request) {
+        LocalDateTime startsAt = request.getStartsAt() != null ? request.getStartsAt() : LocalDateTime.now();
+        if (!request.getEndsAt().isAfter(startsAt)) {
+            throw new InvalidRequestException("endsAt must be after startsAt");
+        }
+        requireTarget(request.getScope(), request.getTargetId());
+
+        Currency currency = null;
+        if (request.getDiscountType() == DiscountType.PERCENT) {
+            if (request.getDiscountValue().compareTo(BigDecimal.valueOf(100)) > 0) {
+                throw new InvalidRequestException("A percent discount cannot exceed 100");
+            }
+            if (request.getCurrencyId() != null) {
+                throw new InvalidRequestException("A percent discount applies to all currencies; omit currencyId");
+            }
+        } else {
+            if (request.getDiscountValue().stripTrailingZeros().scale() > 0) {
+                throw new InvalidRequestException("An amount discount is given in minor units and must be whole");
+            }
+            if (request.getCurrencyId() == null) {
+                throw new InvalidRequestException("An amount discount needs the currencyId it applies to");
+            }
+            currency = currencyRepository.findById(request.getCurrencyId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Currency not found with id: " + request.getCurrencyId()));
+        }
+
+        Promotion promotion = new Promotion();
+        promotion.setPromotionName(request.getPromotionName().trim());
+        promotion.setScope(request.getScope());
+        promotion.setTargetId(request.getTargetId());
+        promotion.setDiscountType(request.getDiscountType());
+        promotion.setDiscountValue(request.getDiscountValue());
+        promotion.setCurrency(currency);
+        promotion.setStartsAt(startsAt);
+        promotion.setEndsAt(request.getEndsAt());
+
+        Promotion saved = promotionRepository.save(promotion);
+        log.info("Promotion {} '{}' created: {} {} off {} {} from {} to {}", saved.getPromotionId(),
+                saved.getPromotionName(), saved.getDiscountValue(), saved.getDiscountType(), saved.getScope(),
+                saved.getTargetId(), saved.getStartsAt(), saved.getEndsAt());
+        eventPublisher.publishEvent(CatalogChangeEvent.created(PROMOTIONS_TABLE, saved.getPromotionId()));
+        return mapToResponseDto(saved);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PromotionResponseDto getPromotionById(Integer id) {
+        return promotionRepository.findByIdWithCurrency(id)
+                .map(this::mapToResponseDto)
+                .orElseThrow(() -> new ResourceNotFoundException("Promotion not found with id: " + id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PromotionResponseDto> getAllPromotions() {
+        return promotionRepository.findAllWithCurrency().stream()
+                .map(this::mapToResponseDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public void deletePromotion(Integer id) {
+        if (!promotionRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Promotion not found with id: " + id);
+        }
+        promotionRepository.deleteById(id);
+        eventPublisher.publishEvent(CatalogChangeEvent.deleted(PROMOTIONS_TABLE, id));
+        log.info("Promotion with id={} has been deleted", id);
+    }
+
+    @Override
+    public void applyPromotions(Collection<PriceInfoDto> prices) {
+        if (prices.isEmpty()) {
+            return;
+        }
+        PromotionTable current = currentTable();
+        for (PriceInfoDto price : prices) {
+            if (price.getProductId() == null || price.getCurrencyId() == null || price.getPriceAmount() == null
+                    || price.getPriceAmount().bitLength() >= Long.SIZE) {
+                continue;
+            }
+            long amount = price.getPriceAmount().longValue();
+            int promotionId = current.promotionId(price.getProductId(), price.getCurrencyId(), amount);
+            if (promotionId != PromotionTable.NO_PROMOTION) {
+                price.setPromotionalPriceAmount(BigInteger.valueOf(
+                        current.effectiveAmount(price.getProductId(), price.getCurrencyId(), amount)));
+                price.setPromotionId(promotionId);
+            }
+        }
+    }
+
+    @Override
+    public BigInteger getEffectivePrice(Integer productId, Integer currencyId, BigInteger listPrice) {
+        if (listPrice.bitLength() >= Long.SIZE) {
+            return listPrice;
+        }
+        return BigInteger.valueOf(currentTable().effectiveAmount(productId, currencyId, listPrice.longValue()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refresh();
+    }
+
+    @Override
+    public void refresh() {
+        synchronized (writeLock) {
+            LocalDateTime now = LocalDateTime.now();
+            Timestamp at = Timestamp.valueOf(now);
+
+            List<Rule> rules = new ArrayList<>();
+            List<PromotionScope> scopes = new ArrayList<>();
+            List<Integer> targets = new ArrayList<>();
+            jdbcTemplate.query(RUNNING_SQL, rs -> {
+                int promotionId = rs.getInt("promotion_id");
+                BigDecimal value = rs.getBigDecimal("discount_value");
+                rules.add(DiscountType.PERCENT.name().equals(rs.getString("discount_type"))
+                        ? Rule.percent(promotionId, value.movePointRight(PERCENT_TO_BASIS_POINTS).longValue())
+                        : Rule.amount(promotionId, value.longValue(), rs.getInt("currency_id")));
+                scopes.add(PromotionScope.valueOf(rs.getString("scope")));
+                targets.add(rs.getInt("target_id"));
+            }, at, at);
+
+            boolean hasGroupRules = scopes.stream().anyMatch(scope -> scope != PromotionScope.PRODUCT);
+            List<int[]> productsByRule = expandTargets(scopes, targets, hasGroupRules);
+
+            Timestamp nextBoundary = jdbcTemplate.queryForObject(NEXT_BOUNDARY_SQL, Timestamp.class, at, at);
+            long validUntil = nextBoundary != null ? nextBoundary.getTime() : Long.MAX_VALUE;
+
+            table = PromotionTable.build(rules, productsByRule, priceMatrixService.getPriceMatrix(), validUntil,
+                    hasGroupRules);
+            ruleScopes = scopes.toArray(new PromotionScope[0]);
+            ruleTargets = targets.stream().mapToInt(Integer::intValue).toArray();
+            scheduleNextBoundary(nextBoundary);
+            log.info("Promotion table built: {} running promotions over {} products, next boundary {}",
+                    rules.size(), table.productCount(), nextBoundary != null ? nextBoundary.toLocalDateTime() : "none");
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        String changed = event.getTable();
+        PromotionTable current = table;
+        if (current == null) {
+            // Built on first use, including this change
+            return;
+        }
+        boolean productMoved = current.hasGroupRules() && PRODUCTS_TABLE.equals(changed) && event.getId() != null;
+        boolean affectsTable = PROMOTIONS_TABLE.equals(changed) || CURRENCIES_TABLE.equals(changed)
+                // Regrouping a category moves all of its products at once
+                || (current.hasGroupRules()
+                        && (PRODUCTS_TABLE.equals(changed) || CATALOGUE_CATEGORIES_TABLE.equals(changed)));
+        if (!affectsTable) {
+            return;
+        }
+        try {
+            if (productMoved) {
+                refreshProduct(event);
+            } else {
+                refresh();
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not rebuild promotions after {}, rebuilding on next read: {}", event, e.getMessage());
+            table = null;
+        }
+    }
+
+    private void refreshProduct(CatalogChangeEvent event) {
+        synchronized (writeLock) {
+            PromotionTable current = table;
+            // A deleted product has no price left to read; its row goes with the next rebuild
+            if (current == null || event.getChangeType() == ChangeType.DELETED) {
+                return;
+            }
+            if (current.patchedProductCount() >= MAX_PATCHED_PRODUCTS) {
+                refresh();
+                return;
+            }
+            int productId = event.getId();
+            // A missing category or catalogue reads as 0, which no promotion targets
+            List<int[]> groups = jdbcTemplate.query(PRODUCT_GROUP_SQL,
+                    (rs, rowNum) -> new int[] {rs.getInt("category_id"), rs.getInt("catalogue_id")}, productId);
+            if (groups.isEmpty()) {
+                return;
+            }
+            int categoryId = groups.get(0)[0];
+            int catalogueId = groups.get(0)[1];
+            int[] covering = IntStream.range(0, ruleScopes.length)
+                    .filter(rule -> ruleTargets[rule] == switch (ruleScopes[rule]) {
+                        case PRODUCT -> productId;
+                        case CATEGORY -> categoryId;
+                        case CATALOGUE -> catalogueId;
+                    })
+                    .toArray();
+            table = current.withProductRules(productId, covering);
+        }
+    }
+
+    private PromotionTable currentTable() {
+        PromotionTable current = table;
+        if (current == null || current.isExpired(System.currentTimeMillis())) {
+            synchronized (writeLock) {
+                current = table;
+                if (current == null || current.isExpired(System.currentTimeMillis())) {
+                    refresh();
+                    current = table;
+                }
+            }
+        }
+        return current;
+    }
+
+    // Called with writeLock held
+    private void scheduleNextBoundary(Timestamp nextBoundary) {
+        if (nextBoundaryTask != null) {
+            nextBoundaryTask.cancel(false);
+            nextBoundaryTask = null;
+        }
+        if (nextBoundary != null) {
+            nextBoundaryTask = taskScheduler.schedule(this::refreshAtBoundary,
+                    nextBoundary.toLocalDateTime().atZone(ZoneId.systemDefault()).toInstant());
+        }
+    }
+
+    private void refreshAtBoundary() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // The next read rebuilds, since the table has expired
+            log.error("Could not rebuild promotions at boundary: {}", e.getMessage(), e);
+        }
+    }
+
+    private List<int[]> expandTargets(List<PromotionScope> scopes, List<Integer> targets, boolean hasGroupRules) {
+        Map<Integer, List<Integer>> productsByCategory = new HashMap<>();
+        Map<Integer, List<Integer>> productsByCatalogue = new HashMap<>();
+        if (hasGroupRules) {
+            jdbcTemplate.query(PRODUCT_GROUPS_SQL, rs -> {
+                int productId = rs.getInt("product_id");
+                productsByCategory.computeIfAbsent(rs.getInt("category_id"), id -> new ArrayList<>()).add(productId);
+                productsByCatalogue.computeIfAbsent(rs.getInt("catalogue_id"), id -> new ArrayList<>()).add(productId);
+            });
+        }
+        List<int[]> productsByRule = new ArrayList<>(scopes.size());
+        for (int i = 0; i < scopes.size(); i++) {
+            Integer targetId = targets.get(i);
+            productsByRule.add(switch (scopes.get(i)) {
+                case PRODUCT -> new int[] {targetId};
+                case CATEGORY -> toArray(productsByCategory.get(targetId));
+                case CATALOGUE -> toArray(productsByCatalogue.get(targetId));
+            });
+        }
+        return productsByRule;
+    }
+
+    private static int[] toArray(List<Integer> productIds) {
+        return productIds == null ? new int[0] : productIds.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private void requireTarget(PromotionScope scope, Integer targetId) {
+        boolean exists = switch (scope) {
+            case PRODUCT -> productRepository.existsById(targetId);
+            case CATEGORY -> categoryRepository.existsById(targetId);
+            case CATALOGUE -> catalogueRepository.existsById(targetId);
+        };
+        if (!exists) {
+            throw new ResourceNotFoundException(scope.name().charAt(0) + scope.name().substring(1).toLowerCase()
+                    + " not found with id: " + targetId);
+        }
+    }
+
+    private PromotionResponseDto mapToResponseDto(Promotion promotion) {
+        PromotionResponseDto dto = new PromotionResponseDto();
+        dto.setPromotionId(promotion.getPromotionId());
+        dto.setPromotionName(promotion.getPromotionName());
+        dto.setScope(promotion.getScope());
+        dto.setTargetId(promotion.getTargetId());
+        dto.setDiscountType(promotion.getDiscountType());
+        dto.setDiscountValue(promotion.getDiscountValue());
+        if (promotion.getCurrency() != null) {
+            dto.setCurrencyId(promotion.getCurrency().getCurrencyId());
+            dto.setCurrencyCode(promotion.getCurrency().getCurrencyCode());
+        }
+        dto.setStartsAt(promotion.getStartsAt());
+        dto.setEndsAt(promotion.getEndsAt());
+        LocalDateTime now = LocalDateTime.now();
+        dto.setRunning(!now.isBefore(promotion.getStartsAt()) && now.isBefore(promotion.getEndsAt()));
+        dto.setCreatedAt(promotion.getCreatedAt());
+        dto.setCreatedBy(promotion.getCreatedBy());
+        dto.setUpdatedAt(promotion.getUpdatedAt());
+        dto.setUpdatedBy(promotion.getUpdatedBy());
+        return dto;
+    }
+}
@@ -4,6 +4,7 @@ import com.webstore.dto.request.SellerRequestDto;
 import com.webstore.dto.response.SellerResponseDto;
 import com.webstore.entity.Seller;
 import com.webstore.entity.Seller.SellerStatus;
+import com.webstore.exception.ClientErrorException;
 import com.webstore.repository.SellerRepository;
 import com.webstore.service.SellerService;
 import com.webstore.util.AuthUtils;
@@ -12,20 +13,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.server.ResponseStatusException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
+import com.webstore.constant.CacheNames;
 import com.webstore.dto.response.SellerDetailsResponseDto;
-import com.webstore.entity.Product;
-import com.webstore.entity.CatalogueCategory;
 import com.webstore.repository.ProductRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 
 /*Seller Service Implementation*/
 @Slf4j
@@ -54,7 +52,7 @@ public class SellerServiceImplementation implements SellerService {
         if (sellerRepository.existsByEmail(requestDto.getEmail())) {
             // Throw error with HTTP 400 (Bad Request)
             log.error("Email already exists: {}", requestDto.getEmail());
-            throw new ResponseStatusException(
+            throw new ClientErrorException(
                     HttpStatus.BAD_REQUEST,
                     "Email already exists: " + requestDto.getEmail());
         }
@@ -104,7 +102,7 @@ public class SellerServiceImplementation implements SellerService {
         // Optional is a container that may or may not have a value
         // orElseThrow() - If seller exists, return it; otherwise throw error
         Seller seller = sellerRepository.findById(sellerId)
-                .orElseThrow(() -> new ResponseStatusException(
+                .orElseThrow(() -> new ClientErrorException(
                         HttpStatus.NOT_FOUND,
                         "Seller not found with ID: " + sellerId));
 
@@ -114,12 +112,13 @@ public class SellerServiceImplementation implements SellerService {
     /* UPDATE SELLER */
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.SELLER_DETAILS, key = "#sellerId")
     public SellerResponseDto updateSeller(Integer sellerId, SellerRequestDto requestDto) {
         log.info("Updating seller with ID: {}", sellerId);
 
         // Find existing seller
         Seller seller = sellerRepository.findById(sellerId)
-                .orElseThrow(() -> new ResponseStatusException(
+                .orElseThrow(() -> new ClientErrorException(
                         HttpStatus.NOT_FOUND,
                         "Seller not found with ID: " + sellerId));
 
@@ -128,7 +127,7 @@ public class SellerServiceImplementation implements SellerService {
         if (!seller.getEmail().equals(requestDto.getEmail())
                 && sellerRepository.existsByEmail(requestDto.getEmail())) {
             log.error("Email already exists: {}", requestDto.getEmail());
-            throw new ResponseStatusException(
+            throw new ClientErrorException(
                     HttpStatus.BAD_REQUEST,
                     "Email already exists: " + requestDto.getEmail());
         }
@@ -150,12 +149,13 @@ public class SellerServiceImplementation implements SellerService {
     /* DELETE SELLER */
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.SELLER_DETAILS, key = "#sellerId")
     public void deleteSeller(Integer sellerId) {
         log.info("Deleting seller with ID: {}", sellerId);
 
         // Check if seller exists
         if (!sellerRepository.existsById(sellerId)) {
-            throw new ResponseStatusException(
+            throw new ClientErrorException(
                     HttpStatus.NOT_FOUND,
                     "Seller not found with ID: " + sellerId);
         }
@@ -260,17 +260,20 @@ public class SellerServiceImplementation implements SellerService {
     /* GET SELLER DETAILS WITH CATALOGUES AND CATEGORIES */
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.SELLER_DETAILS, key = "#sellerId")
     public SellerDetailsResponseDto getSellerDetailsWithCataloguesAndCategories(Integer sellerId) {
         log.info("Fetching seller details with catalogues and categories for seller ID: {}", sellerId);
 
         // Find seller
         Seller seller = sellerRepository.findById(sellerId)
-                .orElseThrow(() -> new ResponseStatusException(
+                .orElseThrow(() -> new ClientErrorException(
                         HttpStatus.NOT_FOUND,
                         "Seller not found with ID: " + sellerId));
 
-        // Get all products for this seller with relations eagerly loaded
-        List<Product> products = productRepository.findBySellerIdWithRelations(sellerId);
+        // One row per (catalogue, category) with the product count, aggregated by the database
+        // Rows come back ordered by catalogue ID, so catalogues are built in a single pass
+        List<ProductRepository.SellerCatalogueCategoryCountProjection> rows = productRepository
+                .countProductsBySellerGroupedByCatalogueAndCategory(sellerId);
 
         // Create response DTO
         SellerDetailsResponseDto responseDto = new SellerDetailsResponseDto();
@@ -278,68 +281,23 @@ public class SellerServiceImplementation implements SellerService {
         responseDto.setSellerName(seller.getName());
         responseDto.setSellerEmail(seller.getEmail());
 
-        // Group products by CatalogueCategory to build the nested structure
-        // Map: Catalogue -> Map: Category -> Product Count
-        Map<Integer, Map<Integer, Long>> catalogueCategoryCountMap = new HashMap<>();
-        Map<Integer, SellerDetailsResponseDto.CatalogueDetailsDto> catalogueMap = new HashMap<>();
-
-        for (Product product : products) {
-            CatalogueCategory catalogueCategory = product.getCatalogueCategory();
-            if (catalogueCategory == null)
-                continue;
-
-            var catalogue = catalogueCategory.getCatalogue();
-            var category = catalogueCategory.getCategory();
-
-            if (catalogue == null || category == null)
-                continue;
-
-            Integer catalogueId = catalogue.getCatalogueId();
-            Integer categoryId = category.getCategoryId();
-
-            // Initialize catalogue in map if not exists
-            if (!catalogueMap.containsKey(catalogueId)) {
-                SellerDetailsResponseDto.CatalogueDetailsDto catalogueDto = new SellerDetailsResponseDto.CatalogueDetailsDto();
-                catalogueDto.setCatalogueId(catalogueId);
-                catalogueDto.setCatalogueName(catalogue.getCatalogueName());
-                catalogueDto.setCatalogueDescription(catalogue.getCatalogueDescription());
-                catalogueMap.put(catalogueId, catalogueDto);
-            }
-
-            // Initialize category count map for this catalogue if not exists
-            catalogueCategoryCountMap.computeIfAbsent(catalogueId, k -> new HashMap<>());
-
-            // Increment product count for this category in this catalogue
-            Map<Integer, Long> categoryCountMap = catalogueCategoryCountMap.get(catalogueId);
-            categoryCountMap.put(categoryId, categoryCountMap.getOrDefault(categoryId, 0L) + 1);
-        }
-
-        // Build the nested structure
-        for (Map.Entry<Integer, SellerDetailsResponseDto.CatalogueDetailsDto> catalogueEntry : catalogueMap
-                .entrySet()) {
-            Integer catalogueId = catalogueEntry.getKey();
-            SellerDetailsResponseDto.CatalogueDetailsDto catalogueDto = catalogueEntry.getValue();
-            Map<Integer, Long> categoryCountMap = catalogueCategoryCountMap.get(catalogueId);
-
-            // Get unique categories for this catalogue from products
-            Map<Integer, SellerDetailsResponseDto.CategoryDetailsDto> categoryMap = new HashMap<>();
-            for (Product product : products) {
-                CatalogueCategory cc = product.getCatalogueCategory();
-                if (cc != null && cc.getCatalogue() != null && cc.getCatalogue().getCatalogueId().equals(catalogueId)) {
-                    var category = cc.getCategory();
-                    if (category != null && !categoryMap.containsKey(category.getCategoryId())) {
-                        SellerDetailsResponseDto.CategoryDetailsDto categoryDto = new SellerDetailsResponseDto.CategoryDetailsDto();
-                        categoryDto.setCategoryId(category.getCategoryId());
-                        categoryDto.setCategoryName(category.getCategoryName());
-                        categoryDto.setCategoryDescription(category.getCategoryDescription());
-                        categoryDto.setProductCount(categoryCountMap.getOrDefault(category.getCategoryId(), 0L));
-                        categoryMap.put(category.getCategoryId(), categoryDto);
-                    }
-                }
+        SellerDetailsResponseDto.CatalogueDetailsDto catalogueDto = null;
+        for (ProductRepository.SellerCatalogueCategoryCountProjection row : rows) {
+            // Start a new catalogue whenever the catalogue ID changes
+            if (catalogueDto == null || !catalogueDto.getCatalogueId().equals(row.getCatalogueId())) {
+                catalogueDto = new SellerDetailsResponseDto.CatalogueDetailsDto();
+                catalogueDto.setCatalogueId(row.getCatalogueId());
+                catalogueDto.setCatalogueName(row.getCatalogueName());
+                catalogueDto.setCatalogueDescription(row.getCatalogueDescription());
+                responseDto.getCatalogues().add(catalogueDto);
             }
 
-            catalogueDto.setCategories(new ArrayList<>(categoryMap.values()));
-            responseDto.getCatalogues().add(catalogueDto);
+            SellerDetailsResponseDto.CategoryDetailsDto categoryDto = new SellerDetailsResponseDto.CategoryDetailsDto();
+            categoryDto.setCategoryId(row.getCategoryId());
+            categoryDto.setCategoryName(row.getCategoryName());
+            categoryDto.setCategoryDescription(row.getCategoryDescription());
+            categoryDto.setProductCount(row.getProductCount() != null ? row.getProductCount() : 0L);
+            catalogueDto.getCategories().add(categoryDto);
         }
 
         log.info("Successfully fetched seller details for seller ID: {} with {} catalogues",
@@ -0,0 +1,246 @@
+package com.webstore.implementation;
+
+import com.webstore.dto.request.StockReservationRequestDto;
+import com.webstore.dto.response.StockReservationResponseDto;
+import com.webstore.entity.StockReservation;
+import com.webstore.entity.StockReservation.ReservationStatus;
+import com.webstore.exception.ClientErrorException;
+import com.webstore.exception.InvalidRequestException;
+import com.webstore.exception.ResourceNotFoundException;
+import com.webstore.repository.ProductRepository;
+import com.webstore.repository.StockReservationRepository;
+import com.webstore.service.StockReservationService;
+import com.webstore.util.AuthUtils;
+import com.webstore.util.SecurityContextUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/*
+ * Stock is taken with one conditional UPDATE (stock = stock - n WHERE stock >= n), so there is no
+ * read-modify-write window and no lock is held beyond that statement. Every reservation then leaves
+ * HELD exactly once - confirmed by checkout, released by the buyer or expired by the sweeper - and
+ * only the release and expiry transitions put the stock back.
+ * A seller calling the REST API only sees and acts on holds in their own name and only holds stock of
+ * their own products; admins and the WhatsApp flow, which runs without a caller, act on any holder's.
+ */
+@Slf4j
+@Service
+public class StockReservationServiceImplementation implements StockReservationService {
+
+    // Claims a batch of overdue holds; SKIP LOCKED lets sweepers on several instances share the work
+    private static final String EXPIRE_BATCH_SQL =
+            "UPDATE web_store.stock_reservations r " +
+            "SET status = 'EXPIRED', updated_at = CURRENT_TIMESTAMP " +
+            "FROM (SELECT reservation_id FROM web_store.stock_reservations " +
+            "      WHERE status = 'HELD' AND expires_at <= ? " +
+            "      ORDER BY expires_at " +
+            "      LIMIT ? " +
+            "      FOR UPDATE SKIP LOCKED) expired " +
+            "WHERE r.reservation_id = expired.reservation_id " +
+            "RETURNING r.product_id, r.quantity";
+
+    private static final String RESTOCK_SQL =
+            "UPDATE web_store.products SET stock = stock + ? WHERE product_id = ?";
+
+    private final StockReservationRepository reservationRepository;
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration holdTtl;
+    private final int sweepBatchSize;
+
+    public StockReservationServiceImplementation(StockReservationRepository reservationRepository,
+            ProductRepository productRepository,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${stock.reservation.ttl-minutes:15}") long holdTtlMinutes,
+            @Value("${stock.reservation.sweep-batch-size:500}") int sweepBatchSize) {
+        this.reservationRepository = reservationRepository;
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.holdTtl = Duration.ofMinutes(holdTtlMinutes);
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    @Override
+    @Transactional
+    public StockReservationResponseDto reserve(StockReservationRequestDto request) {
+        String holder = StringUtils.hasText(request.getHolder()) ? request.getHolder() : AuthUtils.getCurrentUsername();
+        return reserve(request.getProductId(), request.getQuantity(), holder);
+    }
+
+    @Override
+    @Transactional
+    public StockReservationResponseDto reserve(Integer productId, int quantity, String holder) {
+        if (quantity <= 0) {
+            throw new InvalidRequestException("Quantity must be at least 1");
+        }
+        requireHolderAccess(holder);
+        requireProductAccess(productId);
+
+        if (productRepository.decrementStockIfAvailable(productId, quantity) == 0) {
+            if (!productRepository.existsById(productId)) {
+                throw new ResourceNotFoundException("Product not found with id: " + productId);
+            }
+            throw new ClientErrorException(HttpStatus.CONFLICT, "Not enough stock for product " + productId);
+        }
+
+        StockReservation reservation = new StockReservation();
+        reservation.setProduct(productRepository.getReferenceById(productId));
+        reservation.setQuantity(quantity);
+        reservation.setHolder(holder);
+        reservation.setStatus(ReservationStatus.HELD);
+        reservation.setExpiresAt(LocalDateTime.now().plus(holdTtl));
+
+        String currentUser = AuthUtils.getCurrentUsername();
+        reservation.setCreatedBy(currentUser);
+        reservation.setUpdatedBy(currentUser);
+
+        StockReservation saved = reservationRepository.save(reservation);
+        log.info("Reserved {} of product {} for {} (reservation {})", quantity, productId, holder, saved.getReservationId());
+        return convertToDto(saved);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StockReservationResponseDto getReservationById(Long id) {
+        StockReservation reservation = findReservation(id);
+        requireHolderAccess(reservation.getHolder());
+        return convertToDto(reservation);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StockReservationResponseDto> getHeldReservations(String holder) {
+        requireHolderAccess(holder);
+        return reservationRepository.findHeldByHolder(holder).stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public StockReservationResponseDto confirmReservation(Long id) {
+        StockReservation reservation = findReservation(id);
+        requireHolderAccess(reservation.getHolder());
+        if (reservationRepository.confirmIfHeld(id, LocalDateTime.now()) == 0) {
+            throw new ClientErrorException(HttpStatus.CONFLICT,
+                    "Reservation " + id + " can no longer be confirmed (" + reservationRepository.findStatusById(id) + ")");
+        }
+        reservation.setStatus(ReservationStatus.CONFIRMED);
+        return convertToDto(reservation);
+    }
+
+    @Override
+    @Transactional
+    public void releaseReservation(Long id) {
+        StockReservation reservation = findReservation(id);
+        requireHolderAccess(reservation.getHolder());
+        if (reservationRepository.releaseIfHeld(id) == 0) {
+            if (reservationRepository.findStatusById(id) == ReservationStatus.CONFIRMED) {
+                throw new ClientErrorException(HttpStatus.CONFLICT, "Reservation " + id + " is already confirmed");
+            }
+            // Already released or expired; its stock has been returned
+            return;
+        }
+        productRepository.incrementStock(reservation.getProduct().getProductId(), reservation.getQuantity());
+        log.info("Released reservation {}", id);
+    }
+
+    /* Returns overdue holds to stock batch by batch; each batch is its own short transaction. */
+    @Override
+    @Scheduled(fixedDelayString = "${stock.reservation.sweep-interval-ms:30000}")
+    public int expireReservations() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int total = 0;
+        int expired;
+        do {
+            expired = transactionTemplate.execute(status -> expireBatch(now));
+            total += expired;
+        } while (expired == sweepBatchSize);
+
+        if (total > 0) {
+            log.info("Expired {} stock reservations", total);
+        }
+        return total;
+    }
+
+    private int expireBatch(Timestamp now) {
+        List<int[]> holds = jdbcTemplate.query(EXPIRE_BATCH_SQL,
+                (rs, rowNum) -> new int[] {rs.getInt("product_id"), rs.getInt("quantity")},
+                now, sweepBatchSize);
+
+        // One update per product, in product id order so concurrent sweepers can't deadlock
+        Map<Integer, Integer> quantityByProduct = new TreeMap<>();
+        for (int[] hold : holds) {
+            quantityByProduct.merge(hold[0], hold[1], Integer::sum);
+        }
+        List<Object[]> restock = new ArrayList<>(quantityByProduct.size());
+        quantityByProduct.forEach((productId, quantity) -> restock.add(new Object[] {quantity, productId}));
+        if (!restock.isEmpty()) {
+            jdbcTemplate.batchUpdate(RESTOCK_SQL, restock);
+        }
+        return holds.size();
+    }
+
+    private void requireHolderAccess(String holder) {
+        if (SecurityContextUtils.isSeller() && !holder.equals(AuthUtils.getCurrentUsername())) {
+            throw new ClientErrorException(HttpStatus.FORBIDDEN,
+                    "Access denied: Stock reservations of another holder");
+        }
+    }
+
+    private void requireProductAccess(Integer productId) {
+        if (!SecurityContextUtils.isSeller()) {
+            return;
+        }
+        Integer sellerId = SecurityContextUtils.getCurrentSellerId();
+        if (sellerId == null) {
+            throw new ClientErrorException(HttpStatus.UNAUTHORIZED, "Seller ID not found in token");
+        }
+        Integer productSellerId = productRepository.findSellerIdByProductId(productId);
+        if (productSellerId == null) {
+            throw new ResourceNotFoundException("Product not found with id: " + productId);
+        }
+        if (!sellerId.equals(productSellerId)) {
+            throw new ClientErrorException(HttpStatus.FORBIDDEN,
+                    "Access denied: Product does not belong to your seller account");
+        }
+    }
+
+    private StockReservation findReservation(Long id) {
+        return reservationRepository.findByIdWithProduct(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Stock reservation not found with id: " + id));
+    }
+
+    private StockReservationResponseDto convertToDto(StockReservation reservation) {
+        StockReservationResponseDto dto = new StockReservationResponseDto();
+        dto.setReservationId(reservation.getReservationId());
+        dto.setProductId(reservation.getProduct().getProductId());
+        dto.setProductName(reservation.getProduct().getProductName());
+        dto.setQuantity(reservation.getQuantity());
+        dto.setHolder(reservation.getHolder());
+        dto.setStatus(reservation.getStatus().name());
+        dto.setExpiresAt(reservation.getExpiresAt());
+        dto.setCreatedAt(reservation.getCreatedAt());
+        dto.setUpdatedAt(reservation.getUpdatedAt());
+        return dto;
+    }
+}
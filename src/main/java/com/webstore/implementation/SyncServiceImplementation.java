@@ -0,0 +1,213 @@
+package com.webstore.implementation;
+
+import static com.webstore.constant.DatabaseConstants.CATALOGUES_TABLE;
+import static com.webstore.constant.DatabaseConstants.CATEGORIES_TABLE;
+import static com.webstore.constant.DatabaseConstants.PRODUCTS_TABLE;
+import static com.webstore.constant.DatabaseConstants.PRODUCT_PRICES_TABLE;
+
+import com.webstore.dto.response.CatalogueResponseDto;
+import com.webstore.dto.response.CategoryResponseDto;
+import com.webstore.dto.response.ProductPriceResponseDto;
+import com.webstore.dto.response.ProductResponseDto;
+import com.webstore.dto.response.SyncChangesResponseDto;
+import com.webstore.dto.response.SyncChangesResponseDto.ChangeDto;
+import com.webstore.event.CatalogChangeEvent.ChangeType;
+import com.webstore.exception.ClientErrorException;
+import com.webstore.service.CatalogueService;
+import com.webstore.service.CategoryService;
+import com.webstore.service.ProductPriceService;
+import com.webstore.service.ProductService;
+import com.webstore.service.SyncService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*
+ * Serves the catalog delta feed from web_store.catalog_change_log.
+ *
+ * Versions are writer transaction ids. A page only contains versions below the current snapshot's xmin,
+ * i.e. transactions that can no longer commit, so a transaction that started earlier but commits later is
+ * never skipped. Pages end on a transaction boundary, so the returned cursor is always exact.
+ */
+@Slf4j
+@Service
+public class SyncServiceImplementation implements SyncService {
+
+    private static final String WATERMARK_SQL =
+            "SELECT CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS TEXT) AS BIGINT)";
+
+    private static final String HORIZON_SQL =
+            "SELECT min_version FROM web_store.catalog_change_log_horizon WHERE id = 1";
+
+    private static final String CHANGES_SQL =
+            "SELECT entity_table, entity_id, change_type, change_version, changed_at " +
+            "FROM web_store.catalog_change_log " +
+            "WHERE change_version >= ? AND change_version < ? " +
+            "ORDER BY change_version, entity_table, entity_id " +
+            "LIMIT ?";
+
+    private static final String CHANGES_OF_VERSION_SQL =
+            "SELECT entity_table, entity_id, change_type, change_version, changed_at " +
+            "FROM web_store.catalog_change_log " +
+            "WHERE change_version = ? " +
+            "ORDER BY entity_table, entity_id";
+
+    // Drops old tombstones and moves the horizon past them, so clients that could have missed one resync
+    private static final String PURGE_TOMBSTONES_SQL =
+            "WITH purged AS (" +
+            "    DELETE FROM web_store.catalog_change_log " +
+            "    WHERE change_type = 'DELETED' " +
+            "      AND changed_at < CURRENT_TIMESTAMP - CAST(? AS INTEGER) * INTERVAL '1 day' " +
+            "    RETURNING change_version" +
+            ") " +
+            "UPDATE web_store.catalog_change_log_horizon " +
+            "SET min_version = GREATEST(min_version, (SELECT MAX(change_version) + 1 FROM purged)) " +
+            "WHERE id = 1 AND EXISTS (SELECT 1 FROM purged)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductService productService;
+    private final ProductPriceService productPriceService;
+    private final CategoryService categoryService;
+    private final CatalogueService catalogueService;
+    private final int tombstoneRetentionDays;
+
+    public SyncServiceImplementation(JdbcTemplate jdbcTemplate,
+            ProductService productService,
+            ProductPriceService productPriceService,
+            CategoryService categoryService,
+            CatalogueService catalogueService,
+            @Value("${sync.tombstone-retention-days:30}") int tombstoneRetentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.productService = productService;
+        this.productPriceService = productPriceService;
+        this.categoryService = categoryService;
+        this.catalogueService = catalogueService;
+        this.tombstoneRetentionDays = tombstoneRetentionDays;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SyncChangesResponseDto getChangesSince(Long since, int limit) {
+        long watermark = jdbcTemplate.queryForObject(WATERMARK_SQL, Long.class);
+
+        SyncChangesResponseDto response = new SyncChangesResponseDto();
+        response.setSince(since);
+
+        if (since == null) {
+            // Bootstrap: the client loads the full catalog after this call and then polls from here
+            response.setNextVersion(watermark);
+            response.setChanges(List.of());
+            return response;
+        }
+
+        long horizon = jdbcTemplate.queryForObject(HORIZON_SQL, Long.class);
+        if (since < horizon) {
+            throw new ClientErrorException(HttpStatus.GONE,
+                    "Sync cursor " + since + " is older than the retained change history; reload the full catalog");
+        }
+
+        List<ChangeDto> changes = jdbcTemplate.query(CHANGES_SQL, CHANGE_MAPPER, since, watermark, limit + 1);
+        long nextVersion;
+        boolean hasMore = changes.size() > limit;
+
+        if (!hasMore) {
+            nextVersion = Math.max(since, watermark);
+        } else {
+            // Never split a transaction across pages: cut before the first version that didn't fit
+            long boundary = changes.get(limit).getVersion();
+            changes = changes.stream()
+                    .filter(change -> change.getVersion() < boundary)
+                    .collect(Collectors.toList());
+            if (changes.isEmpty()) {
+                // A single transaction larger than a page is returned whole
+                changes = jdbcTemplate.query(CHANGES_OF_VERSION_SQL, CHANGE_MAPPER, boundary);
+                nextVersion = boundary + 1;
+            } else {
+                nextVersion = boundary;
+            }
+        }
+
+        response.setNextVersion(nextVersion);
+        response.setHasMore(hasMore);
+        response.setChanges(attachCurrentState(changes));
+        return response;
+    }
+
+    /* Loads the current state of every created/updated entity with one batch call per table */
+    private List<ChangeDto> attachCurrentState(List<ChangeDto> changes) {
+        Map<String, List<Integer>> idsByTable = changes.stream()
+                .filter(change -> !ChangeType.DELETED.name().equals(change.getChangeType()))
+                .collect(Collectors.groupingBy(ChangeDto::getEntityType,
+                        Collectors.mapping(ChangeDto::getEntityId, Collectors.toList())));
+
+        Map<String, Map<Integer, Object>> stateByTable = new HashMap<>();
+        stateByTable.put(PRODUCTS_TABLE, index(idsByTable.get(PRODUCTS_TABLE),
+                productService::getProductsByIds, ProductResponseDto::getProductId));
+        stateByTable.put(PRODUCT_PRICES_TABLE, index(idsByTable.get(PRODUCT_PRICES_TABLE),
+                productPriceService::getProductPricesByIds, ProductPriceResponseDto::getProductPriceId));
+        stateByTable.put(CATEGORIES_TABLE, index(idsByTable.get(CATEGORIES_TABLE),
+                categoryService::getCategoriesByIds, CategoryResponseDto::getCategoryId));
+        stateByTable.put(CATALOGUES_TABLE, index(idsByTable.get(CATALOGUES_TABLE),
+                catalogueService::getCataloguesByIds, CatalogueResponseDto::getCatalogueId));
+
+        List<ChangeDto> result = new ArrayList<>(changes.size());
+        for (ChangeDto change : changes) {
+            if (ChangeType.DELETED.name().equals(change.getChangeType())) {
+                result.add(change);
+                continue;
+            }
+            Object state = stateByTable.getOrDefault(change.getEntityType(), Map.of()).get(change.getEntityId());
+            if (state == null) {
+                // Deleted after the watermark; its tombstone is delivered by a later poll
+                log.debug("Skipping {} {} that no longer exists", change.getEntityType(), change.getEntityId());
+                continue;
+            }
+            change.setData(state);
+            result.add(change);
+        }
+        return result;
+    }
+
+    private static <T> Map<Integer, Object> index(List<Integer> ids,
+            Function<Collection<Integer>, List<T>> loader, Function<T, Integer> idOf) {
+        if (ids == null || ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<Integer, Object> byId = new HashMap<>();
+        for (T dto : loader.apply(ids)) {
+            byId.put(idOf.apply(dto), dto);
+        }
+        return byId;
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(cron = "${sync.tombstone-purge-cron:0 0 4 * * *}")
+    public void purgeTombstones() {
+        int updated = jdbcTemplate.update(PURGE_TOMBSTONES_SQL, tombstoneRetentionDays);
+        log.info("Tombstone purge finished (horizon moved: {})", updated > 0);
+    }
+
+    private static final RowMapper<ChangeDto> CHANGE_MAPPER = (rs, rowNum) -> {
+        ChangeDto change = new ChangeDto();
+        change.setEntityType(rs.getString("entity_table"));
+        change.setEntityId(rs.getInt("entity_id"));
+        change.setChangeType(rs.getString("change_type"));
+        change.setVersion(rs.getLong("change_version"));
+        change.setChangedAt(rs.getTimestamp("changed_at").toLocalDateTime());
+        return change;
+    };
+}
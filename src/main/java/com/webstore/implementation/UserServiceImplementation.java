@@ -3,6 +3,7 @@ package com.webstore.implementation;
 import com.webstore.dto.request.UserRequestDto;
 import com.webstore.dto.response.UserResponseDto;
 import com.webstore.entity.User;
+import com.webstore.exception.ClientErrorException;
 import com.webstore.repository.UserRepository;
 import com.webstore.service.UserService;
 import lombok.extern.slf4j.Slf4j;
@@ -10,7 +11,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -41,7 +41,7 @@ public class UserServiceImplementation implements UserService {
     public UserResponseDto getUserById(Integer userId) {
         log.info("Fetching user with ID: {}", userId);
         User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found with ID: " + userId));
+                .orElseThrow(() -> new ClientErrorException(HttpStatus.NOT_FOUND, "User not found with ID: " + userId));
         return mapToUserResponseDto(user);
     }
 
@@ -51,11 +51,11 @@ public class UserServiceImplementation implements UserService {
         log.info("Creating user with username: {}", userRequestDto.getUsername());
 
         if (userRepository.existsByUsername(userRequestDto.getUsername())) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Username already exists: " + userRequestDto.getUsername());
+            throw new ClientErrorException(HttpStatus.BAD_REQUEST, "Username already exists: " + userRequestDto.getUsername());
         }
 
         if (userRepository.existsByEmail(userRequestDto.getEmail())) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Email already exists: " + userRequestDto.getEmail());
+            throw new ClientErrorException(HttpStatus.BAD_REQUEST, "Email already exists: " + userRequestDto.getEmail());
         }
 
         User user = new User();
@@ -72,16 +72,16 @@ public class UserServiceImplementation implements UserService {
         log.info("Updating user with ID: {}", userId);
 
         User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found with ID: " + userId));
+                .orElseThrow(() -> new ClientErrorException(HttpStatus.NOT_FOUND, "User not found with ID: " + userId));
 
         if (!user.getUsername().equals(userRequestDto.getUsername()) &&
                 userRepository.existsByUsername(userRequestDto.getUsername())) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Username already exists: " + userRequestDto.getUsername());
+            throw new ClientErrorException(HttpStatus.BAD_REQUEST, "Username already exists: " + userRequestDto.getUsername());
         }
 
         if (!user.getEmail().equals(userRequestDto.getEmail()) &&
                 userRepository.existsByEmail(userRequestDto.getEmail())) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Email already exists: " + userRequestDto.getEmail());
+            throw new ClientErrorException(HttpStatus.BAD_REQUEST, "Email already exists: " + userRequestDto.getEmail());
         }
 
         mapToUser(userRequestDto, user);
@@ -97,7 +97,7 @@ public class UserServiceImplementation implements UserService {
         log.info("Deleting user with ID: {}", userId);
 
         if (!userRepository.existsById(userId)) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found with ID: " + userId);
+            throw new ClientErrorException(HttpStatus.NOT_FOUND, "User not found with ID: " + userId);
         }
 
         userRepository.deleteById(userId);
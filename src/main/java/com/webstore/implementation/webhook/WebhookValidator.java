@@ -2,6 +2,12 @@ package com.webstore.implementation.webhook;
 
 import com.webstore.configuration.WhatsAppConfiguration;
 import com.webstore.dto.request.webhook.WebhookRequestDto;
+import com.webstore.monitoring.SqlStatementContext;
+import com.webstore.monitoring.SqlStatementMetrics;
+import com.webstore.monitoring.SqlStatementStats;
+import com.webstore.monitoring.WebhookTurnContext;
+import com.webstore.monitoring.WebhookTurnEvent;
+import com.webstore.service.whatsapp.core.WhatsAppMessageContext;
 import com.webstore.service.whatsapp.handler.impl.ButtonInteractionHandler;
 import com.webstore.service.whatsapp.handler.impl.ListInteractionHandler;
 import com.webstore.service.whatsapp.handler.impl.TextMessageHandler;
@@ -18,18 +24,21 @@ public class WebhookValidator {
     private final ButtonInteractionHandler buttonHandler;
     private final ListInteractionHandler listHandler;
     private final TextMessageHandler textHandler;
+    private final SqlStatementMetrics sqlStatementMetrics;
 
     public WebhookValidator(WhatsAppConfiguration whatsAppConfig,                              ButtonInteractionHandler buttonHandler,
                             ListInteractionHandler listHandler,
-                            TextMessageHandler textHandler) {
+                            TextMessageHandler textHandler,
+                            SqlStatementMetrics sqlStatementMetrics) {
         this.whatsAppConfig = whatsAppConfig;
         this.buttonHandler = buttonHandler;
         this.listHandler = listHandler;
         this.textHandler = textHandler;
+        this.sqlStatementMetrics = sqlStatementMetrics;
     }
 
     public void processIncomingMessage(WebhookRequestDto webhookData) {
-        logger.info("Processing incoming webhook message");
+        logger.debug("Processing incoming webhook message");
 
         if (!isValidWebhookData(webhookData)) {
             logger.warn("Invalid webhook data received");
@@ -45,25 +54,46 @@ public class WebhookValidator {
         String phoneNumberId = extractPhoneNumberId(webhookData);
         String from = message.getFrom();
 
-        // Route message based on type
-        if ("text".equals(message.getType()) && message.getText() != null) {
-            textHandler.handle(phoneNumberId, from, message.getText().getBody());
-        } else if ("interactive".equals(message.getType()) && message.getInteractive() != null) {
-            handleInteractiveMessage(phoneNumberId, from, message.getInteractive());
+        // Route message based on type; the message id is the idempotency key for anything it triggers
+        WhatsAppMessageContext.setMessageId(message.getId());
+        // Null inside the webhook's HTTP request, which is then recorded as this turn
+        SqlStatementStats turn = sqlStatementMetrics.start(null);
+        SqlStatementContext.describe("whatsapp " + message.getType());
+        WebhookTurnEvent turnEvent = beginTurnEvent(message);
+        try {
+            if ("text".equals(message.getType()) && message.getText() != null) {
+                textHandler.handle(phoneNumberId, from, message.getText().getBody());
+            } else if ("interactive".equals(message.getType()) && message.getInteractive() != null) {
+                handleInteractiveMessage(phoneNumberId, from, message.getInteractive());
+            }
+        } finally {
+            WebhookTurnContext.end(turnEvent, SqlStatementContext.current());
+            sqlStatementMetrics.finish(turn);
+            WhatsAppMessageContext.clear();
         }
     }
 
+    private static WebhookTurnEvent beginTurnEvent(WebhookRequestDto.Message message) {
+        WebhookRequestDto.Interactive interactive = message.getInteractive();
+        if (interactive == null) {
+            return WebhookTurnContext.begin(message.getType(), null, null);
+        }
+        String interactiveId = interactive.getButtonReply() != null ? interactive.getButtonReply().getId()
+                : interactive.getListReply() != null ? interactive.getListReply().getId() : null;
+        return WebhookTurnContext.begin(message.getType(), interactive.getType(), interactiveId);
+    }
+
     private void handleInteractiveMessage(String phoneNumberId, String from,
                                           WebhookRequestDto.Interactive interactive) {
-        logger.info("Processing interactive message type: {}", interactive.getType());
+        logger.debug("Processing interactive message type: {}", interactive.getType());
 
         if ("button_reply".equals(interactive.getType())) {
             String buttonId = interactive.getButtonReply().getId();
-            logger.info("Button clicked: {}", buttonId);
+            logger.debug("Button clicked: {}", buttonId);
             buttonHandler.handle(phoneNumberId, from, buttonId);
         } else if ("list_reply".equals(interactive.getType())) {
             String listId = interactive.getListReply().getId();
-            logger.info("List item selected: {}", listId);
+            logger.debug("List item selected: {}", listId);
             listHandler.handle(phoneNumberId, from, listId);
         }
     }
@@ -0,0 +1,20 @@
+package com.webstore.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/*
+ * Counts every statement Hibernate prepares into the current SqlStatementStats; the SQL is passed through
+ * unchanged. Registered with hibernate.session_factory.statement_inspector. Statements issued through
+ * JdbcTemplate do not go through Hibernate and are not counted.
+ */
+public class CountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementStats stats = SqlStatementContext.current();
+        if (stats != null) {
+            stats.recordStatement(sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,178 @@
+package com.webstore.monitoring;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * /actuator/jfr: a continuous Flight Recorder recording that can be started, dumped and stopped on a running
+ * instance. The recording uses the JDK's low-overhead "default" settings plus the com.webstore events, and is
+ * bounded by age and size (on disk, in the JFR repository), so it can be left running in production and
+ * dumped when the bot slows down.
+ *
+ *   GET    /actuator/jfr        state of the recording
+ *   POST   /actuator/jfr        start it; optional body {"maxAge": "30m", "maxSize": "100MB"} within the caps
+ *   GET    /actuator/jfr/dump   download what it holds as a .jfr file, without stopping it
+ *   DELETE /actuator/jfr        stop it; what it holds can still be dumped until the next start
+ */
+@Slf4j
+@Component
+@Endpoint(id = "jfr")
+public class FlightRecordingEndpoint {
+
+    static final String RECORDING_NAME = "webstore";
+    private static final String DUMP = "dump";
+    private static final String REPOSITORY_CALL_EVENT = "com.webstore.RepositoryCall";
+
+    private final String settings;
+    private final Duration maxAgeCap;
+    private final DataSize maxSizeCap;
+    private final Duration repositoryCallThreshold;
+
+    private Recording recording;
+
+    public FlightRecordingEndpoint(@Value("${jfr.recording.settings:default}") String settings,
+            @Value("${jfr.recording.max-age:1h}") Duration maxAgeCap,
+            @Value("${jfr.recording.max-size:200MB}") DataSize maxSizeCap,
+            @Value("${jfr.recording.repository-call-threshold:1ms}") Duration repositoryCallThreshold) {
+        this.settings = settings;
+        this.maxAgeCap = maxAgeCap;
+        this.maxSizeCap = maxSizeCap;
+        this.repositoryCallThreshold = repositoryCallThreshold;
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        return describe(recording);
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<Map<String, Object>> start(@Nullable Duration maxAge,
+            @Nullable DataSize maxSize) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(describe(recording), WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        close();
+        Recording started;
+        try {
+            started = new Recording(Configuration.getConfiguration(settings));
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Cannot read the JFR settings " + settings, e);
+        }
+        started.setName(RECORDING_NAME);
+        started.setToDisk(true);
+        started.setMaxAge(maxAge != null && maxAge.compareTo(maxAgeCap) < 0 ? maxAge : maxAgeCap);
+        started.setMaxSize((maxSize != null && maxSize.compareTo(maxSizeCap) < 0 ? maxSize : maxSizeCap).toBytes());
+        started.enable(REPOSITORY_CALL_EVENT).withThreshold(repositoryCallThreshold);
+        started.start();
+        recording = started;
+        log.info("Started JFR recording {} (max age {}, max size {} bytes)",
+                started.getId(), started.getMaxAge(), started.getMaxSize());
+        return new WebEndpointResponse<>(describe(started));
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> dump(@Selector String action) throws IOException {
+        if (!DUMP.equals(action)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (recording == null || recording.getState() == RecordingState.NEW) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        Path file = Files.createTempFile(RECORDING_NAME + "-", ".jfr");
+        try {
+            recording.dump(file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return new WebEndpointResponse<>(new TemporaryFileResource(file.toFile()));
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            log.info("Stopped JFR recording {}", recording.getId());
+        }
+        return describe(recording);
+    }
+
+    /* Discards the recording and what it holds, on shutdown or before the next one starts */
+    @PreDestroy
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private static Map<String, Object> describe(Recording recording) {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+        status.put("id", recording.getId());
+        status.put("state", recording.getState());
+        status.put("startTime", recording.getStartTime());
+        status.put("stopTime", recording.getStopTime());
+        status.put("maxAge", recording.getMaxAge());
+        status.put("maxSize", DataSize.ofBytes(recording.getMaxSize()).toString());
+        status.put("size", DataSize.ofBytes(recording.getSize()).toString());
+        return status;
+    }
+
+    /* A dump served once and deleted when the response has been written, like the heapdump endpoint's */
+    private static final class TemporaryFileResource extends FileSystemResource {
+
+        TemporaryFileResource(File file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+            };
+        }
+
+        @Override
+        public boolean isFile() {
+            // Keeps the response from being served from the file directly, which would skip the delete
+            return false;
+        }
+    }
+}
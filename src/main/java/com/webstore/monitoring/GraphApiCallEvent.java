@@ -0,0 +1,40 @@
+package com.webstore.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/* One message posted to the WhatsApp Graph API by WhatsAppMessageSender, serialization included */
+@Name("com.webstore.GraphApiCall")
+@Label("Graph API Call")
+@Category({"WebStore", "WhatsApp"})
+@Description("A message sent through the WhatsApp Graph API")
+@StackTrace(false)
+public class GraphApiCallEvent extends jdk.jfr.Event {
+
+    @Label("Message Type")
+    public String messageType;
+
+    @Label("Status")
+    @Description("HTTP status of the response, 0 when none was received")
+    public int status;
+
+    @Label("Success")
+    public boolean success;
+
+    @Label("Serialization Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long serializationTime;
+
+    @Label("Request Bytes")
+    @DataAmount
+    public long requestBytes;
+
+    public GraphApiCallEvent(String messageType) {
+        this.messageType = messageType;
+    }
+}
@@ -0,0 +1,43 @@
+package com.webstore.monitoring;
+
+import org.hibernate.SessionEventListener;
+
+/*
+ * Adds the time of each statement and batch execution to the current SqlStatementStats. The same session
+ * events drive Hibernate's own per-session statistics. Hibernate creates one instance per session
+ * (hibernate.session.events.auto), and a session is used by one thread at a time.
+ */
+public class JdbcTimingSessionListener implements SessionEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private transient long executeStart;
+    private transient long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        addJdbcTime(executeStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        addJdbcTime(batchStart);
+    }
+
+    private static void addJdbcTime(long start) {
+        SqlStatementStats stats = SqlStatementContext.current();
+        if (stats != null && start != 0) {
+            stats.addJdbcTime(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.webstore.monitoring;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/*
+ * Lets a log statement through at most once per interval, for messages that can repeat per row or per
+ * request. tryAcquire returns how many calls were held back since the last one let through, or NOT_ACQUIRED;
+ * log the count so the skipped ones are not lost, e.g.
+ *
+ *   long skipped = MISSING_PRICES.tryAcquire();
+ *   if (skipped != LogRateLimiter.NOT_ACQUIRED) {
+ *       log.warn("No prices found for product {} ({} more since)", productId, skipped);
+ *   }
+ */
+public final class LogRateLimiter {
+
+    public static final long NOT_ACQUIRED = -1;
+
+    private final long intervalNanos;
+    private final LongSupplier nanoTime;
+    private final AtomicLong nextAt = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicLong skipped = new AtomicLong();
+
+    public LogRateLimiter(Duration interval) {
+        this(interval, System::nanoTime);
+    }
+
+    LogRateLimiter(Duration interval, LongSupplier nanoTime) {
+        this.intervalNanos = interval.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    public long tryAcquire() {
+        long now = nanoTime.getAsLong();
+        long next = nextAt.get();
+        if ((next == Long.MIN_VALUE || now - next >= 0) && nextAt.compareAndSet(next, now + intervalNanos)) {
+            return skipped.getAndSet(0);
+        }
+        skipped.incrementAndGet();
+        return NOT_ACQUIRED;
+    }
+}
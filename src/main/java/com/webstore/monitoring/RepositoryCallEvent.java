@@ -0,0 +1,26 @@
+package com.webstore.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/* A call to a Spring Data repository, recorded by RepositoryCallEventAspect */
+@Name("com.webstore.RepositoryCall")
+@Label("Repository Call")
+@Category({"WebStore", "Database"})
+@Description("A Spring Data repository method call, including the statements it ran")
+@StackTrace(false)
+public class RepositoryCallEvent extends jdk.jfr.Event {
+
+    @Label("Repository")
+    String repository;
+
+    @Label("Method")
+    String method;
+
+    @Label("Exception")
+    @Description("Simple name of the exception thrown, null on success")
+    String exception;
+}
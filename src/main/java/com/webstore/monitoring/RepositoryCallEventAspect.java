@@ -0,0 +1,56 @@
+package com.webstore.monitoring;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+/*
+ * Records each call to the application's Spring Data repositories as a RepositoryCallEvent, named after the
+ * repository interface (ProductRepository, not the JDK proxy or CrudRepository that declares findById). When
+ * Flight Recorder is not recording the event, the call goes straight through.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "jfr.events.enabled", havingValue = "true", matchIfMissing = true)
+public class RepositoryCallEventAspect {
+
+    private static final String REPOSITORY_PACKAGE = "com.webstore.repository";
+
+    private final ClassValue<String> repositoryNames = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            for (Class<?> candidate : ClassUtils.getAllInterfacesForClassAsSet(type)) {
+                if (candidate.getPackageName().startsWith(REPOSITORY_PACKAGE)) {
+                    return candidate.getSimpleName();
+                }
+            }
+            return ClassUtils.getUserClass(type).getSimpleName();
+        }
+    };
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..)) "
+            + "&& within(org.springframework.data.repository.Repository+)")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        event.begin();
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            event.exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.repository = repositoryNames.get(joinPoint.getThis().getClass());
+                event.method = joinPoint.getSignature().getName();
+                event.commit();
+            }
+        }
+    }
+}
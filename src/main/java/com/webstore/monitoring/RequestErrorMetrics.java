@@ -0,0 +1,72 @@
+package com.webstore.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/*
+ * Counts the errors GlobalExceptionHandler turns into responses as http.request.errors, tagged by endpoint
+ * (method and matched mapping, as for the sql.request.* meters), exception and status, and samples their
+ * logging: each endpoint and exception is logged at most once per sample interval, with the number of
+ * occurrences left out since. A scanner hammering unknown ids then costs a counter increment per request,
+ * not a log line.
+ */
+@Component
+public class RequestErrorMetrics {
+
+    static final String COUNTER_NAME = "http.request.errors";
+    public static final long NOT_SAMPLED = LogRateLimiter.NOT_ACQUIRED;
+
+    private final MeterRegistry meterRegistry;
+    private final Duration sampleInterval;
+    private final LongSupplier nanoTime;
+
+    private final Map<ErrorKey, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<ErrorKey, LogRateLimiter> samples = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RequestErrorMetrics(MeterRegistry meterRegistry,
+            @Value("${errors.log.sample-interval:10s}") Duration sampleInterval) {
+        this(meterRegistry, sampleInterval, System::nanoTime);
+    }
+
+    RequestErrorMetrics(MeterRegistry meterRegistry, Duration sampleInterval, LongSupplier nanoTime) {
+        this.meterRegistry = meterRegistry;
+        this.sampleInterval = sampleInterval;
+        this.nanoTime = nanoTime;
+    }
+
+    /* Method and matched request mapping of the request, e.g. GET /api/products/{id}; the same tag as sql.request.* */
+    public static String endpoint(HttpServletRequest request) {
+        return SqlStatementMetricsFilter.endpoint(request);
+    }
+
+    /*
+     * Counts the error and decides whether to log it: returns how many of the same endpoint and exception
+     * went unlogged since the last one that was, or NOT_SAMPLED when this one should not be logged either.
+     */
+    public long record(String endpoint, Throwable error, HttpStatusCode status) {
+        ErrorKey key = new ErrorKey(endpoint, error.getClass().getSimpleName(), status.value());
+        counters.computeIfAbsent(key, this::createCounter).increment();
+        return samples.computeIfAbsent(key, ignored -> new LogRateLimiter(sampleInterval, nanoTime)).tryAcquire();
+    }
+
+    private Counter createCounter(ErrorKey key) {
+        return Counter.builder(COUNTER_NAME)
+                .description("Requests answered with an error status, by endpoint and exception")
+                .tags("endpoint", key.endpoint(), "exception", key.exception(), "status", String.valueOf(key.status()))
+                .register(meterRegistry);
+    }
+
+    private record ErrorKey(String endpoint, String exception, int status) {
+    }
+}
@@ -0,0 +1,83 @@
+package com.webstore.monitoring;
+
+import com.webstore.util.SecurityContextUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Times the public methods of the service implementations and the WhatsApp service beans as the
+ * service.method.time timer, tagged by class, method, the caller's role (admin, seller, anonymous for requests
+ * without a token such as webhook turns, or none outside a request), outcome (success or error) and exception.
+ * Histogram buckets and SLOs come from the management.metrics.distribution.*.service.method.time properties.
+ * Nested service calls are each timed, so a flow's time includes the business services it calls; calls within
+ * a bean are not, and neither is anything marked @Untimed.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "service.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class ServiceTimingAspect {
+
+    static final String TIMER_NAME = "service.method.time";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public ServiceTimingAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Pointcut("execution(public * com.webstore.implementation..*(..)) "
+            + "|| execution(public * com.webstore.service.whatsapp..*(..))")
+    void serviceMethod() {
+    }
+
+    @Around("serviceMethod() && !@annotation(com.webstore.monitoring.Untimed) "
+            + "&& !@within(com.webstore.monitoring.Untimed)")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        String role = roleTag();
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            record(joinPoint, role, "success", "none", start);
+            return result;
+        } catch (Throwable e) {
+            record(joinPoint, role, "error", e.getClass().getSimpleName(), start);
+            throw e;
+        }
+    }
+
+    private void record(ProceedingJoinPoint joinPoint, String role, String outcome, String exception, long start) {
+        long nanos = System.nanoTime() - start;
+        TimerKey key = new TimerKey(ClassUtils.getUserClass(joinPoint.getTarget()),
+                joinPoint.getSignature().getName(), role, outcome, exception);
+        timers.computeIfAbsent(key, this::createTimer).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer createTimer(TimerKey key) {
+        return Timer.builder(TIMER_NAME)
+                .description("Time spent in service methods")
+                .tags("class", key.type().getSimpleName(), "method", key.method(), "role", key.role(),
+                        "outcome", key.outcome(), "exception", key.exception())
+                .register(meterRegistry);
+    }
+
+    private static String roleTag() {
+        String role = SecurityContextUtils.getCurrentRole();
+        return role != null ? role.toLowerCase(Locale.ROOT) : "none";
+    }
+
+    private record TimerKey(Class<?> type, String method, String role, String outcome, String exception) {
+    }
+}
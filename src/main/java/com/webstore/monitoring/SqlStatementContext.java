@@ -0,0 +1,36 @@
+package com.webstore.monitoring;
+
+/*
+ * The SqlStatementStats being recorded on this thread. Hibernate creates the statement inspector and the
+ * session listener itself, outside the Spring context, so they find the request or turn they are part of
+ * here. Started and finished by SqlStatementMetrics; statements run outside a recording (scheduled jobs,
+ * startup) are not counted.
+ */
+public final class SqlStatementContext {
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementContext() {
+    }
+
+    /* Stats of the current request or turn, or null when nothing is being recorded. */
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    /* Names the current recording after the handler serving it, e.g. the WhatsApp strategy of a webhook. */
+    public static void describe(String endpoint) {
+        SqlStatementStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.setEndpoint(endpoint);
+        }
+    }
+
+    static void set(SqlStatementStats stats) {
+        CURRENT.set(stats);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+}
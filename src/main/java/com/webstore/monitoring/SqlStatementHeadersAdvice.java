@@ -0,0 +1,41 @@
+package com.webstore.monitoring;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Adds the request's SQL counts to the response as X-Sql-* headers, for spotting N+1 queries from the
+ * browser or curl during development (sql.metrics.response-headers, on in the local profile). Written just
+ * before the body, so statements run while serializing it (lazy loading) are only in the metrics.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = "sql.metrics.response-headers", havingValue = "true")
+public class SqlStatementHeadersAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        SqlStatementStats stats = SqlStatementContext.current();
+        if (stats != null) {
+            response.getHeaders().set("X-Sql-Statements", String.valueOf(stats.getStatements()));
+            response.getHeaders().set("X-Sql-Jdbc-Time-Ms",
+                    String.valueOf(TimeUnit.NANOSECONDS.toMillis(stats.getJdbcNanos())));
+            response.getHeaders().set("X-Sql-Max-Repeats", String.valueOf(stats.getMaxRepeats()));
+        }
+        return body;
+    }
+}
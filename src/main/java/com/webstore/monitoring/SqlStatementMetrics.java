@@ -0,0 +1,113 @@
+package com.webstore.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Publishes the SQL statements of each HTTP request and webhook turn as Micrometer meters tagged by
+ * endpoint: statements run, JDBC time, and executions of the most repeated statement shape. A request or
+ * turn over the statement budget, or running one shape repeat-threshold times or more (the signature of a
+ * query per row), is logged as a warning and counted in sql.request.budget.exceeded.
+ */
+@Slf4j
+@Component
+public class SqlStatementMetrics {
+
+    private static final int MAX_LOGGED_SQL_LENGTH = 300;
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int statementBudget;
+    private final int repeatThreshold;
+
+    private final Map<String, EndpointMeters> metersByEndpoint = new ConcurrentHashMap<>();
+
+    public SqlStatementMetrics(MeterRegistry meterRegistry,
+            @Value("${sql.metrics.enabled:true}") boolean enabled,
+            @Value("${sql.metrics.statement-budget:25}") int statementBudget,
+            @Value("${sql.metrics.repeat-threshold:5}") int repeatThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.statementBudget = statementBudget;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    /*
+     * Starts recording on this thread. Returns null when disabled or when an enclosing request is already
+     * being recorded, in which case the caller must not finish it.
+     */
+    public SqlStatementStats start(String endpoint) {
+        if (!enabled || SqlStatementContext.current() != null) {
+            return null;
+        }
+        SqlStatementStats stats = new SqlStatementStats(endpoint);
+        SqlStatementContext.set(stats);
+        return stats;
+    }
+
+    /* Stops recording on this thread and publishes the stats; a null argument is ignored. */
+    public void finish(SqlStatementStats stats) {
+        if (stats == null) {
+            return;
+        }
+        SqlStatementContext.clear();
+        String endpoint = stats.getEndpoint() != null ? stats.getEndpoint() : "UNKNOWN";
+        EndpointMeters meters = metersByEndpoint.computeIfAbsent(endpoint, this::createMeters);
+        meters.statements.record(stats.getStatements());
+        meters.jdbcTime.record(stats.getJdbcNanos(), TimeUnit.NANOSECONDS);
+        meters.maxRepeats.record(stats.getMaxRepeats());
+
+        if (stats.getStatements() > statementBudget) {
+            meters.overBudget.increment();
+            log.warn("{} ran {} SQL statements ({} distinct, {} ms JDBC), over the budget of {}",
+                    endpoint, stats.getStatements(), stats.getDistinctShapes(),
+                    TimeUnit.NANOSECONDS.toMillis(stats.getJdbcNanos()), statementBudget);
+        }
+        if (stats.getMaxRepeats() >= repeatThreshold) {
+            meters.repeated.increment();
+            log.warn("Possible N+1 in {}: the same statement ran {} times: {}",
+                    endpoint, stats.getMaxRepeats(), abbreviate(stats.getMostRepeatedShape()));
+        }
+    }
+
+    private EndpointMeters createMeters(String endpoint) {
+        return new EndpointMeters(
+                DistributionSummary.builder("sql.request.statements")
+                        .description("SQL statements run per HTTP request or webhook turn")
+                        .tag("endpoint", endpoint)
+                        .register(meterRegistry),
+                Timer.builder("sql.request.jdbc.time")
+                        .description("JDBC execution time per HTTP request or webhook turn")
+                        .tag("endpoint", endpoint)
+                        .register(meterRegistry),
+                DistributionSummary.builder("sql.request.repeated.statements")
+                        .description("Executions of the most repeated statement shape per HTTP request or webhook turn")
+                        .tag("endpoint", endpoint)
+                        .register(meterRegistry),
+                Counter.builder("sql.request.budget.exceeded")
+                        .description("Requests and turns over the SQL statement budget")
+                        .tags("endpoint", endpoint, "reason", "statements")
+                        .register(meterRegistry),
+                Counter.builder("sql.request.budget.exceeded")
+                        .description("Requests and turns over the SQL statement budget")
+                        .tags("endpoint", endpoint, "reason", "repeated")
+                        .register(meterRegistry));
+    }
+
+    private static String abbreviate(String sql) {
+        return sql.length() <= MAX_LOGGED_SQL_LENGTH ? sql : sql.substring(0, MAX_LOGGED_SQL_LENGTH) + "...";
+    }
+
+    private record EndpointMeters(DistributionSummary statements, Timer jdbcTime, DistributionSummary maxRepeats,
+            Counter overBudget, Counter repeated) {
+    }
+}
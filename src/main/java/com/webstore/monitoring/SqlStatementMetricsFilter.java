@@ -0,0 +1,61 @@
+package com.webstore.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Set;
+
+/*
+ * Records the SQL statements of each HTTP request. Ordered first so the security filters and the
+ * open-in-view interceptor run inside the recording. The endpoint tag is the method and the matched
+ * request mapping (GET /api/products/{id}), unless a handler named the recording itself, as the WhatsApp
+ * webhook does for each turn. Methods outside the standard set are tagged OTHER: the client chooses the
+ * method token, and each distinct one would otherwise register its own set of meters.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    private static final Set<String> KNOWN_METHODS =
+            Set.of("GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS", "TRACE");
+
+    private final SqlStatementMetrics sqlStatementMetrics;
+
+    public SqlStatementMetricsFilter(SqlStatementMetrics sqlStatementMetrics) {
+        this.sqlStatementMetrics = sqlStatementMetrics;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementStats stats = sqlStatementMetrics.start(null);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (stats != null && stats.getEndpoint() == null) {
+                stats.setEndpoint(endpoint(request));
+            }
+            sqlStatementMetrics.finish(stats);
+        }
+    }
+
+    /* Method and matched request mapping of the request, e.g. GET /api/products/{id} */
+    public static String endpoint(HttpServletRequest request) {
+        String method = KNOWN_METHODS.contains(request.getMethod()) ? request.getMethod() : "OTHER";
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return method + " " + (pattern != null ? pattern : "UNMAPPED");
+    }
+}
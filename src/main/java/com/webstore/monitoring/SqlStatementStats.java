@@ -0,0 +1,77 @@
+package com.webstore.monitoring;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/*
+ * SQL statements Hibernate ran for one HTTP request or webhook turn. Confined to the thread handling it, so
+ * nothing here is synchronized. Statements are grouped by shape: the SQL with its whitespace collapsed and
+ * IN lists of any length folded, so the same query repeated with different parameters counts as one shape.
+ */
+public final class SqlStatementStats {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+
+    private String endpoint;
+    private int statements;
+    private long jdbcNanos;
+    private final Map<String, Integer> shapes = new HashMap<>();
+    private String mostRepeatedShape;
+    private int maxRepeats;
+
+    SqlStatementStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    void recordStatement(String sql) {
+        statements++;
+        String shape = shapeOf(sql);
+        int repeats = shapes.merge(shape, 1, Integer::sum);
+        if (repeats > maxRepeats) {
+            maxRepeats = repeats;
+            mostRepeatedShape = shape;
+        }
+    }
+
+    void addJdbcTime(long nanos) {
+        jdbcNanos += nanos;
+    }
+
+    static String shapeOf(String sql) {
+        String shape = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        return shape.indexOf(',') < 0 ? shape : PARAMETER_LIST.matcher(shape).replaceAll("?...");
+    }
+
+    /* Null until the request's endpoint or the turn's handler is known */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public void setEndpoint(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    /* Time spent executing statements and batches, as Hibernate's session events report it */
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    public int getDistinctShapes() {
+        return shapes.size();
+    }
+
+    /* Executions of the most frequent shape; well above 1 usually means a query per row (N+1) */
+    public int getMaxRepeats() {
+        return maxRepeats;
+    }
+
+    public String getMostRepeatedShape() {
+        return mostRepeatedShape;
+    }
+}
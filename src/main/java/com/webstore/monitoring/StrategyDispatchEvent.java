@@ -0,0 +1,31 @@
+package com.webstore.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/* A button or list selection handed to the ButtonActionStrategy or ListActionStrategy that supports it */
+@Name("com.webstore.StrategyDispatch")
+@Label("Strategy Dispatch")
+@Category({"WebStore", "WhatsApp"})
+@Description("A WhatsApp button or list selection handled by its strategy")
+@StackTrace(false)
+public class StrategyDispatchEvent extends jdk.jfr.Event {
+
+    @Label("Interactive Type")
+    String interactiveType;
+
+    @Label("Interactive Id")
+    String interactiveId;
+
+    @Label("Strategy")
+    String strategy;
+
+    public StrategyDispatchEvent(String interactiveType, String interactiveId, String strategy) {
+        this.interactiveType = interactiveType;
+        this.interactiveId = interactiveId;
+        this.strategy = strategy;
+    }
+}
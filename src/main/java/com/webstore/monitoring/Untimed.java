@@ -0,0 +1,12 @@
+package com.webstore.monitoring;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/* Leaves a method, or every method of a bean, out of ServiceTimingAspect's service.method.time timer */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Untimed {
+}
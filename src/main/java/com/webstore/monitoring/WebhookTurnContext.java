@@ -0,0 +1,57 @@
+package com.webstore.monitoring;
+
+/*
+ * The WebhookTurnEvent being recorded on this thread, so the strategy handlers and WhatsAppMessageSender can
+ * add to it without it being threaded through their signatures. Begun and ended by WebhookValidator around
+ * each turn; when Flight Recorder is not recording the event is still created but never committed.
+ */
+public final class WebhookTurnContext {
+
+    private static final ThreadLocal<WebhookTurnEvent> CURRENT = new ThreadLocal<>();
+
+    private WebhookTurnContext() {
+    }
+
+    public static WebhookTurnEvent begin(String messageType, String interactiveType, String interactiveId) {
+        WebhookTurnEvent event = new WebhookTurnEvent();
+        event.messageType = messageType;
+        event.interactiveType = interactiveType;
+        event.interactiveId = interactiveId;
+        event.handler = messageType;
+        event.begin();
+        CURRENT.set(event);
+        return event;
+    }
+
+    /* Names the strategy handling the current turn */
+    public static void describe(String handler) {
+        WebhookTurnEvent event = CURRENT.get();
+        if (event != null) {
+            event.handler = handler;
+        }
+    }
+
+    /* Adds a Graph API call to the current turn; ignored outside one, e.g. for order notifications */
+    public static void addGraphApiCall(long nanos, long serializationNanos, long requestBytes) {
+        WebhookTurnEvent event = CURRENT.get();
+        if (event != null) {
+            event.graphApiCalls++;
+            event.graphApiTime += nanos;
+            event.serializationTime += serializationNanos;
+            event.requestBytes += requestBytes;
+        }
+    }
+
+    /* Commits the turn with the SQL recorded for it, if any, and clears it from this thread */
+    public static void end(WebhookTurnEvent event, SqlStatementStats sqlStats) {
+        CURRENT.remove();
+        event.end();
+        if (event.shouldCommit()) {
+            if (sqlStats != null) {
+                event.sqlStatements = sqlStats.getStatements();
+                event.jdbcTime = sqlStats.getJdbcNanos();
+            }
+            event.commit();
+        }
+    }
+}
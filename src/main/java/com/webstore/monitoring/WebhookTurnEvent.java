@@ -0,0 +1,61 @@
+package com.webstore.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/*
+ * One WhatsApp webhook turn, from routing the message to the last reply. Besides its duration it carries
+ * where the time went: JDBC time and statements (from the turn's SqlStatementStats) and the Graph API calls
+ * with their serialization time, so the rest is the bot's own code. Begun and committed by WebhookTurnContext.
+ */
+@Name("com.webstore.WebhookTurn")
+@Label("Webhook Turn")
+@Category({"WebStore", "WhatsApp"})
+@Description("A WhatsApp webhook turn and the JDBC and Graph API time spent in it")
+@StackTrace(false)
+public class WebhookTurnEvent extends jdk.jfr.Event {
+
+    @Label("Message Type")
+    String messageType;
+
+    @Label("Interactive Type")
+    @Description("button_reply or list_reply for interactive messages")
+    String interactiveType;
+
+    @Label("Interactive Id")
+    @Description("Id of the button or list row the user picked")
+    String interactiveId;
+
+    @Label("Handler")
+    @Description("Strategy the turn was dispatched to, or the message type when no strategy ran")
+    String handler;
+
+    @Label("SQL Statements")
+    int sqlStatements;
+
+    @Label("JDBC Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long jdbcTime;
+
+    @Label("Graph API Calls")
+    int graphApiCalls;
+
+    @Label("Graph API Time")
+    @Description("Time in Graph API calls, serialization included")
+    @Timespan(Timespan.NANOSECONDS)
+    long graphApiTime;
+
+    @Label("Serialization Time")
+    @Description("Time spent writing Graph API request bodies as JSON")
+    @Timespan(Timespan.NANOSECONDS)
+    long serializationTime;
+
+    @Label("Request Bytes")
+    @DataAmount
+    long requestBytes;
+}
@@ -1,8 +1,12 @@
 package com.webstore.repository;
 
 import com.webstore.entity.CatalogueCategory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -12,8 +16,16 @@ import java.util.Optional;
 @Repository
 public interface CatalogueCategoryRepository extends JpaRepository<CatalogueCategory, Integer> {
 
+    // Listing maps catalogue and category names; fetched in the same select rather than one per row
+    @Override
+    @EntityGraph(attributePaths = {"catalogue", "category"})
+    List<CatalogueCategory> findAll();
+
+    // Resolved on every product create/update; cached per (catalogueId, categoryId) pair
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<CatalogueCategory> findByCatalogueCatalogueIdAndCategoryCategoryId(Integer catalogueId, Integer categoryId);
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     boolean existsByCatalogueCatalogueIdAndCategoryCategoryId(Integer catalogueId, Integer categoryId);
     
     List<CatalogueCategory> findByCategoryCategoryId(Integer categoryId);
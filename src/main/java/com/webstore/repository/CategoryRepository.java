@@ -1,20 +1,26 @@
 package com.webstore.repository;
 
 import com.webstore.entity.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Integer> {
 
-       
+       // Natural-id lookups go through the query cache; results resolve against the categories region
+       @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
        boolean existsByCategoryName(String categoryName);
 
+       @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
        Optional<Category> findByCategoryName(String categoryName);
 
        List<Category> findByCategoryNameContainingIgnoreCase(String name);
@@ -26,7 +32,7 @@ public interface CategoryRepository extends JpaRepository<Category, Integer> {
               String getCategoryName();
        }
 
-       @Query("SELECT c.categoryName FROM Category c")
+       @Query("SELECT c.categoryName AS categoryName FROM Category c")
        List<CategoryNameProjection> findAllCategoryNames();
 
        // Projection for getting only category ID by name
@@ -34,9 +40,23 @@ public interface CategoryRepository extends JpaRepository<Category, Integer> {
               Integer getCategoryId();
        }
 
-       @Query("SELECT c.categoryId FROM Category c WHERE c.categoryName = :categoryName")
+       @Query("SELECT c.categoryId AS categoryId FROM Category c WHERE c.categoryName = :categoryName")
+       @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
        CategoryIdProjection findCategoryIdByCategoryName(@Param("categoryName") String categoryName);
 
+       // Product counts for a page of categories in one query, instead of one lookup per category
+       interface CategoryProductCountProjection {
+              String getCategoryName();
+
+              Long getProductCount();
+       }
+
+       @Query("SELECT c.categoryName AS categoryName, COUNT(p) AS productCount FROM Category c " +
+                     "LEFT JOIN c.catalogueCategories cc LEFT JOIN cc.products p " +
+                     "WHERE c.categoryName IN :categoryNames GROUP BY c.categoryName")
+       List<CategoryProductCountProjection> countProductsByCategoryNames(
+                     @Param("categoryNames") Collection<String> categoryNames);
+
        // Complex queries that need @Query
        @Query(value = "SELECT c.category_name FROM web_store.category c ORDER BY c.category_id ASC LIMIT 3", nativeQuery = true)
        List<String> findTop3CategoryNames();
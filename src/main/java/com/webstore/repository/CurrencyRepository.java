@@ -1,14 +1,29 @@
 package com.webstore.repository;
 
 import com.webstore.entity.Currency;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface CurrencyRepository extends JpaRepository<Currency, Integer> {
 
+    // Natural-id lookups go through the query cache; results resolve against the currencies region
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Currency> findByCurrencyCode(String currencyCode);
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     boolean existsByCurrencyCode(String currencyCode);
 
+    // Whether amounts are stored in the currency's minor units; locks the currency row so no new one is added meanwhile
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM web_store.product_prices WHERE currency_id = c.currency_id) " +
+                   "    OR EXISTS (SELECT 1 FROM web_store.product_price_history WHERE currency_id = c.currency_id) " +
+                   "    OR EXISTS (SELECT 1 FROM web_store.orders WHERE currency_id = c.currency_id) " +
+                   "    OR EXISTS (SELECT 1 FROM web_store.promotions WHERE currency_id = c.currency_id) " +
+                   "FROM web_store.currencies c WHERE c.currency_id = :currencyId FOR UPDATE", nativeQuery = true)
+    boolean hasStoredAmounts(@Param("currencyId") Integer currencyId);
 }
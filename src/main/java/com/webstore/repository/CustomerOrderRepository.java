@@ -0,0 +1,23 @@
+package com.webstore.repository;
+
+import com.webstore.entity.CustomerOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CustomerOrderRepository extends JpaRepository<CustomerOrder, Long> {
+
+       // Order with its lines and currency, for responses and confirmations
+       @Query("SELECT DISTINCT o FROM CustomerOrder o " +
+                     "JOIN FETCH o.currency c " +
+                     "LEFT JOIN FETCH o.orderLines l " +
+                     "WHERE o.orderId = :id")
+       Optional<CustomerOrder> findByIdWithLines(@Param("id") Long id);
+
+       @Query("SELECT o.orderId FROM CustomerOrder o WHERE o.idempotencyKey = :idempotencyKey")
+       Optional<Long> findIdByIdempotencyKey(@Param("idempotencyKey") String idempotencyKey);
+}
@@ -0,0 +1,43 @@
+package com.webstore.repository;
+
+import com.webstore.entity.ExchangeRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ExchangeRateRepository extends JpaRepository<ExchangeRate, Integer> {
+
+       @Query("SELECT er FROM ExchangeRate er " +
+              "JOIN FETCH er.baseCurrency JOIN FETCH er.quoteCurrency " +
+              "ORDER BY er.baseCurrency.currencyId, er.quoteCurrency.currencyId, er.validFrom")
+       List<ExchangeRate> findAllWithCurrencies();
+
+       @Query("SELECT er FROM ExchangeRate er " +
+              "JOIN FETCH er.baseCurrency JOIN FETCH er.quoteCurrency " +
+              "WHERE er.exchangeRateId = :id")
+       Optional<ExchangeRate> findByIdWithCurrencies(@Param("id") Integer id);
+
+       // The open-ended rate of the pair that a new rate starting at validFrom supersedes
+       @Query("SELECT er FROM ExchangeRate er " +
+              "WHERE er.baseCurrency.currencyId = :baseCurrencyId " +
+              "AND er.quoteCurrency.currencyId = :quoteCurrencyId " +
+              "AND er.validTo IS NULL AND er.validFrom < :validFrom")
+       Optional<ExchangeRate> findOpenRateStartingBefore(@Param("baseCurrencyId") Integer baseCurrencyId,
+                                                         @Param("quoteCurrencyId") Integer quoteCurrencyId,
+                                                         @Param("validFrom") LocalDateTime validFrom);
+
+       // Whether any rate of the pair overlaps [validFrom, validTo); a null validTo means open-ended
+       @Query("SELECT COUNT(er) > 0 FROM ExchangeRate er " +
+              "WHERE er.baseCurrency.currencyId = :baseCurrencyId " +
+              "AND er.quoteCurrency.currencyId = :quoteCurrencyId " +
+              "AND (er.validTo IS NULL OR er.validTo > :validFrom) " +
+              "AND (CAST(:validTo AS LocalDateTime) IS NULL OR er.validFrom < :validTo)")
+       boolean existsOverlapping(@Param("baseCurrencyId") Integer baseCurrencyId,
+                                 @Param("quoteCurrencyId") Integer quoteCurrencyId,
+                                 @Param("validFrom") LocalDateTime validFrom,
+                                 @Param("validTo") LocalDateTime validTo);
+}
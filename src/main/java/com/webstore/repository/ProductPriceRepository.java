@@ -1,17 +1,26 @@
 package com.webstore.repository;
 
 import com.webstore.entity.ProductPrice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProductPriceRepository extends JpaRepository<ProductPrice, Integer> {
 
+    // Listing maps product and currency names; fetched in the same select rather than one per row
+    @Override
+    @EntityGraph(attributePaths = {"product", "currency"})
+    List<ProductPrice> findAll();
+
+    // Currency is fetched with the prices since WhatsApp flows read it outside a transaction
+    @EntityGraph(attributePaths = "currency")
     List<ProductPrice> findByProductProductId(Integer productId);
 
     Optional<ProductPrice> findByProductProductIdAndCurrencyCurrencyId(Integer productId, Integer currencyId);
@@ -22,6 +31,17 @@ public interface ProductPriceRepository extends JpaRepository<ProductPrice, Inte
     @Query("SELECT pp FROM ProductPrice pp JOIN FETCH pp.product p JOIN FETCH pp.currency c WHERE p.productId IN :productIds")
     List<ProductPrice> findByProductProductIdIn(@Param("productIds") List<Integer> productIds);
 
+    @Query("SELECT pp FROM ProductPrice pp JOIN FETCH pp.product p JOIN FETCH pp.currency c WHERE pp.productPriceId IN :ids")
+    List<ProductPrice> findAllByIdWithDetails(@Param("ids") Collection<Integer> ids);
+
+    // Prices of several products in one currency (order pricing)
+    @Query("SELECT pp FROM ProductPrice pp WHERE pp.product.productId IN :productIds AND pp.currency.currencyId = :currencyId")
+    List<ProductPrice> findByProductIdsAndCurrencyId(@Param("productIds") Collection<Integer> productIds,
+            @Param("currencyId") Integer currencyId);
+
+    @Query("SELECT pp.productPriceId FROM ProductPrice pp WHERE pp.product.catalogueCategory.category.categoryId = :categoryId")
+    List<Integer> findIdsByCategoryId(@Param("categoryId") Integer categoryId);
+
     @Query("SELECT pp FROM ProductPrice pp JOIN FETCH pp.product p JOIN FETCH pp.currency c WHERE pp.currency.currencyId = :currencyId")
     List<ProductPrice> findByCurrencyCurrencyId(@Param("currencyId") Integer currencyId);
 
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -36,26 +37,82 @@ public interface ProductRepository extends JpaRepository<Product, Integer> {
        List<Product> findByCatalogueIdAndCategoryId(@Param("catalogueId") Integer catalogueId,
                      @Param("categoryId") Integer categoryId);
 
-       // Find top N products by catalogue-category ID
-       @Query("SELECT p FROM Product p WHERE p.catalogueCategory.catalogueCategoryId = :catalogueCategoryId " +
-                     "ORDER BY p.createdAt DESC")
-       List<Product> findTop5ByCatalogueCategoryIdOrderByCreatedAtDesc(
-                     @Param("catalogueCategoryId") Integer catalogueCategoryId);
+       // Newest products of a catalogue-category, limited in SQL; walks idx_products_catalogue_category_newest
+       @Query(value = "SELECT product_id FROM web_store.products " +
+                     "WHERE catalogue_category_id = :catalogueCategoryId " +
+                     "ORDER BY created_at DESC NULLS LAST, product_id DESC " +
+                     "LIMIT :limit", nativeQuery = true)
+       List<Integer> findNewestIdsByCatalogueCategoryId(@Param("catalogueCategoryId") Integer catalogueCategoryId,
+                     @Param("limit") int limit);
+
+       // Newest products of one seller, limited in SQL; sellers' feeds are not kept in memory
+       @Query(value = "SELECT product_id FROM web_store.products " +
+                     "WHERE seller_id = :sellerId " +
+                     "ORDER BY created_at DESC NULLS LAST, product_id DESC " +
+                     "LIMIT :limit", nativeQuery = true)
+       List<Integer> findNewestIdsBySellerId(@Param("sellerId") Integer sellerId, @Param("limit") int limit);
+
+       @Query(value = "SELECT product_id FROM web_store.products " +
+                     "WHERE catalogue_category_id = :catalogueCategoryId AND seller_id = :sellerId " +
+                     "ORDER BY created_at DESC NULLS LAST, product_id DESC " +
+                     "LIMIT :limit", nativeQuery = true)
+       List<Integer> findNewestIdsByCatalogueCategoryIdAndSellerId(
+                     @Param("catalogueCategoryId") Integer catalogueCategoryId,
+                     @Param("sellerId") Integer sellerId, @Param("limit") int limit);
+
+       // Newest products of every catalogue-category at once: one limited index scan per catalogue-category
+       @Query(value = "SELECT p.product_id FROM web_store.catalogue_categories cc " +
+                     "CROSS JOIN LATERAL (SELECT product_id FROM web_store.products " +
+                     "      WHERE catalogue_category_id = cc.catalogue_category_id " +
+                     "      ORDER BY created_at DESC NULLS LAST, product_id DESC " +
+                     "      LIMIT :limit) p", nativeQuery = true)
+       List<Integer> findNewestIdsPerCatalogueCategory(@Param("limit") int limit);
 
        // Get product names by category for WhatsApp display
        @Query("SELECT p.productName FROM Product p WHERE p.catalogueCategory.category.categoryId = :categoryId " +
                      "ORDER BY p.productId ASC")
        List<String> findProductNamesByCategoryId(@Param("categoryId") Integer categoryId);
 
+       // Product ids with their names by category, for ordering WhatsApp lists by something other than id
+       interface ProductNameProjection {
+              Integer getProductId();
+
+              String getProductName();
+       }
+
+       @Query("SELECT p.productId AS productId, p.productName AS productName FROM Product p " +
+                     "WHERE p.catalogueCategory.category.categoryId = :categoryId ORDER BY p.productId ASC")
+       List<ProductNameProjection> findProductIdsAndNamesByCategoryId(@Param("categoryId") Integer categoryId);
+
        // Find product ID by product name
        @Query("SELECT p.productId FROM Product p WHERE p.productName = :productName")
        Integer findProductIdByProductName(@Param("productName") String productName);
 
        // Delete all products for a category
+       @Query("SELECT p.productId FROM Product p WHERE p.catalogueCategory.category.categoryId = :categoryId")
+       List<Integer> findIdsByCategoryId(@Param("categoryId") Integer categoryId);
+
        @Modifying
        @Query("DELETE FROM Product p WHERE p.catalogueCategory.category.categoryId = :categoryId")
        void deleteByCategoryId(@Param("categoryId") Integer categoryId);
 
+       // Takes stock only if enough is left; a single statement, so concurrent buyers can never oversell
+       @Modifying
+       @Query("UPDATE Product p SET p.stock = p.stock - :quantity " +
+                     "WHERE p.productId = :productId AND p.stock >= :quantity")
+       int decrementStockIfAvailable(@Param("productId") Integer productId, @Param("quantity") int quantity);
+
+       // Returns released stock
+       @Modifying
+       @Query("UPDATE Product p SET p.stock = p.stock + :quantity WHERE p.productId = :productId")
+       int incrementStock(@Param("productId") Integer productId, @Param("quantity") int quantity);
+
+       // Applies a stock edit as a change, keeping whatever reservations took or returned since it was read;
+       // returns the new stock, or nothing when the change would take it below zero
+       @Query(value = "UPDATE web_store.products SET stock = stock + :delta " +
+                     "WHERE product_id = :productId AND stock + :delta >= 0 RETURNING stock", nativeQuery = true)
+       Optional<Integer> adjustStockIfNotNegative(@Param("productId") Integer productId, @Param("delta") int delta);
+
        // Search by product name (case-insensitive, partial match) with seller
        @Query("SELECT DISTINCT p FROM Product p " +
                      "LEFT JOIN FETCH p.seller s " +
@@ -91,6 +148,15 @@ public interface ProductRepository extends JpaRepository<Product, Integer> {
        @Query(value = "SELECT seller_id FROM web_store.products WHERE product_id = :productId", nativeQuery = true)
        Integer findSellerIdByProductId(@Param("productId") Integer productId);
 
+       // Batch load by IDs with every relation the response DTO needs (used by the sync feed)
+       @Query("SELECT DISTINCT p FROM Product p " +
+                     "LEFT JOIN FETCH p.seller s " +
+                     "LEFT JOIN FETCH p.catalogueCategory cc " +
+                     "LEFT JOIN FETCH cc.catalogue c " +
+                     "LEFT JOIN FETCH cc.category cat " +
+                     "WHERE p.productId IN :ids")
+       List<Product> findAllByIdWithRelations(@Param("ids") Collection<Integer> ids);
+
        // Find all products by seller ID with eager loading
        @Query("SELECT DISTINCT p FROM Product p " +
                      "LEFT JOIN FETCH p.catalogueCategory cc " +
@@ -99,6 +165,39 @@ public interface ProductRepository extends JpaRepository<Product, Integer> {
                      "WHERE p.seller.sellerId = :sellerId")
        List<Product> findBySellerIdWithRelations(@Param("sellerId") Integer sellerId);
 
+       // Projection for seller details: one row per catalogue/category with product count
+       interface SellerCatalogueCategoryCountProjection {
+              Integer getCatalogueId();
+
+              String getCatalogueName();
+
+              String getCatalogueDescription();
+
+              Integer getCategoryId();
+
+              String getCategoryName();
+
+              String getCategoryDescription();
+
+              Long getProductCount();
+       }
+
+       // Aggregate a seller's products per catalogue and category in the database
+       // Grouping by the primary keys lets PostgreSQL return the dependent name columns
+       @Query("SELECT c.catalogueId AS catalogueId, c.catalogueName AS catalogueName, " +
+                     "c.catalogueDescription AS catalogueDescription, " +
+                     "cat.categoryId AS categoryId, cat.categoryName AS categoryName, " +
+                     "cat.categoryDescription AS categoryDescription, COUNT(p) AS productCount " +
+                     "FROM Product p " +
+                     "JOIN p.catalogueCategory cc " +
+                     "JOIN cc.catalogue c " +
+                     "JOIN cc.category cat " +
+                     "WHERE p.seller.sellerId = :sellerId " +
+                     "GROUP BY c.catalogueId, cat.categoryId " +
+                     "ORDER BY c.catalogueId, cat.categoryId")
+       List<SellerCatalogueCategoryCountProjection> countProductsBySellerGroupedByCatalogueAndCategory(
+                     @Param("sellerId") Integer sellerId);
+
        // Find products with pagination, filtered by seller ID
        @Query("SELECT DISTINCT p FROM Product p " +
                      "LEFT JOIN FETCH p.seller s " +
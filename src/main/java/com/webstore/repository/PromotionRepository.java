@@ -0,0 +1,18 @@
+package com.webstore.repository;
+
+import com.webstore.entity.Promotion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface PromotionRepository extends JpaRepository<Promotion, Integer> {
+
+       @Query("SELECT p FROM Promotion p LEFT JOIN FETCH p.currency ORDER BY p.startsAt, p.promotionId")
+       List<Promotion> findAllWithCurrency();
+
+       @Query("SELECT p FROM Promotion p LEFT JOIN FETCH p.currency WHERE p.promotionId = :id")
+       Optional<Promotion> findByIdWithCurrency(@Param("id") Integer id);
+}
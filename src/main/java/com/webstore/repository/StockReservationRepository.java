@@ -0,0 +1,64 @@
+package com.webstore.repository;
+
+import com.webstore.entity.StockReservation;
+import com.webstore.entity.StockReservation.ReservationStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+       // A buyer's live holds with their products, oldest first
+       @Query("SELECT r FROM StockReservation r " +
+                     "JOIN FETCH r.product p " +
+                     "WHERE r.holder = :holder AND r.status = com.webstore.entity.StockReservation.ReservationStatus.HELD " +
+                     "ORDER BY r.reservationId")
+       List<StockReservation> findHeldByHolder(@Param("holder") String holder);
+
+       @Query("SELECT r FROM StockReservation r JOIN FETCH r.product p WHERE r.reservationId = :id")
+       Optional<StockReservation> findByIdWithProduct(@Param("id") Long id);
+
+       // Current status straight from the database, bypassing the persistence context
+       @Query("SELECT r.status FROM StockReservation r WHERE r.reservationId = :id")
+       ReservationStatus findStatusById(@Param("id") Long id);
+
+       // The status updates below only succeed from HELD, so exactly one of confirm / release / sweep
+       // wins for a reservation and its stock is returned at most once
+
+       // Returns 0 if the reservation is no longer held or has already expired
+       @Modifying
+       @Query("UPDATE StockReservation r " +
+                     "SET r.status = com.webstore.entity.StockReservation.ReservationStatus.CONFIRMED, " +
+                     "r.updatedAt = CURRENT_TIMESTAMP " +
+                     "WHERE r.reservationId = :id " +
+                     "AND r.status = com.webstore.entity.StockReservation.ReservationStatus.HELD " +
+                     "AND r.expiresAt > :now")
+       int confirmIfHeld(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+       // Confirms a whole cart at once; the caller compares the count with ids.size()
+       @Modifying
+       @Query("UPDATE StockReservation r " +
+                     "SET r.status = com.webstore.entity.StockReservation.ReservationStatus.CONFIRMED, " +
+                     "r.updatedAt = CURRENT_TIMESTAMP " +
+                     "WHERE r.reservationId IN :ids " +
+                     "AND r.status = com.webstore.entity.StockReservation.ReservationStatus.HELD " +
+                     "AND r.expiresAt > :now")
+       int confirmAllIfHeld(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+       // Returns 0 if the reservation is no longer held
+       @Modifying
+       @Query("UPDATE StockReservation r " +
+                     "SET r.status = com.webstore.entity.StockReservation.ReservationStatus.RELEASED, " +
+                     "r.updatedAt = CURRENT_TIMESTAMP " +
+                     "WHERE r.reservationId = :id " +
+                     "AND r.status = com.webstore.entity.StockReservation.ReservationStatus.HELD")
+       int releaseIfHeld(@Param("id") Long id);
+}
@@ -4,6 +4,7 @@ import com.webstore.dto.request.CatalogueRequestDto;
 import com.webstore.dto.response.CatalogueResponseDto;
 import com.webstore.dto.response.CategoryResponseDto;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CatalogueService {
@@ -15,4 +16,6 @@ public interface CatalogueService {
     List<CatalogueResponseDto> searchByName(String name);
 
     List<CategoryResponseDto> getCategoriesByCatalogueId(Integer catalogueId);
+
+    List<CatalogueResponseDto> getCataloguesByIds(Collection<Integer> ids);
 }
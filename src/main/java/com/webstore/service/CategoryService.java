@@ -3,6 +3,7 @@ package com.webstore.service;
 import com.webstore.dto.request.CategoryRequestDto;
 import com.webstore.dto.response.CategoryResponseDto;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CategoryService {
@@ -16,4 +17,6 @@ public interface CategoryService {
     void deleteCategory(Integer id);
     //Search categories
     List<CategoryResponseDto> searchCategories(String searchTerm);
+
+    List<CategoryResponseDto> getCategoriesByIds(Collection<Integer> ids);
 }
@@ -0,0 +1,17 @@
+package com.webstore.service;
+
+import com.webstore.dto.response.ProductResponseDto.PriceInfoDto;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface CurrencyConversionService {
+
+    /*
+     * Price of each product in the currency: the entered price when there is one, otherwise the base currency
+     * price converted at the exchange rate valid now. Products with neither are left out of the map.
+     */
+    Map<Integer, PriceInfoDto> getPricesIn(Collection<Integer> productIds, String currencyCode);
+
+    void reloadRates();
+}
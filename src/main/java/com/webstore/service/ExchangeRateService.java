@@ -0,0 +1,18 @@
+package com.webstore.service;
+
+import com.webstore.dto.request.ExchangeRateRequestDto;
+import com.webstore.dto.response.ExchangeRateResponseDto;
+
+import java.util.List;
+
+public interface ExchangeRateService {
+
+    /* Adds a rate; an open-ended rate of the same pair that started earlier is closed where the new one starts */
+    ExchangeRateResponseDto createExchangeRate(ExchangeRateRequestDto request);
+
+    ExchangeRateResponseDto getExchangeRateById(Integer id);
+
+    List<ExchangeRateResponseDto> getAllExchangeRates();
+
+    void deleteExchangeRate(Integer id);
+}
@@ -0,0 +1,17 @@
+package com.webstore.service;
+
+import com.webstore.dto.response.ProductResponseDto;
+
+import java.util.List;
+
+public interface NewestProductsService {
+
+    // Up to limit of the newest products of a catalogue-category, newest first
+    List<ProductResponseDto> getNewestProducts(Integer catalogueCategoryId, int limit);
+
+    // Up to limit of the newest products across all catalogue-categories, newest first
+    List<ProductResponseDto> getNewestProducts(int limit);
+
+    // Refills every feed from the database
+    void reload();
+}
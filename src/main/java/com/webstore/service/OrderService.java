@@ -0,0 +1,18 @@
+package com.webstore.service;
+
+import com.webstore.dto.request.OrderRequestDto;
+import com.webstore.dto.response.OrderResponseDto;
+
+public interface OrderService {
+
+    OrderResponseDto placeOrder(OrderRequestDto request, String idempotencyKey);
+
+    /*
+     * Turns the customer's held reservations into an order; with an empty cart, buyNowProductId (if set) is
+     * reserved and ordered on its own. Queues a confirmation when notifyPhoneNumberId is set.
+     */
+    OrderResponseDto placeOrder(String customer, String idempotencyKey, String notifyPhoneNumberId,
+            Integer buyNowProductId);
+
+    OrderResponseDto getOrderById(Long id);
+}
@@ -0,0 +1,25 @@
+package com.webstore.service;
+
+import com.webstore.dto.request.PriceAsOfRequestDto;
+import com.webstore.dto.response.PriceHistoryResponseDto;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface PriceHistoryService {
+
+    // Closes the current price of the product in the currency and opens the new one; call inside the writing transaction
+    void recordPrice(Integer productPriceId, Integer productId, Integer currencyId, BigInteger priceAmount);
+
+    void recordRemoval(Integer productPriceId);
+
+    void recordProductRemoval(Integer productId);
+
+    List<PriceHistoryResponseDto> getHistory(Integer productId, Integer currencyId);
+
+    // Prices of the product valid at the given time, one per currency unless currencyId narrows it down
+    List<PriceHistoryResponseDto> getPricesAsOf(Integer productId, Integer currencyId, LocalDateTime at);
+
+    List<PriceHistoryResponseDto> getPricesAsOf(PriceAsOfRequestDto request);
+}
@@ -0,0 +1,26 @@
+package com.webstore.service;
+
+import com.webstore.dto.response.ProductResponseDto.PriceInfoDto;
+import com.webstore.util.PriceMatrix;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface PriceMatrixService {
+
+    /* Every price of the product, ordered by currency id */
+    List<PriceInfoDto> getPrices(Integer productId, String productName);
+
+    /* Price in the given currency, or in the first currency the product is priced in when it has none */
+    Optional<PriceInfoDto> getPreferredPrice(Integer productId, String currencyCode);
+
+    /* Batch form of getPreferredPrice; products without any price are left out of the map */
+    Map<Integer, PriceInfoDto> getPreferredPrices(Collection<Integer> productIds, String currencyCode);
+
+    /* The loaded matrix, for services that derive prices from it */
+    PriceMatrix getPriceMatrix();
+
+    void reload();
+}
@@ -0,0 +1,21 @@
+package com.webstore.service;
+
+import com.webstore.enums.whatsapp.ProductInteraction;
+
+import java.util.List;
+import java.util.function.Function;
+
+public interface ProductPopularityService {
+
+    // Counts one interaction in memory; never touches the database
+    void record(ProductInteraction interaction, Integer productId);
+
+    // Most popular first; items without any recorded interest keep their order after the rest
+    <T> List<T> popularFirst(List<T> items, Function<T, Integer> productIdOf);
+
+    // One page of all product ids, most popular first, then by id
+    List<Integer> getPopularProductIds(int page, int size);
+
+    // Adds the counts recorded since the last flush to product_stats and re-reads the ranking
+    void flush();
+}
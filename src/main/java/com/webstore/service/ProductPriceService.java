@@ -4,6 +4,7 @@ import com.webstore.dto.request.ProductPriceRequestDto;
 import com.webstore.dto.response.ProductPriceResponseDto;
 
 import java.math.BigInteger;
+import java.util.Collection;
 import java.util.List;
 
 public interface ProductPriceService {
@@ -17,4 +18,6 @@ public interface ProductPriceService {
     ProductPriceResponseDto updateProductPrice(Integer id, BigInteger priceAmount);
 
     void deleteProductPrice(Integer id);
+
+    List<ProductPriceResponseDto> getProductPricesByIds(Collection<Integer> ids);
 }
\ No newline at end of file
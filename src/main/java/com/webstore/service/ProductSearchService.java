@@ -0,0 +1,13 @@
+package com.webstore.service;
+
+import com.webstore.dto.request.ProductSearchRequestDto;
+import com.webstore.dto.response.FacetedSearchResponseDto;
+
+public interface ProductSearchService {
+
+    // One page of the products matching every filter, with the counts of all facets
+    FacetedSearchResponseDto search(ProductSearchRequestDto request);
+
+    // Rebuilds the facet index from the database
+    void reload();
+}
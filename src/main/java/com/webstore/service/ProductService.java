@@ -4,6 +4,7 @@ import com.webstore.dto.request.ProductRequestDto;
 import com.webstore.dto.response.ProductResponseDto;
 import jakarta.transaction.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ProductService {
@@ -12,6 +13,12 @@ public interface ProductService {
 
     List<ProductResponseDto> getAllProducts(int page, int size);
 
+    // Prices in the given currency only, derived through the exchange rate where none was entered
+    List<ProductResponseDto> getAllProducts(int page, int size, String currencyCode);
+
+    // As above, ordered most popular first (by WhatsApp interactions) instead of by id
+    List<ProductResponseDto> getAllProducts(int page, int size, String currencyCode, boolean popularFirst);
+
     ProductResponseDto updateProduct(Integer id, ProductRequestDto dto);
 
     ProductResponseDto getProductById(Integer id);
@@ -20,4 +27,8 @@ public interface ProductService {
 
     // search functionality
     List<ProductResponseDto> searchProducts(String searchTerm);
+
+    List<ProductResponseDto> searchProducts(String searchTerm, String currencyCode);
+
+    List<ProductResponseDto> getProductsByIds(Collection<Integer> ids);
 }
\ No newline at end of file
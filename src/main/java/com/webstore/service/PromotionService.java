@@ -0,0 +1,29 @@
+package com.webstore.service;
+
+import com.webstore.dto.request.PromotionRequestDto;
+import com.webstore.dto.response.ProductResponseDto.PriceInfoDto;
+import com.webstore.dto.response.PromotionResponseDto;
+
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.List;
+
+public interface PromotionService {
+
+    PromotionResponseDto createPromotion(PromotionRequestDto request);
+
+    PromotionResponseDto getPromotionById(Integer id);
+
+    List<PromotionResponseDto> getAllPromotions();
+
+    void deletePromotion(Integer id);
+
+    // Sets the promotional amount and promotion of each price a running promotion lowers
+    void applyPromotions(Collection<PriceInfoDto> prices);
+
+    // The unit price to charge: the list price less the best running promotion
+    BigInteger getEffectivePrice(Integer productId, Integer currencyId, BigInteger listPrice);
+
+    // Rebuilds the effective price table from the promotions running now
+    void refresh();
+}
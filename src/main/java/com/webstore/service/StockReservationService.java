@@ -0,0 +1,23 @@
+package com.webstore.service;
+
+import com.webstore.dto.request.StockReservationRequestDto;
+import com.webstore.dto.response.StockReservationResponseDto;
+
+import java.util.List;
+
+public interface StockReservationService {
+
+    StockReservationResponseDto reserve(StockReservationRequestDto request);
+
+    StockReservationResponseDto reserve(Integer productId, int quantity, String holder);
+
+    StockReservationResponseDto getReservationById(Long id);
+
+    List<StockReservationResponseDto> getHeldReservations(String holder);
+
+    StockReservationResponseDto confirmReservation(Long id);
+
+    void releaseReservation(Long id);
+
+    int expireReservations();
+}
@@ -0,0 +1,11 @@
+package com.webstore.service;
+
+import com.webstore.dto.response.SyncChangesResponseDto;
+
+public interface SyncService {
+
+    /* Changes committed at or after the given cursor; a null cursor returns only the current cursor */
+    SyncChangesResponseDto getChangesSince(Long since, int limit);
+
+    void purgeTombstones();
+}
@@ -1,11 +1,14 @@
 package com.webstore.service.whatsapp.builder;
 
 import com.webstore.dto.request.whatsapp.WhatsAppRequestDto;
+import com.webstore.monitoring.Untimed;
 import com.webstore.util.MessageFormatter;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
+// Plain DTO assembly, called per button and row; timing it would only add series
+@Untimed
 @Service
 public class MessageBuilderService {
 
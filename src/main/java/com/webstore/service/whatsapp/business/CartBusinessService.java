@@ -1,15 +1,56 @@
 package com.webstore.service.whatsapp.business;
 
+import com.webstore.dto.response.OrderResponseDto;
+import com.webstore.dto.response.StockReservationResponseDto;
+import com.webstore.service.OrderService;
+import com.webstore.service.StockReservationService;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/* The cart is the buyer's live stock reservations; adding an item holds its stock until checkout or expiry. */
 @Service
 public class CartBusinessService {
 
-    public void addProductToCart(String userPhone, Integer productId, Integer quantity) {
+    private final StockReservationService stockReservationService;
+    private final OrderService orderService;
+
+    public CartBusinessService(StockReservationService stockReservationService, OrderService orderService) {
+        this.stockReservationService = stockReservationService;
+        this.orderService = orderService;
+    }
 
+    public StockReservationResponseDto addProductToCart(String userPhone, Integer productId, Integer quantity) {
+        return stockReservationService.reserve(productId, quantity, userPhone);
     }
 
     public String getCartSummary(String userPhone) {
-        return "🛒 Your cart feature is coming soon! For now, type 'categories' to continue shopping.";
+        List<StockReservationResponseDto> items = stockReservationService.getHeldReservations(userPhone);
+        if (items.isEmpty()) {
+            return "🛒 Your cart is empty. Type 'categories' to start shopping.";
+        }
+
+        StringBuilder summary = new StringBuilder("🛒 *Your Cart*\n\n");
+        for (StockReservationResponseDto item : items) {
+            summary.append(String.format("📦 %s x%d (held for %d more min)\n",
+                    item.getProductName(), item.getQuantity(), minutesLeft(item.getExpiresAt())));
+        }
+        summary.append("\nType 'categories' to continue shopping.");
+        return summary.toString();
+    }
+
+    /*
+     * Places the buyer's cart as an order; with an empty cart the given product is bought on its own.
+     * A redelivered webhook carries the same idempotency key and gets the order placed the first time.
+     * The confirmation is queued, not sent from here.
+     */
+    public OrderResponseDto checkout(String phoneNumberId, String userPhone, Integer productId, String idempotencyKey) {
+        return orderService.placeOrder(userPhone, idempotencyKey, phoneNumberId, productId);
+    }
+
+    private long minutesLeft(LocalDateTime expiresAt) {
+        return Math.max(0, Duration.between(LocalDateTime.now(), expiresAt).toMinutes());
     }
 }
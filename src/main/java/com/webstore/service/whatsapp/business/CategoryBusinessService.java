@@ -4,6 +4,7 @@ import com.webstore.repository.CategoryRepository;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -39,6 +40,15 @@ public class CategoryBusinessService {
         return projection != null ? projection.getCategoryId() : null;
     }
 
+    // Categories without a row in the result (unknown names) are left out of the map
+    public Map<String, Long> getProductCountsByCategoryName(List<String> categoryNames) {
+        if (categoryNames.isEmpty()) return Map.of();
+        return categoryRepository.countProductsByCategoryNames(categoryNames)
+                .stream()
+                .collect(Collectors.toMap(CategoryRepository.CategoryProductCountProjection::getCategoryName,
+                        CategoryRepository.CategoryProductCountProjection::getProductCount));
+    }
+
     public boolean shouldUseButtonsForCategories() {
         return getTotalCategoryCount() <= 3;
     }
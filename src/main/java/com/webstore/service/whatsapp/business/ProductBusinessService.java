@@ -1,39 +1,75 @@
 package com.webstore.service.whatsapp.business;
 
 import com.webstore.dto.response.ProductResponseDto;
-import com.webstore.entity.ProductPrice;
-import com.webstore.repository.ProductPriceRepository;
+import com.webstore.dto.response.ProductResponseDto.PriceInfoDto;
 import com.webstore.repository.ProductRepository;
+import com.webstore.repository.ProductRepository.ProductNameProjection;
+import com.webstore.service.NewestProductsService;
+import com.webstore.service.PriceMatrixService;
+import com.webstore.service.ProductPopularityService;
 import com.webstore.service.ProductService;
+import com.webstore.service.PromotionService;
 import com.webstore.service.whatsapp.business.CategoryBusinessService;
+import com.webstore.util.MoneyFormatter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class ProductBusinessService {
 
+    private static final String PRICE_NOT_AVAILABLE = "Price not available";
+
     private final ProductRepository productRepository;
-    private final ProductPriceRepository productPriceRepository;
+    private final PriceMatrixService priceMatrixService;
+    private final PromotionService promotionService;
     private final ProductService productService;
     private final CategoryBusinessService categoryBusinessService;
+    private final NewestProductsService newestProductsService;
+    private final ProductPopularityService productPopularityService;
+    private final MoneyFormatter moneyFormatter;
+    private final String preferredCurrencyCode;
+    private final boolean popularFirst;
 
     public ProductBusinessService(ProductRepository productRepository,
-                                  ProductPriceRepository productPriceRepository,
+                                  PriceMatrixService priceMatrixService,
+                                  PromotionService promotionService,
                                   ProductService productService,
-                                  CategoryBusinessService categoryBusinessService) {
+                                  CategoryBusinessService categoryBusinessService,
+                                  NewestProductsService newestProductsService,
+                                  ProductPopularityService productPopularityService,
+                                  MoneyFormatter moneyFormatter,
+                                  @Value("${prices.preferred-currency-code:INR}") String preferredCurrencyCode,
+                                  @Value("${whatsapp.product-list.popular-first:false}") boolean popularFirst) {
         this.productRepository = productRepository;
-        this.productPriceRepository = productPriceRepository;
+        this.priceMatrixService = priceMatrixService;
+        this.promotionService = promotionService;
         this.productService = productService;
         this.categoryBusinessService = categoryBusinessService;
+        this.newestProductsService = newestProductsService;
+        this.productPopularityService = productPopularityService;
+        this.moneyFormatter = moneyFormatter;
+        this.preferredCurrencyCode = preferredCurrencyCode;
+        this.popularFirst = popularFirst;
     }
 
-    // ✅ Get product names by category ID
+    // ✅ Get product names by category ID, most popular first when whatsapp.product-list.popular-first is set
     public List<String> getProductNamesByCategory(Integer categoryId) {
         if (categoryId == null) return Collections.emptyList();
-        return productRepository.findProductNamesByCategoryId(categoryId);
+        if (!popularFirst) {
+            return productRepository.findProductNamesByCategoryId(categoryId);
+        }
+        return productPopularityService.popularFirst(
+                        productRepository.findProductIdsAndNamesByCategoryId(categoryId),
+                        ProductNameProjection::getProductId).stream()
+                .map(ProductNameProjection::getProductName)
+                .toList();
     }
 
     // ✅ Get product names by category NAME
@@ -43,6 +79,13 @@ public class ProductBusinessService {
         return getProductNamesByCategory(categoryId);
     }
 
+    // Names of the newest products across the catalog, newest first; served from memory
+    public List<String> getNewestProductNames(int limit) {
+        return newestProductsService.getNewestProducts(limit).stream()
+                .map(ProductResponseDto::getProductName)
+                .toList();
+    }
+
     public Integer getProductIdByName(String productName) {
         return productRepository.findProductIdByProductName(productName);
     }
@@ -52,22 +95,39 @@ public class ProductBusinessService {
     }
 
     public String getProductPriceDisplay(Integer productId) {
-        List<ProductPrice> productPrices = productPriceRepository.findByProductProductId(productId);
-        if (productPrices.isEmpty()) {
-            return "Price not available";
-        }
+        return getPreferredPrice(productId)
+                .map(this::formatPrice)
+                .orElse(PRICE_NOT_AVAILABLE);
+    }
 
-        ProductPrice inrPrice = productPrices.stream()
-                .filter(pp -> "INR".equals(pp.getCurrency().getCurrencyCode()))
-                .findFirst()
-                .orElse(productPrices.get(0));
+    // Price display for a whole page of products in one pass over the price matrix
+    public Map<Integer, String> getProductPriceDisplays(Collection<Integer> productIds) {
+        Map<Integer, PriceInfoDto> prices = priceMatrixService.getPreferredPrices(productIds, preferredCurrencyCode);
+        promotionService.applyPromotions(prices.values());
+        Map<Integer, String> displays = new HashMap<>();
+        for (Integer productId : productIds) {
+            PriceInfoDto price = prices.get(productId);
+            displays.put(productId, price != null ? formatPrice(price) : PRICE_NOT_AVAILABLE);
+        }
+        return displays;
+    }
 
-        BigDecimal priceInRupees = new BigDecimal(inrPrice.getPriceAmount()).divide(BigDecimal.valueOf(100));
-        return String.format("%s %.2f", inrPrice.getCurrency().getCurrencySymbol(), priceInRupees);
+    public Optional<PriceInfoDto> getPreferredPrice(Integer productId) {
+        Optional<PriceInfoDto> price = priceMatrixService.getPreferredPrice(productId, preferredCurrencyCode);
+        price.ifPresent(p -> promotionService.applyPromotions(List.of(p)));
+        return price;
     }
 
-    public List<ProductPrice> getProductPrices(Integer productId) {
-        return productPriceRepository.findByProductProductId(productId);
+    // A promotional price is shown with the list price struck through, e.g. "₹399.00 ~₹499.00~"
+    public String formatPrice(PriceInfoDto price) {
+        if (price.getPromotionalPriceAmount() == null) {
+            return moneyFormatter.format(price.getCurrencySymbol(), price.getPriceAmount(), price.getMinorUnitExponent());
+        }
+        StringBuilder out = new StringBuilder(32);
+        moneyFormatter.appendTo(out, price.getCurrencySymbol(), price.getPromotionalPriceAmount(), price.getMinorUnitExponent());
+        out.append(" ~");
+        moneyFormatter.appendTo(out, price.getCurrencySymbol(), price.getPriceAmount(), price.getMinorUnitExponent());
+        return out.append('~').toString();
     }
 
     public boolean shouldUseButtonsForProducts(List<String> productNames) {
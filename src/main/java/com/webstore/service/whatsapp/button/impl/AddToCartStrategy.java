@@ -1,18 +1,23 @@
 package com.webstore.service.whatsapp.button.impl;
 
-import com.webstore.dto.response.ProductResponseDto;
-import com.webstore.service.whatsapp.business.ProductBusinessService;
+import com.webstore.dto.response.StockReservationResponseDto;
+import com.webstore.enums.whatsapp.ProductInteraction;
+import com.webstore.service.ProductPopularityService;
+import com.webstore.service.whatsapp.business.CartBusinessService;
 import com.webstore.service.whatsapp.button.ButtonActionStrategy;
 import com.webstore.service.whatsapp.core.WhatsAppMessageSender;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
 
 @Component
 @RequiredArgsConstructor
 public class AddToCartStrategy implements ButtonActionStrategy {
 
-    private final ProductBusinessService productService;
+    private final CartBusinessService cartService;
     private final WhatsAppMessageSender messageSender;
+    private final ProductPopularityService popularityService;
 
     @Override
     public boolean supports(String buttonId) {
@@ -24,14 +29,18 @@ public class AddToCartStrategy implements ButtonActionStrategy {
         String productIdStr = buttonId.replace("add_cart_", "");
         try {
             Integer productId = Integer.parseInt(productIdStr);
-            ProductResponseDto product = productService.getProductById(productId);
-            if (product != null) {
-                String echoMessage = String.format(
-                        "🛒 *Button Selected: Add to Cart*\n\n📦 Product: %s\n\n✅ You selected to add this item to your cart!\n\nType 'categories' to continue shopping.",
-                        product.getProductName()
-                );
-                messageSender.sendTextMessage(phoneNumberId, from, echoMessage);
-            }
+            StockReservationResponseDto item = cartService.addProductToCart(from, productId, 1);
+            popularityService.record(ProductInteraction.CART_ADD, productId);
+            String message = String.format(
+                    "🛒 *Added to Cart*\n\n📦 Product: %s\n\n✅ We're holding this item for you until %s.\n\nType 'cart' to view your cart or 'categories' to continue shopping.",
+                    item.getProductName(), item.getExpiresAt().toLocalTime().withNano(0)
+            );
+            messageSender.sendTextMessage(phoneNumberId, from, message);
+        } catch (ResponseStatusException e) {
+            String message = e.getStatusCode() == HttpStatus.CONFLICT
+                    ? "😔 Sorry, this item is out of stock right now. Type 'categories' to continue shopping."
+                    : "Sorry, there was an error processing your Add to Cart selection.";
+            messageSender.sendTextMessage(phoneNumberId, from, message);
         } catch (Exception e) {
             messageSender.sendTextMessage(phoneNumberId, from,
                     "Sorry, there was an error processing your Add to Cart selection.");
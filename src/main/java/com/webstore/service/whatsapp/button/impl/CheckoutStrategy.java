@@ -1,18 +1,25 @@
 package com.webstore.service.whatsapp.button.impl;
 
-import com.webstore.dto.response.ProductResponseDto;
-import com.webstore.service.whatsapp.business.ProductBusinessService;
+import com.webstore.enums.whatsapp.ProductInteraction;
+import com.webstore.service.ProductPopularityService;
+import com.webstore.service.whatsapp.business.CartBusinessService;
 import com.webstore.service.whatsapp.button.ButtonActionStrategy;
+import com.webstore.service.whatsapp.core.WhatsAppMessageContext;
 import com.webstore.service.whatsapp.core.WhatsAppMessageSender;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.UUID;
 
 @Component
 @RequiredArgsConstructor
 public class CheckoutStrategy implements ButtonActionStrategy {
 
-    private final ProductBusinessService productService;
+    private final CartBusinessService cartService;
     private final WhatsAppMessageSender messageSender;
+    private final ProductPopularityService popularityService;
 
     @Override
     public boolean supports(String buttonId) {
@@ -24,19 +31,23 @@ public class CheckoutStrategy implements ButtonActionStrategy {
         String productIdStr = buttonId.replace("checkout_", "");
         try {
             Integer productId = Integer.parseInt(productIdStr);
-            ProductResponseDto product = productService.getProductById(productId);
-            if (product != null) {
-                String echoMessage = String.format(
-                        "💳 *Button Selected: Checkout*\n\n📦 Product: %s\n\n✅ You selected to checkout with this item!\n\nType 'categories' to continue shopping.",
-                        product.getProductName()
-                );
-                messageSender.sendTextMessage(phoneNumberId, from, echoMessage);
-            }
+            // The order confirmation is queued by the checkout and sent once the order has committed
+            cartService.checkout(phoneNumberId, from, productId, idempotencyKey());
+            popularityService.record(ProductInteraction.CHECKOUT, productId);
+        } catch (ResponseStatusException e) {
+            String message = e.getStatusCode() == HttpStatus.CONFLICT
+                    ? "😔 Sorry, we couldn't place your order: " + e.getReason() + "\n\nType 'cart' to review your cart."
+                    : "Sorry, there was an error processing your Checkout selection.";
+            messageSender.sendTextMessage(phoneNumberId, from, message);
         } catch (Exception e) {
             messageSender.sendTextMessage(phoneNumberId, from,
                     "Sorry, there was an error processing your Checkout selection.");
         }
     }
 
-
+    // A retried webhook delivers the same message id, so it maps to the same order
+    private String idempotencyKey() {
+        String messageId = WhatsAppMessageContext.getMessageId();
+        return "wa:" + (messageId != null ? messageId : UUID.randomUUID().toString());
+    }
 }
@@ -1,5 +1,7 @@
 package com.webstore.service.whatsapp.button.impl;
 
+import com.webstore.enums.whatsapp.ProductInteraction;
+import com.webstore.service.ProductPopularityService;
 import com.webstore.service.whatsapp.business.ProductBusinessService;
 import com.webstore.service.whatsapp.button.ButtonActionStrategy;
 import com.webstore.service.whatsapp.core.WhatsAppMessageSender;
@@ -12,13 +14,16 @@ public class ProductViewStrategy implements ButtonActionStrategy {
     private final ProductBusinessService productService;
     private final ProductFlowService productFlowService;
     private final WhatsAppMessageSender messageSender;
+    private final ProductPopularityService popularityService;
 
     public ProductViewStrategy(ProductBusinessService productService,
                                ProductFlowService productFlowService,
-                               WhatsAppMessageSender messageSender) {
+                               WhatsAppMessageSender messageSender,
+                               ProductPopularityService popularityService) {
         this.productService = productService;
         this.productFlowService = productFlowService;
         this.messageSender = messageSender;
+        this.popularityService = popularityService;
     }
 
     @Override
@@ -32,6 +37,7 @@ public class ProductViewStrategy implements ButtonActionStrategy {
             Integer productId = Integer.parseInt(buttonId.replace("view_product_", ""));
             var product = productService.getProductById(productId);
             if (product != null) {
+                popularityService.record(ProductInteraction.VIEW, productId);
                 productFlowService.sendProductDetails("v22.0", phoneNumberId, from, product.getProductName());
             } else {
                 messageSender.sendTextMessage(phoneNumberId, from, "Product not found.");
@@ -0,0 +1,133 @@
+package com.webstore.service.whatsapp.core;
+
+import com.webstore.configuration.WhatsAppConfiguration;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+ * Sends queued WhatsApp messages.
+ *
+ * A batch is claimed with one auto-committed statement (FOR UPDATE SKIP LOCKED) that also pushes its
+ * next_attempt_at out by the retry delay; that lease keeps other instances off the batch while it is being
+ * sent. The Graph API calls then run with no transaction or connection held, and the outcome is recorded
+ * with one more short statement. A message whose send failed or whose sender died is picked up again once
+ * its lease runs out, until max-attempts.
+ */
+@Slf4j
+@Component
+public class OutboundMessageDispatcher {
+
+    private static final String CLAIM_SQL =
+            "UPDATE web_store.outbound_messages m " +
+            "SET attempts = m.attempts + 1, " +
+            "    next_attempt_at = CURRENT_TIMESTAMP + CAST(? AS BIGINT) * INTERVAL '1 millisecond' " +
+            "FROM (SELECT id FROM web_store.outbound_messages " +
+            "      WHERE status = 'PENDING' AND next_attempt_at <= CURRENT_TIMESTAMP " +
+            "      ORDER BY next_attempt_at, id " +
+            "      LIMIT ? " +
+            "      FOR UPDATE SKIP LOCKED) claimed " +
+            "WHERE m.id = claimed.id " +
+            "RETURNING m.id, m.phone_number_id, m.recipient, m.body, m.attempts";
+
+    private static final String MARK_SENT_SQL =
+            "UPDATE web_store.outbound_messages SET status = 'SENT', sent_at = CURRENT_TIMESTAMP, last_error = NULL " +
+            "WHERE id = ANY (?)";
+
+    // Stays PENDING (retried when the lease expires) until the attempt budget is spent
+    private static final String MARK_FAILED_SQL =
+            "UPDATE web_store.outbound_messages " +
+            "SET last_error = ?, status = CASE WHEN attempts >= ? THEN 'FAILED' ELSE status END " +
+            "WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final WhatsAppMessageSender messageSender;
+    private final WhatsAppConfiguration.Outbound config;
+    private final ExecutorService senders;
+    private final Counter sent;
+    private final Counter failed;
+
+    public OutboundMessageDispatcher(JdbcTemplate jdbcTemplate,
+            WhatsAppMessageSender messageSender,
+            WhatsAppConfiguration whatsAppConfig,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.messageSender = messageSender;
+        this.config = whatsAppConfig.getOutbound();
+        this.senders = Executors.newFixedThreadPool(config.getSenderThreads());
+        this.sent = Counter.builder("whatsapp.outbound.sent").register(meterRegistry);
+        this.failed = Counter.builder("whatsapp.outbound.failed").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${whatsapp.outbound.poll-interval-ms:500}")
+    public void poll() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        List<QueuedMessage> batch;
+        do {
+            batch = jdbcTemplate.query(CLAIM_SQL, QUEUED_MESSAGE_MAPPER, config.getRetryDelayMs(), config.getBatchSize());
+            if (!batch.isEmpty()) {
+                send(batch);
+            }
+        } while (batch.size() == config.getBatchSize());
+    }
+
+    private void send(List<QueuedMessage> batch) {
+        List<CompletableFuture<Boolean>> results = batch.stream()
+                .map(message -> CompletableFuture.supplyAsync(
+                        () -> messageSender.sendTextMessage(message.phoneNumberId(), message.recipient(), message.body()),
+                        senders))
+                .toList();
+
+        List<Long> sentIds = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            QueuedMessage message = batch.get(i);
+            boolean ok;
+            try {
+                ok = results.get(i).join();
+            } catch (RuntimeException e) {
+                ok = false;
+            }
+            if (ok) {
+                sentIds.add(message.id());
+            } else {
+                failed.increment();
+                jdbcTemplate.update(MARK_FAILED_SQL, "Graph API send failed (attempt " + message.attempts() + ")",
+                        config.getMaxAttempts(), message.id());
+                log.warn("Outbound message {} to {} failed on attempt {}", message.id(), message.recipient(),
+                        message.attempts());
+            }
+        }
+        if (!sentIds.isEmpty()) {
+            jdbcTemplate.update(MARK_SENT_SQL, (Object) sentIds.toArray(new Long[0]));
+            sent.increment(sentIds.size());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        senders.shutdown();
+    }
+
+    private record QueuedMessage(long id, String phoneNumberId, String recipient, String body, int attempts) {
+    }
+
+    private static final RowMapper<QueuedMessage> QUEUED_MESSAGE_MAPPER = (rs, rowNum) -> new QueuedMessage(
+            rs.getLong("id"),
+            rs.getString("phone_number_id"),
+            rs.getString("recipient"),
+            rs.getString("body"),
+            rs.getInt("attempts"));
+}
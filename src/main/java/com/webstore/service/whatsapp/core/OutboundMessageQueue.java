@@ -0,0 +1,28 @@
+package com.webstore.service.whatsapp.core;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/*
+ * Queues a WhatsApp text message in web_store.outbound_messages. The insert joins the caller's transaction,
+ * so the message exists if and only if the business change commits; OutboundMessageDispatcher sends it.
+ */
+@Service
+public class OutboundMessageQueue {
+
+    private static final String ENQUEUE_SQL =
+            "INSERT INTO web_store.outbound_messages (phone_number_id, recipient, body) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OutboundMessageQueue(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueText(String phoneNumberId, String recipient, String body) {
+        jdbcTemplate.update(ENQUEUE_SQL, phoneNumberId, recipient, body);
+    }
+}
@@ -0,0 +1,27 @@
+package com.webstore.service.whatsapp.core;
+
+/*
+ * The inbound WhatsApp message being handled on this thread. Set by WebhookValidator for the duration of
+ * one webhook, so handlers deep in the strategy chain can derive idempotency keys from the message id
+ * without it being threaded through every handler signature.
+ */
+public final class WhatsAppMessageContext {
+
+    private static final ThreadLocal<String> MESSAGE_ID = new ThreadLocal<>();
+
+    private WhatsAppMessageContext() {
+    }
+
+    public static void setMessageId(String messageId) {
+        MESSAGE_ID.set(messageId);
+    }
+
+    /* WhatsApp message id ("wamid...") of the current webhook, or null outside webhook handling. */
+    public static String getMessageId() {
+        return MESSAGE_ID.get();
+    }
+
+    public static void clear() {
+        MESSAGE_ID.remove();
+    }
+}
@@ -1,7 +1,11 @@
 package com.webstore.service.whatsapp.core;
 
 import com.webstore.configuration.WhatsAppConfiguration;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.webstore.dto.request.whatsapp.WhatsAppRequestDto;
+import com.webstore.monitoring.GraphApiCallEvent;
+import com.webstore.monitoring.WebhookTurnContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpEntity;
@@ -9,6 +13,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
 
 @Service
@@ -18,23 +23,26 @@ public class WhatsAppMessageSender {
 
     private final WhatsAppConfiguration whatsAppConfig;
     private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
 
-    public WhatsAppMessageSender(WhatsAppConfiguration whatsAppConfig, RestTemplate restTemplate) {
+    public WhatsAppMessageSender(WhatsAppConfiguration whatsAppConfig, RestTemplate restTemplate,
+                                 ObjectMapper objectMapper) {
         this.whatsAppConfig = whatsAppConfig;
         this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
     }
 
-    public void sendMessage(String phoneNumberId, WhatsAppRequestDto requestBody, String messageType) {
+    /* Returns false if the Graph API call failed; the failure is logged here. */
+    public boolean sendMessage(String phoneNumberId, WhatsAppRequestDto requestBody, String messageType) {
         String url = buildUrl(phoneNumberId);
 
-        // ✅ ADDED: Debug logging to see the actual request
-        logger.info("Sending {} to URL: {}", messageType, url);
-        logger.info("Request body: {}", requestBody);
+        logger.debug("Sending {} to URL: {}", messageType, url);
+        logger.debug("Request body: {}", requestBody);
 
         try {
-            ResponseEntity<String> response = restTemplate.postForEntity(
-                    url, new HttpEntity<>(requestBody, createHeaders()), String.class);
-            logger.info("{} sent successfully: {}", messageType, response.getBody());
+            ResponseEntity<String> response = post(url, requestBody, messageType);
+            logger.debug("{} sent successfully: {}", messageType, response.getBody());
+            return true;
         } catch (Exception e) {
             logger.error("Failed to send {}: {}", messageType, e.getMessage());
 
@@ -51,12 +59,41 @@ public class WhatsAppMessageSender {
                 WhatsAppRequestDto fallbackRequest = WhatsAppRequestDto.createTextMessage(requestBody.getTo(), fallbackMessage);
                 sendMessage(phoneNumberId, fallbackRequest, "fallback text message");
             }
+            return false;
+        }
+    }
+
+    /*
+     * Posts the request, serialized here rather than by the RestTemplate so the GraphApiCallEvent and the
+     * webhook turn can tell serialization time from time waiting on the Graph API.
+     */
+    private ResponseEntity<String> post(String url, WhatsAppRequestDto requestBody, String messageType)
+            throws JsonProcessingException {
+        GraphApiCallEvent event = new GraphApiCallEvent(messageType);
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(requestBody);
+            event.serializationTime = System.nanoTime() - start;
+            event.requestBytes = json.length;
+            ResponseEntity<String> response = restTemplate.postForEntity(
+                    url, new HttpEntity<>(json, createHeaders()), String.class);
+            event.status = response.getStatusCode().value();
+            event.success = true;
+            return response;
+        } catch (RestClientResponseException e) {
+            event.status = e.getStatusCode().value();
+            throw e;
+        } finally {
+            WebhookTurnContext.addGraphApiCall(System.nanoTime() - start, event.serializationTime,
+                    event.requestBytes);
+            event.commit();
         }
     }
 
-    public void sendTextMessage(String phoneNumberId, String to, String messageText) {
+    public boolean sendTextMessage(String phoneNumberId, String to, String messageText) {
         WhatsAppRequestDto requestBody = WhatsAppRequestDto.createTextMessage(to, messageText);
-        sendMessage(phoneNumberId, requestBody, "Text message");
+        return sendMessage(phoneNumberId, requestBody, "Text message");
     }
 
     // ✅ FIXED: Correct URL format with phone number ID in path
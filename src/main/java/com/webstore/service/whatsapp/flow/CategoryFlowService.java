@@ -6,7 +6,6 @@ import com.webstore.dto.request.whatsapp.WhatsAppRequestDto;
 import com.webstore.service.whatsapp.core.WhatsAppMessageSender;
 import com.webstore.service.whatsapp.builder.MessageBuilderService;
 import com.webstore.service.whatsapp.business.CategoryBusinessService;
-import com.webstore.service.whatsapp.business.ProductBusinessService;
 import com.webstore.util.MessageFormatter;
 import com.webstore.util.PaginationUtil;
 import org.slf4j.Logger;
@@ -15,6 +14,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,20 +23,17 @@ public class CategoryFlowService {
     private static final Logger logger = LoggerFactory.getLogger(CategoryFlowService.class);
 
     private final CategoryBusinessService categoryService;
-    private final ProductBusinessService productService;
     private final WhatsAppMessageSender messageSender;
     private final MessageBuilderService messageBuilder;
     private final MessageFormatter formatter;
     private final PaginationUtil paginationUtil;
 
     public CategoryFlowService(CategoryBusinessService categoryService,
-                               ProductBusinessService productService,
                                WhatsAppMessageSender messageSender,
                                MessageBuilderService messageBuilder,
                                MessageFormatter formatter,
                                PaginationUtil paginationUtil) {
         this.categoryService = categoryService;
-        this.productService = productService;
         this.messageSender = messageSender;
         this.messageBuilder = messageBuilder;
         this.formatter = formatter;
@@ -65,16 +62,12 @@ public class CategoryFlowService {
                 paginationUtil.paginate(allCategories, pageNumber);
 
         List<WhatsAppRequestDto.Row> rows = new ArrayList<>();
+        Map<String, Long> productCounts = categoryService.getProductCountsByCategoryName(paginationResult.getItems());
 
         // Add category items
         for (int i = 0; i < paginationResult.getItems().size(); i++) {
             String categoryName = paginationResult.getItems().get(i);
-            Integer categoryId = categoryService.getCategoryIdByName(categoryName);
-
-            int productCount = 0;
-            if (categoryId != null) {
-                productCount = productService.getProductNamesByCategory(categoryId).size();
-            }
+            long productCount = productCounts.getOrDefault(categoryName, 0L);
 
             String rowDescription = String.format("%d products available", productCount);
             int actualIndex = (pageNumber - 1) * 7 + i + 1;
@@ -1,7 +1,7 @@
 package com.webstore.service.whatsapp.flow;
 
-import com.webstore.entity.ProductPrice;
 import com.webstore.dto.response.ProductResponseDto;
+import com.webstore.dto.response.ProductResponseDto.PriceInfoDto;
 import com.webstore.exception.CategoryNotFoundException;
 import com.webstore.exception.ProductNotFoundException;
 import com.webstore.service.whatsapp.business.CategoryBusinessService;
@@ -17,8 +17,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class ProductFlowService {
@@ -135,23 +135,16 @@ public class ProductFlowService {
             throw new ProductNotFoundException(productName);
         }
 
-        List<ProductPrice> productPrices = productService.getProductPrices(productId);
-        if (productPrices.isEmpty()) {
+        Optional<PriceInfoDto> price = productService.getPreferredPrice(productId);
+        if (price.isEmpty()) {
             messageSender.sendTextMessage(phoneNumberId, recipientPhoneNumber,
                     "No pricing information available for " + productName);
             return;
         }
 
-        ProductPrice inrPrice = productPrices.stream()
-                .filter(pp -> "INR".equals(pp.getCurrency().getCurrencyCode()))
-                .findFirst()
-                .orElse(productPrices.get(0));
-
-        BigDecimal priceInRupees = new BigDecimal(inrPrice.getPriceAmount()).divide(BigDecimal.valueOf(100));
         String priceDetails = String.format(
-                "💰 *Price Information*\n\n📦 Product: %s\n💵 Price: %s %.2f\n💱 Currency: %s\n\nWould you like to add this to your cart?",
-                productName, inrPrice.getCurrency().getCurrencySymbol(), priceInRupees,
-                inrPrice.getCurrency().getCurrencyCode());
+                "💰 *Price Information*\n\n📦 Product: %s\n💵 Price: %s\n💱 Currency: %s\n\nWould you like to add this to your cart?",
+                productName, productService.formatPrice(price.get()), price.get().getCurrencyCode());
 
         List<WhatsAppRequestDto.Button> buttons = List.of(
                 messageBuilder.createButton("add_cart_" + productId, "Add to Cart"),
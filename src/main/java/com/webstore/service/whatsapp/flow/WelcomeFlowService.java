@@ -2,6 +2,7 @@ package com.webstore.service.whatsapp.flow;
 
 import com.webstore.dto.request.whatsapp.WhatsAppRequestDto;
 import com.webstore.service.whatsapp.builder.MessageBuilderService;
+import com.webstore.service.whatsapp.business.ProductBusinessService;
 import com.webstore.service.whatsapp.core.WhatsAppMessageSender;
 import org.springframework.stereotype.Service;
 
@@ -10,13 +11,18 @@ import java.util.List;
 @Service
 public class WelcomeFlowService {
 
+    private static final int NEW_ARRIVALS_SHOWN = 3;
+
     private final WhatsAppMessageSender messageSender;
     private final MessageBuilderService messageBuilder;
+    private final ProductBusinessService productBusinessService;
 
     public WelcomeFlowService(WhatsAppMessageSender messageSender,
-                              MessageBuilderService messageBuilder) {
+                              MessageBuilderService messageBuilder,
+                              ProductBusinessService productBusinessService) {
         this.messageSender = messageSender;
         this.messageBuilder = messageBuilder;
+        this.productBusinessService = productBusinessService;
     }
 
     public void sendWelcomeMessage(String version, String phoneNumberId, String recipientPhoneNumber) {
@@ -28,11 +34,17 @@ public class WelcomeFlowService {
         WhatsAppRequestDto requestBody = messageBuilder.buildButtonMessage(
                 recipientPhoneNumber,
                 "👋 Welcome to WebStore",
-                "Thanks for joining us! What would you like to do next?",
+                "Thanks for joining us! " + newArrivals() + "What would you like to do next?",
                 "Choose an option below",
                 buttons
         );
 
         messageSender.sendMessage(phoneNumberId, requestBody, "Welcome message");
     }
+
+    // e.g. "🆕 Just in: Carrot, Spinach, Mango. " - empty while the store has no products
+    private String newArrivals() {
+        List<String> names = productBusinessService.getNewestProductNames(NEW_ARRIVALS_SHOWN);
+        return names.isEmpty() ? "" : "🆕 Just in: " + String.join(", ", names) + ". ";
+    }
 }
\ No newline at end of file
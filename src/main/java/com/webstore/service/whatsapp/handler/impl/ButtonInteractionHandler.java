@@ -1,11 +1,15 @@
 package com.webstore.service.whatsapp.handler.impl;
 
+import com.webstore.monitoring.SqlStatementContext;
+import com.webstore.monitoring.StrategyDispatchEvent;
+import com.webstore.monitoring.WebhookTurnContext;
 import com.webstore.service.whatsapp.button.ButtonActionStrategy;
 import com.webstore.service.whatsapp.core.WhatsAppMessageSender;
 import com.webstore.service.whatsapp.handler.InteractionHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
 
 import java.util.List;
 
@@ -25,11 +29,20 @@ public class ButtonInteractionHandler implements InteractionHandler<String> {
 
     @Override
     public void handle(String phoneNumberId, String from, String buttonId) {
-        logger.info("Handling button click: {}", buttonId);
+        logger.debug("Handling button click: {}", buttonId);
 
         for (ButtonActionStrategy strategy : strategies) {
             if (strategy.supports(buttonId)) {
-                strategy.handle(phoneNumberId, from, buttonId);
+                String strategyName = ClassUtils.getUserClass(strategy).getSimpleName();
+                SqlStatementContext.describe("whatsapp " + strategyName);
+                WebhookTurnContext.describe(strategyName);
+                StrategyDispatchEvent event = new StrategyDispatchEvent("button_reply", buttonId, strategyName);
+                event.begin();
+                try {
+                    strategy.handle(phoneNumberId, from, buttonId);
+                } finally {
+                    event.commit();
+                }
                 return;
             }
         }
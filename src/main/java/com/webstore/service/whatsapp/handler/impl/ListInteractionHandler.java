@@ -1,9 +1,13 @@
 package com.webstore.service.whatsapp.handler.impl;
 
+import com.webstore.monitoring.SqlStatementContext;
+import com.webstore.monitoring.StrategyDispatchEvent;
+import com.webstore.monitoring.WebhookTurnContext;
 import com.webstore.service.whatsapp.core.WhatsAppMessageSender;
 import com.webstore.service.whatsapp.handler.InteractionHandler;
 import com.webstore.service.whatsapp.list.ListActionStrategy;
 import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
 
 import java.util.List;
 
@@ -23,7 +27,16 @@ public class ListInteractionHandler implements InteractionHandler<String> {
     public void handle(String phoneNumberId, String from, String listId) {
         for (ListActionStrategy strategy : strategies) {
             if (strategy.supports(listId)) {
-                strategy.handle(phoneNumberId, from, listId);
+                String strategyName = ClassUtils.getUserClass(strategy).getSimpleName();
+                SqlStatementContext.describe("whatsapp " + strategyName);
+                WebhookTurnContext.describe(strategyName);
+                StrategyDispatchEvent event = new StrategyDispatchEvent("list_reply", listId, strategyName);
+                event.begin();
+                try {
+                    strategy.handle(phoneNumberId, from, listId);
+                } finally {
+                    event.commit();
+                }
                 return;
             }
         }
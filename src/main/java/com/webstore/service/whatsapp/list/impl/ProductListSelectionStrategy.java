@@ -1,6 +1,8 @@
 package com.webstore.service.whatsapp.list.impl;
 
 import com.webstore.dto.response.ProductResponseDto;
+import com.webstore.enums.whatsapp.ProductInteraction;
+import com.webstore.service.ProductPopularityService;
 import com.webstore.service.whatsapp.business.ProductBusinessService;
 import com.webstore.service.whatsapp.core.WhatsAppMessageSender;
 import com.webstore.service.whatsapp.list.ListActionStrategy;
@@ -19,6 +21,7 @@ public class ProductListSelectionStrategy implements ListActionStrategy {
     private final WhatsAppMessageSender messageSender;
     private final PaginationUtil paginationUtil;
     private final MessageFormatter formatter;
+    private final ProductPopularityService popularityService;
 
     @Override
     public boolean supports(String listId) {
@@ -37,6 +40,7 @@ public class ProductListSelectionStrategy implements ListActionStrategy {
                 ProductResponseDto product = productService.getProductById(productId);
 
                 if (product != null) {
+                    popularityService.record(ProductInteraction.SELECTION, productId);
                     String price = productService.getProductPriceDisplay(productId);
                     String message = formatter.formatAddToCartMessage(product.getProductName(), price, categoryName);
                     messageSender.sendTextMessage(phoneNumberId, from, message);
@@ -11,7 +11,9 @@ import com.webstore.util.PaginationUtil;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Component
 public class ProductListDisplayStrategy implements ProductDisplayStrategy {
@@ -58,10 +60,17 @@ public class ProductListDisplayStrategy implements ProductDisplayStrategy {
         PaginationUtil.PaginationResult<String> paginated = paginationUtil.paginate(products, pageNumber);
         List<WhatsAppRequestDto.Row> rows = new ArrayList<>();
 
-        // Add product rows
+        Map<String, Integer> productIds = new LinkedHashMap<>();
         for (String productName : paginated.getItems()) {
-            Integer productId = productService.getProductIdByName(productName);
-            String priceDisplay = productService.getProductPriceDisplay(productId);
+            productIds.put(productName, productService.getProductIdByName(productName));
+        }
+        Map<Integer, String> priceDisplays = productService.getProductPriceDisplays(productIds.values());
+
+        // Add product rows
+        for (Map.Entry<String, Integer> entry : productIds.entrySet()) {
+            String productName = entry.getKey();
+            Integer productId = entry.getValue();
+            String priceDisplay = priceDisplays.get(productId);
             String rowId = String.format("prod_p%d_i%d_c%s", pageNumber, productId, paginationUtil.encodeToBase64(categoryName));
             rows.add(messageBuilder.createRow(rowId, productName, "💰 " + priceDisplay + " • Tap to add to cart"));
         }
@@ -3,6 +3,7 @@ package com.webstore.util;
 import com.webstore.constant.UserRole;
 import com.webstore.dto.response.AuthResponse;
 import com.webstore.entity.User;
+import com.webstore.exception.ClientErrorException;
 import com.webstore.repository.UserRepository;
 import com.webstore.service.GoogleTokenVerificationService;
 import lombok.extern.slf4j.Slf4j;
@@ -55,7 +56,7 @@ public class AdminAuthenticationUtil {
      */
     private User findUserByEmail(String email) {
         return userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResponseStatusException(
+                .orElseThrow(() -> new ClientErrorException(
                         HttpStatus.NOT_FOUND,
                         "Admin user not found with email: " + email));
     }
@@ -67,7 +68,7 @@ public class AdminAuthenticationUtil {
      */
     private void validateAdminRole(User user, String email) {
         if (!UserRole.ADMIN.equalsIgnoreCase(user.getRole())) {
-            throw new ResponseStatusException(
+            throw new ClientErrorException(
                     HttpStatus.FORBIDDEN,
                     "User with email " + email + " is not an admin");
         }
@@ -0,0 +1,517 @@
+package com.webstore.util;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+ * Bitmap index over the filterable product attributes: one BitSet of rows per catalogue, category,
+ * seller, stock bucket and price bucket. A search ANDs the bitmaps of its filters and counts every facet
+ * in one pass over the matching rows, so the page and all facet counts cost a few word-wise ANDs and a
+ * scan instead of a COUNT query per facet value.
+ *
+ * Facet counts follow the usual multi-select rule: the counts of a facet ignore that facet's own filter,
+ * so picking a category still shows how many products the other categories have.
+ *
+ * Rows are appended in product id order and never reused, so row order is product id order. Reads take
+ * the read lock; single-product updates take the write lock and flip a handful of bits.
+ */
+public final class FacetIndex {
+
+    public static final int NONE = 0;
+
+    public enum StockBucket {
+        OUT_OF_STOCK(0, 0),
+        LOW(1, 9),
+        MEDIUM(10, 99),
+        HIGH(100, Integer.MAX_VALUE);
+
+        private final int min;
+        private final int max;
+
+        StockBucket(int min, int max) {
+            this.min = min;
+            this.max = max;
+        }
+
+        public int min() {
+            return min;
+        }
+
+        public int max() {
+            return max;
+        }
+
+        public static StockBucket of(int stock) {
+            return stock <= 0 ? OUT_OF_STOCK : stock < 10 ? LOW : stock < 100 ? MEDIUM : HIGH;
+        }
+    }
+
+    // Attributes of one product; NONE for a missing id and PriceMatrix.NO_PRICE for a missing price
+    public record ProductFacets(int productId, int catalogueId, int categoryId, int sellerId, int stock, long price) {
+    }
+
+    /*
+     * Null fields do not filter; minPrice and maxPrice are inclusive. A seller-scoped query treats sellerId
+     * as a boundary rather than a facet selection: the seller facet is counted over the matches like an
+     * unfiltered one, so it never reveals the other sellers.
+     */
+    public record Query(Integer catalogueId, Integer categoryId, Integer sellerId, StockBucket stockBucket,
+            Long minPrice, Long maxPrice, int offset, int limit, boolean sellerScoped) {
+
+        public Query(Integer catalogueId, Integer categoryId, Integer sellerId, StockBucket stockBucket,
+                Long minPrice, Long maxPrice, int offset, int limit) {
+            this(catalogueId, categoryId, sellerId, stockBucket, minPrice, maxPrice, offset, limit, false);
+        }
+    }
+
+    /*
+     * Counts are indexed by id (catalogue, category, seller), StockBucket ordinal or price bucket;
+     * price bucket i covers [priceBoundaries[i - 1], priceBoundaries[i]).
+     */
+    public record Result(int total, int[] productIds, Map<Integer, Integer> catalogueCounts,
+            Map<Integer, Integer> categoryCounts, Map<Integer, Integer> sellerCounts, int[] stockCounts,
+            int[] priceCounts) {
+    }
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Upper bounds (exclusive) of the price buckets, ascending, in minor units
+    private final long[] priceBoundaries;
+
+    private int[] rowByProductId = new int[0];
+    private int[] productIdByRow = new int[INITIAL_CAPACITY];
+    private int[] catalogueByRow = new int[INITIAL_CAPACITY];
+    private int[] categoryByRow = new int[INITIAL_CAPACITY];
+    private int[] sellerByRow = new int[INITIAL_CAPACITY];
+    private int[] stockByRow = new int[INITIAL_CAPACITY];
+    private long[] priceByRow = new long[INITIAL_CAPACITY];
+    // -1 for a product without a price
+    private int[] priceBucketByRow = new int[INITIAL_CAPACITY];
+    private int rowCount;
+
+    // Counts over all indexed products, kept current by every write so an unfiltered facet costs nothing;
+    // the id-indexed ones also size the count arrays of a search
+    private int[] catalogueTotals = new int[0];
+    private int[] categoryTotals = new int[0];
+    private int[] sellerTotals = new int[0];
+    private final int[] stockTotals = new int[StockBucket.values().length];
+    private final int[] priceTotals;
+
+    private final BitSet live = new BitSet();
+    private final Map<Integer, BitSet> byCatalogue = new HashMap<>();
+    private final Map<Integer, BitSet> byCategory = new HashMap<>();
+    private final Map<Integer, BitSet> bySeller = new HashMap<>();
+    private final BitSet[] byStock = newBitSets(StockBucket.values().length);
+    private final BitSet[] byPrice;
+
+    public FacetIndex(long[] priceBoundaries) {
+        this.priceBoundaries = priceBoundaries.clone();
+        Arrays.sort(this.priceBoundaries);
+        this.byPrice = newBitSets(this.priceBoundaries.length + 1);
+        this.priceTotals = new int[this.priceBoundaries.length + 1];
+    }
+
+    public long[] priceBoundaries() {
+        return priceBoundaries.clone();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ids of the indexed products, ascending
+    public int[] productIds() {
+        lock.readLock().lock();
+        try {
+            return live.stream().map(row -> productIdByRow[row]).toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /* --------------------------------------------------------------- writes */
+
+    // Replaces the whole index; products should come in ascending id order to keep pages in id order
+    public void load(Collection<ProductFacets> products) {
+        lock.writeLock().lock();
+        try {
+            rowByProductId = new int[0];
+            rowCount = 0;
+            catalogueTotals = new int[0];
+            categoryTotals = new int[0];
+            sellerTotals = new int[0];
+            Arrays.fill(stockTotals, 0);
+            Arrays.fill(priceTotals, 0);
+            live.clear();
+            byCatalogue.clear();
+            byCategory.clear();
+            bySeller.clear();
+            Arrays.stream(byStock).forEach(BitSet::clear);
+            Arrays.stream(byPrice).forEach(BitSet::clear);
+            products.forEach(this::putLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(ProductFacets product) {
+        lock.writeLock().lock();
+        try {
+            putLocked(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int productId) {
+        lock.writeLock().lock();
+        try {
+            int row = rowOf(productId);
+            if (row >= 0 && live.get(row)) {
+                clearBits(row);
+                live.clear(row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void updateStock(int productId, int stock) {
+        lock.writeLock().lock();
+        try {
+            int row = rowOf(productId);
+            if (row < 0 || !live.get(row)) {
+                return;
+            }
+            int from = StockBucket.of(stockByRow[row]).ordinal();
+            int to = StockBucket.of(stock).ordinal();
+            if (from != to) {
+                byStock[from].clear(row);
+                stockTotals[from]--;
+                byStock[to].set(row);
+                stockTotals[to]++;
+            }
+            stockByRow[row] = stock;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void updatePrice(int productId, long price) {
+        lock.writeLock().lock();
+        try {
+            int row = rowOf(productId);
+            if (row < 0 || !live.get(row)) {
+                return;
+            }
+            if (priceBucketByRow[row] >= 0) {
+                byPrice[priceBucketByRow[row]].clear(row);
+                priceTotals[priceBucketByRow[row]]--;
+            }
+            priceByRow[row] = price;
+            priceBucketByRow[row] = price != PriceMatrix.NO_PRICE ? priceBucket(price) : -1;
+            if (priceBucketByRow[row] >= 0) {
+                byPrice[priceBucketByRow[row]].set(row);
+                priceTotals[priceBucketByRow[row]]++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void putLocked(ProductFacets product) {
+        int row = rowOf(product.productId());
+        if (row >= 0) {
+            if (live.get(row)) {
+                clearBits(row);
+            }
+        } else {
+            row = appendRow(product.productId());
+        }
+        catalogueByRow[row] = product.catalogueId();
+        categoryByRow[row] = product.categoryId();
+        sellerByRow[row] = product.sellerId();
+        stockByRow[row] = product.stock();
+        priceByRow[row] = product.price();
+        priceBucketByRow[row] = product.price() != PriceMatrix.NO_PRICE ? priceBucket(product.price()) : -1;
+
+        live.set(row);
+        setIn(byCatalogue, product.catalogueId(), row);
+        setIn(byCategory, product.categoryId(), row);
+        setIn(bySeller, product.sellerId(), row);
+        catalogueTotals = adjust(catalogueTotals, product.catalogueId(), 1);
+        categoryTotals = adjust(categoryTotals, product.categoryId(), 1);
+        sellerTotals = adjust(sellerTotals, product.sellerId(), 1);
+        byStock[StockBucket.of(product.stock()).ordinal()].set(row);
+        stockTotals[StockBucket.of(product.stock()).ordinal()]++;
+        if (priceBucketByRow[row] >= 0) {
+            byPrice[priceBucketByRow[row]].set(row);
+            priceTotals[priceBucketByRow[row]]++;
+        }
+    }
+
+    private int appendRow(int productId) {
+        if (productId >= rowByProductId.length) {
+            int length = Math.max(productId + 1, rowByProductId.length * 2);
+            int previous = rowByProductId.length;
+            rowByProductId = Arrays.copyOf(rowByProductId, length);
+            Arrays.fill(rowByProductId, previous, length, -1);
+        }
+        if (rowCount == productIdByRow.length) {
+            int capacity = rowCount * 2;
+            productIdByRow = Arrays.copyOf(productIdByRow, capacity);
+            catalogueByRow = Arrays.copyOf(catalogueByRow, capacity);
+            categoryByRow = Arrays.copyOf(categoryByRow, capacity);
+            sellerByRow = Arrays.copyOf(sellerByRow, capacity);
+            stockByRow = Arrays.copyOf(stockByRow, capacity);
+            priceByRow = Arrays.copyOf(priceByRow, capacity);
+            priceBucketByRow = Arrays.copyOf(priceBucketByRow, capacity);
+        }
+        int row = rowCount++;
+        rowByProductId[productId] = row;
+        productIdByRow[row] = productId;
+        return row;
+    }
+
+    private void clearBits(int row) {
+        clearIn(byCatalogue, catalogueByRow[row], row);
+        clearIn(byCategory, categoryByRow[row], row);
+        clearIn(bySeller, sellerByRow[row], row);
+        catalogueTotals = adjust(catalogueTotals, catalogueByRow[row], -1);
+        categoryTotals = adjust(categoryTotals, categoryByRow[row], -1);
+        sellerTotals = adjust(sellerTotals, sellerByRow[row], -1);
+        byStock[StockBucket.of(stockByRow[row]).ordinal()].clear(row);
+        stockTotals[StockBucket.of(stockByRow[row]).ordinal()]--;
+        if (priceBucketByRow[row] >= 0) {
+            byPrice[priceBucketByRow[row]].clear(row);
+            priceTotals[priceBucketByRow[row]]--;
+        }
+    }
+
+    /* ---------------------------------------------------------------- reads */
+
+    public Result search(Query query) {
+        lock.readLock().lock();
+        try {
+            BitSet catalogueFilter = query.catalogueId() != null ? valueBits(byCatalogue, query.catalogueId()) : null;
+            BitSet categoryFilter = query.categoryId() != null ? valueBits(byCategory, query.categoryId()) : null;
+            BitSet sellerFilter = query.sellerId() != null ? valueBits(bySeller, query.sellerId()) : null;
+            BitSet stockFilter = query.stockBucket() != null ? byStock[query.stockBucket().ordinal()] : null;
+            BitSet priceFilter = query.minPrice() != null || query.maxPrice() != null
+                    ? priceRange(query.minPrice(), query.maxPrice())
+                    : null;
+            BitSet[] filters = {catalogueFilter, categoryFilter, sellerFilter, stockFilter, priceFilter};
+
+            BitSet matches = intersect(filters, -1);
+            Counts counts = new Counts(priceBoundaries.length + 1);
+            // Facets without a filter of their own are counted over the matches
+            boolean sellerScoped = query.sellerScoped() && sellerFilter != null;
+            counts.add(matches, isUnfiltered(filters, -1), catalogueFilter == null, categoryFilter == null,
+                    sellerFilter == null || sellerScoped, stockFilter == null, priceFilter == null);
+            // A filtered facet is counted over the matches of all the other filters
+            for (int facet = 0; facet < filters.length; facet++) {
+                if (filters[facet] != null && !(facet == 2 && sellerScoped)) {
+                    counts.add(intersect(filters, facet), isUnfiltered(filters, facet),
+                            facet == 0, facet == 1, facet == 2, facet == 3, facet == 4);
+                }
+            }
+
+            int total = matches.cardinality();
+            int from = Math.max(0, query.offset());
+            int[] page = new int[Math.max(0, Math.min(query.limit(), total - from))];
+            int row = matches.nextSetBit(0);
+            for (int skipped = 0; skipped < from && row >= 0; skipped++) {
+                row = matches.nextSetBit(row + 1);
+            }
+            for (int i = 0; i < page.length && row >= 0; i++) {
+                page[i] = productIdByRow[row];
+                row = matches.nextSetBit(row + 1);
+            }
+            return new Result(total, page, counts.catalogues, counts.categories, counts.sellers,
+                    counts.stock, counts.prices);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet intersect(BitSet[] filters, int skip) {
+        BitSet result = (BitSet) live.clone();
+        for (int i = 0; i < filters.length; i++) {
+            if (i != skip && filters[i] != null) {
+                result.and(filters[i]);
+            }
+        }
+        return result;
+    }
+
+    private static boolean isUnfiltered(BitSet[] filters, int skip) {
+        for (int i = 0; i < filters.length; i++) {
+            if (i != skip && filters[i] != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Whole buckets inside the range are ORed in; only the rows of the two edge buckets are compared
+    private BitSet priceRange(Long minPrice, Long maxPrice) {
+        long min = minPrice != null ? minPrice : Long.MIN_VALUE + 1;
+        long max = maxPrice != null ? maxPrice : Long.MAX_VALUE;
+        if (min > max) {
+            return new BitSet();
+        }
+        int first = priceBucket(min);
+        int last = priceBucket(max);
+        long[] result = new long[(rowCount + 63) >>> 6];
+        for (int bucket = first; bucket <= last; bucket++) {
+            long[] words = byPrice[bucket].toLongArray();
+            boolean whole = bucket > first && bucket < last;
+            for (int word = 0; word < words.length; word++) {
+                if (whole) {
+                    result[word] |= words[word];
+                    continue;
+                }
+                for (long bits = words[word]; bits != 0; bits &= bits - 1) {
+                    int bit = Long.numberOfTrailingZeros(bits);
+                    long price = priceByRow[(word << 6) + bit];
+                    if (price >= min && price <= max) {
+                        result[word] |= 1L << bit;
+                    }
+                }
+            }
+        }
+        return BitSet.valueOf(result);
+    }
+
+    private int priceBucket(long price) {
+        int index = Arrays.binarySearch(priceBoundaries, price);
+        // A price equal to a boundary starts the next bucket
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private int rowOf(int productId) {
+        return productId >= 0 && productId < rowByProductId.length ? rowByProductId[productId] : -1;
+    }
+
+    private static BitSet valueBits(Map<Integer, BitSet> bitmaps, int value) {
+        BitSet bits = bitmaps.get(value);
+        return bits != null ? bits : new BitSet();
+    }
+
+    private static void setIn(Map<Integer, BitSet> bitmaps, int value, int row) {
+        if (value != NONE) {
+            bitmaps.computeIfAbsent(value, v -> new BitSet()).set(row);
+        }
+    }
+
+    private static void clearIn(Map<Integer, BitSet> bitmaps, int value, int row) {
+        BitSet bits = bitmaps.get(value);
+        if (bits != null) {
+            bits.clear(row);
+            if (bits.isEmpty()) {
+                bitmaps.remove(value);
+            }
+        }
+    }
+
+    private static int[] adjust(int[] totals, int value, int delta) {
+        int[] result = value < totals.length ? totals : Arrays.copyOf(totals, Math.max(value + 1, totals.length * 2));
+        result[value] += delta;
+        return result;
+    }
+
+    private static BitSet[] newBitSets(int count) {
+        BitSet[] bitSets = new BitSet[count];
+        for (int i = 0; i < count; i++) {
+            bitSets[i] = new BitSet();
+        }
+        return bitSets;
+    }
+
+    // Accumulates facet counts over row sets; only used under the read lock of one search
+    private final class Counts {
+
+        final Map<Integer, Integer> catalogues = new HashMap<>();
+        final Map<Integer, Integer> categories = new HashMap<>();
+        final Map<Integer, Integer> sellers = new HashMap<>();
+        final int[] stock = new int[StockBucket.values().length];
+        final int[] prices;
+
+        Counts(int priceBuckets) {
+            prices = new int[priceBuckets];
+        }
+
+        /*
+         * One pass over the rows fills every requested facet. Ids are dense, so they are counted in
+         * plain arrays rather than through boxed map updates, and the set bits are read word by word.
+         * Rows that are simply every indexed product take the running totals instead.
+         */
+        void add(BitSet rows, boolean allRows, boolean catalogue, boolean category, boolean seller,
+                boolean stockBucket, boolean price) {
+            if (allRows) {
+                toMap(catalogue ? catalogueTotals : null, catalogues);
+                toMap(category ? categoryTotals : null, categories);
+                toMap(seller ? sellerTotals : null, sellers);
+                if (stockBucket) {
+                    System.arraycopy(stockTotals, 0, stock, 0, stock.length);
+                }
+                if (price) {
+                    System.arraycopy(priceTotals, 0, prices, 0, prices.length);
+                }
+                return;
+            }
+            int[] catalogueScratch = catalogue ? new int[catalogueTotals.length] : null;
+            int[] categoryScratch = category ? new int[categoryTotals.length] : null;
+            int[] sellerScratch = seller ? new int[sellerTotals.length] : null;
+            long[] words = rows.toLongArray();
+            for (int word = 0; word < words.length; word++) {
+                long bits = words[word];
+                while (bits != 0) {
+                    int row = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    if (catalogue) {
+                        catalogueScratch[catalogueByRow[row]]++;
+                    }
+                    if (category) {
+                        categoryScratch[categoryByRow[row]]++;
+                    }
+                    if (seller) {
+                        sellerScratch[sellerByRow[row]]++;
+                    }
+                    if (stockBucket) {
+                        stock[StockBucket.of(stockByRow[row]).ordinal()]++;
+                    }
+                    if (price && priceBucketByRow[row] >= 0) {
+                        prices[priceBucketByRow[row]]++;
+                    }
+                }
+            }
+            toMap(catalogueScratch, catalogues);
+            toMap(categoryScratch, categories);
+            toMap(sellerScratch, sellers);
+        }
+
+        private static void toMap(int[] scratch, Map<Integer, Integer> counts) {
+            if (scratch == null) {
+                return;
+            }
+            // Index 0 is NONE
+            for (int value = 1; value < scratch.length; value++) {
+                if (scratch[value] > 0) {
+                    counts.put(value, scratch[value]);
+                }
+            }
+        }
+    }
+}
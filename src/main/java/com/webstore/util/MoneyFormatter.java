@@ -0,0 +1,75 @@
+package com.webstore.util;
+
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/*
+ * Formats amounts stored in minor units (cents, paise, fils, ...) for display, e.g. "₹499.00" or "¥500".
+ * The number of decimals comes from the currency's minor unit exponent rather than a fixed 100, and the
+ * digits are appended straight into a StringBuilder: no BigDecimal, no format string to parse.
+ * format() reuses one builder per thread, so a formatted price costs only the resulting String.
+ */
+@Component
+public class MoneyFormatter {
+
+    public static final int DEFAULT_EXPONENT = 2;
+
+    // ISO 4217 has no currency with more than four minor digits
+    public static final int MAX_EXPONENT = 4;
+
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1_000L, 10_000L};
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(32));
+
+    public String format(String symbol, long minorUnits, int exponent) {
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        return appendTo(out, symbol, minorUnits, exponent).toString();
+    }
+
+    public String format(String symbol, BigInteger minorUnits, int exponent) {
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        return appendTo(out, symbol, minorUnits, exponent).toString();
+    }
+
+    public StringBuilder appendTo(StringBuilder out, String symbol, BigInteger minorUnits, int exponent) {
+        if (minorUnits.bitLength() < Long.SIZE) {
+            return appendTo(out, symbol, minorUnits.longValue(), exponent);
+        }
+        // Beyond a long; rare enough that the slow path does not matter
+        if (symbol != null) {
+            out.append(symbol);
+        }
+        return out.append(new BigDecimal(minorUnits, exponent).toPlainString());
+    }
+
+    public StringBuilder appendTo(StringBuilder out, String symbol, long minorUnits, int exponent) {
+        if (exponent < 0 || exponent > MAX_EXPONENT) {
+            throw new IllegalArgumentException("Minor unit exponent must be between 0 and " + MAX_EXPONENT + ": " + exponent);
+        }
+        if (symbol != null) {
+            out.append(symbol);
+        }
+        if (exponent == 0) {
+            return out.append(minorUnits);
+        }
+
+        long scale = POWERS_OF_TEN[exponent];
+        long whole = minorUnits / scale;
+        long fraction = minorUnits % scale;
+        if (minorUnits < 0) {
+            // scale >= 10 here, so neither negation can overflow
+            out.append('-');
+            whole = -whole;
+            fraction = -fraction;
+        }
+        out.append(whole).append('.');
+        for (long digit = scale / 10; digit > 1 && fraction < digit; digit /= 10) {
+            out.append('0');
+        }
+        return out.append(fraction);
+    }
+}
@@ -0,0 +1,352 @@
+package com.webstore.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * In-memory (productId, currencyId) -> amount table for the price read paths.
+ * Products map to rows through an open-addressing int index and currencies to dense column slots,
+ * so a lookup is two array probes and one cell read, without boxing or hashing objects.
+ *
+ * Reads are lock-free. Writers are serialised on this instance: changing the amount of a known
+ * (product, currency) cell writes the AtomicLongArray in place, and so does a new product while the
+ * layout has room for it; outgrowing the layout or a new currency builds a new one that is published
+ * through the volatile field. Rows of products that lose
+ * all their prices stay allocated (empty) until the next full load.
+ */
+public final class PriceMatrix {
+
+    // Cell value of a (product, currency) pair that has no price
+    public static final long NO_PRICE = Long.MIN_VALUE;
+
+    private static final int MIN_ROW_CAPACITY = 64;
+
+    public record CurrencyInfo(int currencyId, String currencyCode, String currencySymbol, int minorUnitExponent) {
+    }
+
+    public record PriceRow(int priceId, int productId, int currencyId, long amount) {
+    }
+
+    public record Quote(int productId, CurrencyInfo currency, long amount) {
+    }
+
+    @FunctionalInterface
+    public interface PriceVisitor {
+        void visit(int productId, long amount);
+    }
+
+    private volatile Layout layout = Layout.empty();
+
+    // priceId -> cell it was written to (productId << 32 | currencyId); only touched by writers
+    private final Map<Integer, Long> cellByPriceId = new HashMap<>();
+
+    /* ---------------------------------------------------------------- reads */
+
+    public long amount(int productId, int currencyId) {
+        Layout current = layout;
+        int row = current.rowOf(productId);
+        int slot = current.slotOf(currencyId);
+        if (row < 0 || slot < 0) {
+            return NO_PRICE;
+        }
+        return current.cells.get(row * current.slotCount + slot);
+    }
+
+    // Price in the preferred currency, falling back to the first currency (lowest id) the product is priced in
+    public Quote findPreferred(int productId, int preferredCurrencyId) {
+        Layout current = layout;
+        int row = current.rowOf(productId);
+        if (row < 0) {
+            return null;
+        }
+        int base = row * current.slotCount;
+        int preferredSlot = current.slotOf(preferredCurrencyId);
+        if (preferredSlot >= 0) {
+            long amount = current.cells.get(base + preferredSlot);
+            if (amount != NO_PRICE) {
+                return new Quote(productId, current.currencies[preferredSlot], amount);
+            }
+        }
+        for (int slot = 0; slot < current.slotCount; slot++) {
+            long amount = current.cells.get(base + slot);
+            if (amount != NO_PRICE) {
+                return new Quote(productId, current.currencies[slot], amount);
+            }
+        }
+        return null;
+    }
+
+    public List<Quote> findAll(int productId) {
+        Layout current = layout;
+        int row = current.rowOf(productId);
+        if (row < 0) {
+            return List.of();
+        }
+        int base = row * current.slotCount;
+        List<Quote> quotes = new ArrayList<>(current.slotCount);
+        for (int slot = 0; slot < current.slotCount; slot++) {
+            long amount = current.cells.get(base + slot);
+            if (amount != NO_PRICE) {
+                quotes.add(new Quote(productId, current.currencies[slot], amount));
+            }
+        }
+        return quotes;
+    }
+
+    // Returns -1 for an unknown code; there are only a handful of currencies, so a scan is enough
+    public int currencyIdOf(String currencyCode) {
+        Layout current = layout;
+        for (int slot = 0; slot < current.slotCount; slot++) {
+            if (current.currencies[slot].currencyCode().equalsIgnoreCase(currencyCode)) {
+                return current.currencies[slot].currencyId();
+            }
+        }
+        return -1;
+    }
+
+    // Null for a currency the matrix does not know
+    public CurrencyInfo currency(int currencyId) {
+        Layout current = layout;
+        int slot = current.slotOf(currencyId);
+        return slot >= 0 ? current.currencies[slot] : null;
+    }
+
+    public List<CurrencyInfo> currencies() {
+        return List.of(layout.currencies);
+    }
+
+    // Visits every product priced in the currency, in no particular order
+    public void forEachPrice(int currencyId, PriceVisitor visitor) {
+        Layout current = layout;
+        int slot = current.slotOf(currencyId);
+        if (slot < 0) {
+            return;
+        }
+        for (int i = 0; i < current.productKeys.length(); i++) {
+            int productId = current.productKeys.get(i);
+            if (productId != 0) {
+                long amount = current.cells.get(current.productRows[i] * current.slotCount + slot);
+                if (amount != NO_PRICE) {
+                    visitor.visit(productId, amount);
+                }
+            }
+        }
+    }
+
+    public int productCount() {
+        return layout.rowCount;
+    }
+
+    /* --------------------------------------------------------------- writes */
+
+    public synchronized void load(Collection<CurrencyInfo> currencies, Collection<PriceRow> prices) {
+        CurrencyInfo[] sorted = currencies.toArray(new CurrencyInfo[0]);
+        Arrays.sort(sorted, (a, b) -> Integer.compare(a.currencyId(), b.currencyId()));
+
+        int[] productIds = prices.stream().mapToInt(PriceRow::productId).distinct().toArray();
+        Layout next = Layout.create(productIds, Math.max(MIN_ROW_CAPACITY, productIds.length * 2), sorted);
+
+        cellByPriceId.clear();
+        for (PriceRow price : prices) {
+            int slot = next.slotOf(price.currencyId());
+            if (slot < 0) {
+                continue;
+            }
+            next.cells.set(next.rowOf(price.productId()) * next.slotCount + slot, price.amount());
+            cellByPriceId.put(price.priceId(), cellKey(price.productId(), price.currencyId()));
+        }
+        layout = next;
+    }
+
+    public synchronized void put(int priceId, int productId, CurrencyInfo currency, long amount) {
+        Long previousCell = cellByPriceId.get(priceId);
+        if (previousCell != null && previousCell != cellKey(productId, currency.currencyId())) {
+            clearCell(previousCell);
+        }
+
+        Layout current = layout;
+        if (current.slotOf(currency.currencyId()) < 0) {
+            current = current.withCurrency(currency);
+        }
+        if (current.rowOf(productId) < 0) {
+            current = current.withProduct(productId);
+        }
+        current.cells.set(current.rowOf(productId) * current.slotCount + current.slotOf(currency.currencyId()), amount);
+        layout = current;
+        cellByPriceId.put(priceId, cellKey(productId, currency.currencyId()));
+    }
+
+    public synchronized void remove(int priceId) {
+        Long cell = cellByPriceId.remove(priceId);
+        if (cell != null) {
+            clearCell(cell);
+        }
+    }
+
+    private void clearCell(long cellKey) {
+        Layout current = layout;
+        int row = current.rowOf((int) (cellKey >>> 32));
+        int slot = current.slotOf((int) cellKey);
+        if (row >= 0 && slot >= 0) {
+            current.cells.set(row * current.slotCount + slot, NO_PRICE);
+        }
+    }
+
+    private static long cellKey(int productId, int currencyId) {
+        return ((long) productId << 32) | (currencyId & 0xFFFFFFFFL);
+    }
+
+    /*
+     * Immutable apart from the cell values and the free slots of the product index. Product ids are
+     * positive, so 0 marks an empty index slot. The index and the cell array are sized for rowCapacity
+     * rows and shared with the layouts derived from them as long as the rows fit: a new product is
+     * inserted into the shared index in place, and only outgrowing it copies anything.
+     */
+    private static final class Layout {
+
+        // A key is stored after its row, so a reader that finds the key also sees the row
+        final AtomicIntegerArray productKeys;
+        final int[] productRows;
+        final int mask;
+        final int rowCount;
+        final int rowCapacity;
+        final int[] slotByCurrencyId;
+        final CurrencyInfo[] currencies;
+        final int slotCount;
+        final AtomicLongArray cells;
+
+        private Layout(AtomicIntegerArray productKeys, int[] productRows, int rowCount, int rowCapacity,
+                int[] slotByCurrencyId, CurrencyInfo[] currencies, AtomicLongArray cells) {
+            this.productKeys = productKeys;
+            this.productRows = productRows;
+            this.mask = productKeys.length() - 1;
+            this.rowCount = rowCount;
+            this.rowCapacity = rowCapacity;
+            this.slotByCurrencyId = slotByCurrencyId;
+            this.currencies = currencies;
+            this.slotCount = currencies.length;
+            this.cells = cells;
+        }
+
+        static Layout empty() {
+            return create(new int[0], MIN_ROW_CAPACITY, new CurrencyInfo[0]);
+        }
+
+        static Layout create(int[] productIds, int rowCapacity, CurrencyInfo[] currencies) {
+            int maxCurrencyId = 0;
+            for (CurrencyInfo currency : currencies) {
+                maxCurrencyId = Math.max(maxCurrencyId, currency.currencyId());
+            }
+            int[] slotByCurrencyId = new int[maxCurrencyId + 1];
+            Arrays.fill(slotByCurrencyId, -1);
+            for (int slot = 0; slot < currencies.length; slot++) {
+                slotByCurrencyId[currencies[slot].currencyId()] = slot;
+            }
+
+            AtomicIntegerArray keys = new AtomicIntegerArray(indexCapacity(rowCapacity));
+            int[] rows = new int[keys.length()];
+            for (int row = 0; row < productIds.length; row++) {
+                insert(keys, rows, productIds[row], row);
+            }
+            return new Layout(keys, rows, productIds.length, rowCapacity,
+                    slotByCurrencyId, currencies, emptyCells(rowCapacity * currencies.length));
+        }
+
+        int rowOf(int productId) {
+            int index = mix(productId) & mask;
+            while (true) {
+                int key = productKeys.get(index);
+                if (key == productId) {
+                    return productRows[index];
+                }
+                if (key == 0) {
+                    return -1;
+                }
+                index = (index + 1) & mask;
+            }
+        }
+
+        int slotOf(int currencyId) {
+            return currencyId >= 0 && currencyId < slotByCurrencyId.length ? slotByCurrencyId[currencyId] : -1;
+        }
+
+        /*
+         * While the rows fit, the product goes into this layout's index in place; its cells are already
+         * NO_PRICE, so a reader that finds it early sees it unpriced, as it would before the insert.
+         */
+        Layout withProduct(int productId) {
+            int row = rowCount;
+            if (row < rowCapacity) {
+                insert(productKeys, productRows, productId, row);
+                return new Layout(productKeys, productRows, rowCount + 1, rowCapacity, slotByCurrencyId,
+                        currencies, cells);
+            }
+
+            int capacity = rowCapacity * 2;
+            AtomicIntegerArray keys = new AtomicIntegerArray(indexCapacity(capacity));
+            int[] rows = new int[keys.length()];
+            for (int i = 0; i < productKeys.length(); i++) {
+                int key = productKeys.get(i);
+                if (key != 0) {
+                    insert(keys, rows, key, productRows[i]);
+                }
+            }
+            insert(keys, rows, productId, row);
+            AtomicLongArray grown = emptyCells(capacity * slotCount);
+            for (int i = 0; i < rowCount * slotCount; i++) {
+                grown.set(i, cells.get(i));
+            }
+            return new Layout(keys, rows, rowCount + 1, capacity, slotByCurrencyId, currencies, grown);
+        }
+
+        Layout withCurrency(CurrencyInfo currency) {
+            CurrencyInfo[] widened = Arrays.copyOf(currencies, slotCount + 1);
+            widened[slotCount] = currency;
+            int[] slots = Arrays.copyOf(slotByCurrencyId, Math.max(slotByCurrencyId.length, currency.currencyId() + 1));
+            Arrays.fill(slots, slotByCurrencyId.length, slots.length, -1);
+            slots[currency.currencyId()] = slotCount;
+
+            int widenedSlotCount = slotCount + 1;
+            AtomicLongArray widenedCells = emptyCells(rowCapacity * widenedSlotCount);
+            for (int row = 0; row < rowCount; row++) {
+                for (int slot = 0; slot < slotCount; slot++) {
+                    widenedCells.set(row * widenedSlotCount + slot, cells.get(row * slotCount + slot));
+                }
+            }
+            return new Layout(productKeys, productRows, rowCount, rowCapacity, slots, widened, widenedCells);
+        }
+
+        private static void insert(AtomicIntegerArray keys, int[] rows, int productId, int row) {
+            int mask = keys.length() - 1;
+            int index = mix(productId) & mask;
+            while (keys.get(index) != 0) {
+                index = (index + 1) & mask;
+            }
+            rows[index] = row;
+            keys.set(index, productId);
+        }
+
+        // Keeps the index at most half full
+        private static int indexCapacity(int rowCapacity) {
+            return Integer.highestOneBit(Math.max(2, rowCapacity) - 1) << 2;
+        }
+
+        // Sequence ids are dense, so spread them before masking (Fibonacci hashing)
+        private static int mix(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        private static AtomicLongArray emptyCells(int length) {
+            long[] values = new long[length];
+            Arrays.fill(values, NO_PRICE);
+            return new AtomicLongArray(values);
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.webstore.util;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Effective prices under the promotions running between two boundaries (a promotion start or end).
+ * Built once per boundary from the running promotions and the price matrix, then only read:
+ * rowByProductId is indexed by product id directly, so a lookup is two array reads and a compare.
+ *
+ * Each cell keeps the list price it was computed from. A price changed since the build, or a currency
+ * the product had no price in at build time (e.g. a derived one), misses the cell and is worked out
+ * from the product's rules on the spot, so the table never needs rebuilding for price edits.
+ *
+ * A product moved between categories or catalogues is patched rather than rebuilt: withProductRules
+ * returns a table sharing every array with this one plus a small sorted overlay of patched products,
+ * whose prices are always worked out from their rules on the spot.
+ */
+public final class PromotionTable {
+
+    public static final int NO_PROMOTION = 0;
+
+    private static final long BASIS_POINTS = 10_000L;
+
+    // Largest amount whose product with a basis-point count cannot overflow a long
+    private static final long MAX_EXACT_AMOUNT = Long.MAX_VALUE / BASIS_POINTS;
+
+    /*
+     * A running promotion. PERCENT rules carry basis points (15.5% = 1550) and apply to every currency;
+     * AMOUNT rules carry minor units and apply to currencyId only.
+     */
+    public record Rule(int promotionId, boolean percent, long value, int currencyId) {
+
+        public static Rule percent(int promotionId, long basisPoints) {
+            return new Rule(promotionId, true, basisPoints, 0);
+        }
+
+        public static Rule amount(int promotionId, long minorUnits, int currencyId) {
+            return new Rule(promotionId, false, minorUnits, currencyId);
+        }
+
+        long apply(int currencyId, long amount) {
+            if (!percent) {
+                return currencyId == this.currencyId ? Math.max(0, amount - value) : amount;
+            }
+            long discount = amount <= MAX_EXACT_AMOUNT
+                    ? (amount * value + BASIS_POINTS / 2) / BASIS_POINTS
+                    : BigInteger.valueOf(amount).multiply(BigInteger.valueOf(value))
+                            .add(BigInteger.valueOf(BASIS_POINTS / 2))
+                            .divide(BigInteger.valueOf(BASIS_POINTS)).longValue();
+            return amount - discount;
+        }
+    }
+
+    private final Rule[] rules;
+    private final int[] rowByProductId;
+    private final int[] ruleStartByRow;
+    private final int[] ruleIndexes;
+    private final int[] slotByCurrencyId;
+    private final int slotCount;
+    private final long[] baseAmounts;
+    private final long[] effectiveAmounts;
+    private final int[] promotionIds;
+    private final long validUntilMillis;
+    private final boolean hasGroupRules;
+    // Products patched since the build, sorted, and the rule indexes each one now has
+    private final int[] patchedProductIds;
+    private final int[][] patchedRules;
+
+    private PromotionTable(Rule[] rules, int[] rowByProductId, int[] ruleStartByRow, int[] ruleIndexes,
+            int[] slotByCurrencyId, int slotCount, long[] baseAmounts, long[] effectiveAmounts, int[] promotionIds,
+            long validUntilMillis, boolean hasGroupRules) {
+        this(rules, rowByProductId, ruleStartByRow, ruleIndexes, slotByCurrencyId, slotCount, baseAmounts,
+                effectiveAmounts, promotionIds, validUntilMillis, hasGroupRules, new int[0], new int[0][]);
+    }
+
+    private PromotionTable(Rule[] rules, int[] rowByProductId, int[] ruleStartByRow, int[] ruleIndexes,
+            int[] slotByCurrencyId, int slotCount, long[] baseAmounts, long[] effectiveAmounts, int[] promotionIds,
+            long validUntilMillis, boolean hasGroupRules, int[] patchedProductIds, int[][] patchedRules) {
+        this.rules = rules;
+        this.rowByProductId = rowByProductId;
+        this.ruleStartByRow = ruleStartByRow;
+        this.ruleIndexes = ruleIndexes;
+        this.slotByCurrencyId = slotByCurrencyId;
+        this.slotCount = slotCount;
+        this.baseAmounts = baseAmounts;
+        this.effectiveAmounts = effectiveAmounts;
+        this.promotionIds = promotionIds;
+        this.validUntilMillis = validUntilMillis;
+        this.hasGroupRules = hasGroupRules;
+        this.patchedProductIds = patchedProductIds;
+        this.patchedRules = patchedRules;
+    }
+
+    public static PromotionTable empty(long validUntilMillis) {
+        return new PromotionTable(new Rule[0], new int[0], new int[1], new int[0], new int[0], 0,
+                new long[0], new long[0], new int[0], validUntilMillis, false);
+    }
+
+    /*
+     * productsByRule.get(i) holds the products rules.get(i) covers. hasGroupRules records whether any rule
+     * was expanded from a category or catalogue, i.e. whether moving a product can change the table.
+     */
+    public static PromotionTable build(List<Rule> rules, List<int[]> productsByRule, PriceMatrix matrix,
+            long validUntilMillis, boolean hasGroupRules) {
+        int maxProductId = -1;
+        for (int[] products : productsByRule) {
+            for (int productId : products) {
+                maxProductId = Math.max(maxProductId, productId);
+            }
+        }
+        if (maxProductId < 0) {
+            return empty(validUntilMillis);
+        }
+
+        // Rules per product, laid out as one flat array sliced by row (compressed sparse rows)
+        int[] ruleCounts = new int[maxProductId + 1];
+        for (int[] products : productsByRule) {
+            for (int productId : products) {
+                ruleCounts[productId]++;
+            }
+        }
+        int[] rowByProductId = new int[maxProductId + 1];
+        Arrays.fill(rowByProductId, -1);
+        int rowCount = 0;
+        for (int productId = 0; productId <= maxProductId; productId++) {
+            if (ruleCounts[productId] > 0) {
+                rowByProductId[productId] = rowCount++;
+            }
+        }
+        int[] ruleStartByRow = new int[rowCount + 1];
+        for (int productId = 0; productId <= maxProductId; productId++) {
+            int row = rowByProductId[productId];
+            if (row >= 0) {
+                ruleStartByRow[row + 1] = ruleStartByRow[row] + ruleCounts[productId];
+            }
+        }
+        int[] ruleIndexes = new int[ruleStartByRow[rowCount]];
+        int[] filled = new int[rowCount];
+        for (int rule = 0; rule < productsByRule.size(); rule++) {
+            for (int productId : productsByRule.get(rule)) {
+                int row = rowByProductId[productId];
+                ruleIndexes[ruleStartByRow[row] + filled[row]++] = rule;
+            }
+        }
+
+        List<PriceMatrix.CurrencyInfo> currencies = matrix.currencies();
+        int maxCurrencyId = 0;
+        for (PriceMatrix.CurrencyInfo currency : currencies) {
+            maxCurrencyId = Math.max(maxCurrencyId, currency.currencyId());
+        }
+        int[] slotByCurrencyId = new int[maxCurrencyId + 1];
+        Arrays.fill(slotByCurrencyId, -1);
+        for (int slot = 0; slot < currencies.size(); slot++) {
+            slotByCurrencyId[currencies.get(slot).currencyId()] = slot;
+        }
+        int slotCount = currencies.size();
+
+        Rule[] ruleArray = rules.toArray(new Rule[0]);
+        long[] baseAmounts = new long[rowCount * slotCount];
+        long[] effectiveAmounts = new long[baseAmounts.length];
+        int[] promotionIds = new int[baseAmounts.length];
+        Arrays.fill(baseAmounts, PriceMatrix.NO_PRICE);
+
+        PromotionTable table = new PromotionTable(ruleArray, rowByProductId, ruleStartByRow, ruleIndexes,
+                slotByCurrencyId, slotCount, baseAmounts, effectiveAmounts, promotionIds,
+                validUntilMillis, hasGroupRules);
+        for (int productId = 0; productId <= maxProductId; productId++) {
+            int row = rowByProductId[productId];
+            if (row < 0) {
+                continue;
+            }
+            for (int slot = 0; slot < slotCount; slot++) {
+                int currencyId = currencies.get(slot).currencyId();
+                long amount = matrix.amount(productId, currencyId);
+                if (amount == PriceMatrix.NO_PRICE) {
+                    continue;
+                }
+                int cell = row * slotCount + slot;
+                int best = table.bestRule(row, currencyId, amount);
+                baseAmounts[cell] = amount;
+                effectiveAmounts[cell] = best >= 0 ? ruleArray[best].apply(currencyId, amount) : amount;
+                promotionIds[cell] = best >= 0 ? ruleArray[best].promotionId() : NO_PROMOTION;
+            }
+        }
+        return table;
+    }
+
+    /*
+     * This table with productId covered by ruleIndexes (indexes into the rules it was built with) instead
+     * of the rules it had. Costs a copy of the overlay only, not of the table.
+     */
+    public PromotionTable withProductRules(int productId, int[] ruleIndexes) {
+        int at = Arrays.binarySearch(patchedProductIds, productId);
+        int[] productIds = patchedProductIds;
+        int[][] productRules;
+        if (at >= 0) {
+            productRules = patchedRules.clone();
+        } else {
+            at = -at - 1;
+            productIds = new int[patchedProductIds.length + 1];
+            productRules = new int[patchedRules.length + 1][];
+            System.arraycopy(patchedProductIds, 0, productIds, 0, at);
+            System.arraycopy(patchedProductIds, at, productIds, at + 1, patchedProductIds.length - at);
+            System.arraycopy(patchedRules, 0, productRules, 0, at);
+            System.arraycopy(patchedRules, at, productRules, at + 1, patchedRules.length - at);
+            productIds[at] = productId;
+        }
+        productRules[at] = ruleIndexes.clone();
+        return new PromotionTable(rules, rowByProductId, ruleStartByRow, this.ruleIndexes, slotByCurrencyId,
+                slotCount, baseAmounts, effectiveAmounts, promotionIds, validUntilMillis, hasGroupRules,
+                productIds, productRules);
+    }
+
+    /* ---------------------------------------------------------------- reads */
+
+    // The amount to charge for a product listed at amount, which is returned as is when no promotion applies
+    public long effectiveAmount(int productId, int currencyId, long amount) {
+        int[] patched = patchedRulesOf(productId);
+        if (patched != null) {
+            int best = bestRule(patched, 0, patched.length, currencyId, amount);
+            return best >= 0 ? rules[best].apply(currencyId, amount) : amount;
+        }
+        int row = rowOf(productId);
+        if (row < 0) {
+            return amount;
+        }
+        int cell = cellOf(row, currencyId);
+        if (cell >= 0 && baseAmounts[cell] == amount) {
+            return effectiveAmounts[cell];
+        }
+        int best = bestRule(row, currencyId, amount);
+        return best >= 0 ? rules[best].apply(currencyId, amount) : amount;
+    }
+
+    // The promotion that yields effectiveAmount, or NO_PROMOTION
+    public int promotionId(int productId, int currencyId, long amount) {
+        int[] patched = patchedRulesOf(productId);
+        if (patched != null) {
+            int best = bestRule(patched, 0, patched.length, currencyId, amount);
+            return best >= 0 ? rules[best].promotionId() : NO_PROMOTION;
+        }
+        int row = rowOf(productId);
+        if (row < 0) {
+            return NO_PROMOTION;
+        }
+        int cell = cellOf(row, currencyId);
+        if (cell >= 0 && baseAmounts[cell] == amount) {
+            return promotionIds[cell];
+        }
+        int best = bestRule(row, currencyId, amount);
+        return best >= 0 ? rules[best].promotionId() : NO_PROMOTION;
+    }
+
+    // True once the boundary the table was built for has passed
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= validUntilMillis;
+    }
+
+    public long validUntilMillis() {
+        return validUntilMillis;
+    }
+
+    public boolean hasGroupRules() {
+        return hasGroupRules;
+    }
+
+    public int ruleCount() {
+        return rules.length;
+    }
+
+    public int productCount() {
+        return ruleStartByRow.length - 1;
+    }
+
+    public int patchedProductCount() {
+        return patchedProductIds.length;
+    }
+
+    private int[] patchedRulesOf(int productId) {
+        if (patchedProductIds.length == 0) {
+            return null;
+        }
+        int at = Arrays.binarySearch(patchedProductIds, productId);
+        return at >= 0 ? patchedRules[at] : null;
+    }
+
+    private int rowOf(int productId) {
+        return productId >= 0 && productId < rowByProductId.length ? rowByProductId[productId] : -1;
+    }
+
+    private int cellOf(int row, int currencyId) {
+        int slot = currencyId >= 0 && currencyId < slotByCurrencyId.length ? slotByCurrencyId[currencyId] : -1;
+        return slot >= 0 ? row * slotCount + slot : -1;
+    }
+
+    // Index of the rule giving the lowest price below amount; ties go to the lowest promotion id
+    private int bestRule(int row, int currencyId, long amount) {
+        return bestRule(ruleIndexes, ruleStartByRow[row], ruleStartByRow[row + 1], currencyId, amount);
+    }
+
+    private int bestRule(int[] indexes, int from, int to, int currencyId, long amount) {
+        int best = -1;
+        long bestAmount = amount;
+        for (int i = from; i < to; i++) {
+            int rule = indexes[i];
+            long candidate = rules[rule].apply(currencyId, amount);
+            if (candidate < bestAmount
+                    || (candidate == bestAmount && best >= 0 && rules[rule].promotionId() < rules[best].promotionId())) {
+                best = rule;
+                bestAmount = candidate;
+            }
+        }
+        return best;
+    }
+}
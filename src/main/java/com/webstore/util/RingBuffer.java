@@ -0,0 +1,88 @@
+package com.webstore.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/*
+ * Fixed-capacity buffer of the most recently added items: adding to a full buffer overwrites the
+ * oldest item, so keeping the newest N of something costs one array write per addition and never
+ * allocates. Methods are synchronized; a buffer holds a handful of items, so the lock is held only
+ * for a few array reads.
+ */
+public final class RingBuffer<T> {
+
+    private final Object[] items;
+    // Slot the next item goes to
+    private int head;
+    private int size;
+
+    public RingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.items = new Object[capacity];
+    }
+
+    public int capacity() {
+        return items.length;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void add(T item) {
+        items[head] = item;
+        head = (head + 1) % items.length;
+        size = Math.min(size + 1, items.length);
+    }
+
+    // Replaces the contents; newestFirst beyond the capacity is ignored
+    public synchronized void fill(List<T> newestFirst) {
+        int count = Math.min(newestFirst.size(), items.length);
+        Arrays.fill(items, null);
+        for (int i = 0; i < count; i++) {
+            // The oldest kept item goes to slot 0, the newest to slot count - 1
+            items[count - 1 - i] = newestFirst.get(i);
+        }
+        head = count % items.length;
+        size = count;
+    }
+
+    // Up to limit items, newest first
+    @SuppressWarnings("unchecked")
+    public synchronized List<T> newest(int limit) {
+        int count = Math.min(Math.max(limit, 0), size);
+        List<T> result = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            result.add((T) items[Math.floorMod(head - i, items.length)]);
+        }
+        return result;
+    }
+
+    // Replaces every item matching the predicate in place, keeping its position; returns whether any matched
+    @SuppressWarnings("unchecked")
+    public synchronized boolean replace(Predicate<T> predicate, T replacement) {
+        boolean replaced = false;
+        for (int i = 1; i <= size; i++) {
+            int slot = Math.floorMod(head - i, items.length);
+            if (predicate.test((T) items[slot])) {
+                items[slot] = replacement;
+                replaced = true;
+            }
+        }
+        return replaced;
+    }
+
+    @SuppressWarnings("unchecked")
+    public synchronized boolean anyMatch(Predicate<T> predicate) {
+        for (int i = 1; i <= size; i++) {
+            if (predicate.test((T) items[Math.floorMod(head - i, items.length)])) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
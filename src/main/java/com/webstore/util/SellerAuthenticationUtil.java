@@ -2,6 +2,7 @@ package com.webstore.util;
 
 import com.webstore.dto.response.AuthResponse;
 import com.webstore.entity.Seller;
+import com.webstore.exception.ClientErrorException;
 import com.webstore.repository.SellerRepository;
 import com.webstore.service.GoogleTokenVerificationService;
 import com.webstore.util.JwtTokenProvider;
@@ -54,7 +55,7 @@ public class SellerAuthenticationUtil {
      */
     private Seller findSellerByEmail(String email) {
         return sellerRepository.findByEmail(email)
-                .orElseThrow(() -> new ResponseStatusException(
+                .orElseThrow(() -> new ClientErrorException(
                         HttpStatus.NOT_FOUND,
                         "Seller not found with email: " + email));
     }
@@ -64,7 +65,7 @@ public class SellerAuthenticationUtil {
      */
     private void validateSellerStatus(Seller seller) {
         if (seller.getStatus() != Seller.SellerStatus.ACTIVE) {
-            throw new ResponseStatusException(
+            throw new ClientErrorException(
                     HttpStatus.FORBIDDEN,
                     "Seller account is not active");
         }
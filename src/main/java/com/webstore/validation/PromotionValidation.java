@@ -0,0 +1,4 @@
+package com.webstore.validation;
+
+public interface PromotionValidation {
+}
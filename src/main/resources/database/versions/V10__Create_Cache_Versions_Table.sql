@@ -0,0 +1,24 @@
+-- =====================================================
+-- Flyway Migration V10: Create Cache Versions Table
+-- =====================================================
+-- Purpose: Track a monotonically increasing version per catalog table.
+--          Every committed write bumps the version and sends a pg_notify
+--          on the 'catalog_changes' channel. Instances that were
+--          disconnected compare these versions on reconnect and evict
+--          whatever they missed.
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS web_store.cache_versions (
+    table_name VARCHAR(64) PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO web_store.cache_versions (table_name)
+VALUES ('products'),
+       ('product_prices'),
+       ('categories'),
+       ('catalogues'),
+       ('catalogue_categories'),
+       ('currencies')
+ON CONFLICT (table_name) DO NOTHING;
@@ -0,0 +1,47 @@
+-- =====================================================
+-- Flyway Migration V11: Create Catalog Outbox Tables
+-- =====================================================
+-- Purpose: Transactional outbox for catalog changes. A row is inserted in
+--          the same transaction as every product, price, category,
+--          catalogue, catalogue-category and currency mutation, and later
+--          dispatched to in-process subscribers by the outbox poller.
+--
+--          Events are hashed by entity into a fixed set of lanes. A poller
+--          claims a lane with FOR UPDATE SKIP LOCKED and drains it in id
+--          order, so one entity's events are never dispatched concurrently
+--          or out of order, while different instances work different lanes.
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS web_store.catalog_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    entity_table VARCHAR(64) NOT NULL,
+    entity_id INTEGER NOT NULL,
+    change_type VARCHAR(10) NOT NULL,
+    lane SMALLINT GENERATED ALWAYS AS
+        (CAST((hashtext(entity_table || ':' || entity_id) & 2147483647) % 16 AS SMALLINT)) STORED,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    dispatched_at TIMESTAMP,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(500),
+    CONSTRAINT chk_catalog_outbox_change_type CHECK (change_type IN ('CREATED', 'UPDATED', 'DELETED'))
+);
+
+-- Pending events only, so polling cost follows the backlog rather than the history
+CREATE INDEX IF NOT EXISTS idx_catalog_outbox_pending
+    ON web_store.catalog_outbox (lane, id)
+    WHERE dispatched_at IS NULL;
+
+-- Retention purge of dispatched events
+CREATE INDEX IF NOT EXISTS idx_catalog_outbox_dispatched_at
+    ON web_store.catalog_outbox (dispatched_at)
+    WHERE dispatched_at IS NOT NULL;
+
+-- One row per lane; the row lock is the lane lease
+CREATE TABLE IF NOT EXISTS web_store.catalog_outbox_lanes (
+    lane SMALLINT PRIMARY KEY,
+    last_polled_at TIMESTAMP
+);
+
+INSERT INTO web_store.catalog_outbox_lanes (lane)
+SELECT g FROM generate_series(0, 15) g
+ON CONFLICT (lane) DO NOTHING;
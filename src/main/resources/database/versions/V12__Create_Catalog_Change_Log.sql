@@ -0,0 +1,40 @@
+-- =====================================================
+-- Flyway Migration V12: Create Catalog Change Log
+-- =====================================================
+-- Purpose: Back the incremental sync API (GET /api/sync/changes).
+--          One row per product, price, category and catalogue that
+--          changed since this migration, upserted in the writing
+--          transaction. change_version is the writer's transaction id,
+--          so a reader can hand out a cursor below which no transaction
+--          is still running (pg_snapshot_xmin) and never skip a late
+--          commit. Deletes stay as tombstones until purged.
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS web_store.catalog_change_log (
+    entity_table VARCHAR(64) NOT NULL,
+    entity_id INTEGER NOT NULL,
+    change_type VARCHAR(10) NOT NULL,
+    change_version BIGINT NOT NULL,
+    changed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_catalog_change_log PRIMARY KEY (entity_table, entity_id),
+    CONSTRAINT chk_catalog_change_log_change_type CHECK (change_type IN ('CREATED', 'UPDATED', 'DELETED'))
+);
+
+-- Delta reads scan only the versions after the client's cursor
+CREATE INDEX IF NOT EXISTS idx_catalog_change_log_version
+    ON web_store.catalog_change_log (change_version);
+
+-- Tombstone purge
+CREATE INDEX IF NOT EXISTS idx_catalog_change_log_tombstones
+    ON web_store.catalog_change_log (changed_at)
+    WHERE change_type = 'DELETED';
+
+-- Oldest cursor still served; clients behind it must run a full resync
+CREATE TABLE IF NOT EXISTS web_store.catalog_change_log_horizon (
+    id SMALLINT PRIMARY KEY CHECK (id = 1),
+    min_version BIGINT NOT NULL
+);
+
+INSERT INTO web_store.catalog_change_log_horizon (id, min_version)
+VALUES (1, CAST(CAST(pg_current_xact_id() AS TEXT) AS BIGINT))
+ON CONFLICT (id) DO NOTHING;
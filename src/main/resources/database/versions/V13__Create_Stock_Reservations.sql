@@ -0,0 +1,56 @@
+-- =====================================================
+-- Flyway Migration V13: Create Stock Reservations
+-- =====================================================
+-- Purpose: Hold stock for a buyer between "add to cart" and checkout.
+--          Stock is taken with a single conditional UPDATE
+--          (stock = stock - n WHERE stock >= n) and a reservation row
+--          records the hold. Holds that are neither confirmed nor
+--          released before expires_at are returned by a sweeper.
+-- =====================================================
+
+-- Stock may only be taken by the conditional update; existing rows are not re-checked
+ALTER TABLE web_store.products
+    ADD CONSTRAINT chk_products_stock_non_negative CHECK (stock >= 0) NOT VALID;
+
+CREATE SEQUENCE IF NOT EXISTS web_store.seq_stock_reservation_id
+    START WITH 1
+    INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS web_store.stock_reservations (
+    -- Primary Key Column
+    reservation_id BIGINT NOT NULL DEFAULT nextval('web_store.seq_stock_reservation_id') PRIMARY KEY,
+
+    -- Business Columns
+    product_id INT NOT NULL,
+    quantity INT NOT NULL,
+    holder VARCHAR(100) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'HELD',
+    expires_at TIMESTAMP NOT NULL,
+
+    -- Audit Columns
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_by VARCHAR(50),
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_by VARCHAR(50),
+
+    -- Constraints
+    CONSTRAINT fk_stock_reservation_product
+        FOREIGN KEY (product_id)
+        REFERENCES web_store.products(product_id)
+        ON DELETE CASCADE,
+    CONSTRAINT chk_stock_reservation_quantity CHECK (quantity > 0),
+    CONSTRAINT chk_stock_reservation_status CHECK (status IN ('HELD', 'CONFIRMED', 'RELEASED', 'EXPIRED'))
+);
+
+-- Sweeper: only live holds, oldest expiry first
+CREATE INDEX IF NOT EXISTS idx_stock_reservations_held_expires_at
+    ON web_store.stock_reservations (expires_at)
+    WHERE status = 'HELD';
+
+-- A buyer's live holds (the WhatsApp cart)
+CREATE INDEX IF NOT EXISTS idx_stock_reservations_held_holder
+    ON web_store.stock_reservations (holder)
+    WHERE status = 'HELD';
+
+CREATE INDEX IF NOT EXISTS idx_stock_reservations_product_id
+    ON web_store.stock_reservations (product_id);
@@ -0,0 +1,105 @@
+-- =====================================================
+-- Flyway Migration V14: Create Orders and Outbound Messages
+-- =====================================================
+-- Purpose: Orders placed from a buyer's held stock reservations, and a
+--          queue for WhatsApp messages that must not be sent inline.
+--
+--          idempotency_key is unique, so a retried webhook (same WhatsApp
+--          message id) or a retried API call resolves to the order that
+--          was already placed instead of creating a second one.
+--
+--          Order confirmations are written to outbound_messages in the
+--          order's transaction and sent afterwards by a poller, so no
+--          database connection is held while the Graph API is called.
+-- =====================================================
+
+CREATE SEQUENCE IF NOT EXISTS web_store.seq_order_id
+    START WITH 1
+    INCREMENT BY 1;
+
+CREATE SEQUENCE IF NOT EXISTS web_store.seq_order_line_id
+    START WITH 1
+    INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS web_store.orders (
+    -- Primary Key Column
+    order_id BIGINT NOT NULL DEFAULT nextval('web_store.seq_order_id') PRIMARY KEY,
+
+    -- Business Columns
+    customer VARCHAR(100) NOT NULL,
+    idempotency_key VARCHAR(100) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PLACED',
+    currency_id INT NOT NULL,
+    total_amount NUMERIC(38, 0) NOT NULL DEFAULT 0,
+
+    -- Audit Columns
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_by VARCHAR(50),
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_by VARCHAR(50),
+
+    -- Constraints
+    CONSTRAINT uk_orders_idempotency_key UNIQUE (idempotency_key),
+    CONSTRAINT fk_order_currency
+        FOREIGN KEY (currency_id)
+        REFERENCES web_store.currencies(currency_id),
+    CONSTRAINT chk_orders_status CHECK (status IN ('PLACED', 'CANCELLED'))
+);
+
+CREATE INDEX IF NOT EXISTS idx_orders_customer_created_at
+    ON web_store.orders (customer, created_at);
+
+CREATE TABLE IF NOT EXISTS web_store.order_lines (
+    -- Primary Key Column
+    order_line_id BIGINT NOT NULL DEFAULT nextval('web_store.seq_order_line_id') PRIMARY KEY,
+
+    -- Business Columns
+    order_id BIGINT NOT NULL,
+    product_id INT,
+    product_name VARCHAR(50) NOT NULL,   -- snapshot, kept if the product is deleted later
+    reservation_id BIGINT,
+    quantity INT NOT NULL,
+    unit_price NUMERIC(38, 0) NOT NULL,
+    line_total NUMERIC(38, 0) NOT NULL,
+
+    -- Constraints
+    CONSTRAINT fk_order_line_order
+        FOREIGN KEY (order_id)
+        REFERENCES web_store.orders(order_id)
+        ON DELETE CASCADE,
+    CONSTRAINT fk_order_line_product
+        FOREIGN KEY (product_id)
+        REFERENCES web_store.products(product_id)
+        ON DELETE SET NULL,
+    CONSTRAINT fk_order_line_reservation
+        FOREIGN KEY (reservation_id)
+        REFERENCES web_store.stock_reservations(reservation_id)
+        ON DELETE SET NULL,
+    CONSTRAINT uk_order_line_reservation UNIQUE (reservation_id),
+    CONSTRAINT chk_order_line_quantity CHECK (quantity > 0)
+);
+
+CREATE INDEX IF NOT EXISTS idx_order_lines_order_id
+    ON web_store.order_lines (order_id);
+
+CREATE INDEX IF NOT EXISTS idx_order_lines_product_id
+    ON web_store.order_lines (product_id);
+
+CREATE TABLE IF NOT EXISTS web_store.outbound_messages (
+    id BIGSERIAL PRIMARY KEY,
+    phone_number_id VARCHAR(50) NOT NULL,
+    recipient VARCHAR(30) NOT NULL,
+    body TEXT NOT NULL,
+    status VARCHAR(10) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    sent_at TIMESTAMP,
+    last_error VARCHAR(500),
+    CONSTRAINT chk_outbound_messages_status CHECK (status IN ('PENDING', 'SENT', 'FAILED'))
+);
+
+-- Pending messages only, so polling cost follows the backlog rather than the history
+CREATE INDEX IF NOT EXISTS idx_outbound_messages_pending
+    ON web_store.outbound_messages (next_attempt_at)
+    WHERE status = 'PENDING';
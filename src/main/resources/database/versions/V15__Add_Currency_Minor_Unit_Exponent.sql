@@ -0,0 +1,50 @@
+-- =====================================================
+-- Flyway Migration V15: Add Currency Minor Unit Exponent
+-- =====================================================
+-- Purpose: Record how many decimals each currency's minor unit has
+--          (ISO 4217 exponent). Prices are stored in minor units, so
+--          display code needs it to place the decimal point: 2 for
+--          USD/INR, 0 for JPY, 3 for KWD.
+--          Until now every amount was displayed as amount / 100, so the
+--          amounts already stored in a currency whose exponent changes
+--          are rescaled to keep the value they were shown with: / 100
+--          for exponent 0, * 10 for exponent 3.
+-- =====================================================
+
+ALTER TABLE web_store.currencies
+    ADD COLUMN IF NOT EXISTS minor_unit_exponent SMALLINT NOT NULL DEFAULT 2;
+
+ALTER TABLE web_store.currencies
+    ADD CONSTRAINT chk_currencies_minor_unit_exponent CHECK (minor_unit_exponent BETWEEN 0 AND 4);
+
+-- Currencies without a minor unit
+UPDATE web_store.currencies
+SET minor_unit_exponent = 0
+WHERE currency_code IN ('BIF', 'CLP', 'DJF', 'GNF', 'ISK', 'JPY', 'KMF', 'KRW', 'PYG',
+                        'RWF', 'UGX', 'VND', 'VUV', 'XAF', 'XOF', 'XPF');
+
+-- Currencies with a thousandth minor unit
+UPDATE web_store.currencies
+SET minor_unit_exponent = 3
+WHERE currency_code IN ('BHD', 'IQD', 'JOD', 'KWD', 'LYD', 'OMR', 'TND');
+
+-- Keep stored amounts at the value they were displayed with
+UPDATE web_store.product_prices pp
+SET price_amount = ROUND(pp.price_amount * POWER(10::NUMERIC, c.minor_unit_exponent - 2))
+FROM web_store.currencies c
+WHERE c.currency_id = pp.currency_id
+  AND c.minor_unit_exponent <> 2;
+
+UPDATE web_store.order_lines ol
+SET unit_price = ROUND(ol.unit_price * POWER(10::NUMERIC, c.minor_unit_exponent - 2)),
+    line_total = ROUND(ol.line_total * POWER(10::NUMERIC, c.minor_unit_exponent - 2))
+FROM web_store.orders o
+JOIN web_store.currencies c ON c.currency_id = o.currency_id
+WHERE o.order_id = ol.order_id
+  AND c.minor_unit_exponent <> 2;
+
+UPDATE web_store.orders o
+SET total_amount = ROUND(o.total_amount * POWER(10::NUMERIC, c.minor_unit_exponent - 2))
+FROM web_store.currencies c
+WHERE c.currency_id = o.currency_id
+  AND c.minor_unit_exponent <> 2;
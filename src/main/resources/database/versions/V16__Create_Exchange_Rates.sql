@@ -0,0 +1,55 @@
+-- =====================================================
+-- Flyway Migration V16: Create Exchange Rates
+-- =====================================================
+-- Purpose: Store currency exchange rates with a validity window so
+--          prices missing in a currency can be derived from the
+--          product's base currency price. A rate applies from
+--          valid_from (inclusive) until valid_to (exclusive, NULL =
+--          open-ended). Windows of one currency pair must not
+--          overlap; the service enforces this while holding a
+--          per-pair advisory lock.
+-- =====================================================
+
+CREATE SEQUENCE IF NOT EXISTS web_store.seq_exchange_rate_id
+    START WITH 1
+    INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS web_store.exchange_rates (
+    -- Primary Key Column
+    exchange_rate_id INT NOT NULL DEFAULT nextval('web_store.seq_exchange_rate_id') PRIMARY KEY,
+
+    -- Business Columns
+    -- 1 unit of the base currency = rate units of the quote currency (major units)
+    base_currency_id INT NOT NULL,
+    quote_currency_id INT NOT NULL,
+    rate NUMERIC(20, 10) NOT NULL,
+    valid_from TIMESTAMP NOT NULL,
+    valid_to TIMESTAMP,
+
+    -- Audit Columns
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_by VARCHAR(50),
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_by VARCHAR(50),
+
+    -- Constraints
+    CONSTRAINT fk_exchange_rate_base_currency
+        FOREIGN KEY (base_currency_id)
+        REFERENCES web_store.currencies(currency_id)
+        ON DELETE CASCADE,
+    CONSTRAINT fk_exchange_rate_quote_currency
+        FOREIGN KEY (quote_currency_id)
+        REFERENCES web_store.currencies(currency_id)
+        ON DELETE CASCADE,
+    CONSTRAINT uk_exchange_rate_pair_valid_from UNIQUE (base_currency_id, quote_currency_id, valid_from),
+    CONSTRAINT chk_exchange_rate_positive CHECK (rate > 0),
+    CONSTRAINT chk_exchange_rate_distinct_currencies CHECK (base_currency_id <> quote_currency_id),
+    CONSTRAINT chk_exchange_rate_window CHECK (valid_to IS NULL OR valid_to > valid_from)
+);
+
+CREATE INDEX IF NOT EXISTS idx_exchange_rates_quote_currency_id
+    ON web_store.exchange_rates (quote_currency_id);
+
+INSERT INTO web_store.cache_versions (table_name)
+VALUES ('exchange_rates')
+ON CONFLICT (table_name) DO NOTHING;
@@ -0,0 +1,58 @@
+-- =====================================================
+-- Flyway Migration V17: Create Product Price History
+-- =====================================================
+-- Purpose: Keep every price a product had, so order disputes can
+--          be answered with "what did this cost at time X".
+--          Rows are append-only apart from closing: a price applies
+--          from valid_from (inclusive) until valid_to (exclusive,
+--          NULL = current). The exclusion constraint forbids two
+--          overlapping prices for one product and currency, and its
+--          GiST index serves the as-of lookups.
+-- =====================================================
+
+-- Lets the GiST index combine the = on ids with the range overlap
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+CREATE SEQUENCE IF NOT EXISTS web_store.seq_product_price_history_id
+    START WITH 1
+    INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS web_store.product_price_history (
+    -- Primary Key Column
+    product_price_history_id BIGINT NOT NULL DEFAULT nextval('web_store.seq_product_price_history_id') PRIMARY KEY,
+
+    -- Business Columns
+    -- No foreign keys: history outlives deleted prices, products and currencies
+    product_price_id INT,
+    product_id INT NOT NULL,
+    currency_id INT NOT NULL,
+    price_amount NUMERIC(38, 0) NOT NULL,
+    valid_from TIMESTAMP NOT NULL,
+    valid_to TIMESTAMP,
+
+    -- Audit Columns
+    created_by VARCHAR(50),
+    closed_by VARCHAR(50),
+
+    -- Constraints
+    CONSTRAINT chk_product_price_history_validity
+        CHECK (valid_to IS NULL OR valid_to > valid_from),
+    CONSTRAINT excl_product_price_history_overlap
+        EXCLUDE USING gist (
+            product_id WITH =,
+            currency_id WITH =,
+            tsrange(valid_from, valid_to) WITH &&
+        )
+);
+
+-- The current price of a pair, closed on every change
+CREATE UNIQUE INDEX IF NOT EXISTS uk_product_price_history_open
+    ON web_store.product_price_history (product_id, currency_id)
+    WHERE valid_to IS NULL;
+
+-- Existing prices become the first history rows
+INSERT INTO web_store.product_price_history
+    (product_price_id, product_id, currency_id, price_amount, valid_from, created_by)
+SELECT product_price_id, product_id, currency_id, price_amount,
+       COALESCE(updated_at, created_at, CURRENT_TIMESTAMP), COALESCE(updated_by, created_by)
+FROM web_store.product_prices;
@@ -0,0 +1,57 @@
+-- =====================================================
+-- Flyway Migration V18: Create Promotions
+-- =====================================================
+-- Purpose: Time-boxed discounts on a product, on every product of
+--          a category or on every product of a catalogue. A
+--          promotion runs from starts_at (inclusive) until ends_at
+--          (exclusive). PERCENT takes discount_value percent off
+--          every price; AMOUNT takes discount_value minor units off
+--          the price in currency_id only. Where several promotions
+--          apply, the lowest resulting price wins.
+-- =====================================================
+
+CREATE SEQUENCE IF NOT EXISTS web_store.seq_promotion_id
+    START WITH 1
+    INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS web_store.promotions (
+    -- Primary Key Column
+    promotion_id INT NOT NULL DEFAULT nextval('web_store.seq_promotion_id') PRIMARY KEY,
+
+    -- Business Columns
+    promotion_name VARCHAR(100) NOT NULL,
+    scope VARCHAR(20) NOT NULL,
+    -- product_id, category_id or catalogue_id depending on scope; no FK because it is polymorphic
+    target_id INT NOT NULL,
+    discount_type VARCHAR(20) NOT NULL,
+    discount_value NUMERIC(38, 2) NOT NULL,
+    currency_id INT,
+    starts_at TIMESTAMP NOT NULL,
+    ends_at TIMESTAMP NOT NULL,
+
+    -- Audit Columns
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_by VARCHAR(50),
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_by VARCHAR(50),
+
+    -- Constraints
+    CONSTRAINT fk_promotion_currency
+        FOREIGN KEY (currency_id)
+        REFERENCES web_store.currencies(currency_id)
+        ON DELETE CASCADE,
+    CONSTRAINT chk_promotion_scope CHECK (scope IN ('PRODUCT', 'CATEGORY', 'CATALOGUE')),
+    CONSTRAINT chk_promotion_discount CHECK (
+        (discount_type = 'PERCENT' AND discount_value > 0 AND discount_value <= 100 AND currency_id IS NULL)
+        OR (discount_type = 'AMOUNT' AND discount_value > 0 AND discount_value = TRUNC(discount_value)
+            AND currency_id IS NOT NULL)),
+    CONSTRAINT chk_promotion_window CHECK (ends_at > starts_at)
+);
+
+-- Loading the running promotions and finding the next boundary both filter on the window
+CREATE INDEX IF NOT EXISTS idx_promotions_window
+    ON web_store.promotions (ends_at, starts_at);
+
+INSERT INTO web_store.cache_versions (table_name)
+VALUES ('promotions')
+ON CONFLICT (table_name) DO NOTHING;
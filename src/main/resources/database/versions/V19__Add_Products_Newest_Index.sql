@@ -0,0 +1,14 @@
+-- =====================================================
+-- Flyway Migration V19: Index Products By Catalogue-Category And Age
+-- =====================================================
+-- Purpose: Serve "the newest N products of a catalogue-category"
+--          with an index scan that stops after N rows instead of
+--          sorting every product of the catalogue-category. The
+--          catalogue_category_id prefix also covers the lookups of
+--          idx_products_catalogue_category, which is dropped.
+-- =====================================================
+
+CREATE INDEX IF NOT EXISTS idx_products_catalogue_category_newest
+    ON web_store.products (catalogue_category_id, created_at DESC NULLS LAST, product_id DESC);
+
+DROP INDEX IF EXISTS web_store.idx_products_catalogue_category;
@@ -0,0 +1,35 @@
+-- =====================================================
+-- Flyway Migration V20: Create Product Stats
+-- =====================================================
+-- Purpose: How often each product is viewed, selected, added to a
+--          cart and checked out in the WhatsApp bot. Instances count
+--          in memory and periodically add their deltas here, so the
+--          table holds the totals of all instances. score weighs the
+--          counters into one popularity figure, and "popular first"
+--          orderings read it through idx_product_stats_score.
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS web_store.product_stats (
+    -- Primary Key Column
+    product_id INT NOT NULL PRIMARY KEY,
+
+    -- Business Columns
+    views BIGINT NOT NULL DEFAULT 0,
+    selections BIGINT NOT NULL DEFAULT 0,
+    cart_adds BIGINT NOT NULL DEFAULT 0,
+    checkouts BIGINT NOT NULL DEFAULT 0,
+    -- A checkout says more about a product than a glance at it
+    score BIGINT GENERATED ALWAYS AS (views + 2 * selections + 5 * cart_adds + 10 * checkouts) STORED,
+
+    -- Audit Columns
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    -- Constraints
+    CONSTRAINT fk_product_stats_product
+        FOREIGN KEY (product_id)
+        REFERENCES web_store.products(product_id)
+        ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_product_stats_score
+    ON web_store.product_stats (score DESC, product_id);
@@ -0,0 +1,149 @@
+package com.webstore.perf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Latencies of the calls a load run makes, recorded per operation from any number of threads and summarised
+ * as percentiles and histograms once the run is over. Operations are reported in the order they were first
+ * recorded.
+ */
+public class LatencyRecorder {
+
+    private final Map<String, Samples> samplesByOperation = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    public void record(String operation, long nanos, boolean success) {
+        samplesByOperation.computeIfAbsent(operation, key -> new Samples()).add(nanos, success);
+    }
+
+    public record Summary(String operation, int count, int errors, double p50Millis, double p90Millis,
+            double p99Millis, double maxMillis, double meanMillis) {
+    }
+
+    public List<Summary> summaries() {
+        List<Summary> summaries = new ArrayList<>();
+        synchronized (samplesByOperation) {
+            samplesByOperation.forEach((operation, samples) -> summaries.add(samples.summarise(operation)));
+        }
+        return summaries;
+    }
+
+    /* Upper bounds of the histogram buckets in milliseconds; a last, open bucket holds anything slower */
+    public static final double[] BUCKET_BOUNDS_MILLIS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000};
+
+    /* Per operation, how many calls fell in each bucket of BUCKET_BOUNDS_MILLIS, with the open bucket last */
+    public Map<String, long[]> histograms() {
+        Map<String, long[]> histograms = new LinkedHashMap<>();
+        synchronized (samplesByOperation) {
+            samplesByOperation.forEach((operation, samples) -> histograms.put(operation, samples.histogram()));
+        }
+        return histograms;
+    }
+
+    /* Every operation's samples together, as one summary */
+    public Summary total(String name) {
+        Samples all = new Samples();
+        synchronized (samplesByOperation) {
+            samplesByOperation.values().forEach(all::addAll);
+        }
+        return all.summarise(name);
+    }
+
+    /* A Markdown table of the summaries, with each operation's throughput over the run's wall time */
+    public static String markdownTable(List<Summary> summaries, double elapsedSeconds) {
+        StringBuilder md = new StringBuilder("| Operation | Calls | Errors | Calls/s | p50 ms | p90 ms | p99 ms | max ms |\n")
+                .append("|---|---:|---:|---:|---:|---:|---:|---:|\n");
+        for (Summary s : summaries) {
+            md.append(String.format("| %s | %d | %d | %.1f | %.1f | %.1f | %.1f | %.1f |%n", s.operation(), s.count(),
+                    s.errors(), s.count() / elapsedSeconds, s.p50Millis(), s.p90Millis(), s.p99Millis(), s.maxMillis()));
+        }
+        return md.toString();
+    }
+
+    /* A Markdown table of the histograms, one row per operation, as the share of its calls in each bucket */
+    public static String markdownHistograms(Map<String, long[]> histograms) {
+        StringBuilder md = new StringBuilder("| Operation |");
+        StringBuilder align = new StringBuilder("|---|");
+        for (double bound : BUCKET_BOUNDS_MILLIS) {
+            md.append(String.format(" ≤%.0f ms |", bound));
+            align.append("---:|");
+        }
+        md.append(String.format(" >%.0f ms |%n", BUCKET_BOUNDS_MILLIS[BUCKET_BOUNDS_MILLIS.length - 1]))
+                .append(align).append("---:|\n");
+        histograms.forEach((operation, counts) -> {
+            long total = Arrays.stream(counts).sum();
+            md.append("| ").append(operation).append(" |");
+            for (long count : counts) {
+                md.append(count == 0 ? " |" : String.format(" %.1f%% |", 100.0 * count / total));
+            }
+            md.append('\n');
+        });
+        return md.toString();
+    }
+
+    private static final class Samples {
+
+        private long[] nanos = new long[1024];
+        private int count;
+        private int errors;
+
+        synchronized void add(long value, boolean success) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = value;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        synchronized void addAll(Samples other) {
+            long[] values = other.snapshot();
+            for (long value : values) {
+                add(value, true);
+            }
+            errors += other.errorCount();
+        }
+
+        synchronized long[] snapshot() {
+            return Arrays.copyOf(nanos, count);
+        }
+
+        synchronized int errorCount() {
+            return errors;
+        }
+
+        synchronized long[] histogram() {
+            long[] counts = new long[BUCKET_BOUNDS_MILLIS.length + 1];
+            for (int i = 0; i < count; i++) {
+                double millis = nanos[i] / 1_000_000.0;
+                int bucket = 0;
+                while (bucket < BUCKET_BOUNDS_MILLIS.length && millis > BUCKET_BOUNDS_MILLIS[bucket]) {
+                    bucket++;
+                }
+                counts[bucket]++;
+            }
+            return counts;
+        }
+
+        synchronized Summary summarise(String operation) {
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            double mean = count == 0 ? 0 : Arrays.stream(sorted).average().orElse(0) / 1_000_000.0;
+            return new Summary(operation, count, errors, percentile(sorted, 0.50), percentile(sorted, 0.90),
+                    percentile(sorted, 0.99), count == 0 ? 0 : sorted[count - 1] / 1_000_000.0, mean);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.webstore.perf;
+
+import org.springframework.boot.env.PropertiesPropertySourceLoader;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/*
+ * The application's configuration for the perf tools that run without the Spring context: application.properties
+ * and the active profile's file over it, with the same ${ENV:default} placeholders, so a tool connects to the
+ * database the app would (DB_URL, DB_USERNAME and DB_PASSWORD).
+ */
+public final class PerfEnvironment {
+
+    private PerfEnvironment() {
+    }
+
+    public static StandardEnvironment load() {
+        StandardEnvironment environment = new StandardEnvironment();
+        addLast(environment, "application.properties");
+        String profiles = environment.getProperty("spring.profiles.active", "");
+        for (String profile : profiles.split(",")) {
+            if (!profile.isBlank()) {
+                // A profile file overrides the base file, so it goes in front of it
+                ClassPathResource resource = new ClassPathResource("application-" + profile.trim() + ".properties");
+                if (resource.exists()) {
+                    loadResource(resource).forEach(source -> environment.getPropertySources()
+                            .addBefore("application.properties", source));
+                }
+            }
+        }
+        return environment;
+    }
+
+    public static DataSource dataSource() {
+        StandardEnvironment environment = load();
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                environment.getRequiredProperty("spring.datasource.url"),
+                environment.getRequiredProperty("spring.datasource.username"),
+                environment.getRequiredProperty("spring.datasource.password"));
+        dataSource.setDriverClassName("org.postgresql.Driver");
+        return dataSource;
+    }
+
+    private static void addLast(StandardEnvironment environment, String name) {
+        loadResource(new ClassPathResource(name)).forEach(environment.getPropertySources()::addLast);
+    }
+
+    private static List<PropertySource<?>> loadResource(ClassPathResource resource) {
+        try {
+            return new PropertiesPropertySourceLoader().load(resource.getFilename(), resource);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + resource.getFilename(), e);
+        }
+    }
+}
@@ -0,0 +1,428 @@
+package com.webstore.perf.catalog;
+
+import com.webstore.perf.PerfEnvironment;
+import com.webstore.perf.PerfOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/*
+ * Fills the database with a synthetic catalog for measuring queries at realistic sizes: sellers, catalogues,
+ * categories, catalogue-category mappings, products and prices, loaded with COPY. The shape follows a live
+ * marketplace rather than a uniform spread: a few sellers and catalogue-categories hold most of the products
+ * (Zipf), one seller in ten is inactive, creation dates lean recent, prices are log-normal, and every product
+ * has an INR price with some also priced in USD, EUR or GBP.
+ *
+ * Generated rows are marked created_by = 'perf-generator'. Generating tops the catalog up to the requested
+ * product count, so growing from 10k to 100k only loads the difference; --clean deletes the generated rows.
+ * A running app only sees the rows after a restart, since COPY bypasses the change log its caches follow.
+ *
+ * Run with: gradle generateCatalog -Pproducts=100000 (or -Pclean)
+ */
+@Slf4j
+public class CatalogGenerator {
+
+    static final String GENERATED_BY = "perf-generator";
+
+    private static final int CATALOGUES = 40;
+    private static final int CATEGORIES = 400;
+    private static final int PRODUCTS_PER_SELLER = 50;
+    private static final int MIN_SELLERS = 20;
+    private static final double ZIPF_EXPONENT = 1.1;
+    private static final int FLUSH_CHARS = 1 << 20;
+
+    /* Prices are generated in INR minor units; the other currencies are converted at these rates */
+    private static final String BASE_CURRENCY = "INR";
+    private static final Map<String, Double> EXTRA_CURRENCIES = new LinkedHashMap<>();
+
+    static {
+        EXTRA_CURRENCIES.put("USD", 0.55);
+        EXTRA_CURRENCIES.put("EUR", 0.25);
+        EXTRA_CURRENCIES.put("GBP", 0.10);
+    }
+
+    private static final Map<String, Double> RATES_FROM_INR = Map.of("USD", 0.012, "EUR", 0.011, "GBP", 0.0095);
+
+    static final String[] ADJECTIVES = {"Organic", "Fresh", "Premium", "Classic", "Roasted", "Spicy", "Golden",
+            "Crunchy", "Natural", "Smoked", "Wholegrain", "Handmade", "Frozen", "Sweet", "Wild", "Masala"};
+    static final String[] NOUNS = {"Rice", "Tea", "Coffee", "Honey", "Almonds", "Cashews", "Lentils", "Ghee",
+            "Paneer", "Mangoes", "Biscuits", "Noodles", "Pickle", "Chutney", "Juice", "Oats", "Spices", "Chocolate",
+            "Dates", "Flour", "Sauce", "Soap", "Shampoo", "Candles", "Notebook", "Mug", "Towel", "Basket"};
+    private static final String[] ORIGINS = {"Kerala", "Assam", "Punjab", "Darjeeling", "Goa", "Coorg", "Nilgiris",
+            "Kashmir", "Rajasthan", "Gujarat"};
+    private static final String[] PACKS = {"250 g", "500 g", "1 kg", "2 kg", "pack of 6", "pack of 12", "1 litre",
+            "single piece"};
+    private static final String[] SELLER_NAMES = {"Sharma", "Patel", "Iyer", "Khan", "Reddy", "Das", "Mehta",
+            "Nair", "Singh", "Gupta", "Joshi", "Fernandes"};
+    private static final String[] SELLER_TRADES = {"Foods", "Traders", "Organics", "Stores", "Mart", "Exports",
+            "Essentials", "Bazaar"};
+    private static final String[] THEMES = {"Grocery", "Snacks", "Beverages", "Dairy", "Bakery", "Personal Care",
+            "Home", "Stationery", "Gourmet", "Festive"};
+
+    private final DataSource dataSource;
+    private final long seed;
+
+    public CatalogGenerator(DataSource dataSource, long seed) {
+        this.dataSource = dataSource;
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) throws SQLException {
+        PerfOptions options = PerfOptions.parse(args);
+        CatalogGenerator generator = new CatalogGenerator(PerfEnvironment.dataSource(), options.getLong("seed", 42));
+        if (options.has("clean")) {
+            generator.clean();
+        } else {
+            generator.generate(options.getInt("products", 10_000));
+        }
+    }
+
+    /* Counts of the generated rows after a run */
+    public record CatalogSize(int sellers, int catalogueCategories, int products, int prices) {
+    }
+
+    /*
+     * Tops the generated catalog up to the given number of products, in one transaction, and refreshes the
+     * planner statistics. Asking for fewer products than already generated adds nothing.
+     */
+    public CatalogSize generate(int targetProducts) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                int existingProducts = countGenerated(connection, "products");
+                // Seeded from the starting size too, so each top-up draws different rows but reruns match
+                SplittableRandom random = new SplittableRandom(seed * 31 + existingProducts);
+
+                if (countGenerated(connection, "catalogues") == 0) {
+                    insertTaxonomy(connection, random);
+                }
+                int targetSellers = Math.max(MIN_SELLERS, targetProducts / PRODUCTS_PER_SELLER);
+                int newSellers = targetSellers - countGenerated(connection, "sellers");
+                if (newSellers > 0) {
+                    insertSellers(connection, random, newSellers);
+                }
+                int newProducts = targetProducts - existingProducts;
+                if (newProducts > 0) {
+                    long started = System.nanoTime();
+                    int prices = insertProducts(connection, random, newProducts);
+                    log.info("Loaded {} products and {} prices in {} ms", newProducts, prices,
+                            (System.nanoTime() - started) / 1_000_000);
+                }
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                for (String table : List.of("sellers", "catalogues", "categories", "catalogue_categories",
+                        "products", "product_prices")) {
+                    statement.execute("ANALYZE web_store." + table);
+                }
+            }
+            CatalogSize size = new CatalogSize(countGenerated(connection, "sellers"),
+                    countGenerated(connection, "catalogue_categories"), countGenerated(connection, "products"),
+                    countGenerated(connection, "product_prices"));
+            log.info("Generated catalog: {}", size);
+            return size;
+        }
+    }
+
+    /* Deletes every generated row; prices, reservations and stats of generated products go with them */
+    public void clean() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                for (String table : List.of("products", "catalogue_categories", "categories", "catalogues",
+                        "sellers")) {
+                    try (PreparedStatement statement = connection.prepareStatement(
+                            "DELETE FROM web_store." + table + " WHERE created_by = ?")) {
+                        statement.setString(1, GENERATED_BY);
+                        log.info("Deleted {} generated rows from {}", statement.executeUpdate(), table);
+                    }
+                }
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private void insertTaxonomy(Connection connection, SplittableRandom random) throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        int[] catalogueIds = reserveIds(connection, "seq_catalogues_id", CATALOGUES);
+        try (CopyWriter copy = new CopyWriter(connection, "COPY web_store.catalogues (catalogue_id, catalogue_name, "
+                + "catalogue_description, created_at, created_by, updated_at, updated_by) FROM STDIN WITH (FORMAT csv)")) {
+            for (int id : catalogueIds) {
+                String theme = THEMES[random.nextInt(THEMES.length)];
+                copy.row(id, theme + " Catalogue " + id, "Generated " + theme.toLowerCase() + " catalogue",
+                        now, GENERATED_BY, now, GENERATED_BY);
+            }
+            copy.finish();
+        }
+
+        int[] categoryIds = reserveIds(connection, "seq_categories_id", CATEGORIES);
+        try (CopyWriter copy = new CopyWriter(connection, "COPY web_store.categories (category_id, category_name, "
+                + "category_description, created_at, created_by, updated_at, updated_by) FROM STDIN WITH (FORMAT csv)")) {
+            for (int id : categoryIds) {
+                String noun = NOUNS[random.nextInt(NOUNS.length)];
+                copy.row(id, ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + noun + " " + id,
+                        "Generated category of " + noun.toLowerCase(), now, GENERATED_BY, now, GENERATED_BY);
+            }
+            copy.finish();
+        }
+
+        // Every category sits in one catalogue, and about a third in a second one as well
+        List<int[]> mappings = new ArrayList<>();
+        for (int i = 0; i < categoryIds.length; i++) {
+            int first = i % catalogueIds.length;
+            mappings.add(new int[]{catalogueIds[first], categoryIds[i]});
+            if (random.nextDouble() < 0.3) {
+                int second = (first + 1 + random.nextInt(catalogueIds.length - 1)) % catalogueIds.length;
+                mappings.add(new int[]{catalogueIds[second], categoryIds[i]});
+            }
+        }
+        int[] mappingIds = reserveIds(connection, "seq_catalogue_categories_id", mappings.size());
+        try (CopyWriter copy = new CopyWriter(connection, "COPY web_store.catalogue_categories (catalogue_category_id, "
+                + "catalogue_id, category_id, created_at, created_by, updated_at, updated_by) FROM STDIN WITH (FORMAT csv)")) {
+            for (int i = 0; i < mappings.size(); i++) {
+                copy.row(mappingIds[i], mappings.get(i)[0], mappings.get(i)[1], now, GENERATED_BY, now, GENERATED_BY);
+            }
+            copy.finish();
+        }
+        log.info("Generated {} catalogues, {} categories and {} catalogue-categories", catalogueIds.length,
+                categoryIds.length, mappings.size());
+    }
+
+    private void insertSellers(Connection connection, SplittableRandom random, int count) throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = LocalDate.now();
+        int[] ids = reserveIds(connection, "seq_seller_id", count);
+        try (CopyWriter copy = new CopyWriter(connection, "COPY web_store.sellers (seller_id, name, email, status, "
+                + "joining_date, created_at, created_by, updated_at, updated_by, role) FROM STDIN WITH (FORMAT csv)")) {
+            for (int id : ids) {
+                String name = SELLER_NAMES[random.nextInt(SELLER_NAMES.length)] + " "
+                        + SELLER_TRADES[random.nextInt(SELLER_TRADES.length)] + " " + id;
+                // Joining dates spread over five years, more of them recent
+                LocalDate joined = today.minusDays((long) (5 * 365 * Math.pow(random.nextDouble(), 2)));
+                copy.row(id, name, "seller" + id + "@perf.webstore.test",
+                        random.nextDouble() < 0.9 ? "ACTIVE" : "INACTIVE", joined, now, GENERATED_BY, now,
+                        GENERATED_BY, "SELLER");
+            }
+            copy.finish();
+        }
+        log.info("Generated {} sellers", count);
+    }
+
+    private int insertProducts(Connection connection, SplittableRandom random, int count) throws SQLException {
+        int[] sellerIds = generatedIds(connection, "sellers", "seller_id");
+        int[] mappingIds = generatedIds(connection, "catalogue_categories", "catalogue_category_id");
+        // Shuffled once with the seed so the popular catalogue-categories are spread over the catalogues
+        shuffle(mappingIds);
+        ZipfSampler sellerRanks = new ZipfSampler(sellerIds.length, ZIPF_EXPONENT);
+        ZipfSampler mappingRanks = new ZipfSampler(mappingIds.length, ZIPF_EXPONENT);
+        Map<String, Integer> currencyIds = currencyIds(connection);
+        Integer baseCurrencyId = currencyIds.get(BASE_CURRENCY);
+        if (baseCurrencyId == null) {
+            throw new IllegalStateException("Currency " + BASE_CURRENCY + " is missing; run the migrations first");
+        }
+
+        int[] productIds = reserveIds(connection, "seq_products_id", count);
+        long[] basePrices = new long[count];
+        LocalDateTime now = LocalDateTime.now();
+        try (CopyWriter copy = new CopyWriter(connection, "COPY web_store.products (product_id, product_name, "
+                + "product_description, created_at, created_by, updated_at, updated_by, catalogue_category_id, "
+                + "seller_id, image_url, stock) FROM STDIN WITH (FORMAT csv)")) {
+            for (int i = 0; i < count; i++) {
+                int id = productIds[i];
+                String noun = NOUNS[random.nextInt(NOUNS.length)];
+                String name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + noun + " " + id;
+                String description = noun + " from " + ORIGINS[random.nextInt(ORIGINS.length)] + ", "
+                        + PACKS[random.nextInt(PACKS.length)];
+                // Two years of listings, most of them recent
+                LocalDateTime created = now.minusSeconds((long) (730L * 86_400 * Math.pow(random.nextDouble(), 2)));
+                int stock = random.nextDouble() < 0.08 ? 0 : 1 + random.nextInt(500);
+                copy.row(id, name, description, created, GENERATED_BY, created, GENERATED_BY,
+                        mappingIds[mappingRanks.sample(random)], sellerIds[sellerRanks.sample(random)], null, stock);
+                // Log-normal around 500 rupees, at least 1 rupee
+                basePrices[i] = Math.max(100, Math.round(Math.exp(Math.log(50_000) + random.nextGaussian())));
+            }
+            copy.finish();
+        }
+
+        int prices = 0;
+        try (CopyWriter copy = new CopyWriter(connection, "COPY web_store.product_prices (product_id, currency_id, "
+                + "price_amount, created_at, created_by, updated_at, updated_by) FROM STDIN WITH (FORMAT csv)")) {
+            for (int i = 0; i < count; i++) {
+                copy.row(productIds[i], baseCurrencyId, basePrices[i], now, GENERATED_BY, now, GENERATED_BY);
+                prices++;
+                for (Map.Entry<String, Double> extra : EXTRA_CURRENCIES.entrySet()) {
+                    Integer currencyId = currencyIds.get(extra.getKey());
+                    if (currencyId != null && random.nextDouble() < extra.getValue()) {
+                        long amount = Math.max(1, Math.round(basePrices[i] * RATES_FROM_INR.get(extra.getKey())));
+                        copy.row(productIds[i], currencyId, amount, now, GENERATED_BY, now, GENERATED_BY);
+                        prices++;
+                    }
+                }
+            }
+            copy.finish();
+        }
+        return prices;
+    }
+
+    private void shuffle(int[] values) {
+        Random random = new Random(seed);
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+    }
+
+    /* Takes ids from the table's sequence, so rows added later by the app never collide with generated ones */
+    private static int[] reserveIds(Connection connection, String sequence, int count) throws SQLException {
+        int[] ids = new int[count];
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT nextval('web_store." + sequence + "') FROM generate_series(1, ?)")) {
+            statement.setInt(1, count);
+            statement.setFetchSize(10_000);
+            try (ResultSet rs = statement.executeQuery()) {
+                int i = 0;
+                while (rs.next()) {
+                    ids[i++] = rs.getInt(1);
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static int[] generatedIds(Connection connection, String table, String idColumn) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT " + idColumn + " FROM web_store." + table + " WHERE created_by = ? ORDER BY " + idColumn)) {
+            statement.setString(1, GENERATED_BY);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int countGenerated(Connection connection, String table) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT count(*) FROM web_store." + table + " WHERE created_by = ?")) {
+            statement.setString(1, GENERATED_BY);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    private static Map<String, Integer> currencyIds(Connection connection) throws SQLException {
+        Map<String, Integer> ids = new LinkedHashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT currency_code, currency_id FROM web_store.currencies")) {
+            while (rs.next()) {
+                ids.put(rs.getString(1), rs.getInt(2));
+            }
+        }
+        return ids;
+    }
+
+    /* Zipf-distributed ranks 0..n-1: rank 0 is drawn most often, rank k about 1/(k+1)^s as often */
+    static final class ZipfSampler {
+
+        private final double[] cumulative;
+
+        ZipfSampler(int n, double exponent) {
+            cumulative = new double[n];
+            double sum = 0;
+            for (int k = 0; k < n; k++) {
+                sum += 1 / Math.pow(k + 1, exponent);
+                cumulative[k] = sum;
+            }
+            for (int k = 0; k < n; k++) {
+                cumulative[k] /= sum;
+            }
+        }
+
+        int sample(SplittableRandom random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+        }
+    }
+
+    /*
+     * One COPY ... FROM STDIN in CSV format, written a buffer at a time. Closing without finish() cancels
+     * the copy, so a failed load leaves nothing behind once the transaction rolls back.
+     */
+    private static final class CopyWriter implements AutoCloseable {
+
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(FLUSH_CHARS + 1024);
+
+        CopyWriter(Connection connection, String sql) throws SQLException {
+            this.copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+        }
+
+        void row(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    buffer.append(',');
+                }
+                Object value = values[i];
+                if (value instanceof String text) {
+                    buffer.append('"').append(text.replace("\"", "\"\"")).append('"');
+                } else if (value != null) {
+                    // An unquoted empty field is NULL in CSV COPY
+                    buffer.append(value);
+                }
+            }
+            buffer.append('\n');
+            if (buffer.length() >= FLUSH_CHARS) {
+                flush();
+            }
+        }
+
+        void finish() throws SQLException {
+            flush();
+            copyIn.endCopy();
+        }
+
+        private void flush() throws SQLException {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package com.webstore.perf.catalog;
+
+import com.webstore.WebStoreSpringBootApp;
+import com.webstore.entity.Seller.SellerStatus;
+import com.webstore.perf.PerfOptions;
+import com.webstore.repository.CategoryRepository;
+import com.webstore.repository.ProductRepository;
+import com.webstore.repository.SellerRepository;
+import com.webstore.service.CatalogueService;
+import com.webstore.service.CategoryService;
+import com.webstore.service.ProductService;
+import com.webstore.service.SellerService;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*
+ * Times every query of ProductRepository, CategoryRepository and SellerRepository, and the catalog listing
+ * service methods, at growing catalog sizes. For each scale the synthetic catalog is topped up with
+ * CatalogGenerator, then each call is sampled (after a short warmup) with the Hibernate and Spring caches
+ * emptied before every sample, so the numbers are database round trips rather than cache hits. Arguments
+ * target the busiest generated seller, category and catalogue-category, the worst case a Zipf catalog has.
+ *
+ * Writes report.md (p50/p99 per query and scale, with the growth from the smallest to the largest scale)
+ * and results.csv to --report-dir. Repository queries without a case here are listed in the report, so a
+ * new query cannot silently go unmeasured; the @Modifying ones are left out on purpose. The generated catalog
+ * is left in place for a rerun or a closer look; gradle generateCatalog -Pclean removes it.
+ *
+ * Run with: gradle catalogScalingBenchmark -Pscales=10000,100000,1000000 -Psamples=50
+ */
+@Slf4j
+public class CatalogScalingBenchmark {
+
+    private static final int WARMUP_CALLS = 3;
+    private static final long MAX_NANOS_PER_CASE = TimeUnit.SECONDS.toNanos(30);
+    private static final int PAGE_SIZE = 20;
+    private static final List<Class<?>> MEASURED_REPOSITORIES =
+            List.of(ProductRepository.class, CategoryRepository.class, SellerRepository.class);
+
+    private final ConfigurableApplicationContext context;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final CacheManager cacheManager;
+    private final int samples;
+
+    CatalogScalingBenchmark(ConfigurableApplicationContext context, int samples) {
+        this.context = context;
+        this.jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+        this.entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        this.cacheManager = context.getBean(CacheManager.class);
+        this.samples = samples;
+    }
+
+    public static void main(String[] args) throws Exception {
+        PerfOptions options = PerfOptions.parse(args);
+        List<Integer> scales = options.getIntList("scales", "10000,100000,1000000");
+        Path reportDir = Path.of(options.get("report-dir", "build/reports/catalog-scaling"));
+
+        // Background work (outbox relay, cache listener, outbound sender, SQL metrics) would only add noise;
+        // passed as arguments since those outrank the application and profile properties files
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(WebStoreSpringBootApp.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.format_sql=false",
+                        "--spring.jpa.hibernate.ddl-auto=validate",
+                        "--outbox.enabled=false",
+                        "--cache.invalidation.enabled=false",
+                        "--whatsapp.outbound.enabled=false",
+                        "--sql.metrics.enabled=false",
+                        "--logging.level.com.webstore=WARN",
+                        "--logging.level.com.webstore.perf=INFO")) {
+            CatalogScalingBenchmark benchmark = new CatalogScalingBenchmark(context, options.getInt("samples", 50));
+            CatalogGenerator generator = new CatalogGenerator(context.getBean(DataSource.class),
+                    options.getLong("seed", 42));
+
+            Map<Integer, CatalogGenerator.CatalogSize> sizes = new LinkedHashMap<>();
+            Map<String, Map<Integer, Result>> results = new LinkedHashMap<>();
+            for (int scale : scales) {
+                sizes.put(scale, generator.generate(scale));
+                Arguments arguments = benchmark.pickArguments();
+                log.info("Measuring at {} products with {}", scale, arguments);
+                for (QueryCase queryCase : benchmark.cases()) {
+                    Result result = benchmark.measure(queryCase, arguments);
+                    results.computeIfAbsent(queryCase.name(), name -> new LinkedHashMap<>()).put(scale, result);
+                    log.info("{} at {}: {}", queryCase.name(), scale, result);
+                }
+            }
+            benchmark.writeReport(reportDir, scales, sizes, results);
+        }
+    }
+
+    /* A named call with the arguments chosen for the current scale */
+    record QueryCase(String name, Function<Arguments, Object> call) {
+    }
+
+    /* Arguments drawn from the generated catalog, aimed at its busiest rows */
+    record Arguments(Integer sellerId, String sellerEmail, Integer categoryId, String categoryName,
+            Integer catalogueId, Integer catalogueCategoryId, Integer productId, String productName,
+            List<Integer> productIds, String searchTerm, String sellerKeyword) {
+    }
+
+    record Result(int samples, int rows, double p50Millis, double p99Millis, double meanMillis, String error) {
+
+        static Result failed(String error) {
+            return new Result(0, 0, 0, 0, 0, error);
+        }
+
+        @Override
+        public String toString() {
+            return error != null ? "failed: " + error
+                    : String.format("p50 %.2f ms, p99 %.2f ms, %d rows, %d samples", p50Millis, p99Millis, rows, samples);
+        }
+    }
+
+    Arguments pickArguments() {
+        String generated = CatalogGenerator.GENERATED_BY;
+        Integer sellerId = jdbcTemplate.queryForObject("SELECT seller_id FROM web_store.products "
+                + "WHERE created_by = ? GROUP BY seller_id ORDER BY count(*) DESC LIMIT 1", Integer.class, generated);
+        Integer catalogueCategoryId = jdbcTemplate.queryForObject("SELECT catalogue_category_id FROM web_store.products "
+                + "WHERE created_by = ? GROUP BY catalogue_category_id ORDER BY count(*) DESC LIMIT 1",
+                Integer.class, generated);
+        Map<String, Object> mapping = jdbcTemplate.queryForMap("SELECT cc.catalogue_id, c.category_id, c.category_name "
+                + "FROM web_store.catalogue_categories cc JOIN web_store.categories c ON c.category_id = cc.category_id "
+                + "WHERE cc.catalogue_category_id = ?", catalogueCategoryId);
+        List<Integer> productIds = jdbcTemplate.queryForList("SELECT product_id FROM web_store.products "
+                + "WHERE created_by = ? ORDER BY product_id DESC LIMIT " + PAGE_SIZE, Integer.class, generated);
+        String productName = jdbcTemplate.queryForObject("SELECT product_name FROM web_store.products "
+                + "WHERE product_id = ?", String.class, productIds.get(0));
+        String sellerEmail = jdbcTemplate.queryForObject("SELECT email FROM web_store.sellers WHERE seller_id = ?",
+                String.class, sellerId);
+        return new Arguments(sellerId, sellerEmail, (Integer) mapping.get("category_id"),
+                (String) mapping.get("category_name"), (Integer) mapping.get("catalogue_id"), catalogueCategoryId,
+                productIds.get(0), productName, productIds, CatalogGenerator.NOUNS[1].toLowerCase(), "patel");
+    }
+
+    List<QueryCase> cases() {
+        ProductRepository products = context.getBean(ProductRepository.class);
+        CategoryRepository categories = context.getBean(CategoryRepository.class);
+        SellerRepository sellers = context.getBean(SellerRepository.class);
+        ProductService productService = context.getBean(ProductService.class);
+        CategoryService categoryService = context.getBean(CategoryService.class);
+        SellerService sellerService = context.getBean(SellerService.class);
+        CatalogueService catalogueService = context.getBean(CatalogueService.class);
+        LocalDate today = LocalDate.now();
+
+        List<QueryCase> cases = new ArrayList<>();
+        cases.add(new QueryCase("ProductRepository.existsByProductName", a -> products.existsByProductName(a.productName())));
+        cases.add(new QueryCase("ProductRepository.findByCatalogueCategoryId", a -> products.findByCatalogueCategoryId(a.catalogueCategoryId())));
+        cases.add(new QueryCase("ProductRepository.findByCategoryId", a -> products.findByCategoryId(a.categoryId())));
+        cases.add(new QueryCase("ProductRepository.findByCategoryName", a -> products.findByCategoryName(a.categoryName())));
+        cases.add(new QueryCase("ProductRepository.findByCatalogueId", a -> products.findByCatalogueId(a.catalogueId())));
+        cases.add(new QueryCase("ProductRepository.findByCatalogueIdAndCategoryId", a -> products.findByCatalogueIdAndCategoryId(a.catalogueId(), a.categoryId())));
+        cases.add(new QueryCase("ProductRepository.findNewestIdsByCatalogueCategoryId", a -> products.findNewestIdsByCatalogueCategoryId(a.catalogueCategoryId(), PAGE_SIZE)));
+        cases.add(new QueryCase("ProductRepository.findNewestIdsPerCatalogueCategory", a -> products.findNewestIdsPerCatalogueCategory(PAGE_SIZE)));
+        cases.add(new QueryCase("ProductRepository.findProductNamesByCategoryId", a -> products.findProductNamesByCategoryId(a.categoryId())));
+        cases.add(new QueryCase("ProductRepository.findProductIdsAndNamesByCategoryId", a -> products.findProductIdsAndNamesByCategoryId(a.categoryId())));
+        cases.add(new QueryCase("ProductRepository.findProductIdByProductName", a -> products.findProductIdByProductName(a.productName())));
+        cases.add(new QueryCase("ProductRepository.findIdsByCategoryId", a -> products.findIdsByCategoryId(a.categoryId())));
+        cases.add(new QueryCase("ProductRepository.searchByProductName", a -> products.searchByProductName(a.searchTerm())));
+        cases.add(new QueryCase("ProductRepository.searchByProductDescription", a -> products.searchByProductDescription(a.searchTerm())));
+        cases.add(new QueryCase("ProductRepository.searchByNameOrDescription", a -> products.searchByNameOrDescription(a.searchTerm())));
+        cases.add(new QueryCase("ProductRepository.findAllWithSeller", a -> products.findAllWithSeller()));
+        cases.add(new QueryCase("ProductRepository.findByIdWithSeller", a -> products.findByIdWithSeller(a.productId())));
+        cases.add(new QueryCase("ProductRepository.findSellerIdByProductId", a -> products.findSellerIdByProductId(a.productId())));
+        cases.add(new QueryCase("ProductRepository.findAllByIdWithRelations", a -> products.findAllByIdWithRelations(a.productIds())));
+        cases.add(new QueryCase("ProductRepository.findBySellerIdWithRelations", a -> products.findBySellerIdWithRelations(a.sellerId())));
+        cases.add(new QueryCase("ProductRepository.countProductsBySellerGroupedByCatalogueAndCategory", a -> products.countProductsBySellerGroupedByCatalogueAndCategory(a.sellerId())));
+        cases.add(new QueryCase("ProductRepository.findAllBySellerId", a -> products.findAllBySellerId(a.sellerId())));
+        cases.add(new QueryCase("ProductRepository.searchBySellerIdAndNameOrDescription", a -> products.searchBySellerIdAndNameOrDescription(a.sellerId(), a.searchTerm())));
+
+        cases.add(new QueryCase("CategoryRepository.existsByCategoryName", a -> categories.existsByCategoryName(a.categoryName())));
+        cases.add(new QueryCase("CategoryRepository.findByCategoryName", a -> categories.findByCategoryName(a.categoryName())));
+        cases.add(new QueryCase("CategoryRepository.findByCategoryNameContainingIgnoreCase", a -> categories.findByCategoryNameContainingIgnoreCase(a.searchTerm())));
+        cases.add(new QueryCase("CategoryRepository.findByCategoryDescriptionContainingIgnoreCase", a -> categories.findByCategoryDescriptionContainingIgnoreCase(a.searchTerm())));
+        cases.add(new QueryCase("CategoryRepository.findAllCategoryNames", a -> categories.findAllCategoryNames()));
+        cases.add(new QueryCase("CategoryRepository.findCategoryIdByCategoryName", a -> categories.findCategoryIdByCategoryName(a.categoryName())));
+        cases.add(new QueryCase("CategoryRepository.findTop3CategoryNames", a -> categories.findTop3CategoryNames()));
+        cases.add(new QueryCase("CategoryRepository.searchByNameOrDescription", a -> categories.searchByNameOrDescription(a.searchTerm())));
+        cases.add(new QueryCase("CategoryRepository.countProductsByCategoryId", a -> categories.countProductsByCategoryId(a.categoryId())));
+        cases.add(new QueryCase("CategoryRepository.findByIdWithRelations", a -> categories.findByIdWithRelations(a.categoryId())));
+        cases.add(new QueryCase("CategoryRepository.findAllWithRelations", a -> categories.findAllWithRelations()));
+        cases.add(new QueryCase("CategoryRepository.findBySellerId", a -> categories.findBySellerId(a.sellerId())));
+
+        cases.add(new QueryCase("SellerRepository.findByEmail", a -> sellers.findByEmail(a.sellerEmail())));
+        cases.add(new QueryCase("SellerRepository.existsByEmail", a -> sellers.existsByEmail(a.sellerEmail())));
+        cases.add(new QueryCase("SellerRepository.findByStatus", a -> sellers.findByStatus(SellerStatus.ACTIVE)));
+        cases.add(new QueryCase("SellerRepository.findByNameContainingIgnoreCase", a -> sellers.findByNameContainingIgnoreCase(a.sellerKeyword())));
+        cases.add(new QueryCase("SellerRepository.findByJoiningDateAfter", a -> sellers.findByJoiningDateAfter(today.minusDays(90))));
+        cases.add(new QueryCase("SellerRepository.findByJoiningDateBetween", a -> sellers.findByJoiningDateBetween(today.minusDays(365), today.minusDays(180))));
+        cases.add(new QueryCase("SellerRepository.searchSellers", a -> sellers.searchSellers(a.sellerKeyword())));
+        cases.add(new QueryCase("SellerRepository.countByStatus", a -> sellers.countByStatus(SellerStatus.ACTIVE)));
+
+        cases.add(new QueryCase("ProductService.getAllProducts", a -> productService.getAllProducts(0, PAGE_SIZE)));
+        cases.add(new QueryCase("ProductService.getAllProducts(USD)", a -> productService.getAllProducts(0, PAGE_SIZE, "USD")));
+        cases.add(new QueryCase("ProductService.getAllProducts(popular)", a -> productService.getAllProducts(0, PAGE_SIZE, null, true)));
+        cases.add(new QueryCase("ProductService.searchProducts", a -> productService.searchProducts(a.searchTerm())));
+        cases.add(new QueryCase("ProductService.getProductsByIds", a -> productService.getProductsByIds(a.productIds())));
+        cases.add(new QueryCase("CategoryService.getAllCategories", a -> categoryService.getAllCategories(0, PAGE_SIZE)));
+        cases.add(new QueryCase("CategoryService.searchCategories", a -> categoryService.searchCategories(a.searchTerm())));
+        cases.add(new QueryCase("SellerService.getAllSellers", a -> sellerService.getAllSellers(0, PAGE_SIZE)));
+        cases.add(new QueryCase("SellerService.searchSellers", a -> sellerService.searchSellers(a.sellerKeyword())));
+        cases.add(new QueryCase("SellerService.getSellersByStatus", a -> sellerService.getSellersByStatus(SellerStatus.ACTIVE)));
+        cases.add(new QueryCase("SellerService.getSellersJoinedAfter", a -> sellerService.getSellersJoinedAfter(today.minusDays(90))));
+        cases.add(new QueryCase("CatalogueService.getAllCatalogues", a -> catalogueService.getAllCatalogues(0, PAGE_SIZE)));
+        cases.add(new QueryCase("CatalogueService.getCategoriesByCatalogueId", a -> catalogueService.getCategoriesByCatalogueId(a.catalogueId())));
+        return cases;
+    }
+
+    /*
+     * Samples one case until the sample count or the time cap is reached. A failing call (a broken query, or
+     * running out of memory on an unbounded list) is recorded in the report rather than ending the run.
+     */
+    Result measure(QueryCase queryCase, Arguments arguments) {
+        try {
+            for (int i = 0; i < WARMUP_CALLS; i++) {
+                emptyCaches();
+                queryCase.call().apply(arguments);
+            }
+            long[] nanos = new long[samples];
+            int taken = 0;
+            int rows = 0;
+            long deadline = System.nanoTime() + MAX_NANOS_PER_CASE;
+            while (taken < samples && (taken == 0 || System.nanoTime() < deadline)) {
+                emptyCaches();
+                long started = System.nanoTime();
+                Object result = queryCase.call().apply(arguments);
+                nanos[taken++] = System.nanoTime() - started;
+                rows = rowCount(result);
+            }
+            long[] sorted = Arrays.copyOf(nanos, taken);
+            Arrays.sort(sorted);
+            return new Result(taken, rows, millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.99)),
+                    millis((long) Arrays.stream(sorted).average().orElse(0)), null);
+        } catch (RuntimeException | OutOfMemoryError e) {
+            return Result.failed(e.getClass().getSimpleName() + ": " + firstLine(e.getMessage()));
+        }
+    }
+
+    private void emptyCaches() {
+        entityManagerFactory.getCache().evictAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    /* Repository methods that no case calls, other than the @Modifying ones, for the report */
+    List<String> unmeasuredQueries(List<QueryCase> cases) {
+        Set<String> measured = cases.stream().map(QueryCase::name).collect(Collectors.toSet());
+        List<String> missing = new ArrayList<>();
+        for (Class<?> repository : MEASURED_REPOSITORIES) {
+            for (Method method : repository.getDeclaredMethods()) {
+                if (Modifier.isStatic(method.getModifiers()) || method.isDefault()
+                        || method.isAnnotationPresent(Modifying.class)) {
+                    continue;
+                }
+                String name = repository.getSimpleName() + "." + method.getName();
+                if (!measured.contains(name)) {
+                    missing.add(name);
+                }
+            }
+        }
+        return missing;
+    }
+
+    void writeReport(Path reportDir, List<Integer> scales, Map<Integer, CatalogGenerator.CatalogSize> sizes,
+            Map<String, Map<Integer, Result>> results) throws IOException {
+        int smallest = scales.get(0);
+        int largest = scales.get(scales.size() - 1);
+        StringBuilder md = new StringBuilder();
+        md.append("# Catalog scaling benchmark\n\n")
+                .append("Run at ").append(LocalDateTime.now().withNano(0)).append(", up to ").append(samples)
+                .append(" samples per query (fewer when sampling passes 30 s), caches emptied before each sample.\n\n")
+                .append("| Products | Sellers | Catalogue-categories | Prices |\n|---:|---:|---:|---:|\n");
+        sizes.forEach((scale, size) -> md.append("| ").append(size.products()).append(" | ").append(size.sellers())
+                .append(" | ").append(size.catalogueCategories()).append(" | ").append(size.prices()).append(" |\n"));
+
+        md.append("\n| Query |");
+        scales.forEach(scale -> md.append(' ').append(scale).append(" p50 / p99 ms |"));
+        md.append(" Rows at ").append(largest).append(" | p50 growth |\n|---|");
+        scales.forEach(scale -> md.append("---:|"));
+        md.append("---:|---:|\n");
+
+        StringBuilder csv = new StringBuilder("query,products,samples,rows,p50_ms,p99_ms,mean_ms,error\n");
+        results.forEach((query, byScale) -> {
+            md.append("| ").append(query).append(" |");
+            byScale.forEach((scale, result) -> {
+                md.append(result.error() != null ? " failed |"
+                        : String.format(" %.2f / %.2f |", result.p50Millis(), result.p99Millis()));
+                csv.append(String.format("%s,%d,%d,%d,%.3f,%.3f,%.3f,%s%n", query, scale, result.samples(),
+                        result.rows(), result.p50Millis(), result.p99Millis(), result.meanMillis(),
+                        result.error() != null ? '"' + result.error().replace("\"", "'") + '"' : ""));
+            });
+            Result first = byScale.get(smallest);
+            Result last = byScale.get(largest);
+            md.append(' ').append(last.error() != null ? "-" : String.valueOf(last.rows())).append(" |");
+            md.append(first.error() == null && last.error() == null && first.p50Millis() > 0
+                    ? String.format(" %.1fx |", last.p50Millis() / first.p50Millis()) : " - |");
+            md.append('\n');
+        });
+
+        List<String> failures = new ArrayList<>();
+        results.forEach((query, byScale) -> byScale.forEach((scale, result) -> {
+            if (result.error() != null) {
+                failures.add(query + " at " + scale + ": " + result.error());
+            }
+        }));
+        if (!failures.isEmpty()) {
+            md.append("\n## Failures\n\n");
+            failures.forEach(failure -> md.append("- ").append(failure).append('\n'));
+        }
+        List<String> unmeasured = unmeasuredQueries(cases());
+        if (!unmeasured.isEmpty()) {
+            md.append("\n## Queries without a case\n\n");
+            unmeasured.forEach(name -> md.append("- ").append(name).append('\n'));
+        }
+
+        Files.createDirectories(reportDir);
+        Files.writeString(reportDir.resolve("report.md"), md);
+        Files.writeString(reportDir.resolve("results.csv"), csv);
+        log.info("Report written to {}", reportDir.resolve("report.md"));
+    }
+
+    private static int rowCount(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return result != null ? 1 : 0;
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static String firstLine(String message) {
+        if (message == null) {
+            return "";
+        }
+        int newline = message.indexOf('\n');
+        return newline < 0 ? message : message.substring(0, newline);
+    }
+}
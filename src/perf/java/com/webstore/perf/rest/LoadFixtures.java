@@ -0,0 +1,80 @@
+package com.webstore.perf.rest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ * What a load run picks its requests from, read once from the seeded database before it starts: the active
+ * sellers that sign in, an admin, the catalogue-category pairs products can be created in, a sample of product
+ * ids and the words of their names as search terms, some of each seller's own products (a seller may only read
+ * those by id), and the catalog's size for paging.
+ */
+record LoadFixtures(List<Account> sellers, Account admin, List<int[]> catalogueCategories, List<Integer> productIds,
+        Map<Integer, List<Integer>> productIdsBySeller, List<String> searchTerms, List<Integer> sellerIds,
+        long productCount, long categoryCount) {
+
+    /* An account a token is minted for; the id is the sellerId or, for the admin, the userId claim */
+    record Account(int id, String email, String role) {
+    }
+
+    private static final int PRODUCT_SAMPLE = 2000;
+    private static final int PRODUCTS_PER_SELLER = 20;
+    private static final int MIN_TERM_LENGTH = 4;
+
+    static LoadFixtures load(DataSource dataSource, int maxSellers) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        List<Account> sellers = jdbc.query(
+                "SELECT seller_id, email, role FROM web_store.sellers WHERE status = 'ACTIVE' "
+                        + "ORDER BY seller_id LIMIT ?",
+                (rs, row) -> new Account(rs.getInt(1), rs.getString(2), rs.getString(3)), maxSellers);
+        List<Account> admins = jdbc.query(
+                "SELECT user_id, email FROM web_store.users WHERE role = 'ADMIN' ORDER BY user_id LIMIT 1",
+                (rs, row) -> new Account(rs.getInt(1), rs.getString(2), "ADMIN"));
+        List<int[]> catalogueCategories = jdbc.query(
+                "SELECT catalogue_id, category_id FROM web_store.catalogue_categories",
+                (rs, row) -> new int[] {rs.getInt(1), rs.getInt(2)});
+        List<Integer> productIds = new ArrayList<>();
+        Set<String> searchTerms = new LinkedHashSet<>();
+        jdbc.query("SELECT product_id, product_name FROM web_store.products ORDER BY random() LIMIT ?", rs -> {
+            productIds.add(rs.getInt(1));
+            for (String word : rs.getString(2).toLowerCase(Locale.ROOT).split("[^\\p{L}]+")) {
+                if (word.length() >= MIN_TERM_LENGTH) {
+                    searchTerms.add(word);
+                }
+            }
+        }, PRODUCT_SAMPLE);
+        if (sellers.isEmpty() || catalogueCategories.isEmpty() || productIds.isEmpty()) {
+            throw new IllegalStateException("The database needs active sellers, catalogue-categories and products "
+                    + "for a load run; seed it first, e.g. with gradle generateCatalog -Pproducts=100000");
+        }
+
+        Map<Integer, List<Integer>> productIdsBySeller = new HashMap<>();
+        jdbc.query("SELECT seller_id, product_id FROM (SELECT seller_id, product_id, "
+                        + "row_number() OVER (PARTITION BY seller_id ORDER BY product_id) AS n "
+                        + "FROM web_store.products WHERE seller_id = ANY(?)) owned WHERE n <= ?",
+                (RowCallbackHandler) rs -> productIdsBySeller.computeIfAbsent(rs.getInt(1), key -> new ArrayList<>())
+                        .add(rs.getInt(2)),
+                sellers.stream().map(Account::id).toArray(Integer[]::new), PRODUCTS_PER_SELLER);
+
+        return new LoadFixtures(sellers,
+                admins.isEmpty() ? new Account(0, "load-test-admin@webstore.local", "ADMIN") : admins.get(0),
+                catalogueCategories, productIds, productIdsBySeller, List.copyOf(searchTerms),
+                jdbc.queryForList("SELECT seller_id FROM web_store.sellers", Integer.class),
+                jdbc.queryForObject("SELECT count(*) FROM web_store.products", Long.class),
+                jdbc.queryForObject("SELECT count(*) FROM web_store.categories", Long.class));
+    }
+
+    static <T> T any(List<T> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+}
@@ -0,0 +1,446 @@
+package com.webstore.perf.rest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webstore.WebStoreSpringBootApp;
+import com.webstore.perf.LatencyRecorder;
+import com.webstore.perf.PerfEnvironment;
+import com.webstore.perf.PerfOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/*
+ * Load test of the REST API with a mix of seller and admin traffic. Boots the app (or drives one already running
+ * with --target, which then needs its --jwt-secret), reads its sellers, an admin, catalogue-categories and a
+ * product sample from the seeded database, mints each account a token with TokenMinter, and replays a weighted
+ * mix of product listing, product by id, search, faceted search, category listing, seller details and product
+ * create/update for --duration-s seconds after --warmup-s unrecorded ones. A share of --admin-share requests is
+ * made as the admin, the rest as one of the first --sellers active sellers; writes only touch products the run
+ * created, and those are deleted through the API at the end unless --keep-writes is given.
+ *
+ * Two load models: by default --concurrency virtual threads send back to back (closed, for the throughput the
+ * app saturates at); with --rate requests per second are started on schedule whatever the latency (open, for
+ * the latency at a given load), timed from their scheduled start so queueing is not hidden, with --concurrency
+ * capping how many are in flight. The mix is --mix=products:30,search:15,... over the keys of Operation.
+ *
+ * Writes report.md (throughput and percentiles per endpoint, latency histograms, non-2xx statuses), results.csv
+ * and histograms.csv to --report-dir. Under the local profile security permits every request, though the JWT
+ * filter still validates each token; an in-process run also shares its CPUs with the load generator, so
+ * capacity numbers for a deployment come from --target against it.
+ *
+ * Run with: gradle restLoadTest -PdurationS=120 -Pconcurrency=64 -Psellers=200 -PadminShare=0.1
+ */
+@Slf4j
+public class RestLoadTest {
+
+    private static final int PAGE_SIZE = 20;
+    private static final String PRODUCT_NAME_PREFIX = "Load test ";
+
+    /* What a request does, with its weight in the default mix */
+    enum Operation {
+        PRODUCTS("GET /api/products", 30),
+        PRODUCT("GET /api/products/{id}", 15),
+        SEARCH("GET /api/products/search", 15),
+        FACETED_SEARCH("GET /api/products/faceted-search", 10),
+        CATEGORIES("GET /api/categories", 10),
+        SELLER_DETAILS("GET /api/sellers/{id}/details", 10),
+        CREATE_PRODUCT("POST /api/products", 5),
+        UPDATE_PRODUCT("PUT /api/products/{id}", 5);
+
+        private final String endpoint;
+        private final int defaultWeight;
+
+        Operation(String endpoint, int defaultWeight) {
+            this.endpoint = endpoint;
+            this.defaultWeight = defaultWeight;
+        }
+
+        String key() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+    }
+
+    private record Actor(LoadFixtures.Account account, String token) {
+    }
+
+    private final URI baseUri;
+    private final LoadFixtures fixtures;
+    private final List<Actor> sellers;
+    private final Actor admin;
+    private final double adminShare;
+    private final int maxPage;
+    private final Operation[] wheel;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Operation, Map<Integer, LongAdder>> failuresByStatus = new ConcurrentHashMap<>();
+    // Products the run created, by seller, for the updates to pick from
+    private final Map<Integer, Queue<Integer>> createdBySeller = new ConcurrentHashMap<>();
+    private final String runId = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong writes = new AtomicLong();
+
+    RestLoadTest(URI baseUri, LoadFixtures fixtures, TokenMinter minter, Map<Operation, Integer> mix,
+            double adminShare, int maxPage, ExecutorService executor) {
+        this.baseUri = baseUri;
+        this.fixtures = fixtures;
+        this.sellers = fixtures.sellers().stream()
+                .map(seller -> new Actor(seller, minter.seller(seller.id(), seller.email(), seller.role())))
+                .toList();
+        this.admin = new Actor(fixtures.admin(), minter.admin(fixtures.admin().id(), fixtures.admin().email()));
+        this.adminShare = adminShare;
+        this.maxPage = maxPage;
+        this.wheel = mix.entrySet().stream()
+                .flatMap(entry -> Stream.generate(entry::getKey).limit(entry.getValue()))
+                .toArray(Operation[]::new);
+        if (wheel.length == 0) {
+            throw new IllegalArgumentException("The mix has no operation with a weight above 0");
+        }
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(executor)
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        PerfOptions options = PerfOptions.parse(args);
+        int durationS = options.getInt("duration-s", 60);
+        int warmupS = options.getInt("warmup-s", 15);
+        int concurrency = options.getInt("concurrency", 64);
+        double rate = options.getDouble("rate", 0);
+        double adminShare = options.getDouble("admin-share", 0.1);
+        Map<Operation, Integer> mix = parseMix(options.get("mix", ""));
+        String target = options.get("target", null);
+
+        DataSource dataSource = PerfEnvironment.dataSource();
+        LoadFixtures fixtures = LoadFixtures.load(dataSource, options.getInt("sellers", 200));
+        String secret = options.get("jwt-secret", PerfEnvironment.load().getRequiredProperty("jwt.secret"));
+        TokenMinter minter = new TokenMinter(secret, Duration.ofSeconds(durationS + warmupS).plusHours(1));
+
+        try (ConfigurableApplicationContext context = target == null ? startApp() : null;
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            String baseUrl = target != null ? target
+                    : "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            RestLoadTest test = new RestLoadTest(URI.create(baseUrl), fixtures, minter, mix, adminShare,
+                    options.getInt("max-page", 50), executor);
+
+            if (warmupS > 0) {
+                log.info("Warming up for {} s", warmupS);
+                test.run(TimeUnit.SECONDS.toNanos(warmupS), concurrency, rate, new LatencyRecorder());
+                test.failuresByStatus.clear();
+            }
+            log.info("Loading {} for {} s with {} sellers, {}", baseUrl, durationS, fixtures.sellers().size(),
+                    rate > 0 ? rate + " requests/s" : concurrency + " at a time");
+            LatencyRecorder recorder = new LatencyRecorder();
+            long started = System.nanoTime();
+            test.run(TimeUnit.SECONDS.toNanos(durationS), concurrency, rate, recorder);
+            double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+            String settings = String.format("%d s after %d s of warmup, %s; %d sellers and the admin (%.0f%% of "
+                            + "requests); %d products, %d categories; %d CPUs for app and load generator%s.",
+                    durationS, warmupS, rate > 0 ? String.format("open model at %.0f requests/s, at most %d in "
+                            + "flight", rate, concurrency) : String.format("closed model, %d at a time", concurrency),
+                    fixtures.sellers().size(), adminShare * 100, fixtures.productCount(), fixtures.categoryCount(),
+                    Runtime.getRuntime().availableProcessors(), target != null ? " (app at " + target + ")" : "");
+            Path reportDir = Path.of(options.get("report-dir", "build/reports/rest-load"));
+            test.writeReport(reportDir, recorder, mix, settings, elapsedSeconds);
+            if (!options.has("keep-writes")) {
+                test.deleteCreatedProducts(dataSource);
+            }
+        }
+    }
+
+    /*
+     * Boots the app on a random port with its own logging kept to warnings. Passed as arguments since those
+     * outrank the application and profile properties files.
+     */
+    private static ConfigurableApplicationContext startApp() {
+        return new SpringApplicationBuilder(WebStoreSpringBootApp.class).run(
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.webstore.perf=INFO");
+    }
+
+    /* Weights by operation key, e.g. products:30,search:15; operations left out keep their default weight */
+    static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            mix.put(operation, operation.defaultWeight);
+        }
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.trim().split(":");
+            Operation operation = Arrays.stream(Operation.values())
+                    .filter(candidate -> candidate.key().equals(parts[0]))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown operation in --mix: " + parts[0]
+                            + "; expected one of " + Arrays.stream(Operation.values())
+                            .map(Operation::key).collect(Collectors.joining(", "))));
+            mix.put(operation, Integer.parseInt(parts[1]));
+        }
+        return mix;
+    }
+
+    /* Sends requests for durationNanos, closed model unless a rate is given, and returns once all have ended */
+    void run(long durationNanos, int concurrency, double rate, LatencyRecorder recorder) {
+        long deadline = System.nanoTime() + durationNanos;
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (rate <= 0) {
+                for (int worker = 0; worker < concurrency; worker++) {
+                    requests.submit(() -> {
+                        while (System.nanoTime() < deadline) {
+                            send(recorder, System.nanoTime());
+                        }
+                    });
+                }
+                return;
+            }
+            Semaphore inFlight = new Semaphore(concurrency);
+            long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+            for (long scheduled = System.nanoTime(); scheduled < deadline; scheduled += interval) {
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                long start = scheduled;
+                requests.submit(() -> {
+                    inFlight.acquireUninterruptibly();
+                    try {
+                        send(recorder, start);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+    }
+
+    /* One request of the mix, by the admin or a seller, timed from start */
+    private void send(LatencyRecorder recorder, long start) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Operation operation = wheel[random.nextInt(wheel.length)];
+        Actor actor = random.nextDouble() < adminShare ? admin : LoadFixtures.any(sellers);
+        if (operation == Operation.PRODUCT && actor != admin
+                && !fixtures.productIdsBySeller().containsKey(actor.account().id())) {
+            // A seller can only read its own products by id; one without any leaves the read to the admin
+            actor = admin;
+        }
+        // Writes are for the seller signed in; the admin's go to any seller
+        int sellerId = actor == admin ? LoadFixtures.any(sellers).account().id() : actor.account().id();
+        Queue<Integer> updatable = null;
+        Integer updated = null;
+        if (operation == Operation.UPDATE_PRODUCT) {
+            // Only products the run created are updated, under the same seller; until it has one, one is created
+            updatable = createdBySeller.get(sellerId);
+            updated = updatable != null ? updatable.poll() : null;
+            if (updated == null) {
+                operation = Operation.CREATE_PRODUCT;
+            }
+        }
+
+        int status;
+        String body = null;
+        try {
+            HttpRequest request = request(operation, actor, updated, sellerId);
+            if (operation == Operation.CREATE_PRODUCT) {
+                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                status = response.statusCode();
+                body = response.body();
+            } else {
+                status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            }
+        } catch (IOException e) {
+            status = -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        boolean ok = status >= 200 && status < 300;
+        recorder.record(operation.endpoint, System.nanoTime() - start, ok);
+        if (!ok) {
+            failuresByStatus.computeIfAbsent(operation, key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(status, key -> new LongAdder()).increment();
+        }
+
+        if (updated != null) {
+            updatable.add(updated);
+        } else if (operation == Operation.CREATE_PRODUCT && ok) {
+            remember(body);
+        }
+    }
+
+    private HttpRequest request(Operation operation, Actor actor, Integer productId, int sellerId)
+            throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String path = switch (operation) {
+            case PRODUCTS -> "/api/products?page=" + random.nextInt(pages(fixtures.productCount()))
+                    + "&size=" + PAGE_SIZE;
+            case PRODUCT -> "/api/products/" + LoadFixtures.any(actor == admin ? fixtures.productIds()
+                    : fixtures.productIdsBySeller().get(actor.account().id()));
+            case SEARCH -> "/api/products/search?searchTerm=" + LoadFixtures.any(fixtures.searchTerms());
+            case FACETED_SEARCH -> "/api/products/faceted-search?categoryId="
+                    + LoadFixtures.any(fixtures.catalogueCategories())[1] + "&page=" + random.nextInt(5)
+                    + "&size=" + PAGE_SIZE;
+            case CATEGORIES -> "/api/categories?page=" + random.nextInt(pages(fixtures.categoryCount()))
+                    + "&size=" + PAGE_SIZE;
+            case SELLER_DETAILS -> "/api/sellers/"
+                    + (actor == admin ? LoadFixtures.any(fixtures.sellerIds()) : actor.account().id()) + "/details";
+            case CREATE_PRODUCT -> "/api/products";
+            case UPDATE_PRODUCT -> "/api/products/" + productId;
+        };
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Authorization", "Bearer " + actor.token());
+        return switch (operation) {
+            case CREATE_PRODUCT -> builder.header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(productBody(sellerId))).build();
+            case UPDATE_PRODUCT -> builder.header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(productBody(sellerId))).build();
+            default -> builder.GET().build();
+        };
+    }
+
+    /* Deep pages are rare in real traffic and slow by offset alone, so paging stops at --max-page */
+    private int pages(long rows) {
+        return (int) Math.max(1, Math.min(maxPage, (rows + PAGE_SIZE - 1) / PAGE_SIZE));
+    }
+
+    /* A product of the run, under a fresh name since product names are unique */
+    private String productBody(int sellerId) throws IOException {
+        int[] catalogueCategory = LoadFixtures.any(fixtures.catalogueCategories());
+        return objectMapper.writeValueAsString(Map.of(
+                "productName", PRODUCT_NAME_PREFIX + runId + "-" + writes.incrementAndGet(),
+                "productDescription", "Written by the REST load test",
+                "catalogueId", catalogueCategory[0],
+                "categoryId", catalogueCategory[1],
+                "sellerId", sellerId,
+                "stock", 100));
+    }
+
+    private void remember(String createdProduct) {
+        try {
+            JsonNode product = objectMapper.readTree(createdProduct);
+            createdBySeller.computeIfAbsent(product.path("sellerId").asInt(), key -> new ConcurrentLinkedQueue<>())
+                    .add(product.path("productId").asInt());
+        } catch (IOException e) {
+            log.warn("Cannot read the created product: {}", e.getMessage());
+        }
+    }
+
+    /*
+     * Deletes the products the run created through the API, as the admin, so the app's caches follow. They are
+     * found by name, which also catches those whose create failed after the insert had been committed.
+     */
+    void deleteCreatedProducts(DataSource dataSource) {
+        List<Integer> created = new JdbcTemplate(dataSource).queryForList(
+                "SELECT product_id FROM web_store.products WHERE product_name LIKE ?", Integer.class,
+                PRODUCT_NAME_PREFIX + runId + "-%");
+        int failed = 0;
+        for (Integer productId : created) {
+            try {
+                HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/api/products/" + productId))
+                        .timeout(Duration.ofSeconds(60))
+                        .header("Authorization", "Bearer " + admin.token())
+                        .DELETE()
+                        .build();
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() >= 300) {
+                    failed++;
+                }
+            } catch (IOException e) {
+                failed++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        log.info("Deleted {} of the {} products the run created; the rest are named '{}{}-*'",
+                created.size() - failed, created.size(), PRODUCT_NAME_PREFIX, runId);
+    }
+
+    void writeReport(Path reportDir, LatencyRecorder recorder, Map<Operation, Integer> mix, String settings,
+            double elapsedSeconds) throws IOException {
+        LatencyRecorder.Summary all = recorder.total("all requests");
+        List<LatencyRecorder.Summary> rows = new ArrayList<>(recorder.summaries());
+        rows.add(all);
+        Map<String, long[]> histograms = recorder.histograms();
+
+        StringBuilder md = new StringBuilder("# REST API load test\n\n")
+                .append("Run at ").append(LocalDateTime.now().withNano(0)).append(": ").append(settings).append("\n\n")
+                .append("Mix: ").append(mix.entrySet().stream().filter(entry -> entry.getValue() > 0)
+                        .map(entry -> entry.getKey().key() + " " + entry.getValue())
+                        .collect(Collectors.joining(", "))).append(".\n\n")
+                .append(String.format("%.1f s, %d requests, %.1f requests/s, %d failed.%n%n", elapsedSeconds,
+                        all.count(), all.count() / elapsedSeconds, all.errors()))
+                .append("## Throughput and latency\n\n")
+                .append(LatencyRecorder.markdownTable(rows, elapsedSeconds))
+                .append("\n## Latency histograms\n\nShare of each endpoint's requests by latency.\n\n")
+                .append(LatencyRecorder.markdownHistograms(histograms));
+        if (!failuresByStatus.isEmpty()) {
+            md.append("\n## Failed requests\n\nStatus -1 is an I/O error or timeout.\n\n")
+                    .append("| Endpoint | Status | Requests |\n|---|---:|---:|\n");
+            failuresByStatus.forEach((operation, byStatus) -> new TreeMap<>(byStatus).forEach((status, count) ->
+                    md.append("| ").append(operation.endpoint).append(" | ").append(status).append(" | ")
+                            .append(count.sum()).append(" |\n")));
+        }
+
+        StringBuilder results = new StringBuilder(
+                "endpoint,requests,errors,requests_per_s,p50_ms,p90_ms,p99_ms,max_ms,mean_ms\n");
+        for (LatencyRecorder.Summary row : rows) {
+            results.append(String.format(Locale.ROOT, "%s,%d,%d,%.2f,%.3f,%.3f,%.3f,%.3f,%.3f%n", row.operation(),
+                    row.count(), row.errors(), row.count() / elapsedSeconds, row.p50Millis(), row.p90Millis(),
+                    row.p99Millis(), row.maxMillis(), row.meanMillis()));
+        }
+        StringBuilder histogramCsv = new StringBuilder("endpoint,le_ms,requests\n");
+        histograms.forEach((endpoint, counts) -> {
+            for (int bucket = 0; bucket < counts.length; bucket++) {
+                String bound = bucket < LatencyRecorder.BUCKET_BOUNDS_MILLIS.length
+                        ? String.format(Locale.ROOT, "%.0f", LatencyRecorder.BUCKET_BOUNDS_MILLIS[bucket]) : "+Inf";
+                histogramCsv.append(endpoint).append(',').append(bound).append(',').append(counts[bucket]).append('\n');
+            }
+        });
+
+        Files.createDirectories(reportDir);
+        Files.writeString(reportDir.resolve("report.md"), md);
+        Files.writeString(reportDir.resolve("results.csv"), results);
+        Files.writeString(reportDir.resolve("histograms.csv"), histogramCsv);
+        log.info("\n{}\nReport written to {}", md, reportDir.resolve("report.md"));
+    }
+}
@@ -0,0 +1,45 @@
+package com.webstore.perf.rest;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+
+/*
+ * Mints the tokens the app would hand out on Google sign-in, with the claims JwtTokenProvider puts in them
+ * (sellerId or userId, email and role, subject the email), signed with the app's jwt.secret. Load runs use
+ * them instead of signing in through Google.
+ */
+class TokenMinter {
+
+    private final SecretKey key;
+    private final Duration lifetime;
+
+    TokenMinter(String secret, Duration lifetime) {
+        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.lifetime = lifetime;
+    }
+
+    String seller(int sellerId, String email, String role) {
+        return mint(Map.of("sellerId", sellerId, "email", email, "role", role), email);
+    }
+
+    String admin(int userId, String email) {
+        return mint(Map.of("userId", userId, "email", email, "role", "ADMIN"), email);
+    }
+
+    private String mint(Map<String, Object> claims, String subject) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .claims(claims)
+                .subject(subject)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + lifetime.toMillis()))
+                .signWith(key)
+                .compact();
+    }
+}
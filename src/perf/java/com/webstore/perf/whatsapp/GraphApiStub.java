@@ -0,0 +1,190 @@
+package com.webstore.perf.whatsapp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/*
+ * Local stand-in for the Graph API's POST /{version}/{phoneNumberId}/messages, for load runs that must not
+ * reach Meta. Each call is answered after the configured latency plus up to the configured jitter, and a share
+ * of calls fails the way Graph does under load: 429 with error code 130429 (throughput limit) or a transient 500.
+ *
+ * Accepted messages are counted by kind (text, interactive button or list) and the ids of the buttons and list
+ * rows they carry are kept per recipient, so a simulated user can answer with something the bot offered.
+ */
+@Slf4j
+public final class GraphApiStub implements AutoCloseable {
+
+    private static final Pattern MESSAGES_PATH = Pattern.compile("/[^/]+/[^/]+/messages");
+    private static final String THROTTLED_BODY = "{\"error\":{\"message\":\"(#130429) Rate limit hit\","
+            + "\"type\":\"OAuthException\",\"code\":130429,\"error_subcode\":2494055}}";
+    private static final String FAILED_BODY = "{\"error\":{\"message\":\"An unknown error has occurred.\","
+            + "\"type\":\"OAuthException\",\"code\":1,\"is_transient\":true}}";
+
+    /* Latency and failure injection; the rates are shares of all calls, between 0 and 1 */
+    public record Settings(long latencyMs, long jitterMs, double errorRate, double throttleRate) {
+    }
+
+    /* A button or list row the bot offered, with the interactive reply type that answers it */
+    public record Offer(String id, String replyType) {
+    }
+
+    private final Settings settings;
+    private final HttpServer server;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, List<Offer>> offersByRecipient = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> acceptedByKind = new ConcurrentHashMap<>();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final AtomicLong messageIds = new AtomicLong();
+
+    public GraphApiStub(int port, Settings settings) throws IOException {
+        this.settings = settings;
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        // A virtual thread per call, so the injected latency never queues calls behind each other
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", this::handle);
+        server.start();
+        log.info("Graph API stub listening on port {} with {}", port(), settings);
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /* The offers of every message accepted for the recipient since the last call, oldest first */
+    public List<Offer> takeOffers(String recipient) {
+        List<Offer> offers = offersByRecipient.remove(recipient);
+        return offers != null ? offers : List.of();
+    }
+
+    public Map<String, Long> acceptedByKind() {
+        Map<String, Long> counts = new TreeMap<>();
+        acceptedByKind.forEach((kind, count) -> counts.put(kind, count.sum()));
+        return counts;
+    }
+
+    public long accepted() {
+        return acceptedByKind.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public long throttled() {
+        return throttled.sum();
+    }
+
+    public long failed() {
+        return failed.sum();
+    }
+
+    /* Forgets the counts and pending offers so far, as after a warmup */
+    public void resetCounts() {
+        acceptedByKind.clear();
+        offersByRecipient.clear();
+        throttled.reset();
+        failed.reset();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())
+                    || !MESSAGES_PATH.matcher(exchange.getRequestURI().getPath()).matches()) {
+                respond(exchange, 404, "{\"error\":{\"message\":\"Unknown path\",\"code\":100}}");
+                return;
+            }
+            JsonNode message;
+            try (InputStream body = exchange.getRequestBody()) {
+                message = objectMapper.readTree(body);
+            }
+            pause();
+
+            double roll = ThreadLocalRandom.current().nextDouble();
+            if (roll < settings.throttleRate()) {
+                throttled.increment();
+                respond(exchange, 429, THROTTLED_BODY);
+                return;
+            }
+            if (roll < settings.throttleRate() + settings.errorRate()) {
+                failed.increment();
+                respond(exchange, 500, FAILED_BODY);
+                return;
+            }
+
+            String recipient = message.path("to").asText();
+            acceptedByKind.computeIfAbsent(kindOf(message), kind -> new LongAdder()).increment();
+            List<Offer> offers = offersOf(message);
+            if (!offers.isEmpty()) {
+                offersByRecipient.merge(recipient, offers, (existing, added) -> {
+                    List<Offer> all = new ArrayList<>(existing);
+                    all.addAll(added);
+                    return all;
+                });
+            }
+            respond(exchange, 200, "{\"messaging_product\":\"whatsapp\",\"contacts\":[{\"input\":\"" + recipient
+                    + "\",\"wa_id\":\"" + recipient + "\"}],\"messages\":[{\"id\":\"wamid.stub-"
+                    + messageIds.incrementAndGet() + "\"}]}");
+        }
+    }
+
+    private void pause() {
+        long delay = settings.latencyMs()
+                + (settings.jitterMs() > 0 ? ThreadLocalRandom.current().nextLong(settings.jitterMs() + 1) : 0);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static String kindOf(JsonNode message) {
+        String type = message.path("type").asText("unknown");
+        return "interactive".equals(type) ? type + " " + message.path("interactive").path("type").asText() : type;
+    }
+
+    private static List<Offer> offersOf(JsonNode message) {
+        List<Offer> offers = new ArrayList<>();
+        JsonNode action = message.path("interactive").path("action");
+        for (JsonNode button : action.path("buttons")) {
+            offers.add(new Offer(button.path("reply").path("id").asText(), "button_reply"));
+        }
+        for (JsonNode section : action.path("sections")) {
+            for (JsonNode row : section.path("rows")) {
+                offers.add(new Offer(row.path("id").asText(), "list_reply"));
+            }
+        }
+        return offers;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
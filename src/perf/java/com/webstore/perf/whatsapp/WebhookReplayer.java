@@ -0,0 +1,296 @@
+package com.webstore.perf.whatsapp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webstore.WebStoreSpringBootApp;
+import com.webstore.perf.LatencyRecorder;
+import com.webstore.perf.PerfOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/*
+ * Load harness for the WhatsApp bot that never reaches Meta. Starts a GraphApiStub, boots the app with
+ * whatsapp.api.graph-url pointing at it (or drives an app already running with --target, which must point at
+ * the stub's --stub-port itself), then replays webhook conversations for --users simulated users, at most
+ * --concurrency at a time. Every user goes hi -> categories -> a category -> the next page when there is one ->
+ * a product -> add to cart, always answering with a button or list row the bot actually sent it, so the run
+ * follows whatever catalog the database holds. Picking a product list row adds it to the cart by itself, so
+ * those conversations end there.
+ *
+ * A turn's latency is the webhook call, which includes the bot's Graph API calls since WhatsAppController
+ * answers after handling the message. The report (build/reports/whatsapp-load/report.md) has turn latency
+ * percentiles per step, turns per second, the messages the stub accepted per kind, the calls it throttled
+ * or failed, and the step where conversations ended early.
+ *
+ * --warmup-users conversations (50 by default) run first and are left out of the report.
+ *
+ * The Add to Cart button holds stock: the reservations expire after stock.reservation.ttl-minutes and give it back.
+ *
+ * Run with: gradle whatsappLoadTest -Pusers=2000 -Pconcurrency=100 -PstubLatencyMs=80 -PstubThrottleRate=0.01
+ */
+@Slf4j
+public class WebhookReplayer {
+
+    private static final String DISPLAY_PHONE_NUMBER = "15550783881";
+
+    private final URI webhookUri;
+    private final String phoneNumberId;
+    private final GraphApiStub stub;
+    private final long thinkMs;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LatencyRecorder turns = new LatencyRecorder();
+    private final Map<String, LongAdder> endedAt = new ConcurrentHashMap<>();
+    private final LongAdder completed = new LongAdder();
+
+    WebhookReplayer(URI webhookUri, String phoneNumberId, GraphApiStub stub, long thinkMs, ExecutorService executor) {
+        this.webhookUri = webhookUri;
+        this.phoneNumberId = phoneNumberId;
+        this.stub = stub;
+        this.thinkMs = thinkMs;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(executor)
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        PerfOptions options = PerfOptions.parse(args);
+        int users = options.getInt("users", 1000);
+        int concurrency = options.getInt("concurrency", 100);
+        GraphApiStub.Settings settings = new GraphApiStub.Settings(options.getLong("stub-latency-ms", 80),
+                options.getLong("stub-jitter-ms", 40), options.getDouble("stub-error-rate", 0),
+                options.getDouble("stub-throttle-rate", 0));
+        String target = options.get("target", null);
+        String phoneNumberId = options.get("phone-number-id", "100000000000001");
+
+        try (GraphApiStub stub = new GraphApiStub(options.getInt("stub-port", 0), settings);
+             ConfigurableApplicationContext context = target == null ? startApp(stub) : null;
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            String baseUrl = target != null ? target
+                    : "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            URI webhookUri = URI.create(baseUrl + "/");
+            long thinkMs = options.getLong("think-ms", 0);
+
+            // Unrecorded conversations first, so class loading, JIT and pool warmup stay out of the numbers
+            int warmupUsers = options.getInt("warmup-users", 50);
+            if (warmupUsers > 0) {
+                log.info("Warming up with {} conversations", warmupUsers);
+                new WebhookReplayer(webhookUri, phoneNumberId, stub, thinkMs, executor)
+                        .replay("9198", warmupUsers, concurrency);
+                stub.resetCounts();
+            }
+
+            WebhookReplayer replayer = new WebhookReplayer(webhookUri, phoneNumberId, stub, thinkMs, executor);
+            log.info("Replaying {} conversations against {}, {} at a time", users, baseUrl, concurrency);
+            long started = System.nanoTime();
+            replayer.replay("9199", users, concurrency);
+            double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+            String report = replayer.report(users, concurrency, settings, elapsedSeconds);
+            Path reportDir = Path.of(options.get("report-dir", "build/reports/whatsapp-load"));
+            Files.createDirectories(reportDir);
+            Files.writeString(reportDir.resolve("report.md"), report);
+            log.info("\n{}\nReport written to {}", report, reportDir.resolve("report.md"));
+        }
+    }
+
+    /*
+     * Boots the app on a random port, sending the bot's messages to the stub, with its own logging kept to
+     * warnings. Passed as arguments since those outrank the application and profile properties files.
+     */
+    private static ConfigurableApplicationContext startApp(GraphApiStub stub) {
+        return new SpringApplicationBuilder(WebStoreSpringBootApp.class).run(
+                "--server.port=0",
+                "--whatsapp.api.graph-url=http://localhost:" + stub.port(),
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.webstore.perf=INFO");
+    }
+
+    /* Runs one conversation per user, at most concurrency at a time, and returns when all have ended */
+    void replay(String phonePrefix, int users, int concurrency) {
+        Semaphore slots = new Semaphore(concurrency);
+        try (ExecutorService conversations = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < users; user++) {
+                String phone = phonePrefix + String.format("%08d", user);
+                conversations.submit(() -> {
+                    slots.acquireUninterruptibly();
+                    try {
+                        converse(phone);
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+        }
+    }
+
+    /* One user's conversation; it ends early at the first step that fails or finds nothing to answer with */
+    void converse(String phone) {
+        Optional<List<GraphApiStub.Offer>> offers = turn("greeting", phone, text(phone, "hi"))
+                .flatMap(ignored -> turn("categories", phone, text(phone, "categories")));
+
+        offers = offers.flatMap(offered -> pick(offered, id -> id.matches("cat_\\d+|cat_page_\\d+_item_\\d+"))
+                .or(() -> ended("category"))
+                .flatMap(category -> turn("category", phone, reply(phone, category))));
+
+        if (offers.isPresent()) {
+            Optional<GraphApiStub.Offer> nextPage = pick(offers.get(), id -> id.startsWith("next_"));
+            if (nextPage.isPresent()) {
+                offers = turn("next page", phone, reply(phone, nextPage.get()));
+            }
+        }
+
+        Optional<GraphApiStub.Offer> product = offers.flatMap(offered ->
+                pick(offered, id -> id.startsWith("prod_p") || id.startsWith("view_product_")).or(() -> ended("product")));
+        if (product.isEmpty()) {
+            return;
+        }
+        offers = turn("product", phone, reply(phone, product.get()));
+
+        // A product list row adds the product to the cart itself; a product button shows details with an Add to Cart button
+        if (product.get().id().startsWith("prod_p")) {
+            offers.ifPresent(ignored -> completed.increment());
+            return;
+        }
+        offers.flatMap(offered -> pick(offered, id -> id.startsWith("add_cart_"))
+                        .or(() -> ended("add to cart"))
+                        .flatMap(addToCart -> turn("add to cart", phone, reply(phone, addToCart))))
+                .ifPresent(ignored -> completed.increment());
+    }
+
+    /*
+     * Posts one webhook message and returns what the bot offered in reply, or empty when the call failed.
+     * Offers left over from an earlier turn are dropped first so they cannot be mistaken for this turn's.
+     */
+    private Optional<List<GraphApiStub.Offer>> turn(String step, String phone, Map<String, Object> message) {
+        think();
+        stub.takeOffers(phone);
+        long started = System.nanoTime();
+        boolean ok;
+        try {
+            HttpRequest request = HttpRequest.newBuilder(webhookUri)
+                    .timeout(Duration.ofSeconds(60))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(webhook(message))))
+                    .build();
+            ok = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            ok = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ok = false;
+        }
+        turns.record(step, System.nanoTime() - started, ok);
+        if (!ok) {
+            return ended(step);
+        }
+        return Optional.of(stub.takeOffers(phone));
+    }
+
+    private <T> Optional<T> ended(String step) {
+        endedAt.computeIfAbsent(step, key -> new LongAdder()).increment();
+        return Optional.empty();
+    }
+
+    private void think() {
+        if (thinkMs > 0) {
+            try {
+                Thread.sleep(ThreadLocalRandom.current().nextLong(thinkMs / 2, thinkMs + 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static Optional<GraphApiStub.Offer> pick(List<GraphApiStub.Offer> offers, Predicate<String> wanted) {
+        List<GraphApiStub.Offer> matching = offers.stream().filter(offer -> wanted.test(offer.id())).toList();
+        return matching.isEmpty() ? Optional.empty()
+                : Optional.of(matching.get(ThreadLocalRandom.current().nextInt(matching.size())));
+    }
+
+    private Map<String, Object> webhook(Map<String, Object> message) {
+        Map<String, Object> value = Map.of(
+                "messaging_product", "whatsapp",
+                "metadata", Map.of("display_phone_number", DISPLAY_PHONE_NUMBER, "phone_number_id", phoneNumberId),
+                "contacts", List.of(Map.of("profile", Map.of("name", "Load " + message.get("from")),
+                        "wa_id", message.get("from"))),
+                "messages", List.of(message));
+        return Map.of("object", "whatsapp_business_account",
+                "entry", List.of(Map.of("id", "102290129340398",
+                        "changes", List.of(Map.of("field", "messages", "value", value)))));
+    }
+
+    private static Map<String, Object> text(String phone, String body) {
+        return Map.of("from", phone, "id", messageId(), "timestamp", timestamp(), "type", "text",
+                "text", Map.of("body", body));
+    }
+
+    private static Map<String, Object> reply(String phone, GraphApiStub.Offer offer) {
+        return Map.of("from", phone, "id", messageId(), "timestamp", timestamp(), "type", "interactive",
+                "interactive", Map.of("type", offer.replyType(), offer.replyType(),
+                        Map.of("id", offer.id(), "title", offer.id())));
+    }
+
+    private static String messageId() {
+        return "wamid.load-" + UUID.randomUUID();
+    }
+
+    private static String timestamp() {
+        return String.valueOf(System.currentTimeMillis() / 1000);
+    }
+
+    String report(int users, int concurrency, GraphApiStub.Settings settings, double elapsedSeconds) {
+        LatencyRecorder.Summary all = turns.total("all turns");
+        List<LatencyRecorder.Summary> rows = new ArrayList<>(turns.summaries());
+        rows.add(all);
+        Map<String, Long> ended = new TreeMap<>();
+        endedAt.forEach((step, count) -> ended.put(step, count.sum()));
+
+        StringBuilder md = new StringBuilder("# WhatsApp conversation load test\n\n")
+                .append("Run at ").append(LocalDateTime.now().withNano(0)).append(": ").append(users)
+                .append(" users, ").append(concurrency).append(" at a time, think time ").append(thinkMs)
+                .append(" ms; Graph API stub latency ").append(settings.latencyMs()).append(" ms + up to ")
+                .append(settings.jitterMs()).append(" ms, ").append(settings.errorRate() * 100)
+                .append("% 500s, ").append(settings.throttleRate() * 100).append("% 429s.\n\n")
+                .append(String.format("%.1f s, %d turns, %.1f turns/s; %d of %d conversations reached add to cart.%n%n",
+                        elapsedSeconds, all.count(), all.count() / elapsedSeconds, completed.sum(), users))
+                .append("## Turn latency\n\n")
+                .append(LatencyRecorder.markdownTable(rows, elapsedSeconds))
+                .append("\n## Outbound messages\n\n| Kind | Accepted |\n|---|---:|\n");
+        stub.acceptedByKind().forEach((kind, count) -> md.append("| ").append(kind).append(" | ").append(count).append(" |\n"));
+        md.append(String.format("%nAccepted %d (%.1f/s, %.2f per turn); throttled with 429: %d; failed with 500: %d.%n",
+                stub.accepted(), stub.accepted() / elapsedSeconds, all.count() == 0 ? 0.0 : (double) stub.accepted() / all.count(),
+                stub.throttled(), stub.failed()));
+        if (!ended.isEmpty()) {
+            md.append("\n## Conversations ended early\n\n| Step | Conversations |\n|---|---:|\n");
+            ended.forEach((step, count) -> md.append("| ").append(step).append(" | ").append(count).append(" |\n"));
+        }
+        return md.toString();
+    }
+}
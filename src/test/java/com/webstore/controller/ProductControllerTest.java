@@ -2,6 +2,7 @@ package com.webstore.controller;
 
 import com.webstore.dto.request.ProductRequestDto;
 import com.webstore.dto.response.ProductResponseDto;
+import com.webstore.service.NewestProductsService;
 import com.webstore.service.ProductService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -22,6 +23,9 @@ class ProductControllerTest {
     @Mock
     private ProductService productService;
 
+    @Mock
+    private NewestProductsService newestProductsService;
+
     @InjectMocks
     private ProductController productController;
 
@@ -56,9 +60,9 @@ class ProductControllerTest {
 
     @Test
     void testGetAllProducts() {
-        when(productService.getAllProducts(0,Integer.MAX_VALUE)).thenReturn(List.of(mockResponse));
+        when(productService.getAllProducts(0,Integer.MAX_VALUE,null)).thenReturn(List.of(mockResponse));
 
-        ResponseEntity<List<ProductResponseDto>> response = productController.getAllProducts(0,Integer.MAX_VALUE);
+        ResponseEntity<List<ProductResponseDto>> response = productController.getAllProducts(0,Integer.MAX_VALUE,null,null);
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(1, response.getBody().size());
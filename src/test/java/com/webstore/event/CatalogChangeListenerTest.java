@@ -0,0 +1,60 @@
+package com.webstore.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CatalogChangeListenerTest {
+
+    private ApplicationEventPublisher eventPublisher;
+    private CatalogChangeNotifier notifier;
+    private CatalogChangeListener listener;
+
+    @BeforeEach
+    void setUp() {
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        notifier = new CatalogChangeNotifier(mock(JdbcTemplate.class), mock(PlatformTransactionManager.class));
+        listener = new CatalogChangeListener(new DataSourceProperties(), eventPublisher, new ObjectMapper(),
+                notifier, false, 10000, 5000);
+    }
+
+    @Test
+    void handle_RepublishesChangesOfOtherInstancesAsRemote() {
+        listener.handle(payload("categories", 7, 3, "other-instance"));
+
+        ArgumentCaptor<CatalogChangeEvent> captor = ArgumentCaptor.forClass(CatalogChangeEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals("categories", captor.getValue().getTable());
+        assertEquals(7, captor.getValue().getId());
+        assertTrue(captor.getValue().isRemote());
+    }
+
+    @Test
+    void handle_SkipsOwnNotifications() {
+        listener.handle(payload("categories", 7, 3, notifier.getInstanceId()));
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void handle_DeliversEveryIdOfOneVersionButSkipsOlderVersions() {
+        listener.handle(payload("products", 1, 5, "other-instance"));
+        listener.handle(payload("products", 2, 5, "other-instance"));
+        listener.handle(payload("products", 3, 4, "other-instance"));
+
+        verify(eventPublisher, times(2)).publishEvent(any(CatalogChangeEvent.class));
+    }
+
+    private static String payload(String table, int id, long version, String origin) {
+        return "{\"table\":\"" + table + "\",\"id\":" + id + ",\"version\":" + version
+                + ",\"origin\":\"" + origin + "\"}";
+    }
+}
@@ -0,0 +1,300 @@
+package com.webstore.event.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * The outbox dispatcher against a real PostgreSQL: lane leases taken with FOR UPDATE SKIP LOCKED, a failed
+ * event holding back its entity, and the max-attempts cutoff.
+ * Not part of the default test run: ./gradlew stressTest (uses the configured datasource).
+ *
+ * Each test writes its events under a table name of its own and the subscribers ignore every other table,
+ * but the dispatchers it drives claim any pending lane, as the scheduled poller would.
+ */
+@Tag("stress")
+@SpringBootTest(properties = {
+        "outbox.enabled=false",
+        "whatsapp.outbound.enabled=false",
+        "cache.invalidation.enabled=false"
+})
+public class OutboxDispatcherStressTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final int LANES = 16;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PromotionTargetCleanupSubscriber promotionTargetCleanupSubscriber;
+
+    private String table;
+
+    @BeforeEach
+    void setUp() {
+        table = "outbox_test_" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM web_store.catalog_outbox WHERE entity_table = ?", table);
+    }
+
+    @Test
+    void testLockedLaneIsSkipped_OtherDispatcherDrainsTheRest() throws Exception {
+        int held = 1;
+        int other = entityNotInLane(lane(held));
+        insert(held);
+        insert(other);
+
+        Map<Integer, AtomicInteger> deliveries = new ConcurrentHashMap<>();
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean releasedInTime = new AtomicBoolean();
+        OutboxDispatcher dispatcher = dispatcher(event -> {
+            if (!table.equals(event.getEntityTable())) {
+                return;
+            }
+            deliveries.computeIfAbsent(event.getEntityId(), id -> new AtomicInteger()).incrementAndGet();
+            if (event.getEntityId() == held) {
+                holding.countDown();
+                try {
+                    releasedInTime.set(release.await(30, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // Holds the held entity's lane lease until released
+            Future<?> holder = executor.submit(() -> drain(dispatcher));
+            assertTrue(holding.await(30, TimeUnit.SECONDS), "The held entity was never dispatched");
+
+            // Would block on the held lane's row lock without SKIP LOCKED
+            drain(dispatcher);
+            assertFalse(holder.isDone());
+            assertEquals(1, deliveries.get(other).get());
+            assertNull(entityDispatchedAt(held));
+
+            release.countDown();
+            holder.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(releasedInTime.get());
+        assertEquals(1, deliveries.get(held).get());
+        assertNotNull(entityDispatchedAt(held));
+        assertNotNull(entityDispatchedAt(other));
+    }
+
+    @Test
+    void testFailedEventHoldsBackItsEntityButNotItsLane() {
+        int failing = 1;
+        int neighbour = entityInLane(lane(failing), failing);
+        long first = insert(failing);
+        long second = insert(failing);
+        long neighbourEvent = insert(neighbour);
+
+        AtomicBoolean fail = new AtomicBoolean(true);
+        Queue<Long> delivered = new ConcurrentLinkedQueue<>();
+        OutboxDispatcher dispatcher = dispatcher(event -> {
+            if (!table.equals(event.getEntityTable())) {
+                return;
+            }
+            if (fail.get() && event.getId() == first) {
+                // Work the subscriber did before failing must not survive the failure
+                jdbcTemplate.update("UPDATE web_store.catalog_outbox SET last_error = 'partial' WHERE id = ?",
+                        second);
+                throw new IllegalStateException("search index unavailable");
+            }
+            delivered.add(event.getId());
+        });
+
+        drain(dispatcher);
+
+        assertEquals(List.of(neighbourEvent), List.copyOf(delivered));
+        assertEquals(1, attempts(first));
+        assertEquals("IllegalStateException: search index unavailable", lastError(first));
+        assertNull(dispatchedAt(first));
+        assertEquals(0, attempts(second));
+        assertNull(lastError(second));
+        assertNull(dispatchedAt(second));
+
+        fail.set(false);
+        drain(dispatcher);
+
+        assertEquals(List.of(neighbourEvent, first, second), List.copyOf(delivered));
+        assertNotNull(dispatchedAt(first));
+        assertNotNull(dispatchedAt(second));
+    }
+
+    @Test
+    void testEventIsAbandonedAtMaxAttempts_LaterEventsOfTheEntityFollow() {
+        int entity = 1;
+        long poisoned = insert(entity);
+        long next = insert(entity);
+        jdbcTemplate.update("UPDATE web_store.catalog_outbox SET attempts = ? WHERE id = ?", MAX_ATTEMPTS - 2, poisoned);
+
+        Queue<Long> delivered = new ConcurrentLinkedQueue<>();
+        OutboxDispatcher dispatcher = dispatcher(event -> {
+            if (!table.equals(event.getEntityTable())) {
+                return;
+            }
+            if (event.getId() == poisoned) {
+                throw new IllegalArgumentException("cannot index");
+            }
+            delivered.add(event.getId());
+        });
+
+        drain(dispatcher);
+        assertEquals(MAX_ATTEMPTS - 1, attempts(poisoned));
+        assertNull(dispatchedAt(poisoned));
+        assertTrue(delivered.isEmpty());
+
+        drain(dispatcher);
+        assertEquals(MAX_ATTEMPTS, attempts(poisoned));
+        assertNotNull(dispatchedAt(poisoned));
+        assertEquals("IllegalArgumentException: cannot index", lastError(poisoned));
+        assertTrue(delivered.isEmpty());
+
+        drain(dispatcher);
+        assertEquals(List.of(next), List.copyOf(delivered));
+        assertEquals(MAX_ATTEMPTS, attempts(poisoned));
+    }
+
+    @Test
+    void testPromotionTargetCleanup_DeletesPromotionsOfADeletedProductOnce() {
+        int productId = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(product_id), 0) + 1000000 FROM web_store.products", Integer.class);
+        Integer promotionId = jdbcTemplate.queryForObject(
+                "INSERT INTO web_store.promotions (promotion_name, scope, target_id, discount_type, discount_value, " +
+                "starts_at, ends_at) VALUES (?, 'PRODUCT', ?, 'PERCENT', 10, CURRENT_TIMESTAMP, " +
+                "CURRENT_TIMESTAMP + INTERVAL '1 day') RETURNING promotion_id",
+                Integer.class, table, productId);
+        try {
+            Long deleted = jdbcTemplate.queryForObject(
+                    "INSERT INTO web_store.catalog_outbox (entity_table, entity_id, change_type) " +
+                    "VALUES ('products', ?, 'DELETED') RETURNING id", Long.class, productId);
+            OutboxDispatcher dispatcher = dispatcher(promotionTargetCleanupSubscriber);
+
+            drain(dispatcher);
+            assertNotNull(jdbcTemplate.queryForObject(
+                    "SELECT dispatched_at FROM web_store.catalog_outbox WHERE id = ?", Object.class, deleted));
+            assertEquals(0, promotions(promotionId));
+
+            // Redelivery finds nothing left to delete
+            jdbcTemplate.update("UPDATE web_store.catalog_outbox SET dispatched_at = NULL WHERE id = ?", deleted);
+            drain(dispatcher);
+            assertEquals(0, promotions(promotionId));
+        } finally {
+            jdbcTemplate.update("DELETE FROM web_store.promotions WHERE promotion_id = ?", promotionId);
+            jdbcTemplate.update("DELETE FROM web_store.catalog_outbox WHERE entity_table = 'products' " +
+                    "AND entity_id = ?", productId);
+        }
+    }
+
+    private OutboxDispatcher dispatcher(OutboxEventSubscriber subscriber) {
+        StaticListableBeanFactory subscribers = new StaticListableBeanFactory();
+        subscribers.addBean("subscriber", subscriber);
+        return new OutboxDispatcher(jdbcTemplate, transactionTemplate,
+                subscribers.getBeanProvider(OutboxEventSubscriber.class), new SimpleMeterRegistry(),
+                true, 100, MAX_ATTEMPTS, 168);
+    }
+
+    // Claims lanes until none with pending work is left, skipping lanes that failed as poll() does
+    private void drain(OutboxDispatcher dispatcher) {
+        Set<Integer> failedLanes = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            Boolean claimed = transactionTemplate.execute(status -> dispatcher.dispatchNextLane(failedLanes));
+            if (!Boolean.TRUE.equals(claimed)) {
+                return;
+            }
+        }
+        fail("The outbox was not drained");
+    }
+
+    private long insert(int entityId) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO web_store.catalog_outbox (entity_table, entity_id, change_type) " +
+                "VALUES (?, ?, 'UPDATED') RETURNING id", Long.class, table, entityId);
+    }
+
+    // Same expression as the generated catalog_outbox.lane column
+    private int lane(int entityId) {
+        return jdbcTemplate.queryForObject("SELECT (hashtext(? || ':' || ?) & 2147483647) % " + LANES,
+                Integer.class, table, entityId);
+    }
+
+    private int entityInLane(int lane, int except) {
+        for (int id = 1; ; id++) {
+            if (id != except && lane(id) == lane) {
+                return id;
+            }
+        }
+    }
+
+    private int entityNotInLane(int lane) {
+        for (int id = 1; ; id++) {
+            if (lane(id) != lane) {
+                return id;
+            }
+        }
+    }
+
+    private Object entityDispatchedAt(int entityId) {
+        return jdbcTemplate.queryForObject("SELECT MAX(dispatched_at) FROM web_store.catalog_outbox " +
+                "WHERE entity_table = ? AND entity_id = ?", Object.class, table, entityId);
+    }
+
+    private Object dispatchedAt(long eventId) {
+        return jdbcTemplate.queryForObject("SELECT dispatched_at FROM web_store.catalog_outbox WHERE id = ?",
+                Object.class, eventId);
+    }
+
+    private int attempts(long eventId) {
+        return jdbcTemplate.queryForObject("SELECT attempts FROM web_store.catalog_outbox WHERE id = ?",
+                Integer.class, eventId);
+    }
+
+    private String lastError(long eventId) {
+        return jdbcTemplate.queryForObject("SELECT last_error FROM web_store.catalog_outbox WHERE id = ?",
+                String.class, eventId);
+    }
+
+    private int promotions(int promotionId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM web_store.promotions WHERE promotion_id = ?",
+                Integer.class, promotionId);
+    }
+}
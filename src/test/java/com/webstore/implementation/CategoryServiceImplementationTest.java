@@ -3,13 +3,16 @@ package com.webstore.implementation;
 import com.webstore.dto.request.CategoryRequestDto;
 import com.webstore.dto.response.CategoryResponseDto;
 import com.webstore.entity.Category;
+import com.webstore.event.CatalogChangeEvent;
 import com.webstore.repository.CategoryRepository;
 import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Optional;
 
@@ -31,6 +34,9 @@ class CategoryServiceImplementationTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private Category category;
     private CategoryRequestDto requestDto;
 
@@ -58,6 +64,20 @@ class CategoryServiceImplementationTest {
         assertEquals("Books", responseDto.getCategoryName());
     }
 
+    @Test
+    void testCreateCategory_PublishesCatalogChange() {
+        when(categoryRepository.existsByCategoryName("Books")).thenReturn(false);
+        when(categoryRepository.save(any())).thenReturn(category);
+
+        categoryService.createCategory(requestDto);
+
+        ArgumentCaptor<CatalogChangeEvent> captor = ArgumentCaptor.forClass(CatalogChangeEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals("categories", captor.getValue().getTable());
+        assertEquals(1, captor.getValue().getId());
+        assertFalse(captor.getValue().isRemote());
+    }
+
     @Test
     void testCreateCategory_AlreadyExists() {
         when(categoryRepository.existsByCategoryName("Books")).thenReturn(true);
@@ -0,0 +1,148 @@
+package com.webstore.implementation;
+
+import com.webstore.constant.DatabaseConstants;
+import com.webstore.dto.response.ProductResponseDto.PriceInfoDto;
+import com.webstore.event.CatalogChangeEvent;
+import com.webstore.service.PriceMatrixService;
+import com.webstore.util.PriceMatrix;
+import com.webstore.util.PriceMatrix.CurrencyInfo;
+import com.webstore.util.PriceMatrix.PriceRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CurrencyConversionServiceImplementationTest {
+
+    private static final CurrencyInfo USD = new CurrencyInfo(1, "USD", "$", 2);
+    private static final CurrencyInfo JPY = new CurrencyInfo(10, "JPY", "¥", 0);
+
+    @Mock
+    private PriceMatrixService priceMatrixService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private PriceMatrix matrix;
+    private CurrencyConversionServiceImplementation conversionService;
+
+    @BeforeEach
+    void setUp() {
+        matrix = new PriceMatrix();
+        matrix.load(List.of(USD, JPY), List.of(
+                new PriceRow(1, 1, USD.currencyId(), 199),
+                new PriceRow(2, 2, USD.currencyId(), 1000),
+                new PriceRow(3, 2, JPY.currencyId(), 1400)));
+        when(priceMatrixService.getPriceMatrix()).thenReturn(matrix);
+        conversionService = new CurrencyConversionServiceImplementation(priceMatrixService, jdbcTemplate, "USD");
+    }
+
+    private void givenRate(int rateId, String rate) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getInt("exchange_rate_id")).thenReturn(rateId);
+        when(rs.getInt("quote_currency_id")).thenReturn(JPY.currencyId());
+        when(rs.getBigDecimal("rate")).thenReturn(new BigDecimal(rate));
+        when(rs.getTimestamp("valid_from")).thenReturn(Timestamp.valueOf(LocalDateTime.now().minusDays(1)));
+        when(rs.getTimestamp("valid_to")).thenReturn(null);
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+    }
+
+    @Test
+    void derivesMissingPriceAndKeepsEnteredOne() throws Exception {
+        givenRate(7, "150");
+
+        Map<Integer, PriceInfoDto> prices = conversionService.getPricesIn(List.of(1, 2, 3), "jpy");
+
+        // $1.99 * 150 = ¥298.5, rounded half up
+        assertEquals(BigInteger.valueOf(299), prices.get(1).getPriceAmount());
+        assertTrue(prices.get(1).isDerived());
+        assertEquals(BigInteger.valueOf(1400), prices.get(2).getPriceAmount());
+        assertFalse(prices.get(2).isDerived());
+        assertFalse(prices.containsKey(3));
+    }
+
+    @Test
+    void rederivesChangedBasePrice() throws Exception {
+        givenRate(7, "150");
+        conversionService.getPricesIn(List.of(1), "JPY");
+
+        matrix.put(1, 1, USD, 200);
+
+        assertEquals(BigInteger.valueOf(300), conversionService.getPricesIn(List.of(1), "JPY").get(1).getPriceAmount());
+    }
+
+    @Test
+    void concurrentRederivationsNeverPairOneBaseWithAnothersAmount() throws Exception {
+        givenRate(7, "150");
+        conversionService.getPricesIn(List.of(1), "JPY");
+
+        // Two writers keep switching the base price and rederiving it; each leaves a (base, derived) cell
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<?>> writers = List.of(200L, 300L).stream().<Future<?>>map(amount -> executor.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    matrix.put(1, 1, USD, amount);
+                    conversionService.getPricesIn(List.of(1), "JPY");
+                }
+            })).toList();
+            for (Future<?> writer : writers) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // A torn cell would hand the other writer's amount back for a base it remembers as its own
+        matrix.put(1, 1, USD, 200);
+        assertEquals(BigInteger.valueOf(300), conversionService.getPricesIn(List.of(1), "JPY").get(1).getPriceAmount());
+        matrix.put(1, 1, USD, 300);
+        assertEquals(BigInteger.valueOf(450), conversionService.getPricesIn(List.of(1), "JPY").get(1).getPriceAmount());
+    }
+
+    @Test
+    void newRateReplacesDerivedPrices() throws Exception {
+        givenRate(7, "150");
+        conversionService.getPricesIn(List.of(1), "JPY");
+
+        givenRate(8, "100");
+        conversionService.onCatalogChange(CatalogChangeEvent.created(DatabaseConstants.EXCHANGE_RATES_TABLE, 8));
+
+        assertEquals(BigInteger.valueOf(199), conversionService.getPricesIn(List.of(1), "JPY").get(1).getPriceAmount());
+    }
+
+    @Test
+    void noRateMeansNoDerivedPrice() {
+        Map<Integer, PriceInfoDto> prices = conversionService.getPricesIn(List.of(1), "JPY");
+
+        assertTrue(prices.isEmpty());
+    }
+
+    @Test
+    void unknownCurrencyIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> conversionService.getPricesIn(List.of(1), "XXX"));
+    }
+}
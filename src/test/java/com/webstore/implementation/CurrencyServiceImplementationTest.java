@@ -3,6 +3,7 @@ package com.webstore.implementation;
 import com.webstore.dto.request.CurrencyRequestDto;
 import com.webstore.dto.response.CurrencyResponseDto;
 import com.webstore.entity.Currency;
+import com.webstore.exception.ClientErrorException;
 import com.webstore.repository.CurrencyRepository;
 import com.webstore.util.AuthUtils;
 import jakarta.persistence.EntityExistsException;
@@ -12,12 +13,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -30,6 +33,7 @@ import static org.mockito.Mockito.*;
 public class CurrencyServiceImplementationTest {
 
     @Mock private CurrencyRepository currencyRepository;
+    @Mock private ApplicationEventPublisher eventPublisher;
     @InjectMocks private CurrencyServiceImplementation currencyService;
 
     private Currency currency;
@@ -163,6 +167,55 @@ public class CurrencyServiceImplementationTest {
         verify(currencyRepository, never()).save(any(Currency.class));
     }
 
+    @Test
+    void updateCurrency_WhenExponentChangesWithStoredAmounts_ShouldConflict() {
+        requestDto.setMinorUnitExponent(3);
+        when(currencyRepository.findById(1)).thenReturn(Optional.of(currency));
+        when(currencyRepository.hasStoredAmounts(1)).thenReturn(true);
+
+        try (MockedStatic<AuthUtils> authUtils = mockStatic(AuthUtils.class)) {
+            authUtils.when(AuthUtils::getCurrentUsername).thenReturn(TEST_USER);
+
+            ClientErrorException exception = assertThrows(ClientErrorException.class,
+                    () -> currencyService.updateCurrency(1, requestDto));
+
+            assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+            assertEquals(2, currency.getMinorUnitExponent());
+            verify(currencyRepository, never()).save(any(Currency.class));
+        }
+    }
+
+    @Test
+    void updateCurrency_WhenExponentChangesWithoutStoredAmounts_ShouldUpdate() {
+        requestDto.setMinorUnitExponent(0);
+        when(currencyRepository.findById(1)).thenReturn(Optional.of(currency));
+        when(currencyRepository.hasStoredAmounts(1)).thenReturn(false);
+        when(currencyRepository.save(any(Currency.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        try (MockedStatic<AuthUtils> authUtils = mockStatic(AuthUtils.class)) {
+            authUtils.when(AuthUtils::getCurrentUsername).thenReturn(TEST_USER);
+
+            CurrencyResponseDto result = currencyService.updateCurrency(1, requestDto);
+
+            assertEquals(0, result.getMinorUnitExponent());
+        }
+    }
+
+    @Test
+    void updateCurrency_WhenExponentIsUnchanged_ShouldNotCheckStoredAmounts() {
+        requestDto.setMinorUnitExponent(2);
+        when(currencyRepository.findById(1)).thenReturn(Optional.of(currency));
+        when(currencyRepository.save(any(Currency.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        try (MockedStatic<AuthUtils> authUtils = mockStatic(AuthUtils.class)) {
+            authUtils.when(AuthUtils::getCurrentUsername).thenReturn(TEST_USER);
+
+            currencyService.updateCurrency(1, requestDto);
+
+            verify(currencyRepository, never()).hasStoredAmounts(anyInt());
+        }
+    }
+
     @Test
     void deleteCurrency_WhenExists_ShouldDelete() {
         when(currencyRepository.existsById(1)).thenReturn(true);
@@ -0,0 +1,127 @@
+package com.webstore.implementation;
+
+import com.webstore.dto.response.CatalogueCategoryResponseDto;
+import com.webstore.dto.response.ProductResponseDto;
+import com.webstore.repository.ProductRepository;
+import com.webstore.service.PriceMatrixService;
+import com.webstore.service.ProductService;
+import com.webstore.service.PromotionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NewestProductsServiceImplementationTest {
+
+    private static final int CAPACITY = 20;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private PriceMatrixService priceMatrixService;
+
+    @Mock
+    private PromotionService promotionService;
+
+    private NewestProductsServiceImplementation newestProductsService;
+
+    @BeforeEach
+    void setUp() {
+        newestProductsService = new NewestProductsServiceImplementation(productRepository, productService,
+                priceMatrixService, promotionService, CAPACITY);
+        lenient().when(priceMatrixService.getPrices(anyInt(), any())).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testGetNewestProducts_ListsEverySellersProducts() {
+        when(productRepository.findNewestIdsPerCatalogueCategory(CAPACITY)).thenReturn(List.of(1, 2));
+        when(productService.getProductsByIds(List.of(1, 2))).thenReturn(List.of(
+                product(1, 7, 10, LocalDateTime.now().minusDays(1)),
+                product(2, 8, 10, LocalDateTime.now())));
+
+        List<ProductResponseDto> result = newestProductsService.getNewestProducts(5);
+
+        assertEquals(List.of(2, 1), result.stream().map(ProductResponseDto::getProductId).toList());
+    }
+
+    @Test
+    void testGetNewestProducts_SellerOnlySeesOwnProducts() {
+        authenticateSeller(7);
+        when(productRepository.findNewestIdsBySellerId(7, 5)).thenReturn(List.of(1, 3));
+        when(productService.getProductsByIds(List.of(1, 3))).thenReturn(List.of(
+                product(1, 7, 10, LocalDateTime.now().minusDays(1)),
+                product(3, 7, 11, LocalDateTime.now())));
+
+        List<ProductResponseDto> result = newestProductsService.getNewestProducts(5);
+
+        assertEquals(List.of(3, 1), result.stream().map(ProductResponseDto::getProductId).toList());
+        // The shared feeds are neither loaded nor read for a seller
+        verify(productRepository, never()).findNewestIdsPerCatalogueCategory(anyInt());
+    }
+
+    @Test
+    void testGetNewestProductsOfCatalogueCategory_SellerOnlySeesOwnProducts() {
+        authenticateSeller(7);
+        when(productRepository.findNewestIdsByCatalogueCategoryIdAndSellerId(10, 7, 5)).thenReturn(List.of(1));
+        when(productService.getProductsByIds(List.of(1))).thenReturn(List.of(
+                product(1, 7, 10, LocalDateTime.now())));
+
+        List<ProductResponseDto> result = newestProductsService.getNewestProducts(10, 5);
+
+        assertEquals(List.of(1), result.stream().map(ProductResponseDto::getProductId).toList());
+        verify(productRepository, never()).findNewestIdsPerCatalogueCategory(anyInt());
+    }
+
+    @Test
+    void testGetNewestProducts_SellerWithoutIdInToken() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "seller@example.com", null, List.of(new SimpleGrantedAuthority("ROLE_SELLER"))));
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> newestProductsService.getNewestProducts(5));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exception.getStatusCode());
+    }
+
+    private static void authenticateSeller(int sellerId) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "seller@example.com", sellerId, List.of(new SimpleGrantedAuthority("ROLE_SELLER"))));
+    }
+
+    private static ProductResponseDto product(int productId, int sellerId, int catalogueCategoryId,
+            LocalDateTime createdAt) {
+        CatalogueCategoryResponseDto catalogueCategory = new CatalogueCategoryResponseDto();
+        catalogueCategory.setCatalogueCategoryId(catalogueCategoryId);
+        ProductResponseDto product = new ProductResponseDto();
+        product.setProductId(productId);
+        product.setProductName("Product " + productId);
+        product.setSellerId(sellerId);
+        product.setCatalogueCategory(catalogueCategory);
+        product.setCreatedAt(createdAt);
+        return product;
+    }
+}
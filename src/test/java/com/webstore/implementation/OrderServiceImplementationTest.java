@@ -0,0 +1,265 @@
+package com.webstore.implementation;
+
+import com.webstore.dto.request.OrderRequestDto;
+import com.webstore.dto.response.OrderResponseDto;
+import com.webstore.entity.Currency;
+import com.webstore.entity.CustomerOrder;
+import com.webstore.entity.Product;
+import com.webstore.entity.ProductPrice;
+import com.webstore.entity.StockReservation;
+import com.webstore.repository.CurrencyRepository;
+import com.webstore.repository.CustomerOrderRepository;
+import com.webstore.repository.ProductPriceRepository;
+import com.webstore.repository.StockReservationRepository;
+import com.webstore.service.PromotionService;
+import com.webstore.service.StockReservationService;
+import com.webstore.service.whatsapp.core.OutboundMessageQueue;
+import com.webstore.util.MoneyFormatter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderServiceImplementationTest {
+
+    private static final String CUSTOMER = "15550001111";
+    private static final String KEY = "wa:wamid.TEST";
+
+    @Mock
+    private CustomerOrderRepository orderRepository;
+
+    @Mock
+    private StockReservationRepository reservationRepository;
+
+    @Mock
+    private ProductPriceRepository productPriceRepository;
+
+    @Mock
+    private CurrencyRepository currencyRepository;
+
+    @Mock
+    private StockReservationService stockReservationService;
+
+    @Mock
+    private OutboundMessageQueue outboundMessageQueue;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PromotionService promotionService;
+
+    private OrderServiceImplementation orderService;
+
+    private Currency currency;
+    private Product product;
+    private CustomerOrder order;
+
+    @BeforeEach
+    void setUp() {
+        orderService = new OrderServiceImplementation(orderRepository, reservationRepository,
+                productPriceRepository, currencyRepository, stockReservationService, outboundMessageQueue, jdbcTemplate,
+                new MoneyFormatter(), promotionService, "INR");
+        // No promotion running: list prices are charged
+        lenient().when(promotionService.getEffectivePrice(any(), any(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(2));
+
+        currency = new Currency();
+        currency.setCurrencyId(8);
+        currency.setCurrencyCode("INR");
+        currency.setCurrencySymbol("₹");
+
+        product = new Product();
+        product.setProductId(1);
+        product.setProductName("Test Product");
+
+        order = new CustomerOrder();
+        order.setOrderId(100L);
+        order.setCustomer(CUSTOMER);
+        order.setIdempotencyKey(KEY);
+        order.setCurrency(currency);
+
+        lenient().when(currencyRepository.findByCurrencyCode("INR")).thenReturn(Optional.of(currency));
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private StockReservation heldReservation(long id, int quantity) {
+        StockReservation reservation = new StockReservation();
+        reservation.setReservationId(id);
+        reservation.setProduct(product);
+        reservation.setQuantity(quantity);
+        reservation.setHolder(CUSTOMER);
+        reservation.setExpiresAt(LocalDateTime.now().plusMinutes(10));
+        return reservation;
+    }
+
+    private void claimKey(List<Long> result) {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(), any(), any(), any(), any()))
+                .thenReturn(result);
+    }
+
+    @Test
+    void testPlaceOrder_CreatesLinesAndQueuesConfirmation() {
+        claimKey(List.of(100L));
+        when(reservationRepository.findHeldByHolder(CUSTOMER)).thenReturn(List.of(heldReservation(10L, 2)));
+        when(reservationRepository.confirmAllIfHeld(eq(List.of(10L)), any(LocalDateTime.class))).thenReturn(1);
+        ProductPrice price = new ProductPrice();
+        price.setProduct(product);
+        price.setPriceAmount(BigInteger.valueOf(1500));
+        when(productPriceRepository.findByProductIdsAndCurrencyId(anyList(), eq(8))).thenReturn(List.of(price));
+        when(orderRepository.findById(100L)).thenReturn(Optional.of(order));
+
+        OrderResponseDto result = orderService.placeOrder(CUSTOMER, KEY, "PHONE_ID", null);
+
+        assertFalse(result.isReplayed());
+        assertEquals(BigInteger.valueOf(3000), result.getTotalAmount());
+        assertEquals(1, result.getLines().size());
+        assertEquals(2, result.getLines().get(0).getQuantity());
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(outboundMessageQueue).enqueueText(eq("PHONE_ID"), eq(CUSTOMER), body.capture());
+        assertTrue(body.getValue().contains("Order #100"));
+        assertTrue(body.getValue().contains("Total: ₹30.00"));
+    }
+
+    @Test
+    void testPlaceOrder_SameKeyReturnsExistingOrder() {
+        claimKey(List.of());
+        when(orderRepository.findIdByIdempotencyKey(KEY)).thenReturn(Optional.of(100L));
+        when(orderRepository.findByIdWithLines(100L)).thenReturn(Optional.of(order));
+
+        OrderResponseDto result = orderService.placeOrder(CUSTOMER, KEY, "PHONE_ID", null);
+
+        assertTrue(result.isReplayed());
+        assertEquals(100L, result.getOrderId());
+        verifyNoInteractions(reservationRepository, stockReservationService, outboundMessageQueue);
+    }
+
+    @Test
+    void testPlaceOrder_KeyUsedByAnotherCustomer() {
+        claimKey(List.of());
+        when(orderRepository.findIdByIdempotencyKey(KEY)).thenReturn(Optional.of(100L));
+        when(orderRepository.findByIdWithLines(100L)).thenReturn(Optional.of(order));
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> orderService.placeOrder("someone-else", KEY, null, null));
+
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+    }
+
+    @Test
+    void testPlaceOrder_EmptyCart() {
+        claimKey(List.of(100L));
+        when(reservationRepository.findHeldByHolder(CUSTOMER)).thenReturn(List.of());
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> orderService.placeOrder(CUSTOMER, KEY, null, null));
+
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+        verify(outboundMessageQueue, never()).enqueueText(any(), any(), any());
+    }
+
+    @Test
+    void testPlaceOrder_BuyNowReservesAfterClaimingKey() {
+        claimKey(List.of(100L));
+        when(reservationRepository.findHeldByHolder(CUSTOMER))
+                .thenReturn(List.of())
+                .thenReturn(List.of(heldReservation(12L, 1)));
+        when(reservationRepository.confirmAllIfHeld(eq(List.of(12L)), any(LocalDateTime.class))).thenReturn(1);
+        ProductPrice price = new ProductPrice();
+        price.setProduct(product);
+        price.setPriceAmount(BigInteger.valueOf(1500));
+        when(productPriceRepository.findByProductIdsAndCurrencyId(anyList(), eq(8))).thenReturn(List.of(price));
+        when(orderRepository.findById(100L)).thenReturn(Optional.of(order));
+
+        OrderResponseDto result = orderService.placeOrder(CUSTOMER, KEY, null, 1);
+
+        verify(stockReservationService).reserve(1, 1, CUSTOMER);
+        assertEquals(BigInteger.valueOf(1500), result.getTotalAmount());
+    }
+
+    @Test
+    void testPlaceOrder_HoldLostDuringCheckout() {
+        claimKey(List.of(100L));
+        when(reservationRepository.findHeldByHolder(CUSTOMER))
+                .thenReturn(List.of(heldReservation(10L, 1), heldReservation(11L, 1)));
+        when(reservationRepository.confirmAllIfHeld(anyList(), any(LocalDateTime.class))).thenReturn(1);
+
+        assertThrows(ResponseStatusException.class, () -> orderService.placeOrder(CUSTOMER, KEY, null, null));
+        verify(orderRepository, never()).findById(any());
+    }
+
+    @Test
+    void testPlaceOrder_MissingIdempotencyKey() {
+        assertThrows(IllegalArgumentException.class, () -> orderService.placeOrder(CUSTOMER, " ", null, null));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void testPlaceOrder_SellerCannotCheckOutAnotherCustomersCart() {
+        authenticate("seller@example.com", "ROLE_SELLER");
+        OrderRequestDto request = new OrderRequestDto();
+        request.setCustomer(CUSTOMER);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> orderService.placeOrder(request, KEY));
+
+        assertEquals(HttpStatus.FORBIDDEN, exception.getStatusCode());
+        verifyNoInteractions(jdbcTemplate, reservationRepository);
+    }
+
+    @Test
+    void testPlaceOrder_AdminChecksOutAnyCustomersCart() {
+        authenticate("admin@example.com", "ROLE_ADMIN");
+        OrderRequestDto request = new OrderRequestDto();
+        request.setCustomer(CUSTOMER);
+        claimKey(List.of());
+        when(orderRepository.findIdByIdempotencyKey(KEY)).thenReturn(Optional.of(100L));
+        when(orderRepository.findByIdWithLines(100L)).thenReturn(Optional.of(order));
+
+        assertEquals(100L, orderService.placeOrder(request, KEY).getOrderId());
+    }
+
+    @Test
+    void testGetOrderById_SellerOnlyReadsOwnOrders() {
+        authenticate("seller@example.com", "ROLE_SELLER");
+        when(orderRepository.findByIdWithLines(100L)).thenReturn(Optional.of(order));
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> orderService.getOrderById(100L));
+        assertEquals(HttpStatus.FORBIDDEN, exception.getStatusCode());
+
+        order.setCustomer("seller@example.com");
+        assertEquals(100L, orderService.getOrderById(100L).getOrderId());
+    }
+
+    private static void authenticate(String email, String authority) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                email, 7, List.of(new SimpleGrantedAuthority(authority))));
+    }
+}
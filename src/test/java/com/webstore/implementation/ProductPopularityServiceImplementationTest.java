@@ -0,0 +1,145 @@
+package com.webstore.implementation;
+
+import com.webstore.enums.whatsapp.ProductInteraction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductPopularityServiceImplementationTest {
+
+    private static final int RANKED_LIMIT = 3;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ProductPopularityServiceImplementation popularityService;
+
+    @BeforeEach
+    void setUp() {
+        popularityService = new ProductPopularityServiceImplementation(jdbcTemplate, RANKED_LIMIT);
+    }
+
+    private void givenRanking(Integer... productIds) {
+        when(jdbcTemplate.queryForList(contains("ORDER BY score DESC"), eq(Integer.class), eq(RANKED_LIMIT + 1), eq(0)))
+                .thenReturn(List.of(productIds));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> flushedBatch() {
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), batch.capture());
+        return batch.getValue().stream().sorted(Comparator.comparing(row -> (Integer) row[4])).toList();
+    }
+
+    @Test
+    void flush_WritesOneRowOfDeltasPerProduct() {
+        givenRanking();
+        popularityService.record(ProductInteraction.VIEW, 7);
+        popularityService.record(ProductInteraction.VIEW, 7);
+        popularityService.record(ProductInteraction.CART_ADD, 7);
+        popularityService.record(ProductInteraction.CHECKOUT, 9);
+        popularityService.record(ProductInteraction.SELECTION, null);
+
+        popularityService.flush();
+
+        List<Object[]> rows = flushedBatch();
+        assertEquals(2, rows.size());
+        assertArrayEquals(new Object[] {2L, 0L, 1L, 0L, 7}, rows.get(0));
+        assertArrayEquals(new Object[] {0L, 0L, 0L, 1L, 9}, rows.get(1));
+
+        // Nothing new since: no write
+        clearInvocations(jdbcTemplate);
+        popularityService.flush();
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void flush_KeepsDeltasOfFailedBatch() {
+        popularityService.record(ProductInteraction.VIEW, 7);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(new int[] {1});
+        givenRanking();
+
+        popularityService.flush();
+        popularityService.record(ProductInteraction.VIEW, 7);
+        clearInvocations(jdbcTemplate);
+        popularityService.flush();
+
+        assertArrayEquals(new Object[] {2L, 0L, 0L, 0L, 7}, flushedBatch().get(0));
+    }
+
+    @Test
+    void popularFirst_OrdersRankedAndKeepsTheRestInPlace() {
+        givenRanking(9, 3);
+
+        assertEquals(List.of(9, 3, 1, 2, 4), popularityService.popularFirst(List.of(1, 2, 3, 4, 9), id -> id));
+    }
+
+    @Test
+    void getPopularProductIds_ContinuesWithUnrankedProducts() {
+        givenRanking(9, 3);
+        when(jdbcTemplate.queryForList(contains("NOT EXISTS"), eq(Integer.class), eq(1), eq(0L)))
+                .thenReturn(List.of(1));
+        when(jdbcTemplate.queryForList(contains("NOT EXISTS"), eq(Integer.class), eq(3), eq(1L)))
+                .thenReturn(List.of(2, 4));
+
+        assertEquals(List.of(9, 3, 1), popularityService.getPopularProductIds(0, 3));
+        assertEquals(List.of(2, 4), popularityService.getPopularProductIds(1, 3));
+        assertThrows(IllegalArgumentException.class, () -> popularityService.getPopularProductIds(-1, 3));
+    }
+
+    @Test
+    void getPopularProductIds_PagesPastTheTopFromTheDatabase() {
+        // One more ranked product than is kept in memory
+        givenRanking(9, 3, 5, 8);
+        when(jdbcTemplate.queryForList(contains("ORDER BY score DESC"), eq(Integer.class), eq(1), eq(3L)))
+                .thenReturn(List.of(8));
+        when(jdbcTemplate.queryForList(contains("ORDER BY score DESC"), eq(Integer.class), eq(2), eq(4L)))
+                .thenReturn(List.of(6));
+        when(jdbcTemplate.queryForObject(contains("COUNT(*)"), eq(Long.class))).thenReturn(5L);
+        when(jdbcTemplate.queryForList(contains("NOT EXISTS"), eq(Integer.class), eq(1), eq(0L)))
+                .thenReturn(List.of(1));
+
+        // The first page comes from memory
+        assertEquals(List.of(9, 3), popularityService.getPopularProductIds(0, 2));
+        assertEquals(List.of(5, 8), popularityService.getPopularProductIds(1, 2));
+        assertEquals(List.of(6, 1), popularityService.getPopularProductIds(2, 2));
+        verify(jdbcTemplate, times(1)).queryForObject(contains("COUNT(*)"), eq(Long.class));
+    }
+
+    @Test
+    void popularFirst_RanksProductsPastTheTopFromTheDatabase() {
+        givenRanking(9, 3, 5, 8);
+        when(jdbcTemplate.query(contains("ANY(?)"), any(PreparedStatementSetter.class),
+                ArgumentMatchers.<RowMapper<Integer>>any()))
+                .thenReturn(List.of(3, 8));
+
+        // Products within the top are ordered from memory alone
+        assertEquals(List.of(9, 3, 5), popularityService.popularFirst(List.of(5, 3, 9), id -> id));
+        verify(jdbcTemplate, never()).query(contains("ANY(?)"), any(PreparedStatementSetter.class),
+                ArgumentMatchers.<RowMapper<Integer>>any());
+
+        assertEquals(List.of(3, 8, 1), popularityService.popularFirst(List.of(1, 8, 3), id -> id));
+    }
+}
@@ -8,14 +8,18 @@ import com.webstore.entity.ProductPrice;
 import com.webstore.repository.CurrencyRepository;
 import com.webstore.repository.ProductPriceRepository;
 import com.webstore.repository.ProductRepository;
+import com.webstore.service.PriceHistoryService;
 import com.webstore.service.ProductPriceService;
 import com.webstore.util.AuthUtils;
+import com.webstore.util.MoneyFormatter;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -39,6 +43,15 @@ public class ProductPriceServiceImplementationTest {
     @Mock
     private CurrencyRepository currencyRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PriceHistoryService priceHistoryService;
+
+    @Spy
+    private MoneyFormatter moneyFormatter = new MoneyFormatter();
+
     @InjectMocks
     private ProductPriceServiceImplementation productPriceService;
 
@@ -196,6 +209,25 @@ public class ProductPriceServiceImplementationTest {
 
             verify(productPriceRepository).findById(1);
             verify(productPriceRepository).save(any(ProductPrice.class));
+            verify(priceHistoryService).recordPrice(1, 1, 1, BigInteger.valueOf(2000));
+        }
+    }
+
+    @Test
+    void updateProductPrice_WhenAmountIsUnchanged_ShouldNotRecordHistory() {
+        // Arrange
+        when(productPriceRepository.findById(1)).thenReturn(Optional.of(productPrice));
+        when(productPriceRepository.save(any(ProductPrice.class))).thenReturn(productPrice);
+
+        try (MockedStatic<AuthUtils> authUtils = mockStatic(AuthUtils.class)) {
+            authUtils.when(AuthUtils::getCurrentUsername).thenReturn(TEST_USER);
+
+            // Act
+            ProductPriceResponseDto result = productPriceService.updateProductPrice(1, BigInteger.valueOf(1000));
+
+            // Assert
+            assertEquals(BigInteger.valueOf(1000), result.getPriceAmount());
+            verify(priceHistoryService, never()).recordPrice(anyInt(), anyInt(), anyInt(), any(BigInteger.class));
         }
     }
 
@@ -223,6 +255,7 @@ public class ProductPriceServiceImplementationTest {
         // Assert
         verify(productPriceRepository).existsById(1);
         verify(productPriceRepository).deleteById(1);
+        verify(priceHistoryService).recordRemoval(1);
     }
 
     @Test
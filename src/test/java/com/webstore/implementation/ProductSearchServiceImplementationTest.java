@@ -0,0 +1,110 @@
+package com.webstore.implementation;
+
+import com.webstore.constant.DatabaseConstants;
+import com.webstore.dto.request.ProductSearchRequestDto;
+import com.webstore.dto.response.FacetedSearchResponseDto;
+import com.webstore.dto.response.FacetedSearchResponseDto.FacetCountDto;
+import com.webstore.dto.response.FacetedSearchResponseDto.PriceRangeCountDto;
+import com.webstore.event.CatalogChangeEvent;
+import com.webstore.service.PriceMatrixService;
+import com.webstore.service.ProductService;
+import com.webstore.util.FacetIndex.ProductFacets;
+import com.webstore.util.PriceMatrix;
+import com.webstore.util.PriceMatrix.CurrencyInfo;
+import com.webstore.util.PriceMatrix.PriceRow;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductSearchServiceImplementationTest {
+
+    private static final int INR = 8;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PriceMatrixService priceMatrixService;
+
+    @Mock
+    private ProductService productService;
+
+    private PriceMatrix matrix;
+    private ProductSearchServiceImplementation searchService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        matrix = spy(new PriceMatrix());
+        matrix.load(List.of(new CurrencyInfo(INR, "INR", "₹", 2)), List.of(
+                new PriceRow(101, 1, INR, 500),
+                new PriceRow(102, 2, INR, 1500),
+                new PriceRow(103, 3, INR, 2500)));
+        when(priceMatrixService.getPriceMatrix()).thenReturn(matrix);
+        when(jdbcTemplate.query(contains("ORDER BY p.product_id"), any(RowMapper.class))).thenReturn(List.of(
+                new ProductFacets(1, 10, 100, 7, 5, 500),
+                new ProductFacets(2, 10, 100, 7, 5, 1500),
+                new ProductFacets(3, 10, 100, 8, 5, 2500)));
+        lenient().when(productService.getProductsByIds(anyList())).thenReturn(List.of());
+
+        // Price buckets: [..., 1000) [1000, ...)
+        searchService = new ProductSearchServiceImplementation(jdbcTemplate, priceMatrixService, productService,
+                "INR", new long[] {1000});
+        searchService.reload();
+        clearInvocations(matrix);
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testDeletedPrices_RefreshAllPricesOnceBeforeTheNextSearch() {
+        when(jdbcTemplate.queryForList(contains("product_price_id"), eq(Integer.class), anyInt())).thenReturn(List.of());
+        // As the price matrix listener does first for each deleted price
+        for (int priceId : new int[] {101, 102, 103}) {
+            matrix.remove(priceId);
+            searchService.onCatalogChange(CatalogChangeEvent.deleted(DatabaseConstants.PRODUCT_PRICES_TABLE, priceId));
+        }
+        verify(matrix, never()).amount(anyInt(), anyInt());
+
+        FacetedSearchResponseDto response = searchService.search(new ProductSearchRequestDto());
+
+        assertEquals(List.of(0, 0), response.getPrices().stream().map(PriceRangeCountDto::getCount).toList());
+        // One lookup per product, not one pass over the catalog per deleted price
+        verify(matrix, times(3)).amount(anyInt(), eq(INR));
+
+        searchService.search(new ProductSearchRequestDto());
+        verify(matrix, times(3)).amount(anyInt(), eq(INR));
+    }
+
+    @Test
+    void testSearch_SellerSeesOnlyTheirOwnSellerFacet() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "seller@example.com", 7, List.of(new SimpleGrantedAuthority("ROLE_SELLER"))));
+        ProductSearchRequestDto request = new ProductSearchRequestDto();
+        request.setSellerId(8);
+
+        FacetedSearchResponseDto response = searchService.search(request);
+
+        assertEquals(2, response.getTotal());
+        assertEquals(List.of(7), response.getSellers().stream().map(FacetCountDto::getId).toList());
+        assertEquals(2, response.getSellers().get(0).getCount());
+    }
+}
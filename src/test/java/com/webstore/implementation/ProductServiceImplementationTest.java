@@ -8,10 +8,16 @@ import com.webstore.entity.CatalogueCategory;
 import com.webstore.entity.Product;
 import com.webstore.repository.CatalogueCategoryRepository;
 import com.webstore.repository.ProductRepository;
+import com.webstore.service.CurrencyConversionService;
+import com.webstore.service.PriceHistoryService;
+import com.webstore.service.PriceMatrixService;
+import com.webstore.service.ProductPopularityService;
+import com.webstore.service.PromotionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
 
 import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.Page;
@@ -34,6 +40,24 @@ class ProductServiceImplementationTest {
     @Mock
     private CatalogueCategoryRepository catalogueCategoryRepository;
 
+    @Mock
+    private PriceMatrixService priceMatrixService;
+
+    @Mock
+    private CurrencyConversionService currencyConversionService;
+
+    @Mock
+    private PriceHistoryService priceHistoryService;
+
+    @Mock
+    private PromotionService promotionService;
+
+    @Mock
+    private ProductPopularityService productPopularityService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ProductServiceImplementation productService;
 
@@ -0,0 +1,278 @@
+package com.webstore.implementation;
+
+import com.webstore.constant.DatabaseConstants;
+import com.webstore.event.CatalogChangeEvent;
+import com.webstore.repository.CatalogueRepository;
+import com.webstore.repository.CategoryRepository;
+import com.webstore.repository.CurrencyRepository;
+import com.webstore.repository.ProductRepository;
+import com.webstore.repository.PromotionRepository;
+import com.webstore.service.PriceMatrixService;
+import com.webstore.util.PriceMatrix;
+import com.webstore.util.PriceMatrix.CurrencyInfo;
+import com.webstore.util.PriceMatrix.PriceRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/*
+ * The JdbcTemplate is answered from in-memory promotions and product groups; the SQL itself is covered
+ * by running the application. Rows are maps of column name to value, as the service reads them.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class PromotionServiceImplementationTest {
+
+    private static final int INR = 1;
+    private static final int CATEGORY = 100;
+    private static final int OTHER_CATEGORY = 200;
+
+    @Mock
+    private PromotionRepository promotionRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private CatalogueRepository catalogueRepository;
+
+    @Mock
+    private CurrencyRepository currencyRepository;
+
+    @Mock
+    private PriceMatrixService priceMatrixService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ScheduledFuture<?> scheduledTask;
+
+    private PromotionServiceImplementation promotionService;
+
+    private final List<Map<String, Object>> running = new ArrayList<>();
+    // product_id -> category_id, all in catalogue 1
+    private final Map<Integer, Integer> categoryByProduct = new HashMap<>();
+    private Timestamp nextBoundary;
+
+    @BeforeEach
+    void setUp() {
+        PriceMatrix matrix = new PriceMatrix();
+        matrix.load(List.of(new CurrencyInfo(INR, "INR", "₹", 2)), List.of(
+                new PriceRow(11, 1, INR, 1000),
+                new PriceRow(12, 2, INR, 1000)));
+        when(priceMatrixService.getPriceMatrix()).thenReturn(matrix);
+        doReturn(scheduledTask).when(taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Map<String, Object> row : running) {
+                handler.processRow(resultSet(row));
+            }
+            return null;
+        }).when(jdbcTemplate).query(contains("ends_at > ? ORDER BY promotion_id"), any(RowCallbackHandler.class),
+                any(), any());
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Map.Entry<Integer, Integer> product : categoryByProduct.entrySet()) {
+                handler.processRow(resultSet(Map.of("product_id", product.getKey(),
+                        "category_id", product.getValue(), "catalogue_id", 1)));
+            }
+            return null;
+        }).when(jdbcTemplate).query(contains("JOIN web_store.catalogue_categories"), any(RowCallbackHandler.class));
+        when(jdbcTemplate.query(contains("WHERE p.product_id = ?"), ArgumentMatchers.<RowMapper<int[]>>any(),
+                anyInt()))
+                .thenAnswer(invocation -> {
+                    Integer categoryId = categoryByProduct.get((Integer) invocation.getArgument(2));
+                    if (categoryId == null) {
+                        return List.of();
+                    }
+                    RowMapper<int[]> mapper = invocation.getArgument(1);
+                    return List.of(mapper.mapRow(resultSet(Map.of("category_id", categoryId, "catalogue_id", 1)), 0));
+                });
+        when(jdbcTemplate.queryForObject(contains("LEAST"), eq(Timestamp.class), any(), any()))
+                .thenAnswer(invocation -> nextBoundary);
+
+        promotionService = new PromotionServiceImplementation(promotionRepository, productRepository,
+                categoryRepository, catalogueRepository, currencyRepository, priceMatrixService, jdbcTemplate,
+                taskScheduler, eventPublisher);
+    }
+
+    @Test
+    void testRefresh_SchedulesTheNextBoundaryAndCancelsThePreviousOne() {
+        LocalDateTime first = LocalDateTime.now().plusHours(1);
+        nextBoundary = Timestamp.valueOf(first);
+        promotionService.refresh();
+        verify(taskScheduler).schedule(any(Runnable.class), eq(first.atZone(ZoneId.systemDefault()).toInstant()));
+
+        LocalDateTime second = LocalDateTime.now().plusMinutes(5);
+        nextBoundary = Timestamp.valueOf(second);
+        promotionService.refresh();
+
+        verify(scheduledTask).cancel(false);
+        verify(taskScheduler).schedule(any(Runnable.class), eq(second.atZone(ZoneId.systemDefault()).toInstant()));
+    }
+
+    @Test
+    void testRefresh_NothingScheduledWithoutABoundary() {
+        promotionService.refresh();
+
+        verify(taskScheduler, never()).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    void testBoundaryTask_RebuildsTheTable() {
+        running.add(productPromotion(1, 1, "10"));
+        nextBoundary = Timestamp.valueOf(LocalDateTime.now().plusHours(1));
+        promotionService.refresh();
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(task.capture(), any(Instant.class));
+        assertEquals(BigInteger.valueOf(900), promotionService.getEffectivePrice(1, INR, BigInteger.valueOf(1000)));
+
+        // The promotion ends at the boundary
+        running.clear();
+        nextBoundary = null;
+        task.getValue().run();
+
+        assertEquals(BigInteger.valueOf(1000), promotionService.getEffectivePrice(1, INR, BigInteger.valueOf(1000)));
+    }
+
+    @Test
+    void testRead_RebuildsOnceTheBoundaryHasPassed() {
+        running.add(productPromotion(1, 1, "10"));
+        // A boundary already behind us, as when the scheduled task ran late or was lost
+        nextBoundary = Timestamp.valueOf(LocalDateTime.now().minusSeconds(1));
+        promotionService.refresh();
+
+        running.clear();
+        nextBoundary = null;
+
+        assertEquals(BigInteger.valueOf(1000), promotionService.getEffectivePrice(1, INR, BigInteger.valueOf(1000)));
+        verify(jdbcTemplate, times(2)).query(contains("ends_at > ? ORDER BY promotion_id"),
+                any(RowCallbackHandler.class), any(), any());
+    }
+
+    @Test
+    void testRead_BuildsOnFirstUse() {
+        running.add(productPromotion(1, 2, "25"));
+
+        assertEquals(BigInteger.valueOf(750), promotionService.getEffectivePrice(2, INR, BigInteger.valueOf(1000)));
+    }
+
+    @Test
+    void testProductMovedIntoPromotedCategory_PatchesOnlyThatProduct() {
+        categoryByProduct.put(1, CATEGORY);
+        categoryByProduct.put(2, OTHER_CATEGORY);
+        running.add(categoryPromotion(1, CATEGORY, "10"));
+        promotionService.refresh();
+        assertEquals(BigInteger.valueOf(1000), promotionService.getEffectivePrice(2, INR, BigInteger.valueOf(1000)));
+
+        categoryByProduct.put(1, OTHER_CATEGORY);
+        categoryByProduct.put(2, CATEGORY);
+        promotionService.onCatalogChange(CatalogChangeEvent.updated(DatabaseConstants.PRODUCTS_TABLE, 1));
+        promotionService.onCatalogChange(CatalogChangeEvent.updated(DatabaseConstants.PRODUCTS_TABLE, 2));
+
+        assertEquals(BigInteger.valueOf(1000), promotionService.getEffectivePrice(1, INR, BigInteger.valueOf(1000)));
+        assertEquals(BigInteger.valueOf(900), promotionService.getEffectivePrice(2, INR, BigInteger.valueOf(1000)));
+        // Neither the running promotions nor every product's group were read again
+        verify(jdbcTemplate, times(1)).query(contains("ends_at > ? ORDER BY promotion_id"),
+                any(RowCallbackHandler.class), any(), any());
+        verify(jdbcTemplate, times(1)).query(contains("JOIN web_store.catalogue_categories"),
+                any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void testProductDeleted_LeavesTheTableAlone() {
+        categoryByProduct.put(1, CATEGORY);
+        running.add(categoryPromotion(1, CATEGORY, "10"));
+        promotionService.refresh();
+
+        promotionService.onCatalogChange(CatalogChangeEvent.deleted(DatabaseConstants.PRODUCTS_TABLE, 1));
+
+        verify(jdbcTemplate, never()).query(contains("WHERE p.product_id = ?"),
+                ArgumentMatchers.<RowMapper<int[]>>any(), anyInt());
+        verify(jdbcTemplate, times(1)).query(contains("ends_at > ? ORDER BY promotion_id"),
+                any(RowCallbackHandler.class), any(), any());
+    }
+
+    @Test
+    void testProductEvent_IgnoredWithoutCategoryOrCataloguePromotions() {
+        categoryByProduct.put(1, CATEGORY);
+        running.add(productPromotion(1, 1, "10"));
+        promotionService.refresh();
+
+        promotionService.onCatalogChange(CatalogChangeEvent.updated(DatabaseConstants.PRODUCTS_TABLE, 1));
+
+        verify(jdbcTemplate, never()).query(contains("WHERE p.product_id = ?"),
+                ArgumentMatchers.<RowMapper<int[]>>any(), anyInt());
+    }
+
+    @Test
+    void testPromotionChange_Rebuilds() {
+        promotionService.refresh();
+        running.add(productPromotion(5, 1, "50"));
+
+        promotionService.onCatalogChange(CatalogChangeEvent.created(DatabaseConstants.PROMOTIONS_TABLE, 5));
+
+        assertEquals(BigInteger.valueOf(500), promotionService.getEffectivePrice(1, INR, BigInteger.valueOf(1000)));
+    }
+
+    private static Map<String, Object> productPromotion(int promotionId, int productId, String percent) {
+        return promotion(promotionId, "PRODUCT", productId, percent);
+    }
+
+    private static Map<String, Object> categoryPromotion(int promotionId, int categoryId, String percent) {
+        return promotion(promotionId, "CATEGORY", categoryId, percent);
+    }
+
+    private static Map<String, Object> promotion(int promotionId, String scope, int targetId, String percent) {
+        return Map.of("promotion_id", promotionId, "scope", scope, "target_id", targetId,
+                "discount_type", "PERCENT", "discount_value", new BigDecimal(percent), "currency_id", 0);
+    }
+
+    private static ResultSet resultSet(Map<String, Object> row) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getInt(anyString())).thenAnswer(invocation -> row.get((String) invocation.getArgument(0)));
+        when(rs.getString(anyString())).thenAnswer(invocation -> row.get((String) invocation.getArgument(0)));
+        when(rs.getBigDecimal(anyString())).thenAnswer(invocation -> row.get((String) invocation.getArgument(0)));
+        return rs;
+    }
+}
@@ -4,6 +4,9 @@ import com.webstore.dto.request.SellerRequestDto;
 import com.webstore.dto.response.SellerResponseDto;
 import com.webstore.entity.Seller;
 import com.webstore.entity.Seller.SellerStatus;
+import com.webstore.dto.response.SellerDetailsResponseDto;
+import com.webstore.repository.ProductRepository;
+import com.webstore.repository.ProductRepository.SellerCatalogueCategoryCountProjection;
 import com.webstore.repository.SellerRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -64,6 +67,12 @@ class SellerServiceImplementationTest {
     @Mock
     private SellerRepository sellerRepository;
 
+    /**
+     * @Mock - FAKE product repository, used by the seller details aggregation
+     */
+    @Mock
+    private ProductRepository productRepository;
+
     /**
      * @InjectMocks - Creates REAL service and injects mocked repository
      *              This is what we're actually testing
@@ -434,4 +443,51 @@ class SellerServiceImplementationTest {
         // VERIFY
         verify(sellerRepository).countByStatus(SellerStatus.ACTIVE);
     }
+
+    /**
+     * TEST: Get Seller Details - Grouped Counts
+     * 
+     * Test Scenario:
+     * - Database returns one aggregated row per (catalogue, category)
+     * - Rows of the same catalogue are nested under a single catalogue entry
+     */
+    @Test
+    @DisplayName("Should build seller details from grouped catalogue/category counts")
+    void givenGroupedRows_whenGetSellerDetails_thenNestsCategoriesUnderCatalogues() {
+        // ARRANGE
+        when(sellerRepository.findById(1)).thenReturn(Optional.of(seller));
+        when(productRepository.countProductsBySellerGroupedByCatalogueAndCategory(1)).thenReturn(List.of(
+                countRow(10, "Summer", 100, "Shirts", 3L),
+                countRow(10, "Summer", 101, "Shorts", 2L),
+                countRow(20, "Winter", 100, "Shirts", 1L)));
+
+        // ACT
+        SellerDetailsResponseDto result = sellerService.getSellerDetailsWithCataloguesAndCategories(1);
+
+        // ASSERT
+        assertThat(result.getSellerId()).isEqualTo(1);
+        assertThat(result.getCatalogues()).hasSize(2);
+        assertThat(result.getCatalogues().get(0).getCatalogueName()).isEqualTo("Summer");
+        assertThat(result.getCatalogues().get(0).getCategories())
+                .extracting(SellerDetailsResponseDto.CategoryDetailsDto::getProductCount)
+                .containsExactly(3L, 2L);
+        assertThat(result.getCatalogues().get(1).getCategories()).hasSize(1);
+
+        // VERIFY - products are never loaded as entities
+        verify(productRepository, never()).findBySellerIdWithRelations(any());
+    }
+
+    // Builds one aggregated row as returned by the grouped query
+    private SellerCatalogueCategoryCountProjection countRow(Integer catalogueId, String catalogueName,
+            Integer categoryId, String categoryName, Long productCount) {
+        return new SellerCatalogueCategoryCountProjection() {
+            public Integer getCatalogueId() { return catalogueId; }
+            public String getCatalogueName() { return catalogueName; }
+            public String getCatalogueDescription() { return null; }
+            public Integer getCategoryId() { return categoryId; }
+            public String getCategoryName() { return categoryName; }
+            public String getCategoryDescription() { return null; }
+            public Long getProductCount() { return productCount; }
+        };
+    }
 }
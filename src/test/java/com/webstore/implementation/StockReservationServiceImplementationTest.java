@@ -0,0 +1,271 @@
+package com.webstore.implementation;
+
+import com.webstore.dto.response.StockReservationResponseDto;
+import com.webstore.entity.Product;
+import com.webstore.entity.StockReservation;
+import com.webstore.entity.StockReservation.ReservationStatus;
+import com.webstore.repository.ProductRepository;
+import com.webstore.repository.StockReservationRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StockReservationServiceImplementationTest {
+
+    @Mock
+    private StockReservationRepository reservationRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private StockReservationServiceImplementation stockReservationService;
+
+    private Product product;
+    private StockReservation reservation;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @BeforeEach
+    void setUp() {
+        stockReservationService = new StockReservationServiceImplementation(reservationRepository,
+                productRepository, jdbcTemplate, transactionTemplate, 15, 500);
+
+        product = new Product();
+        product.setProductId(1);
+        product.setProductName("Test Product");
+
+        reservation = new StockReservation();
+        reservation.setReservationId(10L);
+        reservation.setProduct(product);
+        reservation.setQuantity(2);
+        reservation.setHolder("15550001111");
+        reservation.setStatus(ReservationStatus.HELD);
+        reservation.setExpiresAt(LocalDateTime.now().plusMinutes(15));
+    }
+
+    @Test
+    void testReserve_Success() {
+        when(productRepository.decrementStockIfAvailable(1, 2)).thenReturn(1);
+        when(productRepository.getReferenceById(1)).thenReturn(product);
+        when(reservationRepository.save(any(StockReservation.class))).thenAnswer(invocation -> {
+            StockReservation saved = invocation.getArgument(0);
+            saved.setReservationId(10L);
+            return saved;
+        });
+
+        StockReservationResponseDto result = stockReservationService.reserve(1, 2, "15550001111");
+
+        assertEquals(10L, result.getReservationId());
+        assertEquals("HELD", result.getStatus());
+        assertEquals("Test Product", result.getProductName());
+        assertTrue(result.getExpiresAt().isAfter(LocalDateTime.now().plusMinutes(14)));
+    }
+
+    @Test
+    void testReserve_InsufficientStock() {
+        when(productRepository.decrementStockIfAvailable(1, 2)).thenReturn(0);
+        when(productRepository.existsById(1)).thenReturn(true);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> stockReservationService.reserve(1, 2, "15550001111"));
+
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+        verify(reservationRepository, never()).save(any());
+    }
+
+    @Test
+    void testReserve_ProductNotFound() {
+        when(productRepository.decrementStockIfAvailable(99, 1)).thenReturn(0);
+        when(productRepository.existsById(99)).thenReturn(false);
+
+        assertThrows(EntityNotFoundException.class, () -> stockReservationService.reserve(99, 1, "15550001111"));
+    }
+
+    @Test
+    void testReserve_InvalidQuantity() {
+        assertThrows(IllegalArgumentException.class, () -> stockReservationService.reserve(1, 0, "15550001111"));
+        verify(productRepository, never()).decrementStockIfAvailable(anyInt(), anyInt());
+    }
+
+    @Test
+    void testReleaseReservation_ReturnsStock() {
+        when(reservationRepository.findByIdWithProduct(10L)).thenReturn(Optional.of(reservation));
+        when(reservationRepository.releaseIfHeld(10L)).thenReturn(1);
+
+        stockReservationService.releaseReservation(10L);
+
+        verify(productRepository).incrementStock(1, 2);
+    }
+
+    @Test
+    void testReleaseReservation_AlreadyExpired_DoesNotReturnStockTwice() {
+        when(reservationRepository.findByIdWithProduct(10L)).thenReturn(Optional.of(reservation));
+        when(reservationRepository.releaseIfHeld(10L)).thenReturn(0);
+        when(reservationRepository.findStatusById(10L)).thenReturn(ReservationStatus.EXPIRED);
+
+        stockReservationService.releaseReservation(10L);
+
+        verify(productRepository, never()).incrementStock(anyInt(), anyInt());
+    }
+
+    @Test
+    void testReleaseReservation_AlreadyConfirmed() {
+        when(reservationRepository.findByIdWithProduct(10L)).thenReturn(Optional.of(reservation));
+        when(reservationRepository.releaseIfHeld(10L)).thenReturn(0);
+        when(reservationRepository.findStatusById(10L)).thenReturn(ReservationStatus.CONFIRMED);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> stockReservationService.releaseReservation(10L));
+
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+        verify(productRepository, never()).incrementStock(anyInt(), anyInt());
+    }
+
+    @Test
+    void testConfirmReservation_Expired() {
+        when(reservationRepository.findByIdWithProduct(10L)).thenReturn(Optional.of(reservation));
+        when(reservationRepository.confirmIfHeld(eq(10L), any(LocalDateTime.class))).thenReturn(0);
+        when(reservationRepository.findStatusById(10L)).thenReturn(ReservationStatus.EXPIRED);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> stockReservationService.confirmReservation(10L));
+
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+    }
+
+    @Test
+    void testConfirmReservation_Success() {
+        when(reservationRepository.findByIdWithProduct(10L)).thenReturn(Optional.of(reservation));
+        when(reservationRepository.confirmIfHeld(eq(10L), any(LocalDateTime.class))).thenReturn(1);
+
+        StockReservationResponseDto result = stockReservationService.confirmReservation(10L);
+
+        assertEquals("CONFIRMED", result.getStatus());
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(reservationRepository).confirmIfHeld(eq(10L), now.capture());
+        assertTrue(now.getValue().isBefore(reservation.getExpiresAt()));
+    }
+
+    @Test
+    void testReleaseReservation_SellerCannotReleaseAnotherHoldersHold() {
+        authenticate("seller@example.com", "ROLE_SELLER");
+        when(reservationRepository.findByIdWithProduct(10L)).thenReturn(Optional.of(reservation));
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> stockReservationService.releaseReservation(10L));
+
+        assertEquals(HttpStatus.FORBIDDEN, exception.getStatusCode());
+        verify(reservationRepository, never()).releaseIfHeld(anyLong());
+        verify(productRepository, never()).incrementStock(anyInt(), anyInt());
+    }
+
+    @Test
+    void testConfirmReservation_SellerCannotConfirmAnotherHoldersHold() {
+        authenticate("seller@example.com", "ROLE_SELLER");
+        when(reservationRepository.findByIdWithProduct(10L)).thenReturn(Optional.of(reservation));
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> stockReservationService.confirmReservation(10L));
+
+        assertEquals(HttpStatus.FORBIDDEN, exception.getStatusCode());
+        verify(reservationRepository, never()).confirmIfHeld(anyLong(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void testGetHeldReservations_SellerOnlyListsOwnHolds() {
+        authenticate("seller@example.com", "ROLE_SELLER");
+        reservation.setHolder("seller@example.com");
+        when(reservationRepository.findHeldByHolder("seller@example.com")).thenReturn(List.of(reservation));
+
+        assertEquals(1, stockReservationService.getHeldReservations("seller@example.com").size());
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> stockReservationService.getHeldReservations("15550001111"));
+        assertEquals(HttpStatus.FORBIDDEN, exception.getStatusCode());
+        verify(reservationRepository, never()).findHeldByHolder("15550001111");
+    }
+
+    @Test
+    void testReserve_SellerCannotHoldInAnotherHoldersName() {
+        authenticate("seller@example.com", "ROLE_SELLER");
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> stockReservationService.reserve(1, 2, "15550001111"));
+
+        assertEquals(HttpStatus.FORBIDDEN, exception.getStatusCode());
+        verify(productRepository, never()).decrementStockIfAvailable(anyInt(), anyInt());
+    }
+
+    @Test
+    void testReserve_SellerCannotHoldAnotherSellersProduct() {
+        authenticate("seller@example.com", "ROLE_SELLER");
+        when(productRepository.findSellerIdByProductId(1)).thenReturn(8);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> stockReservationService.reserve(1, 2, "seller@example.com"));
+
+        assertEquals(HttpStatus.FORBIDDEN, exception.getStatusCode());
+        verify(productRepository, never()).decrementStockIfAvailable(anyInt(), anyInt());
+        verify(reservationRepository, never()).save(any());
+    }
+
+    @Test
+    void testReserve_SellerHoldsOwnProduct() {
+        authenticate("seller@example.com", "ROLE_SELLER");
+        when(productRepository.findSellerIdByProductId(1)).thenReturn(7);
+        when(productRepository.decrementStockIfAvailable(1, 2)).thenReturn(1);
+        when(productRepository.getReferenceById(1)).thenReturn(product);
+        when(reservationRepository.save(any(StockReservation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        StockReservationResponseDto result = stockReservationService.reserve(1, 2, "seller@example.com");
+
+        assertEquals("seller@example.com", result.getHolder());
+        verify(productRepository).decrementStockIfAvailable(1, 2);
+    }
+
+    @Test
+    void testConfirmReservation_AdminConfirmsAnyHold() {
+        authenticate("admin@example.com", "ROLE_ADMIN");
+        when(reservationRepository.findByIdWithProduct(10L)).thenReturn(Optional.of(reservation));
+        when(reservationRepository.confirmIfHeld(eq(10L), any(LocalDateTime.class))).thenReturn(1);
+
+        assertEquals("CONFIRMED", stockReservationService.confirmReservation(10L).getStatus());
+    }
+
+    private static void authenticate(String email, String authority) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                email, 7, List.of(new SimpleGrantedAuthority(authority))));
+    }
+}
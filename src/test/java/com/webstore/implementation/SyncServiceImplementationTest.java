@@ -0,0 +1,271 @@
+package com.webstore.implementation;
+
+import com.webstore.dto.response.CategoryResponseDto;
+import com.webstore.dto.response.SyncChangesResponseDto;
+import com.webstore.dto.response.SyncChangesResponseDto.ChangeDto;
+import com.webstore.exception.ClientErrorException;
+import com.webstore.service.CatalogueService;
+import com.webstore.service.CategoryService;
+import com.webstore.service.ProductPriceService;
+import com.webstore.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/*
+ * The JdbcTemplate is answered from an in-memory catalog_change_log, so cursors, page cuts and the
+ * watermark behave as they do against the table: a query sees versions in [since, watermark) ordered by
+ * version, table and id.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class SyncServiceImplementationTest {
+
+    private static final String CATEGORIES = "categories";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private ProductPriceService productPriceService;
+
+    @Mock
+    private CategoryService categoryService;
+
+    @Mock
+    private CatalogueService catalogueService;
+
+    private SyncServiceImplementation syncService;
+
+    private final List<ChangeDto> changeLog = new ArrayList<>();
+    private long watermark;
+    private long horizon;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        syncService = new SyncServiceImplementation(jdbcTemplate, productService, productPriceService,
+                categoryService, catalogueService, 30);
+
+        when(jdbcTemplate.queryForObject(contains("pg_snapshot_xmin"), eq(Long.class)))
+                .thenAnswer(invocation -> watermark);
+        when(jdbcTemplate.queryForObject(contains("catalog_change_log_horizon"), eq(Long.class)))
+                .thenAnswer(invocation -> horizon);
+        when(jdbcTemplate.query(contains("LIMIT ?"), any(RowMapper.class), anyLong(), anyLong(), anyInt()))
+                .thenAnswer(invocation -> changeLog.stream()
+                        .filter(change -> change.getVersion() >= (long) invocation.getArgument(2)
+                                && change.getVersion() < (long) invocation.getArgument(3))
+                        .sorted(LOG_ORDER)
+                        .limit((int) invocation.getArgument(4))
+                        .map(SyncServiceImplementationTest::copy)
+                        .toList());
+        when(jdbcTemplate.query(contains("WHERE change_version = ?"), any(RowMapper.class), anyLong()))
+                .thenAnswer(invocation -> changeLog.stream()
+                        .filter(change -> change.getVersion() == (long) invocation.getArgument(2))
+                        .sorted(LOG_ORDER)
+                        .map(SyncServiceImplementationTest::copy)
+                        .toList());
+        when(categoryService.getCategoriesByIds(anyCollection())).thenAnswer(invocation ->
+                ((Collection<Integer>) invocation.getArgument(0)).stream().map(id -> {
+                    CategoryResponseDto dto = new CategoryResponseDto();
+                    dto.setCategoryId(id);
+                    dto.setCategoryName("Category " + id);
+                    return dto;
+                }).toList());
+    }
+
+    @Test
+    void testGetChangesSince_NullCursorReturnsWatermarkOnly() {
+        watermark = 500;
+        log(CATEGORIES, 1, "UPDATED", 400);
+
+        SyncChangesResponseDto result = syncService.getChangesSince(null, 100);
+
+        assertEquals(500L, result.getNextVersion());
+        assertTrue(result.getChanges().isEmpty());
+        assertFalse(result.isHasMore());
+        verify(jdbcTemplate, never()).queryForObject(contains("catalog_change_log_horizon"), eq(Long.class));
+    }
+
+    @Test
+    void testGetChangesSince_CursorRoundTripDeliversEachChangeOnce() {
+        horizon = 1;
+        watermark = 100;
+        long cursor = syncService.getChangesSince(null, 100).getNextVersion();
+
+        log(CATEGORIES, 1, "CREATED", 100);
+        log(CATEGORIES, 2, "UPDATED", 101);
+        // Transaction 103 is still running, so the watermark stops below it and its change waits
+        log(CATEGORIES, 3, "UPDATED", 103);
+        watermark = 103;
+
+        SyncChangesResponseDto first = syncService.getChangesSince(cursor, 100);
+        assertEquals(List.of(1, 2), ids(first));
+        assertEquals(103L, first.getNextVersion());
+        assertFalse(first.isHasMore());
+        assertEquals("Category 1", ((CategoryResponseDto) first.getChanges().get(0).getData()).getCategoryName());
+
+        watermark = 110;
+        SyncChangesResponseDto second = syncService.getChangesSince(first.getNextVersion(), 100);
+        assertEquals(List.of(3), ids(second));
+        assertEquals(110L, second.getNextVersion());
+
+        SyncChangesResponseDto third = syncService.getChangesSince(second.getNextVersion(), 100);
+        assertTrue(third.getChanges().isEmpty());
+        assertEquals(110L, third.getNextVersion());
+    }
+
+    @Test
+    void testGetChangesSince_CursorAheadOfWatermarkIsKept() {
+        horizon = 1;
+        watermark = 90;
+
+        SyncChangesResponseDto result = syncService.getChangesSince(100L, 100);
+
+        assertTrue(result.getChanges().isEmpty());
+        assertEquals(100L, result.getNextVersion());
+    }
+
+    @Test
+    void testGetChangesSince_PageEndsOnTransactionBoundary() {
+        horizon = 1;
+        watermark = 200;
+        log(CATEGORIES, 1, "UPDATED", 10);
+        log(CATEGORIES, 2, "UPDATED", 10);
+        log(CATEGORIES, 3, "UPDATED", 11);
+        log(CATEGORIES, 4, "UPDATED", 11);
+
+        SyncChangesResponseDto first = syncService.getChangesSince(10L, 3);
+        assertEquals(List.of(1, 2), ids(first));
+        assertTrue(first.isHasMore());
+        assertEquals(11L, first.getNextVersion());
+
+        SyncChangesResponseDto second = syncService.getChangesSince(first.getNextVersion(), 3);
+        assertEquals(List.of(3, 4), ids(second));
+        assertFalse(second.isHasMore());
+        assertEquals(200L, second.getNextVersion());
+    }
+
+    @Test
+    void testGetChangesSince_PageExactlyFullIsNotCut() {
+        horizon = 1;
+        watermark = 200;
+        log(CATEGORIES, 1, "UPDATED", 10);
+        log(CATEGORIES, 2, "UPDATED", 11);
+
+        SyncChangesResponseDto result = syncService.getChangesSince(10L, 2);
+
+        assertEquals(List.of(1, 2), ids(result));
+        assertFalse(result.isHasMore());
+        assertEquals(200L, result.getNextVersion());
+    }
+
+    @Test
+    void testGetChangesSince_TransactionLargerThanPageIsReturnedWhole() {
+        horizon = 1;
+        watermark = 200;
+        for (int id = 1; id <= 5; id++) {
+            log(CATEGORIES, id, "UPDATED", 10);
+        }
+        log(CATEGORIES, 6, "UPDATED", 12);
+
+        SyncChangesResponseDto first = syncService.getChangesSince(10L, 2);
+        assertEquals(List.of(1, 2, 3, 4, 5), ids(first));
+        assertTrue(first.isHasMore());
+        assertEquals(11L, first.getNextVersion());
+
+        SyncChangesResponseDto second = syncService.getChangesSince(first.getNextVersion(), 2);
+        assertEquals(List.of(6), ids(second));
+        assertFalse(second.isHasMore());
+    }
+
+    @Test
+    void testGetChangesSince_TombstonesHaveNoDataAndVanishedEntitiesAreSkipped() {
+        horizon = 1;
+        watermark = 200;
+        log(CATEGORIES, 1, "DELETED", 10);
+        log(CATEGORIES, 2, "UPDATED", 10);
+        log(CATEGORIES, 3, "UPDATED", 10);
+        // Category 3 was deleted after the watermark; its tombstone comes with a later page
+        when(categoryService.getCategoriesByIds(anyCollection())).thenAnswer(invocation -> {
+            CategoryResponseDto dto = new CategoryResponseDto();
+            dto.setCategoryId(2);
+            return List.of(dto);
+        });
+
+        SyncChangesResponseDto result = syncService.getChangesSince(10L, 100);
+
+        assertEquals(List.of(1, 2), ids(result));
+        assertNull(result.getChanges().get(0).getData());
+        assertNotNull(result.getChanges().get(1).getData());
+        verify(categoryService).getCategoriesByIds(List.of(2, 3));
+    }
+
+    @Test
+    void testGetChangesSince_CursorBelowHorizonRequiresFullResync() {
+        horizon = 50;
+        watermark = 200;
+        log(CATEGORIES, 1, "UPDATED", 60);
+
+        ClientErrorException thrown = assertThrows(ClientErrorException.class,
+                () -> syncService.getChangesSince(49L, 100));
+
+        assertEquals(HttpStatus.GONE, thrown.getStatusCode());
+        verify(jdbcTemplate, never()).query(contains("LIMIT ?"), ArgumentMatchers.<RowMapper<ChangeDto>>any(),
+                anyLong(), anyLong(), anyInt());
+
+        // The horizon itself is still served; a resync restarts from the bootstrap cursor
+        assertEquals(List.of(1), ids(syncService.getChangesSince(50L, 100)));
+        assertEquals(200L, syncService.getChangesSince(null, 100).getNextVersion());
+    }
+
+    private void log(String table, int id, String changeType, long version) {
+        ChangeDto change = new ChangeDto();
+        change.setEntityType(table);
+        change.setEntityId(id);
+        change.setChangeType(changeType);
+        change.setVersion(version);
+        change.setChangedAt(LocalDateTime.now());
+        changeLog.removeIf(existing -> existing.getEntityType().equals(table) && existing.getEntityId() == id);
+        changeLog.add(change);
+    }
+
+    private static List<Integer> ids(SyncChangesResponseDto response) {
+        return response.getChanges().stream().map(ChangeDto::getEntityId).toList();
+    }
+
+    private static ChangeDto copy(ChangeDto change) {
+        ChangeDto copy = new ChangeDto();
+        copy.setEntityType(change.getEntityType());
+        copy.setEntityId(change.getEntityId());
+        copy.setChangeType(change.getChangeType());
+        copy.setVersion(change.getVersion());
+        copy.setChangedAt(change.getChangedAt());
+        return copy;
+    }
+
+    private static final Comparator<ChangeDto> LOG_ORDER = Comparator.comparing(ChangeDto::getVersion)
+            .thenComparing(ChangeDto::getEntityType)
+            .thenComparing(ChangeDto::getEntityId);
+}
@@ -0,0 +1,92 @@
+package com.webstore.monitoring;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.util.unit.DataSize;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlightRecordingEndpointTest {
+
+    private FlightRecordingEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        endpoint = new FlightRecordingEndpoint("default", Duration.ofMinutes(30), DataSize.ofMegabytes(50),
+                Duration.ZERO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        endpoint.close();
+    }
+
+    @Test
+    void start_CapsAgeAndSizeAndRejectsASecondStart() {
+        WebEndpointResponse<Map<String, Object>> started = endpoint.start(Duration.ofHours(5), DataSize.ofMegabytes(10));
+
+        assertEquals(WebEndpointResponse.STATUS_OK, started.getStatus());
+        assertEquals(Duration.ofMinutes(30), started.getBody().get("maxAge"));
+        assertEquals(DataSize.ofMegabytes(10).toString(), started.getBody().get("maxSize"));
+        assertEquals(WebEndpointResponse.STATUS_BAD_REQUEST, endpoint.start(null, null).getStatus());
+
+        endpoint.stop();
+        assertEquals("STOPPED", endpoint.status().get("state").toString());
+    }
+
+    @Test
+    void dump_ContainsTheTurnWithItsGraphApiAndSqlTime() throws Exception {
+        assertEquals(WebEndpointResponse.STATUS_NOT_FOUND, endpoint.dump("dump").getStatus());
+        endpoint.start(null, null);
+
+        WebhookTurnEvent turn = WebhookTurnContext.begin("interactive", "button_reply", "add_cart_7");
+        WebhookTurnContext.describe("AddToCartStrategy");
+        WebhookTurnContext.addGraphApiCall(TimeUnit.MILLISECONDS.toNanos(40), TimeUnit.MILLISECONDS.toNanos(2), 512);
+        WebhookTurnContext.addGraphApiCall(TimeUnit.MILLISECONDS.toNanos(60), TimeUnit.MILLISECONDS.toNanos(3), 256);
+        SqlStatementStats sql = new SqlStatementStats("whatsapp AddToCartStrategy");
+        sql.recordStatement("select * from carts where phone=?");
+        sql.addJdbcTime(TimeUnit.MILLISECONDS.toNanos(5));
+        WebhookTurnContext.end(turn, sql);
+        WebhookTurnContext.addGraphApiCall(1, 1, 1);
+
+        assertEquals(WebEndpointResponse.STATUS_NOT_FOUND, endpoint.dump("other").getStatus());
+        RecordedEvent recorded = turnEvents(endpoint.dump("dump").getBody()).get(0);
+        assertEquals("add_cart_7", recorded.getString("interactiveId"));
+        assertEquals("AddToCartStrategy", recorded.getString("handler"));
+        assertEquals(2, recorded.getInt("graphApiCalls"));
+        assertEquals(Duration.ofMillis(100), recorded.getDuration("graphApiTime"));
+        assertEquals(Duration.ofMillis(5), recorded.getDuration("serializationTime"));
+        assertEquals(768, recorded.getLong("requestBytes"));
+        assertEquals(1, recorded.getInt("sqlStatements"));
+        assertEquals(Duration.ofMillis(5), recorded.getDuration("jdbcTime"));
+    }
+
+    private static List<RecordedEvent> turnEvents(Resource dump) throws Exception {
+        Path copy = Files.createTempFile("webstore-test-", ".jfr");
+        try {
+            try (InputStream in = dump.getInputStream()) {
+                Files.copy(in, copy, StandardCopyOption.REPLACE_EXISTING);
+            }
+            assertFalse(dump.exists());
+            return RecordingFile.readAllEvents(copy).stream()
+                    .filter(event -> event.getEventType().getName().equals("com.webstore.WebhookTurn"))
+                    .toList();
+        } finally {
+            Files.deleteIfExists(copy);
+        }
+    }
+}
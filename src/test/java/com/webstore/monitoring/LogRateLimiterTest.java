@@ -0,0 +1,33 @@
+package com.webstore.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LogRateLimiterTest {
+
+    @Test
+    void tryAcquire_LetsOneThroughPerIntervalAndCountsTheRest() {
+        AtomicLong clock = new AtomicLong();
+        LogRateLimiter limiter = new LogRateLimiter(Duration.ofSeconds(10), clock::get);
+
+        assertEquals(0, limiter.tryAcquire());
+        assertEquals(LogRateLimiter.NOT_ACQUIRED, limiter.tryAcquire());
+        clock.set(Duration.ofSeconds(9).toNanos());
+        assertEquals(LogRateLimiter.NOT_ACQUIRED, limiter.tryAcquire());
+
+        clock.set(Duration.ofSeconds(10).toNanos());
+        assertEquals(2, limiter.tryAcquire());
+        assertEquals(LogRateLimiter.NOT_ACQUIRED, limiter.tryAcquire());
+    }
+
+    @Test
+    void tryAcquire_FirstCallPassesWhateverTheClockReads() {
+        LogRateLimiter limiter = new LogRateLimiter(Duration.ofSeconds(10), () -> Long.MIN_VALUE + 1);
+
+        assertEquals(0, limiter.tryAcquire());
+    }
+}
@@ -0,0 +1,51 @@
+package com.webstore.monitoring;
+
+import com.webstore.repository.CategoryRepository;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RepositoryCallEventAspectTest {
+
+    @Test
+    void record_NamesTheRepositoryInterfaceAndTheException() throws Exception {
+        CategoryRepository categoryRepository = mock(CategoryRepository.class);
+        when(categoryRepository.findTop3CategoryNames()).thenReturn(List.of("Books"));
+        when(categoryRepository.count()).thenThrow(new IllegalStateException("database down"));
+        AspectJProxyFactory factory = new AspectJProxyFactory(categoryRepository);
+        factory.addInterface(CategoryRepository.class);
+        factory.addAspect(new RepositoryCallEventAspect());
+        CategoryRepository proxy = factory.getProxy();
+
+        List<RecordedEvent> events;
+        Path file = Files.createTempFile("webstore-test-", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(RepositoryCallEvent.class);
+            recording.start();
+            assertEquals(List.of("Books"), proxy.findTop3CategoryNames());
+            assertThrows(IllegalStateException.class, proxy::count);
+            recording.stop();
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        assertEquals(2, events.size());
+        assertEquals("CategoryRepository", events.get(0).getString("repository"));
+        assertEquals("findTop3CategoryNames", events.get(0).getString("method"));
+        assertNull(events.get(0).getString("exception"));
+        assertEquals("count", events.get(1).getString("method"));
+        assertEquals("IllegalStateException", events.get(1).getString("exception"));
+    }
+}
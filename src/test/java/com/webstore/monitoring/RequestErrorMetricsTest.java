@@ -0,0 +1,73 @@
+package com.webstore.monitoring;
+
+import com.webstore.exception.ClientErrorException;
+import com.webstore.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestErrorMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private final AtomicLong now = new AtomicLong();
+    private RequestErrorMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new RequestErrorMetrics(registry, Duration.ofSeconds(10), now::get);
+    }
+
+    @Test
+    void record_CountsEveryErrorButLogsOncePerInterval() {
+        ResourceNotFoundException notFound = new ResourceNotFoundException("Category not found with ID: 9");
+
+        assertEquals(0, metrics.record("GET /api/categories/{id}", notFound, HttpStatus.NOT_FOUND));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(RequestErrorMetrics.NOT_SAMPLED,
+                    metrics.record("GET /api/categories/{id}", notFound, HttpStatus.NOT_FOUND));
+        }
+        assertEquals(0, metrics.record("GET /api/products/{id}", notFound, HttpStatus.NOT_FOUND));
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertEquals(5, metrics.record("GET /api/categories/{id}", notFound, HttpStatus.NOT_FOUND));
+
+        assertEquals(7.0, registry.get(RequestErrorMetrics.COUNTER_NAME)
+                .tags("endpoint", "GET /api/categories/{id}", "exception", "ResourceNotFoundException", "status", "404")
+                .counter().count());
+    }
+
+    @Test
+    void stacklessExceptions_CaptureNoStackTrace() {
+        assertEquals(0, new ClientErrorException(HttpStatus.FORBIDDEN, "Sellers cannot create categories")
+                .getStackTrace().length);
+        assertEquals(0, new ResourceNotFoundException("Currency not found with id: 1").getStackTrace().length);
+    }
+
+    @Test
+    void endpoint_UsesTheMatchedMapping() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/42");
+        assertEquals("GET UNMAPPED", RequestErrorMetrics.endpoint(request));
+
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/products/{id}");
+        assertEquals("GET /api/products/{id}", RequestErrorMetrics.endpoint(request));
+    }
+
+    @Test
+    void endpoint_TagsUnknownMethodsAsOther() {
+        MockHttpServletRequest request = new MockHttpServletRequest("X-SCAN-1234", "/api/products/42");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/products/{id}");
+        assertEquals("OTHER /api/products/{id}", RequestErrorMetrics.endpoint(request));
+
+        request.setMethod("PATCH");
+        assertEquals("PATCH /api/products/{id}", RequestErrorMetrics.endpoint(request));
+    }
+}
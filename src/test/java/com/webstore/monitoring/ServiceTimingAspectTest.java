@@ -0,0 +1,83 @@
+package com.webstore.monitoring;
+
+import com.webstore.repository.CategoryRepository;
+import com.webstore.service.whatsapp.builder.MessageBuilderService;
+import com.webstore.service.whatsapp.business.CategoryBusinessService;
+import com.webstore.util.MessageFormatter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ServiceTimingAspectTest {
+
+    private SimpleMeterRegistry registry;
+    private ServiceTimingAspect aspect;
+    private CategoryRepository categoryRepository;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        aspect = new ServiceTimingAspect(registry);
+        categoryRepository = mock(CategoryRepository.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void time_RecordsSuccessTaggedByClassMethodAndRole() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "seller@example.com", 7, List.of(new SimpleGrantedAuthority("ROLE_SELLER"))));
+        when(categoryRepository.findTop3CategoryNames()).thenReturn(List.of("Books"));
+
+        assertEquals(List.of("Books"), proxy(new CategoryBusinessService(categoryRepository)).getTop3CategoryNames());
+
+        Timer timer = registry.get(ServiceTimingAspect.TIMER_NAME)
+                .tags("class", "CategoryBusinessService", "method", "getTop3CategoryNames", "role", "seller",
+                        "outcome", "success", "exception", "none")
+                .timer();
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void time_RecordsErrorWithExceptionAndRethrows() {
+        when(categoryRepository.count()).thenThrow(new IllegalStateException("database down"));
+        CategoryBusinessService service = proxy(new CategoryBusinessService(categoryRepository));
+
+        assertThrows(IllegalStateException.class, service::getTotalCategoryCount);
+
+        Timer timer = registry.get(ServiceTimingAspect.TIMER_NAME)
+                .tags("method", "getTotalCategoryCount", "role", "none", "outcome", "error",
+                        "exception", "IllegalStateException")
+                .timer();
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void time_SkipsUntimedBeans() {
+        proxy(new MessageBuilderService(new MessageFormatter())).createButton("add_cart_1", "Add to Cart");
+
+        assertNull(registry.find(ServiceTimingAspect.TIMER_NAME).timer());
+    }
+
+    private <T> T proxy(T target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+}
@@ -0,0 +1,36 @@
+package com.webstore.monitoring;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SqlStatementMetricsFilterTest {
+
+    private SimpleMeterRegistry registry;
+    private SqlStatementMetricsFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        filter = new SqlStatementMetricsFilter(new SqlStatementMetrics(registry, true, 3, 2));
+    }
+
+    @Test
+    void doFilter_TagsMadeUpMethodsAsOneEndpoint() throws Exception {
+        for (String method : List.of("GET", "FOO", "BAR1", "get")) {
+            filter.doFilter(new MockHttpServletRequest(method, "/api/products"), new MockHttpServletResponse(),
+                    new MockFilterChain());
+        }
+
+        assertEquals(1, registry.get("sql.request.statements").tag("endpoint", "GET UNMAPPED").summaries().size());
+        assertEquals(3, registry.get("sql.request.statements").tag("endpoint", "OTHER UNMAPPED").summary().count());
+        assertEquals(2, registry.find("sql.request.statements").summaries().size());
+    }
+}
@@ -0,0 +1,80 @@
+package com.webstore.monitoring;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SqlStatementMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private SqlStatementMetrics metrics;
+    private final CountingStatementInspector inspector = new CountingStatementInspector();
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new SqlStatementMetrics(registry, true, 3, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SqlStatementContext.clear();
+    }
+
+    @Test
+    void shapeOf_FoldsWhitespaceAndParameterLists() {
+        assertEquals("select p from products p where p.id in (?...)",
+                SqlStatementStats.shapeOf(" select p\n  from products p where p.id in (?, ?,?) "));
+        assertEquals(SqlStatementStats.shapeOf("select * from t where a=? and b in (?,?)"),
+                SqlStatementStats.shapeOf("select * from t where a=? and b in (?,?,?,?)"));
+    }
+
+    @Test
+    void finish_PublishesCountsTaggedByEndpoint() {
+        SqlStatementStats stats = metrics.start("GET /api/products/{id}");
+        inspector.inspect("select * from products where product_id=?");
+        inspector.inspect("select * from sellers where seller_id=?");
+        stats.addJdbcTime(TimeUnit.MILLISECONDS.toNanos(4));
+        metrics.finish(stats);
+
+        assertNull(SqlStatementContext.current());
+        assertEquals(2.0, registry.get("sql.request.statements").tag("endpoint", "GET /api/products/{id}")
+                .summary().totalAmount());
+        assertEquals(4.0, registry.get("sql.request.jdbc.time").timer().totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(0.0, registry.get("sql.request.budget.exceeded").tag("reason", "statements").counter().count());
+    }
+
+    @Test
+    void finish_CountsRepeatedShapesAndBudget() {
+        SqlStatementStats stats = metrics.start("whatsapp ProductViewStrategy");
+        for (int i = 0; i < 4; i++) {
+            inspector.inspect("select * from product_prices where product_id=?");
+        }
+        metrics.finish(stats);
+
+        assertEquals(4, stats.getMaxRepeats());
+        assertEquals(1, stats.getDistinctShapes());
+        assertEquals(1.0, registry.get("sql.request.budget.exceeded").tag("reason", "statements").counter().count());
+        assertEquals(1.0, registry.get("sql.request.budget.exceeded").tag("reason", "repeated").counter().count());
+    }
+
+    @Test
+    void start_NestedOrOutsideRecordingIsIgnored() {
+        inspector.inspect("select 1");
+
+        SqlStatementStats outer = metrics.start(null);
+        assertNull(metrics.start("whatsapp text"));
+        SqlStatementContext.describe("whatsapp text");
+        metrics.finish(null);
+        assertSame(outer, SqlStatementContext.current());
+
+        metrics.finish(outer);
+        assertEquals(0, outer.getStatements());
+        assertEquals(1, registry.get("sql.request.statements").tag("endpoint", "whatsapp text").summary().count());
+    }
+}
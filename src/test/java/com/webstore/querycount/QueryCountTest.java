@@ -0,0 +1,760 @@
+package com.webstore.querycount;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webstore.monitoring.SqlStatementMetrics;
+import com.webstore.monitoring.SqlStatementStats;
+import com.webstore.service.whatsapp.core.WhatsAppMessageSender;
+import com.webstore.util.JwtTokenProvider;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/*
+ * Calls every REST endpoint and WhatsApp flow entry point against the configured PostgreSQL and fails when
+ * one runs more SQL statements than its budget in src/test/resources/query-budgets.properties, so a new
+ * lazy load or query per row breaks the build. Not part of the default test run: ./gradlew queryCountTest
+ * (also run by ./gradlew check).
+ *
+ * Each test seeds its own catalogue, category, seller and products and rolls everything back. Caches are
+ * emptied before the measured call, so the budgets are cold-cache counts and do not depend on test order.
+ * Statements are counted by the same StatementInspector as in production: those Hibernate runs, not
+ * JdbcTemplate's. POST /api/auth/google is left out; it verifies the token with Google before any query.
+ */
+@Tag("query-count")
+@SpringBootTest(properties = {
+        "outbox.enabled=false",
+        "whatsapp.outbound.enabled=false",
+        "cache.invalidation.enabled=false",
+        "sql.metrics.enabled=true"
+})
+@AutoConfigureMockMvc
+@Transactional
+public class QueryCountTest {
+
+    private static final int PRODUCTS = 12;
+    private static final String PHONE_NUMBER_ID = "106540352242922";
+    private static final String BUYER_PHONE = "15550009999";
+
+    private static Properties budgets;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private SqlStatementMetrics sqlStatementMetrics;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private WhatsAppMessageSender messageSender;
+
+    private String suffix;
+    private int catalogueId;
+    private int categoryId;
+    private String categoryName;
+    private int sellerId;
+    private String sellerEmail;
+    private List<Integer> productIds;
+    private int priceId;
+    private int promotionId;
+    private long reservationId;
+    private String adminToken;
+    private String sellerToken;
+
+    @BeforeAll
+    static void loadBudgets() throws IOException {
+        budgets = new Properties();
+        try (InputStream in = QueryCountTest.class.getResourceAsStream("/query-budgets.properties")) {
+            assertNotNull(in, "query-budgets.properties is missing");
+            budgets.load(in);
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        suffix = UUID.randomUUID().toString().substring(0, 8);
+        catalogueId = insert("INSERT INTO web_store.catalogues (catalogue_name, catalogue_description, created_by, updated_by) " +
+                "VALUES (?, 'query count', 'qc', 'qc') RETURNING catalogue_id", "QC Catalogue " + suffix);
+        categoryName = "QC Category " + suffix;
+        categoryId = insert("INSERT INTO web_store.categories (category_name, category_description, created_by, updated_by) " +
+                "VALUES (?, 'query count', 'qc', 'qc') RETURNING category_id", categoryName);
+        int catalogueCategoryId = insert("INSERT INTO web_store.catalogue_categories (catalogue_id, category_id) " +
+                "VALUES (?, ?) RETURNING catalogue_category_id", catalogueId, categoryId);
+        sellerEmail = "qc-" + suffix + "@webstore.com";
+        sellerId = insert("INSERT INTO web_store.sellers (name, email, joining_date, created_by, updated_by) " +
+                "VALUES (?, ?, CURRENT_DATE - 30, 'qc', 'qc') RETURNING seller_id", "QC Seller " + suffix, sellerEmail);
+
+        productIds = new ArrayList<>();
+        for (int i = 1; i <= PRODUCTS; i++) {
+            int productId = insert("INSERT INTO web_store.products (product_name, product_description, catalogue_category_id, " +
+                    "seller_id, stock, created_by, updated_by) VALUES (?, 'query count product', ?, ?, 50, 'qc', 'qc') " +
+                    "RETURNING product_id", "QC Product " + i + " " + suffix, catalogueCategoryId, sellerId);
+            productIds.add(productId);
+            int inrPriceId = insert("INSERT INTO web_store.product_prices (product_id, currency_id, price_amount) " +
+                    "SELECT ?, currency_id, ? FROM web_store.currencies WHERE currency_code = 'INR' RETURNING product_price_id",
+                    productId, 10_000 * i);
+            insert("INSERT INTO web_store.product_prices (product_id, currency_id, price_amount) " +
+                    "SELECT ?, currency_id, ? FROM web_store.currencies WHERE currency_code = 'USD' RETURNING product_price_id",
+                    productId, 150 * i);
+            if (i == 1) {
+                priceId = inrPriceId;
+            }
+        }
+        promotionId = insert("INSERT INTO web_store.promotions (promotion_name, scope, target_id, discount_type, " +
+                "discount_value, starts_at, ends_at) VALUES (?, 'PRODUCT', ?, 'PERCENT', 10, " +
+                "CURRENT_TIMESTAMP - INTERVAL '1 day', CURRENT_TIMESTAMP + INTERVAL '1 day') RETURNING promotion_id",
+                "QC Promotion " + suffix, productIds.get(0));
+        reservationId = jdbcTemplate.queryForObject("INSERT INTO web_store.stock_reservations (product_id, quantity, holder, " +
+                "expires_at) VALUES (?, 1, ?, CURRENT_TIMESTAMP + INTERVAL '15 minutes') RETURNING reservation_id",
+                Long.class, productIds.get(1), BUYER_PHONE);
+
+        adminToken = "Bearer " + jwtTokenProvider.generateTokenForAdmin(1, "admin@webstore.com", "ADMIN");
+        sellerToken = "Bearer " + jwtTokenProvider.generateToken(sellerId, sellerEmail, "SELLER");
+
+        when(messageSender.sendMessage(anyString(), any(), anyString())).thenReturn(true);
+        when(messageSender.sendTextMessage(anyString(), anyString(), anyString())).thenReturn(true);
+    }
+
+    // Catalogues, categories and their mappings
+
+    @Test
+    void catalogueList() throws Exception {
+        assertWithinBudget("catalogue.list", get("/api/catalogues").param("page", "0").param("size", "20"));
+    }
+
+    @Test
+    void catalogueSearch() throws Exception {
+        assertWithinBudget("catalogue.search", get("/api/catalogues/search").param("name", "QC Catalogue " + suffix));
+    }
+
+    @Test
+    void catalogueCreate() throws Exception {
+        assertWithinBudget("catalogue.create", post("/api/catalogues").contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("catalogueName", "QC New " + suffix, "catalogueDescription", "query count"))));
+    }
+
+    @Test
+    void catalogueUpdate() throws Exception {
+        assertWithinBudget("catalogue.update", put("/api/catalogues/{id}", catalogueId).contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("catalogueName", "QC Renamed " + suffix, "catalogueDescription", "query count"))));
+    }
+
+    @Test
+    void catalogueDelete() throws Exception {
+        int emptyCatalogueId = insert("INSERT INTO web_store.catalogues (catalogue_name, catalogue_description) " +
+                "VALUES (?, 'query count') RETURNING catalogue_id", "QC Empty " + suffix);
+        assertWithinBudget("catalogue.delete", delete("/api/catalogues/{id}", emptyCatalogueId));
+    }
+
+    @Test
+    void categoryList() throws Exception {
+        assertWithinBudget("category.list", get("/api/categories").param("page", "0").param("size", "5"));
+    }
+
+    @Test
+    void categoryGet() throws Exception {
+        assertWithinBudget("category.get", get("/api/categories/{id}", categoryId));
+    }
+
+    @Test
+    void categorySearch() throws Exception {
+        assertWithinBudget("category.search", get("/api/categories/search").param("searchTerm", categoryName));
+    }
+
+    @Test
+    void categoryCreate() throws Exception {
+        assertWithinBudget("category.create", post("/api/categories").contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("categoryName", "QC New " + suffix, "categoryDescription", "query count"))));
+    }
+
+    @Test
+    void categoryUpdate() throws Exception {
+        assertWithinBudget("category.update", put("/api/categories/{id}", categoryId).contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("categoryName", "QC Renamed " + suffix, "categoryDescription", "query count"))));
+    }
+
+    @Test
+    void categoryDelete() throws Exception {
+        int emptyCategoryId = insert("INSERT INTO web_store.categories (category_name, category_description) " +
+                "VALUES (?, 'query count') RETURNING category_id", "QC Empty " + suffix);
+        assertWithinBudget("category.delete", delete("/api/categories/{id}", emptyCategoryId));
+    }
+
+    @Test
+    void catalogueCategoryList() throws Exception {
+        assertWithinBudget("catalogue-category.list", get("/api/catalogue-categories"));
+    }
+
+    @Test
+    void catalogueCategoryCreate() throws Exception {
+        int newCategoryId = insert("INSERT INTO web_store.categories (category_name, category_description) " +
+                "VALUES (?, 'query count') RETURNING category_id", "QC Mapped " + suffix);
+        assertWithinBudget("catalogue-category.create", post("/api/catalogue-categories").contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("catalogueId", catalogueId, "categoryId", newCategoryId))));
+    }
+
+    // Products and prices
+
+    @Test
+    void productList() throws Exception {
+        assertWithinBudget("product.list", get("/api/products").param("page", "0").param("size", "20"));
+    }
+
+    @Test
+    void productListAsSeller() throws Exception {
+        assertWithinBudget("product.list-seller", get("/api/products"), sellerToken);
+    }
+
+    @Test
+    void productListPopular() throws Exception {
+        assertWithinBudget("product.list-popular",
+                get("/api/products").param("page", "0").param("size", "20").param("sort", "popular"));
+    }
+
+    @Test
+    void productListInCurrency() throws Exception {
+        assertWithinBudget("product.list-currency",
+                get("/api/products").param("page", "0").param("size", "20").param("currency", "USD"));
+    }
+
+    @Test
+    void productNewest() throws Exception {
+        assertWithinBudget("product.newest", get("/api/products/newest").param("limit", "5"));
+    }
+
+    @Test
+    void productGet() throws Exception {
+        assertWithinBudget("product.get", get("/api/products/{id}", productIds.get(0)));
+    }
+
+    @Test
+    void productSearch() throws Exception {
+        assertWithinBudget("product.search", get("/api/products/search").param("searchTerm", "QC Product"));
+    }
+
+    @Test
+    void productFacetedSearch() throws Exception {
+        assertWithinBudget("product.faceted-search", get("/api/products/faceted-search").param("sellerId", "" + sellerId));
+    }
+
+    @Test
+    void productCreate() throws Exception {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("productName", "QC New " + suffix);
+        body.put("productDescription", "query count");
+        body.put("catalogueId", catalogueId);
+        body.put("categoryId", categoryId);
+        body.put("sellerId", sellerId);
+        body.put("stock", 5);
+        assertWithinBudget("product.create", post("/api/products").contentType(MediaType.APPLICATION_JSON).content(json(body)));
+    }
+
+    @Test
+    void productUpdate() throws Exception {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("productName", "QC Renamed " + suffix);
+        body.put("productDescription", "query count");
+        body.put("catalogueId", catalogueId);
+        body.put("categoryId", categoryId);
+        body.put("sellerId", sellerId);
+        body.put("stock", 7);
+        assertWithinBudget("product.update", put("/api/products/{id}", productIds.get(2))
+                .contentType(MediaType.APPLICATION_JSON).content(json(body)));
+    }
+
+    @Test
+    void productDelete() throws Exception {
+        assertWithinBudget("product.delete", delete("/api/products/{id}", productIds.get(3)));
+    }
+
+    @Test
+    void productPriceList() throws Exception {
+        assertWithinBudget("product-price.list", get("/api/product-price"));
+    }
+
+    @Test
+    void productPriceGet() throws Exception {
+        assertWithinBudget("product-price.get", get("/api/product-price/{id}", priceId));
+    }
+
+    @Test
+    void productPriceCreate() throws Exception {
+        assertWithinBudget("product-price.create", post("/api/product-price").contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("productId", productIds.get(0), "currencyId", currencyId("EUR"), "priceAmount", 199))));
+    }
+
+    @Test
+    void productPriceUpdate() throws Exception {
+        assertWithinBudget("product-price.update", put("/api/product-price/{id}", priceId)
+                .contentType(MediaType.APPLICATION_JSON).content("12345"));
+    }
+
+    @Test
+    void productPriceDelete() throws Exception {
+        assertWithinBudget("product-price.delete", delete("/api/product-price/{id}", priceId));
+    }
+
+    @Test
+    void priceHistory() throws Exception {
+        assertWithinBudget("price-history.list", get("/api/product-price/history").param("productId", "" + productIds.get(0)));
+    }
+
+    @Test
+    void priceHistoryAsOf() throws Exception {
+        assertWithinBudget("price-history.as-of", get("/api/product-price/history/as-of")
+                .param("productId", "" + productIds.get(0)));
+    }
+
+    @Test
+    void priceHistoryAsOfBatch() throws Exception {
+        assertWithinBudget("price-history.as-of-batch", post("/api/product-price/history/as-of")
+                .contentType(MediaType.APPLICATION_JSON).content(json(Map.of("productIds", productIds))));
+    }
+
+    @Test
+    void promotionList() throws Exception {
+        assertWithinBudget("promotion.list", get("/api/promotions"));
+    }
+
+    @Test
+    void promotionGet() throws Exception {
+        assertWithinBudget("promotion.get", get("/api/promotions/{id}", promotionId));
+    }
+
+    @Test
+    void promotionCreate() throws Exception {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("promotionName", "QC New " + suffix);
+        body.put("scope", "CATEGORY");
+        body.put("targetId", categoryId);
+        body.put("discountType", "PERCENT");
+        body.put("discountValue", 5);
+        body.put("endsAt", LocalDateTime.now().plusDays(2).withNano(0).toString());
+        assertWithinBudget("promotion.create", post("/api/promotions").contentType(MediaType.APPLICATION_JSON).content(json(body)));
+    }
+
+    @Test
+    void promotionDelete() throws Exception {
+        assertWithinBudget("promotion.delete", delete("/api/promotions/{id}", promotionId));
+    }
+
+    // Currencies and exchange rates
+
+    @Test
+    void currencyList() throws Exception {
+        assertWithinBudget("currency.list", get("/api/currencies"));
+    }
+
+    @Test
+    void currencyGet() throws Exception {
+        assertWithinBudget("currency.get", get("/api/currencies/{id}", currencyId("INR")));
+    }
+
+    @Test
+    void currencyCreate() throws Exception {
+        assertWithinBudget("currency.create", post("/api/currencies").contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("currencyCode", "QCX", "currencyName", "Query Count", "currencySymbol", "Q",
+                        "minorUnitExponent", 2))));
+    }
+
+    @Test
+    void currencyUpdate() throws Exception {
+        int currencyId = insertCurrency();
+        assertWithinBudget("currency.update", put("/api/currencies/{id}", currencyId).contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("currencyCode", "QCY", "currencyName", "Query Count Renamed", "currencySymbol", "Q",
+                        "minorUnitExponent", 2))));
+    }
+
+    @Test
+    void currencyDelete() throws Exception {
+        assertWithinBudget("currency.delete", delete("/api/currencies/{id}", insertCurrency()));
+    }
+
+    @Test
+    void exchangeRateList() throws Exception {
+        assertWithinBudget("exchange-rate.list", get("/api/exchange-rates"));
+    }
+
+    @Test
+    void exchangeRateGet() throws Exception {
+        assertWithinBudget("exchange-rate.get", get("/api/exchange-rates/{id}", insertExchangeRate()));
+    }
+
+    @Test
+    void exchangeRateCreate() throws Exception {
+        assertWithinBudget("exchange-rate.create", post("/api/exchange-rates").contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("baseCurrencyId", currencyId("INR"), "quoteCurrencyId", currencyId("GBP"),
+                        "rate", 0.0095, "validFrom", LocalDateTime.now().withNano(0).toString()))));
+    }
+
+    @Test
+    void exchangeRateDelete() throws Exception {
+        assertWithinBudget("exchange-rate.delete", delete("/api/exchange-rates/{id}", insertExchangeRate()));
+    }
+
+    // Sellers and users
+
+    @Test
+    void sellerList() throws Exception {
+        assertWithinBudget("seller.list", get("/api/sellers").param("page", "0").param("size", "20"));
+    }
+
+    @Test
+    void sellerGet() throws Exception {
+        assertWithinBudget("seller.get", get("/api/sellers/{id}", sellerId));
+    }
+
+    @Test
+    void sellerDetails() throws Exception {
+        assertWithinBudget("seller.details", get("/api/sellers/{id}/details", sellerId));
+    }
+
+    @Test
+    void sellerSearch() throws Exception {
+        assertWithinBudget("seller.search", get("/api/sellers/search").param("keyword", "QC Seller"));
+    }
+
+    @Test
+    void sellerByStatus() throws Exception {
+        assertWithinBudget("seller.by-status", get("/api/sellers/status/ACTIVE"));
+    }
+
+    @Test
+    void sellerJoinedAfter() throws Exception {
+        assertWithinBudget("seller.joined-after", get("/api/sellers/joined-after")
+                .param("date", LocalDate.now().minusDays(60).toString()));
+    }
+
+    @Test
+    void sellerJoinedBetween() throws Exception {
+        assertWithinBudget("seller.joined-between", get("/api/sellers/joined-between")
+                .param("startDate", LocalDate.now().minusDays(60).toString())
+                .param("endDate", LocalDate.now().toString()));
+    }
+
+    @Test
+    void sellerCount() throws Exception {
+        assertWithinBudget("seller.count", get("/api/sellers/count/ACTIVE"));
+    }
+
+    @Test
+    void sellerCreate() throws Exception {
+        assertWithinBudget("seller.create", post("/api/sellers").contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("name", "QC New " + suffix, "email", "qc-new-" + suffix + "@webstore.com",
+                        "joiningDate", LocalDate.now().toString()))));
+    }
+
+    @Test
+    void sellerUpdate() throws Exception {
+        assertWithinBudget("seller.update", put("/api/sellers/{id}", sellerId).contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("name", "QC Renamed " + suffix, "email", sellerEmail, "status", "ACTIVE",
+                        "joiningDate", LocalDate.now().minusDays(30).toString()))));
+    }
+
+    @Test
+    void sellerDelete() throws Exception {
+        int idleSellerId = insert("INSERT INTO web_store.sellers (name, email, joining_date) " +
+                "VALUES (?, ?, CURRENT_DATE) RETURNING seller_id", "QC Idle " + suffix, "qc-idle-" + suffix + "@webstore.com");
+        assertWithinBudget("seller.delete", delete("/api/sellers/{id}", idleSellerId));
+    }
+
+    @Test
+    void userList() throws Exception {
+        assertWithinBudget("user.list", get("/api/users"));
+    }
+
+    @Test
+    void userGet() throws Exception {
+        assertWithinBudget("user.get", get("/api/users/{id}", insertUser()));
+    }
+
+    @Test
+    void userCreate() throws Exception {
+        assertWithinBudget("user.create", post("/api/users").contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("username", "qc-new-" + suffix, "email", "qc-new-" + suffix + "@example.com",
+                        "fullName", "Query Count", "role", "USER"))));
+    }
+
+    @Test
+    void userUpdate() throws Exception {
+        assertWithinBudget("user.update", put("/api/users/{id}", insertUser()).contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("username", "qc-renamed-" + suffix, "email", "qc-user-" + suffix + "@example.com",
+                        "fullName", "Query Count Renamed", "role", "USER"))));
+    }
+
+    @Test
+    void userDelete() throws Exception {
+        assertWithinBudget("user.delete", delete("/api/users/{id}", insertUser()));
+    }
+
+    // Stock reservations, orders and sync
+
+    @Test
+    void stockReservationReserve() throws Exception {
+        assertWithinBudget("stock-reservation.reserve", post("/api/stock-reservations").contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("productId", productIds.get(4), "quantity", 2, "holder", "qc-" + suffix))));
+    }
+
+    @Test
+    void stockReservationGet() throws Exception {
+        assertWithinBudget("stock-reservation.get", get("/api/stock-reservations/{id}", reservationId));
+    }
+
+    @Test
+    void stockReservationHeld() throws Exception {
+        assertWithinBudget("stock-reservation.held", get("/api/stock-reservations").param("holder", BUYER_PHONE));
+    }
+
+    @Test
+    void stockReservationConfirm() throws Exception {
+        assertWithinBudget("stock-reservation.confirm", post("/api/stock-reservations/{id}/confirm", reservationId));
+    }
+
+    @Test
+    void stockReservationRelease() throws Exception {
+        assertWithinBudget("stock-reservation.release", delete("/api/stock-reservations/{id}", reservationId));
+    }
+
+    @Test
+    void orderPlace() throws Exception {
+        assertWithinBudget("order.place", post("/api/orders").header("Idempotency-Key", "qc-" + suffix)
+                .contentType(MediaType.APPLICATION_JSON).content(json(Map.of("customer", BUYER_PHONE))));
+    }
+
+    @Test
+    void orderGet() throws Exception {
+        MvcResult placed = mockMvc.perform(post("/api/orders").header("Idempotency-Key", "qc-" + suffix)
+                .header(HttpHeaders.AUTHORIZATION, adminToken)
+                .contentType(MediaType.APPLICATION_JSON).content(json(Map.of("customer", BUYER_PHONE)))).andReturn();
+        long orderId = objectMapper.readTree(placed.getResponse().getContentAsString()).get("orderId").asLong();
+        assertWithinBudget("order.get", get("/api/orders/{id}", orderId));
+    }
+
+    @Test
+    void syncChanges() throws Exception {
+        assertWithinBudget("sync.changes", get("/api/sync/changes").param("limit", "100"));
+    }
+
+    // WhatsApp: REST send endpoints and webhook turns
+
+    @Test
+    void whatsappSendWelcome() throws Exception {
+        assertWithinBudget("whatsapp.send-welcome", post("/v22.0/{phoneNumberId}/send-welcome/messages", PHONE_NUMBER_ID)
+                .contentType(MediaType.APPLICATION_JSON).content(json(Map.of("to", BUYER_PHONE))));
+    }
+
+    @Test
+    void whatsappSendCategories() throws Exception {
+        assertWithinBudget("whatsapp.send-categories", post("/v22.0/{phoneNumberId}/send-categories/messages", PHONE_NUMBER_ID)
+                .param("phone", BUYER_PHONE));
+    }
+
+    @Test
+    void whatsappSendProducts() throws Exception {
+        assertWithinBudget("whatsapp.send-products", post("/v22.0/{phoneNumberId}/send-products/messages", PHONE_NUMBER_ID)
+                .param("phone", BUYER_PHONE).param("categoryName", categoryName));
+    }
+
+    @Test
+    void whatsappSendProductDetails() throws Exception {
+        assertWithinBudget("whatsapp.send-product-details",
+                post("/v22.0/{phoneNumberId}/send-product-details/messages", PHONE_NUMBER_ID)
+                        .param("phone", BUYER_PHONE).param("productName", "QC Product 1 " + suffix));
+    }
+
+    @Test
+    void whatsappSendPricing() throws Exception {
+        assertWithinBudget("whatsapp.send-pricing", post("/v22.0/{phoneNumberId}/send-pricing/messages", PHONE_NUMBER_ID)
+                .param("phone", BUYER_PHONE).param("productName", "QC Product 1 " + suffix));
+    }
+
+    @Test
+    void whatsappGreeting() throws Exception {
+        assertWithinBudget("whatsapp.text-greeting", webhook(textMessage("hi")));
+    }
+
+    @Test
+    void whatsappCategories() throws Exception {
+        assertWithinBudget("whatsapp.text-categories", webhook(textMessage("categories")));
+    }
+
+    @Test
+    void whatsappCart() throws Exception {
+        assertWithinBudget("whatsapp.text-cart", webhook(textMessage("cart")));
+    }
+
+    @Test
+    void whatsappSeeAllCategories() throws Exception {
+        assertWithinBudget("whatsapp.category-see-all", webhook(interactive("button_reply", "cat_see_all")));
+    }
+
+    @Test
+    void whatsappProductPage() throws Exception {
+        assertWithinBudget("whatsapp.product-page",
+                webhook(interactive("list_reply", "next_prod_p2_c" + encode(categoryName))));
+    }
+
+    @Test
+    void whatsappProductSelection() throws Exception {
+        assertWithinBudget("whatsapp.product-select",
+                webhook(interactive("list_reply", "prod_p1_i" + productIds.get(0) + "_c" + encode(categoryName))));
+    }
+
+    @Test
+    void whatsappProductView() throws Exception {
+        assertWithinBudget("whatsapp.product-view", webhook(interactive("button_reply", "view_product_" + productIds.get(0))));
+    }
+
+    @Test
+    void whatsappAddToCart() throws Exception {
+        assertWithinBudget("whatsapp.add-to-cart", webhook(interactive("button_reply", "add_cart_" + productIds.get(5))));
+    }
+
+    @Test
+    void whatsappCheckout() throws Exception {
+        assertWithinBudget("whatsapp.checkout", webhook(interactive("button_reply", "checkout_" + productIds.get(6))));
+    }
+
+    /*
+     * Runs the request with cold caches and a fresh persistence context, flushes what it left pending (the test
+     * transaction never commits), and checks the statements against the budget.
+     */
+    private void assertWithinBudget(String budgetKey, MockHttpServletRequestBuilder request) throws Exception {
+        assertWithinBudget(budgetKey, request, adminToken);
+    }
+
+    private void assertWithinBudget(String budgetKey, MockHttpServletRequestBuilder request, String token)
+            throws Exception {
+        String budget = budgets.getProperty(budgetKey);
+        assertNotNull(budget, () -> "No budget for " + budgetKey + " in query-budgets.properties");
+        request.header(HttpHeaders.AUTHORIZATION, token);
+
+        entityManager.flush();
+        entityManager.clear();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        SqlStatementStats stats = sqlStatementMetrics.start(budgetKey);
+        assertNotNull(stats, "Another recording is open on the test thread");
+        int status;
+        try {
+            status = mockMvc.perform(request).andReturn().getResponse().getStatus();
+            entityManager.flush();
+        } finally {
+            sqlStatementMetrics.finish(stats);
+        }
+
+        assertTrue(status >= 200 && status < 300, () -> budgetKey + " returned HTTP " + status);
+        assertTrue(stats.getStatements() <= Integer.parseInt(budget.trim()), () -> String.format(
+                "%s ran %d SQL statements, over its budget of %s (%d distinct; most repeated, %d times: %s)",
+                budgetKey, stats.getStatements(), budget.trim(), stats.getDistinctShapes(), stats.getMaxRepeats(),
+                stats.getMostRepeatedShape()));
+    }
+
+    private MockHttpServletRequestBuilder webhook(Map<String, Object> message) throws IOException {
+        Map<String, Object> value = Map.of(
+                "messaging_product", "whatsapp",
+                "metadata", Map.of("display_phone_number", "15550783881", "phone_number_id", PHONE_NUMBER_ID),
+                "contacts", List.of(Map.of("profile", Map.of("name", "Query Count"), "wa_id", BUYER_PHONE)),
+                "messages", List.of(message));
+        Map<String, Object> body = Map.of("object", "whatsapp_business_account",
+                "entry", List.of(Map.of("id", "102290129340398",
+                        "changes", List.of(Map.of("field", "messages", "value", value)))));
+        return post("/").contentType(MediaType.APPLICATION_JSON).content(json(body));
+    }
+
+    private Map<String, Object> textMessage(String text) {
+        return Map.of("from", BUYER_PHONE, "id", "wamid.qc-" + UUID.randomUUID(), "timestamp", "1749416383",
+                "type", "text", "text", Map.of("body", text));
+    }
+
+    private Map<String, Object> interactive(String type, String id) {
+        return Map.of("from", BUYER_PHONE, "id", "wamid.qc-" + UUID.randomUUID(), "timestamp", "1749416383",
+                "type", "interactive", "interactive", Map.of("type", type, type, Map.of("id", id, "title", "x")));
+    }
+
+    private String json(Object body) throws IOException {
+        return objectMapper.writeValueAsString(body);
+    }
+
+    private static String encode(String text) {
+        return Base64.getEncoder().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private int insert(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, args);
+    }
+
+    private int currencyId(String code) {
+        return insert("SELECT currency_id FROM web_store.currencies WHERE currency_code = ?", code);
+    }
+
+    private int insertCurrency() {
+        return insert("INSERT INTO web_store.currencies (currency_code, currency_name, currency_symbol, minor_unit_exponent) " +
+                "VALUES ('QCY', 'Query Count', 'Q', 2) RETURNING currency_id");
+    }
+
+    private int insertExchangeRate() {
+        return insert("INSERT INTO web_store.exchange_rates (base_currency_id, quote_currency_id, rate, valid_from) " +
+                "VALUES (?, ?, 0.0105, CURRENT_TIMESTAMP) RETURNING exchange_rate_id", currencyId("INR"), currencyId("CHF"));
+    }
+
+    private int insertUser() {
+        return insert("INSERT INTO web_store.users (username, email, full_name, role) VALUES (?, ?, 'Query Count', 'USER') " +
+                "RETURNING user_id", "qc-user-" + suffix, "qc-user-" + suffix + "@example.com");
+    }
+}
@@ -0,0 +1,104 @@
+package com.webstore.stress;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigInteger;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * V15 against a real PostgreSQL: amounts stored before the minor unit exponent existed keep the value they
+ * were displayed with (amount / 100). The migrations run up to V14 in a scratch database, a price is stored
+ * in a seeded zero-decimal currency and in a three-decimal one, and V15 is applied on top.
+ * Not part of the default test run: ./gradlew stressTest (uses the configured datasource's server).
+ */
+@Tag("stress")
+@SpringBootTest(properties = {
+        "outbox.enabled=false",
+        "whatsapp.outbound.enabled=false",
+        "cache.invalidation.enabled=false"
+})
+public class CurrencyMinorUnitMigrationStressTest {
+
+    private static final String PRICE_SQL =
+            "SELECT pp.price_amount FROM web_store.product_prices pp " +
+            "JOIN web_store.currencies c ON c.currency_id = pp.currency_id " +
+            "WHERE pp.product_id = ? AND c.currency_code = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    private String database;
+    private JdbcTemplate scratch;
+
+    @BeforeEach
+    void createScratchDatabase() {
+        database = "web_store_v15_" + UUID.randomUUID().toString().substring(0, 8);
+        jdbcTemplate.execute("CREATE DATABASE " + database);
+        scratch = new JdbcTemplate(new DriverManagerDataSource(
+                url.substring(0, url.lastIndexOf('/') + 1) + database, username, password));
+    }
+
+    @AfterEach
+    void dropScratchDatabase() {
+        jdbcTemplate.execute("DROP DATABASE IF EXISTS " + database + " WITH (FORCE)");
+    }
+
+    @Test
+    void testMigration_RescalesStoredAmountsOfChangedCurrencies() {
+        migrate("14");
+        int productId = scratch.queryForObject(
+                "SELECT MIN(product_id) FROM web_store.product_prices WHERE currency_id = " +
+                "(SELECT currency_id FROM web_store.currencies WHERE currency_code = 'USD')", Integer.class);
+        BigInteger usd = price(productId, "USD");
+        scratch.update("INSERT INTO web_store.currencies (currency_code, currency_name, currency_symbol) " +
+                "VALUES ('KWD', 'Kuwaiti Dinar', 'KD')");
+        // Shown as ¥1,500.00 and KD 12.34 before V15
+        scratch.update("INSERT INTO web_store.product_prices (product_id, currency_id, price_amount) " +
+                "SELECT ?, currency_id, ? FROM web_store.currencies WHERE currency_code = 'JPY'", productId, 150000);
+        scratch.update("INSERT INTO web_store.product_prices (product_id, currency_id, price_amount) " +
+                "SELECT ?, currency_id, ? FROM web_store.currencies WHERE currency_code = 'KWD'", productId, 1234);
+        assertEquals(BigInteger.valueOf(150000), price(productId, "JPY"));
+
+        migrate("15");
+
+        // ¥1,500 at exponent 0 and KD 12.340 at exponent 3; two-decimal currencies are untouched
+        assertEquals(BigInteger.valueOf(1500), price(productId, "JPY"));
+        assertEquals(BigInteger.valueOf(12340), price(productId, "KWD"));
+        assertEquals(usd, price(productId, "USD"));
+        assertEquals(0, scratch.queryForObject("SELECT minor_unit_exponent FROM web_store.currencies " +
+                "WHERE currency_code = 'JPY'", Integer.class));
+    }
+
+    private void migrate(String target) {
+        Flyway.configure()
+                .dataSource(scratch.getDataSource())
+                .locations("classpath:database/versions")
+                .target(target)
+                .load()
+                .migrate();
+    }
+
+    private BigInteger price(int productId, String currencyCode) {
+        return scratch.queryForObject(PRICE_SQL, BigInteger.class, productId, currencyCode);
+    }
+}
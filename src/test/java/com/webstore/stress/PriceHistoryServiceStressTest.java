@@ -0,0 +1,186 @@
+package com.webstore.stress;
+
+import com.webstore.dto.response.PriceHistoryResponseDto;
+import com.webstore.service.PriceHistoryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Price history against a real PostgreSQL: recording a price closes the open row of the pair and opens the
+ * new one at the same instant, removals close without opening, and as-of reads treat each window as
+ * [valid_from, valid_to). Not part of the default test run: ./gradlew stressTest (uses the configured datasource).
+ *
+ * History has no foreign keys, so rows are written for negative product and price ids and no catalog row
+ * or real history row is touched.
+ */
+@Tag("stress")
+@SpringBootTest(properties = {
+        "outbox.enabled=false",
+        "whatsapp.outbound.enabled=false",
+        "cache.invalidation.enabled=false"
+})
+public class PriceHistoryServiceStressTest {
+
+    private static final int USD = 1;
+    private static final int EUR = 2;
+
+    @Autowired
+    private PriceHistoryService priceHistoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private int productId;
+    private int usdPriceId;
+    private int eurPriceId;
+
+    @BeforeEach
+    void pickIds() {
+        productId = -ThreadLocalRandom.current().nextInt(1_000_000, 2_000_000);
+        usdPriceId = productId;
+        eurPriceId = productId - 1_000_000;
+    }
+
+    @AfterEach
+    void removeHistory() {
+        jdbcTemplate.update("DELETE FROM web_store.product_price_history WHERE product_id = ?", productId);
+    }
+
+    @Test
+    void testRecordPrice_OpensTheFirstRow() {
+        record(usdPriceId, USD, 1000);
+
+        List<PriceHistoryResponseDto> history = priceHistoryService.getHistory(productId, null);
+
+        assertEquals(1, history.size());
+        PriceHistoryResponseDto row = history.get(0);
+        assertEquals(usdPriceId, row.getProductPriceId());
+        assertEquals(BigInteger.valueOf(1000), row.getPriceAmount());
+        assertNotNull(row.getValidFrom());
+        assertNull(row.getValidTo());
+        assertNull(row.getClosedBy());
+    }
+
+    @Test
+    void testRecordPrice_ClosesTheOpenRowWhereTheNewOneStarts() {
+        record(usdPriceId, USD, 1000);
+        record(usdPriceId, USD, 1200);
+        record(eurPriceId, EUR, 900);
+
+        List<PriceHistoryResponseDto> usd = priceHistoryService.getHistory(productId, USD);
+
+        // Newest first
+        assertEquals(List.of(BigInteger.valueOf(1200), BigInteger.valueOf(1000)),
+                usd.stream().map(PriceHistoryResponseDto::getPriceAmount).toList());
+        assertNull(usd.get(0).getValidTo());
+        assertEquals(usd.get(0).getValidFrom(), usd.get(1).getValidTo());
+        assertNotNull(usd.get(1).getClosedBy());
+        // The other currency's row is left open
+        assertNull(priceHistoryService.getHistory(productId, EUR).get(0).getValidTo());
+    }
+
+    @Test
+    void testRecordRemoval_ClosesOnlyThatPrice() {
+        record(usdPriceId, USD, 1000);
+        record(eurPriceId, EUR, 900);
+
+        transactionTemplate.executeWithoutResult(status -> priceHistoryService.recordRemoval(usdPriceId));
+
+        assertNotNull(priceHistoryService.getHistory(productId, USD).get(0).getValidTo());
+        assertNull(priceHistoryService.getHistory(productId, EUR).get(0).getValidTo());
+        assertEquals(List.of(EUR), currencies(priceHistoryService.getPricesAsOf(productId, null, null)));
+    }
+
+    @Test
+    void testRecordRemoval_OfAClosedPriceChangesNothing() {
+        record(usdPriceId, USD, 1000);
+        transactionTemplate.executeWithoutResult(status -> priceHistoryService.recordRemoval(usdPriceId));
+        LocalDateTime closedAt = priceHistoryService.getHistory(productId, USD).get(0).getValidTo();
+
+        transactionTemplate.executeWithoutResult(status -> priceHistoryService.recordRemoval(usdPriceId));
+
+        List<PriceHistoryResponseDto> history = priceHistoryService.getHistory(productId, USD);
+        assertEquals(1, history.size());
+        assertEquals(closedAt, history.get(0).getValidTo());
+    }
+
+    @Test
+    void testRecordProductRemoval_ClosesEveryCurrency() {
+        record(usdPriceId, USD, 1000);
+        record(eurPriceId, EUR, 900);
+
+        transactionTemplate.executeWithoutResult(status -> priceHistoryService.recordProductRemoval(productId));
+
+        assertTrue(priceHistoryService.getHistory(productId, null).stream().allMatch(row -> row.getValidTo() != null));
+        assertTrue(priceHistoryService.getPricesAsOf(productId, null, null).isEmpty());
+    }
+
+    @Test
+    void testRecordPrice_OutsideATransactionIsRejected() {
+        assertThrows(IllegalTransactionStateException.class,
+                () -> priceHistoryService.recordPrice(usdPriceId, productId, USD, BigInteger.valueOf(1000)));
+        assertTrue(priceHistoryService.getHistory(productId, null).isEmpty());
+    }
+
+    @Test
+    void testGetPricesAsOf_AtPeriodBoundaries() {
+        record(usdPriceId, USD, 1000);
+        record(usdPriceId, USD, 1200);
+        List<PriceHistoryResponseDto> usd = priceHistoryService.getHistory(productId, USD);
+        LocalDateTime opened = usd.get(1).getValidFrom();
+        LocalDateTime changed = usd.get(0).getValidFrom();
+
+        // Before the first row there is no price
+        assertTrue(priceHistoryService.getPricesAsOf(productId, USD, opened.minusNanos(1000)).isEmpty());
+        // valid_from is inclusive
+        assertEquals(List.of(BigInteger.valueOf(1000)), amounts(priceHistoryService.getPricesAsOf(productId, USD, opened)));
+        // The last microsecond of the first window still has the old price
+        assertEquals(List.of(BigInteger.valueOf(1000)),
+                amounts(priceHistoryService.getPricesAsOf(productId, USD, changed.minusNanos(1000))));
+        // valid_to is exclusive: at the change only the new price is valid
+        assertEquals(List.of(BigInteger.valueOf(1200)), amounts(priceHistoryService.getPricesAsOf(productId, USD, changed)));
+        // The open row has no end
+        assertEquals(List.of(BigInteger.valueOf(1200)),
+                amounts(priceHistoryService.getPricesAsOf(productId, USD, changed.plusYears(100))));
+    }
+
+    @Test
+    void testGetPricesAsOf_OneRowPerCurrencyUnlessNarrowed() {
+        record(usdPriceId, USD, 1000);
+        record(eurPriceId, EUR, 900);
+        LocalDateTime now = LocalDateTime.now();
+
+        assertEquals(List.of(USD, EUR), currencies(priceHistoryService.getPricesAsOf(productId, null, now)));
+        assertEquals(List.of(EUR), currencies(priceHistoryService.getPricesAsOf(productId, EUR, now)));
+    }
+
+    private void record(int productPriceId, int currencyId, long amount) {
+        transactionTemplate.executeWithoutResult(status ->
+                priceHistoryService.recordPrice(productPriceId, productId, currencyId, BigInteger.valueOf(amount)));
+    }
+
+    private static List<BigInteger> amounts(List<PriceHistoryResponseDto> rows) {
+        return rows.stream().map(PriceHistoryResponseDto::getPriceAmount).toList();
+    }
+
+    private static List<Integer> currencies(List<PriceHistoryResponseDto> rows) {
+        return rows.stream().map(PriceHistoryResponseDto::getCurrencyId).toList();
+    }
+}
@@ -0,0 +1,239 @@
+package com.webstore.stress;
+
+import com.webstore.dto.request.ProductRequestDto;
+import com.webstore.dto.response.StockReservationResponseDto;
+import com.webstore.repository.ProductRepository;
+import com.webstore.service.ProductService;
+import com.webstore.service.StockReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Hundreds of buyers racing for one hot product against a real PostgreSQL.
+ * Not part of the default test run: ./gradlew stressTest (uses the configured datasource).
+ */
+@Tag("stress")
+@SpringBootTest(properties = {
+        "stock.reservation.sweep-interval-ms=3600000",
+        "stock.reservation.sweep-batch-size=25"
+})
+public class StockReservationStressTest {
+
+    private static final int STOCK = 100;
+    private static final int BUYERS = 500;
+    private static final int THREADS = 64;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Integer productId;
+
+    @BeforeEach
+    void createHotProduct() {
+        productId = jdbcTemplate.queryForObject(
+                "INSERT INTO web_store.products (product_name, product_description, catalogue_category_id, " +
+                "seller_id, stock, created_by, updated_by) " +
+                "SELECT ?, 'stock reservation stress test', " +
+                "(SELECT MIN(catalogue_category_id) FROM web_store.catalogue_categories), " +
+                "(SELECT MIN(seller_id) FROM web_store.sellers), ?, 'stress', 'stress' " +
+                "RETURNING product_id",
+                Integer.class, "stress-" + UUID.randomUUID().toString().substring(0, 8), STOCK);
+    }
+
+    @AfterEach
+    void dropHotProduct() {
+        jdbcTemplate.update("DELETE FROM web_store.products WHERE product_id = ?", productId);
+    }
+
+    @Test
+    void testParallelCheckouts_NeverOversell() throws Exception {
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger soldOut = new AtomicInteger();
+        Queue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+
+        runConcurrently(BUYERS, buyer -> {
+            try {
+                stockReservationService.reserve(productId, 1, "buyer-" + buyer);
+                reserved.incrementAndGet();
+            } catch (ResponseStatusException e) {
+                if (e.getStatusCode() == HttpStatus.CONFLICT) {
+                    soldOut.incrementAndGet();
+                } else {
+                    unexpected.add(e);
+                }
+            } catch (Throwable t) {
+                unexpected.add(t);
+            }
+        });
+
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected failures: " + unexpected);
+        assertEquals(STOCK, reserved.get());
+        assertEquals(BUYERS - STOCK, soldOut.get());
+        assertEquals(0, stock());
+        assertEquals(STOCK, reservations("HELD"));
+    }
+
+    @Test
+    void testConcurrentReleaseConfirmAndSweep_ReturnStockExactlyOnce() throws Exception {
+        runConcurrently(STOCK, buyer -> stockReservationService.reserve(productId, 1, "buyer-" + buyer));
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT reservation_id FROM web_store.stock_reservations WHERE product_id = ? ORDER BY reservation_id",
+                Long.class, productId);
+
+        // Everything is overdue, so buyers releasing, checkouts confirming and sweepers all race for the same holds
+        jdbcTemplate.update("UPDATE web_store.stock_reservations SET expires_at = CURRENT_TIMESTAMP - INTERVAL '1 minute' " +
+                "WHERE product_id = ?", productId);
+
+        runConcurrently(ids.size() + 8, task -> {
+            try {
+                if (task < ids.size() && task % 2 == 0) {
+                    stockReservationService.releaseReservation(ids.get(task));
+                } else if (task < ids.size()) {
+                    stockReservationService.confirmReservation(ids.get(task));
+                } else {
+                    stockReservationService.expireReservations();
+                }
+            } catch (ResponseStatusException e) {
+                // Confirming an overdue hold is rejected; releasing one the sweeper took is a no-op
+            }
+        });
+        stockReservationService.expireReservations();
+
+        assertEquals(0, reservations("HELD"));
+        assertEquals(0, reservations("CONFIRMED"));
+        assertEquals(STOCK, stock());
+    }
+
+    @Test
+    void testSoldOutProductRecoversAfterRelease() throws Exception {
+        runConcurrently(STOCK, buyer -> stockReservationService.reserve(productId, 1, "buyer-" + buyer));
+        assertThrows(ResponseStatusException.class, () -> stockReservationService.reserve(productId, 1, "late-buyer"));
+
+        List<StockReservationResponseDto> held = stockReservationService.getHeldReservations("buyer-0");
+        stockReservationService.releaseReservation(held.get(0).getReservationId());
+
+        assertEquals("HELD", stockReservationService.reserve(productId, 1, "late-buyer").getStatus());
+        assertEquals(0, stock());
+    }
+
+    @Test
+    void testStockEditDuringHold_ReturnsOnlyStockThatExists() throws Exception {
+        stockReservationService.reserve(productId, 30, "buyer-early");
+        assertEquals(STOCK - 30, stock());
+
+        // Leaving stock out keeps it
+        productService.updateProduct(productId, editRequest(null));
+        assertEquals(STOCK - 30, stock());
+
+        // The seller read 70 and restocks 10, while a buyer holds 5 between that read and the edit
+        transactionTemplate.executeWithoutResult(status -> {
+            int read = productRepository.findById(productId).orElseThrow().getStock();
+            ExecutorService buyer = Executors.newSingleThreadExecutor();
+            try {
+                buyer.submit(() -> stockReservationService.reserve(productId, 5, "buyer-late")).get(30, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            } finally {
+                buyer.shutdownNow();
+            }
+            assertEquals(75, productService.updateProduct(productId, editRequest(read + 10)).getStock());
+        });
+        assertEquals(STOCK - 30 - 5 + 10, stock());
+
+        // Both holds run out: only the stock that exists comes back
+        jdbcTemplate.update("UPDATE web_store.stock_reservations SET expires_at = CURRENT_TIMESTAMP - INTERVAL '1 minute' " +
+                "WHERE product_id = ?", productId);
+        stockReservationService.expireReservations();
+
+        assertEquals(0, reservations("HELD"));
+        assertEquals(STOCK + 10, stock());
+    }
+
+    private ProductRequestDto editRequest(Integer stock) {
+        Map<String, Object> product = jdbcTemplate.queryForMap(
+                "SELECT p.product_name, p.seller_id, cc.catalogue_id, cc.category_id FROM web_store.products p " +
+                "JOIN web_store.catalogue_categories cc ON cc.catalogue_category_id = p.catalogue_category_id " +
+                "WHERE p.product_id = ?", productId);
+        ProductRequestDto request = new ProductRequestDto();
+        request.setProductName((String) product.get("product_name"));
+        request.setSellerId((Integer) product.get("seller_id"));
+        request.setCatalogueId((Integer) product.get("catalogue_id"));
+        request.setCategoryId((Integer) product.get("category_id"));
+        request.setStock(stock);
+        return request;
+    }
+
+    private int stock() {
+        return jdbcTemplate.queryForObject("SELECT stock FROM web_store.products WHERE product_id = ?",
+                Integer.class, productId);
+    }
+
+    private int reservations(String status) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM web_store.stock_reservations WHERE product_id = ? AND status = ?",
+                Integer.class, productId, status);
+    }
+
+    private interface Task {
+        void run(int index) throws Exception;
+    }
+
+    // Starts every task at the same moment to maximise contention on the product row
+    private void runConcurrently(int tasks, Task task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        try {
+            for (int i = 0; i < tasks; i++) {
+                int index = i;
+                executor.submit(() -> {
+                    try {
+                        start.await();
+                        task.run(index);
+                    } catch (Throwable t) {
+                        failures.add(t);
+                    }
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES), "Tasks did not finish in time");
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(failures.isEmpty(), () -> "Task failures: " + failures);
+    }
+}
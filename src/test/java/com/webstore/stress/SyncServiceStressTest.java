@@ -0,0 +1,142 @@
+package com.webstore.stress;
+
+import com.webstore.dto.response.SyncChangesResponseDto;
+import com.webstore.dto.response.SyncChangesResponseDto.ChangeDto;
+import com.webstore.exception.ClientErrorException;
+import com.webstore.service.SyncService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * The sync cursor against a real PostgreSQL: a transaction that started before a poll but commits after it
+ * is still delivered, and purging tombstones moves the horizon so older cursors must resync.
+ * Not part of the default test run: ./gradlew stressTest (uses the configured datasource).
+ *
+ * Changes are written straight into catalog_change_log as tombstones of negative category ids, so no
+ * catalog row is needed and no real entity is touched.
+ */
+@Tag("stress")
+@SpringBootTest(properties = {
+        "outbox.enabled=false",
+        "whatsapp.outbound.enabled=false",
+        "cache.invalidation.enabled=false"
+})
+public class SyncServiceStressTest {
+
+    private static final String LOG_TOMBSTONE_SQL =
+            "INSERT INTO web_store.catalog_change_log (entity_table, entity_id, change_type, change_version, changed_at) " +
+            "VALUES ('categories', ?, 'DELETED', CAST(CAST(pg_current_xact_id() AS TEXT) AS BIGINT), " +
+            "        CURRENT_TIMESTAMP - CAST(? AS INTEGER) * INTERVAL '1 day')";
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private int lateId;
+    private int earlyId;
+
+    @BeforeEach
+    void pickIds() {
+        lateId = -ThreadLocalRandom.current().nextInt(1_000_000, 2_000_000);
+        earlyId = lateId - 1;
+    }
+
+    @AfterEach
+    void removeChanges() {
+        jdbcTemplate.update("DELETE FROM web_store.catalog_change_log WHERE entity_table = 'categories' " +
+                "AND entity_id IN (?, ?)", lateId, earlyId);
+    }
+
+    @Test
+    void testLateCommitIsDeliveredAfterTheCursorPassedIt() throws Exception {
+        long cursor = syncService.getChangesSince(null, 1000).getNextVersion();
+
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        List<Integer> delivered = new ArrayList<>();
+        try {
+            // Takes its transaction id first, then stays open while a later transaction commits
+            Future<?> late = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update(LOG_TOMBSTONE_SQL, lateId, 0);
+                written.countDown();
+                try {
+                    assertTrue(commit.await(30, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertTrue(written.await(30, TimeUnit.SECONDS));
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(LOG_TOMBSTONE_SQL, earlyId, 0));
+
+            SyncChangesResponseDto whileOpen = syncService.getChangesSince(cursor, 1000);
+            delivered.addAll(ours(whileOpen));
+            // The open transaction holds the watermark back, so the cursor cannot pass its version
+            assertFalse(delivered.contains(lateId));
+            cursor = whileOpen.getNextVersion();
+
+            commit.countDown();
+            late.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        SyncChangesResponseDto afterCommit = syncService.getChangesSince(cursor, 1000);
+        delivered.addAll(ours(afterCommit));
+        delivered.addAll(ours(syncService.getChangesSince(afterCommit.getNextVersion(), 1000)));
+
+        assertEquals(1, delivered.stream().filter(id -> id == lateId).count());
+        assertEquals(1, delivered.stream().filter(id -> id == earlyId).count());
+    }
+
+    // Rolled back with the test, so neither the purge nor the horizon move outlives it
+    @Test
+    @Transactional
+    void testPurgedTombstoneMovesHorizon_OlderCursorMustResync() {
+        jdbcTemplate.update(LOG_TOMBSTONE_SQL, lateId, 31);
+        long version = jdbcTemplate.queryForObject("SELECT change_version FROM web_store.catalog_change_log " +
+                "WHERE entity_table = 'categories' AND entity_id = ?", Long.class, lateId);
+
+        syncService.purgeTombstones();
+
+        long horizon = jdbcTemplate.queryForObject(
+                "SELECT min_version FROM web_store.catalog_change_log_horizon WHERE id = 1", Long.class);
+        assertTrue(horizon > version);
+        ClientErrorException thrown = assertThrows(ClientErrorException.class,
+                () -> syncService.getChangesSince(version, 1000));
+        assertEquals(HttpStatus.GONE, thrown.getStatusCode());
+        assertDoesNotThrow(() -> syncService.getChangesSince(horizon, 1000));
+    }
+
+    private List<Integer> ours(SyncChangesResponseDto response) {
+        return response.getChanges().stream()
+                .filter(change -> "categories".equals(change.getEntityType()))
+                .map(ChangeDto::getEntityId)
+                .filter(id -> id == lateId || id == earlyId)
+                .toList();
+    }
+}
@@ -0,0 +1,120 @@
+package com.webstore.util;
+
+import com.webstore.util.FacetIndex.ProductFacets;
+import com.webstore.util.FacetIndex.Query;
+import com.webstore.util.FacetIndex.Result;
+import com.webstore.util.FacetIndex.StockBucket;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FacetIndexTest {
+
+    private FacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        // Price buckets: [..., 1000) [1000, 5000) [5000, ...)
+        index = new FacetIndex(new long[] {1000, 5000});
+        index.load(List.of(
+                new ProductFacets(1, 10, 100, 7, 0, 500),
+                new ProductFacets(2, 10, 100, 7, 5, 1000),
+                new ProductFacets(3, 10, 101, 8, 50, 4999),
+                new ProductFacets(4, 11, 102, 8, 500, 9000),
+                new ProductFacets(5, 11, 102, 7, 20, PriceMatrix.NO_PRICE)));
+    }
+
+    private static Query all() {
+        return new Query(null, null, null, null, null, null, 0, 10);
+    }
+
+    @Test
+    void search_WithoutFiltersCountsEverything() {
+        Result result = index.search(all());
+
+        assertEquals(5, result.total());
+        assertArrayEquals(new int[] {1, 2, 3, 4, 5}, result.productIds());
+        assertEquals(Map.of(10, 3, 11, 2), result.catalogueCounts());
+        assertEquals(Map.of(100, 2, 101, 1, 102, 2), result.categoryCounts());
+        assertEquals(Map.of(7, 3, 8, 2), result.sellerCounts());
+        assertArrayEquals(new int[] {1, 1, 2, 1}, result.stockCounts());
+        // Product 5 has no price and falls in no price bucket
+        assertArrayEquals(new int[] {1, 2, 1}, result.priceCounts());
+    }
+
+    @Test
+    void search_SellerScopedQueryCountsOnlyThatSeller() {
+        Result result = index.search(new Query(10, null, 7, null, null, null, 0, 10, true));
+
+        assertEquals(2, result.total());
+        // The seller facet is counted over the matches, so other sellers never show up
+        assertEquals(Map.of(7, 2), result.sellerCounts());
+        // Other facets still ignore their own filter, but stay within the seller
+        assertEquals(Map.of(10, 2, 11, 1), result.catalogueCounts());
+    }
+
+    @Test
+    void search_FacetCountsIgnoreTheirOwnFilter() {
+        Result result = index.search(new Query(10, null, 7, null, null, null, 0, 10));
+
+        assertEquals(2, result.total());
+        assertArrayEquals(new int[] {1, 2}, result.productIds());
+        // Catalogues are counted for seller 7 alone, sellers for catalogue 10 alone
+        assertEquals(Map.of(10, 2, 11, 1), result.catalogueCounts());
+        assertEquals(Map.of(7, 2, 8, 1), result.sellerCounts());
+        assertEquals(Map.of(100, 2), result.categoryCounts());
+    }
+
+    @Test
+    void search_PriceRangeIsInclusiveAcrossBuckets() {
+        Result result = index.search(new Query(null, null, null, null, 1000L, 4999L, 0, 10));
+        assertArrayEquals(new int[] {2, 3}, result.productIds());
+        // The price facet ignores the price filter
+        assertArrayEquals(new int[] {1, 2, 1}, result.priceCounts());
+
+        assertArrayEquals(new int[] {1, 2, 3}, index.search(new Query(null, null, null, null, null, 4999L, 0, 10)).productIds());
+        assertArrayEquals(new int[] {4}, index.search(new Query(null, null, null, null, 5000L, null, 0, 10)).productIds());
+        assertEquals(0, index.search(new Query(null, null, null, null, 6000L, 5000L, 0, 10)).total());
+    }
+
+    @Test
+    void search_PagesInProductIdOrder() {
+        Result result = index.search(new Query(null, null, null, null, null, null, 2, 2));
+
+        assertEquals(5, result.total());
+        assertArrayEquals(new int[] {3, 4}, result.productIds());
+        assertEquals(0, index.search(new Query(null, null, null, null, null, null, 10, 2)).productIds().length);
+    }
+
+    @Test
+    void updates_MoveProductsBetweenBuckets() {
+        index.updateStock(1, 12);
+        index.updatePrice(5, 6000);
+        index.put(new ProductFacets(2, 11, 102, 8, 5, 1000));
+        index.remove(3);
+
+        Result result = index.search(all());
+        assertArrayEquals(new int[] {1, 2, 4, 5}, result.productIds());
+        assertArrayEquals(new int[] {0, 1, 2, 1}, result.stockCounts());
+        assertArrayEquals(new int[] {1, 1, 2}, result.priceCounts());
+        assertEquals(Map.of(10, 1, 11, 3), result.catalogueCounts());
+        assertEquals(StockBucket.MEDIUM, StockBucket.of(12));
+
+        index.put(new ProductFacets(3, 10, 101, 8, 50, 4999));
+        assertEquals(5, index.search(all()).total());
+        assertArrayEquals(new int[] {1, 2, 3, 4, 5}, index.productIds());
+    }
+
+    @Test
+    void search_UnknownFilterValueMatchesNothing() {
+        Result result = index.search(new Query(null, 999, null, null, null, null, 0, 10));
+
+        assertEquals(0, result.total());
+        assertEquals(Map.of(100, 2, 101, 1, 102, 2), result.categoryCounts());
+        assertTrue(result.sellerCounts().isEmpty());
+    }
+}
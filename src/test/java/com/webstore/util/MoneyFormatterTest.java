@@ -0,0 +1,49 @@
+package com.webstore.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoneyFormatterTest {
+
+    private final MoneyFormatter formatter = new MoneyFormatter();
+
+    @Test
+    void format_PlacesDecimalPointByExponent() {
+        assertEquals("₹499.00", formatter.format("₹", 49900L, 2));
+        assertEquals("$1.99", formatter.format("$", 199L, 2));
+        assertEquals("$0.05", formatter.format("$", 5L, 2));
+        assertEquals("¥500", formatter.format("¥", 500L, 0));
+        assertEquals("KD1.250", formatter.format("KD", 1250L, 3));
+        assertEquals("KD0.007", formatter.format("KD", 7L, 3));
+    }
+
+    @Test
+    void format_HandlesNegativeAndExtremeAmounts() {
+        assertEquals("$-0.05", formatter.format("$", -5L, 2));
+        assertEquals("$-12.34", formatter.format("$", -1234L, 2));
+        assertEquals("-92233720368547758.08", formatter.format(null, Long.MIN_VALUE, 2));
+        assertEquals("-9223372036854775808", formatter.format(null, Long.MIN_VALUE, 0));
+    }
+
+    @Test
+    void format_BigIntegerBeyondLongFallsBackToBigDecimal() {
+        assertEquals("€19.99", formatter.format("€", BigInteger.valueOf(1999), 2));
+        assertEquals("€100000000000000000000.00", formatter.format("€", BigInteger.TEN.pow(22), 2));
+    }
+
+    @Test
+    void appendTo_AppendsToCallerBuilder() {
+        StringBuilder out = new StringBuilder("Total: ");
+        formatter.appendTo(out, "$", 1050L, 2).append('!');
+        assertEquals("Total: $10.50!", out.toString());
+    }
+
+    @Test
+    void format_RejectsUnsupportedExponent() {
+        assertThrows(IllegalArgumentException.class, () -> formatter.format("$", 1L, 5));
+        assertThrows(IllegalArgumentException.class, () -> formatter.format("$", 1L, -1));
+    }
+}
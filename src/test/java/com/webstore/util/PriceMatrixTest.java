@@ -0,0 +1,150 @@
+package com.webstore.util;
+
+import com.webstore.util.PriceMatrix.CurrencyInfo;
+import com.webstore.util.PriceMatrix.PriceRow;
+import com.webstore.util.PriceMatrix.Quote;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PriceMatrixTest {
+
+    private static final CurrencyInfo INR = new CurrencyInfo(1, "INR", "₹", 2);
+    private static final CurrencyInfo USD = new CurrencyInfo(2, "USD", "$", 2);
+
+    private PriceMatrix matrix;
+
+    @BeforeEach
+    void setUp() {
+        matrix = new PriceMatrix();
+        matrix.load(List.of(USD, INR), List.of(
+                new PriceRow(100, 7, 1, 49900),
+                new PriceRow(101, 7, 2, 599),
+                new PriceRow(102, 8, 2, 1299)));
+    }
+
+    @Test
+    void amount_ReturnsLoadedCells() {
+        assertEquals(49900, matrix.amount(7, 1));
+        assertEquals(599, matrix.amount(7, 2));
+        assertEquals(PriceMatrix.NO_PRICE, matrix.amount(8, 1));
+        assertEquals(PriceMatrix.NO_PRICE, matrix.amount(99, 1));
+        assertEquals(PriceMatrix.NO_PRICE, matrix.amount(7, 42));
+    }
+
+    @Test
+    void findPreferred_FallsBackToFirstPricedCurrency() {
+        Quote preferred = matrix.findPreferred(7, 1);
+        assertEquals("INR", preferred.currency().currencyCode());
+        assertEquals(49900, preferred.amount());
+
+        Quote fallback = matrix.findPreferred(8, 1);
+        assertEquals("USD", fallback.currency().currencyCode());
+        assertEquals(1299, fallback.amount());
+
+        assertNull(matrix.findPreferred(99, 1));
+    }
+
+    @Test
+    void findAll_OrdersByCurrencyId() {
+        List<Quote> quotes = matrix.findAll(7);
+
+        assertEquals(2, quotes.size());
+        assertEquals(1, quotes.get(0).currency().currencyId());
+        assertEquals(2, quotes.get(1).currency().currencyId());
+    }
+
+    @Test
+    void currencyIdOf_IgnoresCase() {
+        assertEquals(2, matrix.currencyIdOf("usd"));
+        assertEquals(-1, matrix.currencyIdOf("EUR"));
+    }
+
+    @Test
+    void put_UpdatesExistingCellAndAddsProductsAndCurrencies() {
+        CurrencyInfo eur = new CurrencyInfo(3, "EUR", "€", 2);
+
+        matrix.put(100, 7, INR, 45000);
+        matrix.put(103, 9, INR, 100);
+        matrix.put(104, 8, eur, 1199);
+
+        assertEquals(45000, matrix.amount(7, 1));
+        assertEquals(100, matrix.amount(9, 1));
+        assertEquals(1199, matrix.amount(8, 3));
+        // Existing cells survive the new currency column
+        assertEquals(599, matrix.amount(7, 2));
+        assertEquals(1299, matrix.amount(8, 2));
+        assertEquals(3, matrix.productCount());
+    }
+
+    @Test
+    void remove_ClearsTheCellOfThePrice() {
+        matrix.remove(101);
+        matrix.remove(999);
+
+        assertEquals(PriceMatrix.NO_PRICE, matrix.amount(7, 2));
+        assertEquals(49900, matrix.amount(7, 1));
+        assertEquals(1, matrix.findAll(7).size());
+    }
+
+    @Test
+    void put_GrowsBeyondInitialCapacity() {
+        for (int productId = 1000; productId < 1500; productId++) {
+            matrix.put(productId, productId, USD, productId * 10L);
+        }
+
+        for (int productId = 1000; productId < 1500; productId++) {
+            assertEquals(productId * 10L, matrix.amount(productId, 2));
+        }
+        assertEquals(49900, matrix.amount(7, 1));
+        assertEquals(502, matrix.productCount());
+    }
+
+    @Test
+    void put_ReadersNeverSeeAnotherProductsPrice() throws Exception {
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> wrong = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            while (!done.get() && wrong.get() == null) {
+                for (int productId = 1000; productId < 5000; productId++) {
+                    long amount = matrix.amount(productId, 2);
+                    // Unpriced until its put lands, then its own price; never a neighbour's row
+                    if (amount != PriceMatrix.NO_PRICE && amount != productId * 10L) {
+                        wrong.set("product " + productId + " read " + amount);
+                    }
+                }
+            }
+        });
+        reader.start();
+        for (int productId = 1000; productId < 5000; productId++) {
+            matrix.put(productId, productId, USD, productId * 10L);
+        }
+        done.set(true);
+        reader.join();
+
+        assertNull(wrong.get());
+        assertEquals(4002, matrix.productCount());
+    }
+
+    @Test
+    void load_ReplacesPreviousContents() {
+        List<PriceRow> prices = new ArrayList<>();
+        prices.add(new PriceRow(200, 8, 1, 5000));
+
+        matrix.load(List.of(INR), prices);
+
+        assertEquals(PriceMatrix.NO_PRICE, matrix.amount(7, 1));
+        assertEquals(5000, matrix.amount(8, 1));
+        assertEquals(-1, matrix.currencyIdOf("USD"));
+
+        // Price ids of the previous load are forgotten
+        matrix.remove(100);
+        assertEquals(5000, matrix.amount(8, 1));
+    }
+}
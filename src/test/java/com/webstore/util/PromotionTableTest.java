@@ -0,0 +1,109 @@
+package com.webstore.util;
+
+import com.webstore.util.PriceMatrix.CurrencyInfo;
+import com.webstore.util.PriceMatrix.PriceRow;
+import com.webstore.util.PromotionTable.Rule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PromotionTableTest {
+
+    private static final CurrencyInfo INR = new CurrencyInfo(1, "INR", "₹", 2);
+    private static final CurrencyInfo USD = new CurrencyInfo(2, "USD", "$", 2);
+
+    private PriceMatrix matrix;
+
+    @BeforeEach
+    void setUp() {
+        matrix = new PriceMatrix();
+        matrix.load(List.of(INR, USD), List.of(
+                new PriceRow(100, 7, 1, 49900),
+                new PriceRow(101, 7, 2, 599),
+                new PriceRow(102, 8, 1, 1000)));
+    }
+
+    @Test
+    void effectiveAmount_AppliesPercentToEveryCurrency() {
+        PromotionTable table = PromotionTable.build(List.of(Rule.percent(3, 1000)), List.of(new int[] {7}),
+                matrix, Long.MAX_VALUE, false);
+
+        assertEquals(44910, table.effectiveAmount(7, 1, 49900));
+        // 599 - 59.9 rounds to 539
+        assertEquals(539, table.effectiveAmount(7, 2, 599));
+        assertEquals(3, table.promotionId(7, 2, 599));
+        assertEquals(1000, table.effectiveAmount(8, 1, 1000));
+        assertEquals(PromotionTable.NO_PROMOTION, table.promotionId(8, 1, 1000));
+    }
+
+    @Test
+    void effectiveAmount_AppliesAmountOnlyInItsCurrency() {
+        PromotionTable table = PromotionTable.build(List.of(Rule.amount(4, 700, 2)), List.of(new int[] {7}),
+                matrix, Long.MAX_VALUE, false);
+
+        assertEquals(0, table.effectiveAmount(7, 2, 599));
+        assertEquals(49900, table.effectiveAmount(7, 1, 49900));
+        assertEquals(PromotionTable.NO_PROMOTION, table.promotionId(7, 1, 49900));
+    }
+
+    @Test
+    void effectiveAmount_PicksLowestPrice() {
+        PromotionTable table = PromotionTable.build(
+                List.of(Rule.percent(1, 500), Rule.amount(2, 5000, 1), Rule.percent(3, 1000)),
+                List.of(new int[] {7, 8}, new int[] {7}, new int[] {7, 8}),
+                matrix, Long.MAX_VALUE, true);
+
+        assertEquals(44900, table.effectiveAmount(7, 1, 49900));
+        assertEquals(2, table.promotionId(7, 1, 49900));
+        assertEquals(900, table.effectiveAmount(8, 1, 1000));
+        assertEquals(3, table.promotionId(8, 1, 1000));
+    }
+
+    @Test
+    void effectiveAmount_HandlesPricesNotInTheTable() {
+        PromotionTable table = PromotionTable.build(List.of(Rule.percent(3, 5000)), List.of(new int[] {7, 8}),
+                matrix, Long.MAX_VALUE, false);
+
+        // Price edited after the build
+        assertEquals(30000, table.effectiveAmount(7, 1, 60000));
+        // Currency the product had no price in, e.g. a derived one
+        assertEquals(250, table.effectiveAmount(8, 2, 500));
+        // Product without promotion or beyond the table
+        assertEquals(123, table.effectiveAmount(9, 1, 123));
+        assertEquals(123, table.effectiveAmount(1_000_000, 1, 123));
+    }
+
+    @Test
+    void withProductRules_PatchesOneProductAndLeavesTheOriginal() {
+        PromotionTable table = PromotionTable.build(List.of(Rule.percent(1, 1000), Rule.percent(2, 5000)),
+                List.of(new int[] {7}, new int[] {8}), matrix, Long.MAX_VALUE, true);
+
+        PromotionTable moved = table.withProductRules(7, new int[] {1}).withProductRules(9, new int[] {0});
+
+        assertEquals(24950, moved.effectiveAmount(7, 1, 49900));
+        assertEquals(2, moved.promotionId(7, 1, 49900));
+        assertEquals(450, moved.effectiveAmount(9, 1, 500));
+        assertEquals(500, moved.effectiveAmount(8, 1, 1000));
+        assertEquals(2, moved.patchedProductCount());
+        // The table it was patched from is unchanged
+        assertEquals(44910, table.effectiveAmount(7, 1, 49900));
+        assertEquals(123, table.effectiveAmount(9, 1, 123));
+
+        PromotionTable removed = moved.withProductRules(7, new int[0]);
+        assertEquals(49900, removed.effectiveAmount(7, 1, 49900));
+        assertEquals(PromotionTable.NO_PROMOTION, removed.promotionId(7, 1, 49900));
+        assertEquals(2, removed.patchedProductCount());
+    }
+
+    @Test
+    void isExpired_AtBoundary() {
+        PromotionTable table = PromotionTable.empty(1_000L);
+
+        assertFalse(table.isExpired(999L));
+        assertTrue(table.isExpired(1_000L));
+        assertEquals(5, table.effectiveAmount(7, 1, 5));
+    }
+}
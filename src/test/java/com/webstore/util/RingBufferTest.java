@@ -0,0 +1,55 @@
+package com.webstore.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RingBufferTest {
+
+    @Test
+    void add_OverwritesOldestWhenFull() {
+        RingBuffer<Integer> ring = new RingBuffer<>(3);
+        for (int i = 1; i <= 5; i++) {
+            ring.add(i);
+        }
+
+        assertEquals(3, ring.size());
+        assertEquals(List.of(5, 4, 3), ring.newest(10));
+        assertEquals(List.of(5, 4), ring.newest(2));
+        assertEquals(List.of(), ring.newest(0));
+    }
+
+    @Test
+    void fill_KeepsNewestAndContinuesFromThem() {
+        RingBuffer<Integer> ring = new RingBuffer<>(3);
+        ring.fill(List.of(9, 8, 7, 6));
+
+        assertEquals(List.of(9, 8, 7), ring.newest(5));
+        ring.add(10);
+        assertEquals(List.of(10, 9, 8), ring.newest(5));
+
+        ring.fill(List.of(2));
+        assertEquals(List.of(2), ring.newest(5));
+        ring.add(3);
+        assertEquals(List.of(3, 2), ring.newest(5));
+    }
+
+    @Test
+    void replace_KeepsPosition() {
+        RingBuffer<String> ring = new RingBuffer<>(4);
+        ring.fill(List.of("c", "b", "a"));
+
+        assertTrue(ring.replace("b"::equals, "B"));
+        assertFalse(ring.replace("x"::equals, "X"));
+        assertEquals(List.of("c", "B", "a"), ring.newest(4));
+        assertTrue(ring.anyMatch("a"::equals));
+        assertFalse(ring.anyMatch("b"::equals));
+    }
+
+    @Test
+    void constructor_RejectsNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<>(0));
+    }
+}